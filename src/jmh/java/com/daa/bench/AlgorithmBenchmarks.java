@@ -0,0 +1,72 @@
+package com.daa.bench;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the analysis pipeline stages. Each stage runs on the output of the
+ * previous one, prepared once per trial in {@link GraphState}. Algorithms are given
+ * {@link NoOpMetrics} so the numbers reflect the engines, not the instrumentation.
+ * <p>
+ * Forks get a large thread stack because the Kosaraju DFS is recursive and the
+ * LONG_CHAIN and GIANT_SCC families are as deep as they are wide.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx4g"})
+public class AlgorithmBenchmarks {
+
+    @Benchmark
+    public List<List<Integer>> findSCCs(GraphState state) {
+        return new StronglyConnectedComponents(state.graph, NoOpMetrics.INSTANCE).findSCCs();
+    }
+
+    @Benchmark
+    public Graph buildCondensationGraph(GraphState state) {
+        return state.solvedScc.buildCondensationGraph();
+    }
+
+    @Benchmark
+    public List<Integer> kahnTopologicalSort(GraphState state) {
+        return new TopologicalSort(state.condensation, NoOpMetrics.INSTANCE).kahnTopologicalSort();
+    }
+
+    @Benchmark
+    public int[] shortestPathsFromSource(GraphState state) {
+        return new DAGShortestPath(state.condensation, NoOpMetrics.INSTANCE).shortestPathsFromSource(state.source);
+    }
+
+    @Benchmark
+    public int[] longestPaths(GraphState state) {
+        return new DAGShortestPath(state.condensation, NoOpMetrics.INSTANCE).longestPaths();
+    }
+
+    /**
+     * Only the wavefront DP: the solver's order, reversed graph and level index are
+     * built during setup.
+     */
+    @Benchmark
+    public int[] longestPathsWavefront(GraphState state) {
+        return state.wavefront.longestPaths();
+    }
+
+    @Benchmark
+    public DAGShortestPath.CriticalPathResult findCriticalPath(GraphState state) {
+        return new DAGShortestPath(state.condensation, NoOpMetrics.INSTANCE).findCriticalPath();
+    }
+}
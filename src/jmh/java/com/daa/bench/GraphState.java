@@ -0,0 +1,68 @@
+package com.daa.bench;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.ScalableGraphGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark input: one generated graph per (family, vertices) pair, plus the artifacts
+ * later pipeline stages consume, so each benchmark measures only its own stage.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+    static final int AVERAGE_DEGREE = 4;
+    static final long SEED = 42;
+
+    @Param({"LAYERED_DAG", "SCALE_FREE", "LONG_CHAIN", "SMALL_SCCS", "GIANT_SCC"})
+    public ScalableGraphGenerator.Family family;
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    /** The generated task graph. */
+    public Graph graph;
+    /** SCC instance that has already run, for timing the condensation step alone. */
+    public StronglyConnectedComponents solvedScc;
+    /** Condensation of {@link #graph}. */
+    public Graph condensation;
+    /** First SCC in topological order, used as the shortest-path source. */
+    public int source;
+    /**
+     * Wavefront path solver over {@link #condensation}, already run once so its
+     * topological order, reversed graph and level index are built.
+     */
+    public DAGShortestPath wavefront;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        graph = generator(family, vertices).toGraph();
+
+        solvedScc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        solvedScc.findSCCs();
+        condensation = solvedScc.buildCondensationGraph();
+
+        List<Integer> order = new TopologicalSort(condensation, NoOpMetrics.INSTANCE).kahnTopologicalSort();
+        source = order.isEmpty() ? 0 : order.get(0);
+
+        wavefront = new DAGShortestPath(condensation, order, NoOpMetrics.INSTANCE);
+        wavefront.setParallelPool(ForkJoinPool.commonPool());
+        wavefront.longestPaths();
+    }
+
+    /** Generator of the benchmark input for a (family, vertices) pair. */
+    static ScalableGraphGenerator generator(ScalableGraphGenerator.Family family, int vertices) {
+        return new ScalableGraphGenerator(family, vertices, AVERAGE_DEGREE, SEED);
+    }
+}
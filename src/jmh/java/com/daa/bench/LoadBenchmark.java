@@ -0,0 +1,64 @@
+package com.daa.bench;
+
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.ScalableGraphGenerator;
+import com.daa.graph.util.TaskGraphLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link TaskGraphLoader#loadGraph(String)}: parses a generated graph file
+ * in each supported format. The file is written once per trial and stays in the page
+ * cache, so this measures parsing and graph construction rather than disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoadBenchmark {
+
+    @Param({"LAYERED_DAG", "SCALE_FREE", "SMALL_SCCS"})
+    public ScalableGraphGenerator.Family family;
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    @Param({"JSON", "BINARY"})
+    public ScalableGraphGenerator.Format format;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("daa-bench-", format == ScalableGraphGenerator.Format.BINARY ? ".bin" : ".json");
+        Files.write(file, GraphState.generator(family, vertices).toBytes(format));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Graph loadGraph() throws IOException {
+        return TaskGraphLoader.loadGraph(file.toString());
+    }
+}
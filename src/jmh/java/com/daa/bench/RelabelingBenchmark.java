@@ -0,0 +1,79 @@
+package com.daa.bench;
+
+import com.daa.graph.reorder.Relabeling;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.ScalableGraphGenerator;
+import com.daa.graph.util.Workspace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Effect of vertex order on traversal speed. The generated ids are shuffled first to
+ * model loader output in arbitrary upstream order, then optionally relabeled; the
+ * benchmark runs the allocation-free SCC search so only the traversal is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RelabelingBenchmark {
+
+    @Param({"LAYERED_DAG", "SCALE_FREE", "SMALL_SCCS"})
+    public ScalableGraphGenerator.Family family;
+
+    @Param({"1000000"})
+    public int vertices;
+
+    /** SHUFFLED keeps the shuffled ids; anything else is a {@link Relabeling.Strategy}. */
+    @Param({"SHUFFLED", "TOPOLOGICAL", "BFS", "RCM"})
+    public String order;
+
+    private StronglyConnectedComponents scc;
+    private final Workspace workspace = new Workspace();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Graph graph = GraphState.generator(family, vertices).toGraph();
+        List<Integer> ids = new ArrayList<>();
+        for (int v = 0; v < vertices; v++) {
+            ids.add(v);
+        }
+        Collections.shuffle(ids, new Random(GraphState.SEED));
+        int[] shuffle = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            shuffle[v] = ids.get(v);
+        }
+        graph = Relabeling.of(graph, shuffle).getGraph();
+        if (!"SHUFFLED".equals(order)) {
+            graph = Relabeling.of(graph, Relabeling.Strategy.forName(order)).getGraph();
+        }
+        scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        scc.findSCCs(workspace);
+    }
+
+    @Benchmark
+    public int findSCCs() {
+        return scc.findSCCs(workspace);
+    }
+}
@@ -1,17 +1,44 @@
 package com.daa;
 
+import com.daa.graph.batch.BatchRunner;
+import com.daa.graph.cache.AnalysisCache;
 import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.output.ResultWriter;
+import com.daa.graph.perf.FootprintReport;
+import com.daa.graph.perf.ObjectSizeEstimator;
 import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.service.SchedulingService;
+import com.daa.graph.telemetry.PhaseTelemetry;
 import com.daa.graph.topo.TopologicalSort;
 import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
 import com.daa.graph.util.Metrics;
+import com.daa.graph.util.PhaseTimer;
 import com.daa.graph.util.TaskGraphLoader;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 
+/**
+ * Driver program.
+ * Usage: Main [--cache DIR] [--cache-max-mb N] [--telemetry-out FILE] [--footprint]
+ *             [--output FILE|- [--format jsonl|binary] [--verbosity summary|components|full]] [dataset ...]
+ *        Main --batch DIR|MANIFEST --out DIR [--threads N] [--memory-mb N]
+ *        Main --serve PORT [--threads N]
+ * Without dataset arguments the built-in datasets are regenerated and processed.
+ * Batch mode processes many graphs concurrently and writes one JSON result per graph;
+ * service mode analyzes graphs posted to http://localhost:PORT/analyze until killed.
+ * With --output, results are streamed to the file (or stdout for "-") instead of being
+ * printed in full, which keeps output cost flat on very large graphs.
+ */
 public class Main {
     private static final String[] DATASETS = {
         "data/small_pure_dag.json",
@@ -24,96 +51,317 @@ public class Main {
         "data/large_complex.json",
         "data/large_multiple_sccs.json"
     };
+    private static final long DEFAULT_CACHE_MAX_MB = 256;
+    private static final int SERVICE_MAX_BATCH = 32;
+    private static final long DEFAULT_BATCH_MEMORY_MB = Runtime.getRuntime().maxMemory() / (2 * 1024 * 1024);
 
     public static void main(String[] args) {
-        System.out.println("=== Assignment 4: Smart City Scheduling ===\n");
+        List<String> datasets = new ArrayList<>();
+        String cacheDir = null;
+        long cacheMaxMb = DEFAULT_CACHE_MAX_MB;
+        String telemetryOut = null;
+        boolean footprint = false;
+        String batchSource = null;
+        String batchOut = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long batchMemoryMb = DEFAULT_BATCH_MEMORY_MB;
+        int servePort = -1;
+        String output = null;
+        ResultWriter.Format format = ResultWriter.Format.JSONL;
+        ResultWriter.Verbosity verbosity = ResultWriter.Verbosity.COMPONENTS;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--cache":
+                    cacheDir = args[++i];
+                    break;
+                case "--cache-max-mb":
+                    cacheMaxMb = Long.parseLong(args[++i]);
+                    break;
+                case "--telemetry-out":
+                    telemetryOut = args[++i];
+                    break;
+                case "--footprint":
+                    footprint = true;
+                    break;
+                case "--batch":
+                    batchSource = args[++i];
+                    break;
+                case "--out":
+                    batchOut = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--memory-mb":
+                    batchMemoryMb = Long.parseLong(args[++i]);
+                    break;
+                case "--serve":
+                    servePort = Integer.parseInt(args[++i]);
+                    break;
+                case "--output":
+                    output = args[++i];
+                    break;
+                case "--format":
+                    format = ResultWriter.Format.forName(args[++i]);
+                    break;
+                case "--verbosity":
+                    verbosity = ResultWriter.Verbosity.forName(args[++i]);
+                    break;
+                default:
+                    datasets.add(args[i]);
+            }
+        }
 
-        try {
-            com.daa.graph.util.DatasetGenerator.generateAllDatasets();
-        } catch (IOException e) {
-            System.err.println("Warning: Could not generate datasets. They may already exist.");
+        // Keep stdout clean when results are streamed to it.
+        PrintStream console = "-".equals(output) ? System.err : System.out;
+        console.println("=== Assignment 4: Smart City Scheduling ===\n");
+
+        if (servePort >= 0) {
+            serve(servePort, threads);
+            return;
+        }
+        if (batchSource != null) {
+            runBatch(batchSource, batchOut != null ? batchOut : "results", threads, batchMemoryMb);
+            return;
+        }
+
+        AnalysisCache cache = null;
+        if (cacheDir != null) {
+            try {
+                cache = new AnalysisCache(Path.of(cacheDir), cacheMaxMb * 1024 * 1024);
+            } catch (IOException e) {
+                System.err.println("Warning: Could not open cache directory: " + e.getMessage());
+            }
+        }
+
+        if (datasets.isEmpty()) {
+            try {
+                com.daa.graph.util.DatasetGenerator.generateAllDatasets();
+                console.println("Generated 9 datasets in data/ directory");
+            } catch (IOException e) {
+                System.err.println("Warning: Could not generate datasets. They may already exist.");
+            }
+            datasets.addAll(List.of(DATASETS));
+        }
+
+        ResultWriter writer = null;
+        if (output != null) {
+            try {
+                writer = openWriter(output, format, verbosity);
+            } catch (IOException e) {
+                System.err.println("Could not open output " + output + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        for (String datasetPath : datasets) {
+            processDataset(datasetPath, cache, footprint, writer);
+            if (writer == null) {
+                console.println("\n" + "=".repeat(80) + "\n");
+            }
         }
 
-        for (String datasetPath : DATASETS) {
-            processDataset(datasetPath);
-            System.out.println("\n" + "=".repeat(80) + "\n");
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Warning: Could not finish output: " + e.getMessage());
+            }
+        }
+
+        if (telemetryOut != null) {
+            try {
+                PhaseTelemetry.getDefault().dump(Path.of(telemetryOut));
+                console.println("Phase latency histograms written to " + telemetryOut);
+            } catch (IOException e) {
+                System.err.println("Warning: Could not write telemetry: " + e.getMessage());
+            }
         }
     }
 
-    private static void processDataset(String datasetPath) {
-        System.out.println("Processing: " + datasetPath);
-        System.out.println("-".repeat(80));
+    private static ResultWriter openWriter(String output, ResultWriter.Format format,
+                                           ResultWriter.Verbosity verbosity) throws IOException {
+        if (!"-".equals(output)) {
+            return ResultWriter.open(Path.of(output), format, verbosity);
+        }
+        // Closing the writer must not close System.out.
+        FilterOutputStream stdout = new FilterOutputStream(System.out) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return ResultWriter.create(Channels.newChannel(stdout), format, verbosity);
+    }
 
+    /**
+     * Analyze one dataset. Results are printed, or streamed to {@code writer} when it is
+     * non-null, in which case only a progress line goes to the console.
+     */
+    @SuppressWarnings("try")
+    private static void processDataset(String datasetPath, AnalysisCache cache, boolean footprint,
+                                       ResultWriter writer) {
+        PrintStream out = writer == null ? System.out : System.err;
+        out.println("Processing: " + datasetPath);
+        out.println("-".repeat(80));
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.addListener(PhaseTelemetry.getDefault());
         try {
-            Graph graph = TaskGraphLoader.loadGraph(datasetPath);
-            System.out.println("Loaded graph with " + graph.getNumVertices() + " vertices and " 
-                + graph.getEdges().size() + " edges");
-
-            System.out.println("\n--- 1. Strongly Connected Components (SCC) ---");
-            Metrics sccMetrics = new Metrics();
-            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, sccMetrics);
-            
-            List<List<Integer>> sccs = scc.findSCCs();
-            System.out.println(scc.getSCCInfo());
-            System.out.println("SCC Metrics: " + sccMetrics);
-
-            Graph condensationGraph = scc.buildCondensationGraph();
-            System.out.println("\nCondensation Graph:");
-            System.out.println("  - Vertices (SCCs): " + condensationGraph.getNumVertices());
-            System.out.println("  - Edges: " + condensationGraph.getEdges().size());
-
-            System.out.println("\n--- 2. Topological Sort ---");
-            
-            Metrics topoMetrics = new Metrics();
-            TopologicalSort topoSort = new TopologicalSort(condensationGraph, topoMetrics);
-            
+            // Look the input up before parsing it, so a hit goes straight to the queries.
+            String cacheKey = null;
+            AnalysisCache.Entry cached = null;
+            if (cache != null) {
+                try (PhaseTimer.Span span = timer.start("cache-lookup")) {
+                    cacheKey = cache.keyFor(datasetPath);
+                    cached = cache.lookup(cacheKey);
+                }
+            }
+
+            Graph graph = null;
+            if (cached == null || footprint) {
+                try (PhaseTimer.Span span = timer.start("load")) {
+                    graph = TaskGraphLoader.loadGraph(datasetPath);
+                }
+            }
+            int numVertices = cached != null ? cached.getNumVertices() : graph.getNumVertices();
+            int numEdges = cached != null ? cached.numEdges : graph.getNumEdges();
+            out.println((cached != null ? "Cached graph with " : "Loaded graph with ") + numVertices
+                + " vertices and " + numEdges + " edges");
+            if (writer != null) {
+                writer.beginGraph(datasetPath, numVertices, numEdges);
+            }
+
+            List<List<Integer>> sccs;
+            Map<Integer, Integer> vertexToScc;
+            Graph condensationGraph;
+            List<Integer> sccTopoOrder = null;
+
+            out.println("\n--- 1. Strongly Connected Components (SCC) ---");
+            if (cached != null) {
+                out.println("(cached result " + cacheKey.substring(0, 12) + ")");
+                sccs = cached.getSCCs();
+                vertexToScc = cached.getVertexToScc();
+                condensationGraph = cached.condensation;
+                if (writer == null) {
+                    out.println(StronglyConnectedComponents.formatSCCInfo(sccs));
+                }
+            } else {
+                Metrics sccMetrics = new BasicMetrics();
+                sccMetrics.setPhaseTimer(timer);
+                StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, sccMetrics);
+
+                sccs = scc.findSCCs();
+                vertexToScc = scc.getVertexToScc();
+                if (writer == null) {
+                    out.println(scc.getSCCInfo());
+                }
+                out.println("SCC Metrics: " + sccMetrics);
+
+                condensationGraph = scc.buildCondensationGraph();
+            }
+            if (writer != null) {
+                out.println("Total SCCs: " + sccs.size());
+                writer.writeSccs(sccs);
+            }
+            out.println("\nCondensation Graph:");
+            out.println("  - Vertices (SCCs): " + condensationGraph.getNumVertices());
+            out.println("  - Edges: " + condensationGraph.getNumEdges());
+
+            out.println("\n--- 2. Topological Sort ---");
+
             try {
-                List<Integer> sccTopoOrder = topoSort.kahnTopologicalSort();
-                System.out.println("Topological Order (SCCs): " + sccTopoOrder);
-                System.out.println("Topo Metrics: " + topoMetrics);
-
-                Map<Integer, Integer> vertexToScc = scc.getVertexToScc();
-                List<Integer> vertexOrder = TopologicalSort.convertSccOrderToVertexOrder(
-                    sccTopoOrder, vertexToScc, sccs);
-                System.out.println("Derived Vertex Order: " + vertexOrder);
+                Metrics topoMetrics = null;
+                if (cached != null) {
+                    sccTopoOrder = cached.getTopologicalOrder();
+                } else {
+                    topoMetrics = new BasicMetrics();
+                    topoMetrics.setPhaseTimer(timer);
+                    TopologicalSort topoSort = new TopologicalSort(condensationGraph, topoMetrics);
+                    sccTopoOrder = topoSort.kahnTopologicalSort();
+                }
+
+                if (writer != null) {
+                    writer.writeTopologicalOrder(sccTopoOrder);
+                    writer.writeVertexOrder(sccTopoOrder, sccs);
+                } else {
+                    out.println("Topological Order (SCCs): " + sccTopoOrder);
+                }
+                if (topoMetrics != null) {
+                    out.println("Topo Metrics: " + topoMetrics);
+                }
+                if (writer == null) {
+                    List<Integer> vertexOrder = TopologicalSort.convertSccOrderToVertexOrder(
+                        sccTopoOrder, vertexToScc, sccs);
+                    out.println("Derived Vertex Order: " + vertexOrder);
+                }
             } catch (IllegalArgumentException e) {
-                System.out.println("Cannot perform topological sort: " + e.getMessage());
+                out.println("Cannot perform topological sort: " + e.getMessage());
             }
 
-            System.out.println("\n--- 3. Shortest and Longest Paths in DAG ---");
-            
-            Metrics dagspMetrics = new Metrics();
-            DAGShortestPath dagsp = new DAGShortestPath(condensationGraph, dagspMetrics);
-            
+            if (cache != null && cached == null && sccTopoOrder != null) {
+                storeInCache(cache, cacheKey, numVertices, numEdges, sccs, vertexToScc,
+                    condensationGraph, sccTopoOrder);
+            }
+
+            out.println("\n--- 3. Shortest and Longest Paths in DAG ---");
+
+            Metrics dagspMetrics = new BasicMetrics();
+            dagspMetrics.setPhaseTimer(timer);
+            DAGShortestPath dagsp = pathsOver(condensationGraph, sccTopoOrder, dagspMetrics);
+
             if (condensationGraph.getNumVertices() > 0) {
                 try {
-                    List<Integer> topoOrder = topoSort.getTopologicalOrder();
-                    if (!topoOrder.isEmpty()) {
-                        int source = topoOrder.get(0);
+                    if (sccTopoOrder != null && !sccTopoOrder.isEmpty()) {
+                        int source = sccTopoOrder.get(0);
                         int[] shortestDistances = dagsp.shortestPathsFromSource(source);
-                        
-                        System.out.println("\nShortest Paths from source SCC " + source + ":");
-                        for (int i = 0; i < shortestDistances.length; i++) {
-                            if (shortestDistances[i] != Integer.MAX_VALUE) {
-                                System.out.println("  SCC " + i + ": " + shortestDistances[i]);
+
+                        if (writer != null) {
+                            writer.writeDistances("shortest", source, shortestDistances);
+                        } else {
+                            out.println("\nShortest Paths from source SCC " + source + ":");
+                            for (int i = 0; i < shortestDistances.length; i++) {
+                                if (shortestDistances[i] != Integer.MAX_VALUE) {
+                                    out.println("  SCC " + i + ": " + shortestDistances[i]);
+                                }
                             }
                         }
-                        System.out.println("DAGSP Metrics (shortest): " + dagspMetrics);
+                        out.println("DAGSP Metrics (shortest): " + dagspMetrics);
                     }
                 } catch (Exception e) {
-                    System.out.println("Shortest paths computation skipped: " + e.getMessage());
+                    out.println("Shortest paths computation skipped: " + e.getMessage());
                 }
             }
 
-            Metrics longestMetrics = new Metrics();
-            DAGShortestPath longestPath = new DAGShortestPath(condensationGraph, longestMetrics);
-            
+            Metrics longestMetrics = new BasicMetrics();
+            longestMetrics.setPhaseTimer(timer);
+            DAGShortestPath longestPath = pathsOver(condensationGraph, sccTopoOrder, longestMetrics);
+
             try {
                 DAGShortestPath.CriticalPathResult criticalPath = longestPath.findCriticalPath();
-                System.out.println("\n" + criticalPath);
-                System.out.println("Critical Path Metrics: " + longestMetrics);
+                if (writer != null) {
+                    out.println("\nCritical path length: " + criticalPath.length);
+                    writer.writeCriticalPath(criticalPath);
+                    writer.writeDistances("longest", -1, longestPath.getDistances());
+                } else {
+                    out.println("\n" + criticalPath);
+                }
+                out.println("Critical Path Metrics: " + longestMetrics);
             } catch (Exception e) {
-                System.out.println("Critical path computation failed: " + e.getMessage());
+                out.println("Critical path computation failed: " + e.getMessage());
+            }
+
+            out.println("\nPhase Timings:");
+            out.print(timer.report());
+
+            if (footprint) {
+                out.println("\nMemory Footprint (estimated, compressed oops"
+                    + (ObjectSizeEstimator.isArrayListCapacityExact() ? "" : ", lists at lower bound;"
+                        + " run with --add-opens java.base/java.util=ALL-UNNAMED for exact sizes") + "):");
+                out.print(FootprintReport.forGraph(graph));
+            }
+            if (writer != null) {
+                writer.endGraph();
             }
 
         } catch (IOException e) {
@@ -123,5 +371,63 @@ public class Main {
             e.printStackTrace();
         }
     }
-}
 
+    private static void runBatch(String source, String outDir, int threads, long memoryMb) {
+        try {
+            List<Path> inputs = BatchRunner.listInputs(Path.of(source));
+            System.out.println("Batch: " + inputs.size() + " graphs, " + threads + " CPU threads, "
+                + memoryMb + " MB memory budget -> " + outDir);
+            BatchRunner runner = new BatchRunner(threads, memoryMb * 1024 * 1024, Path.of(outDir));
+            System.out.println(runner.run(inputs));
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch interrupted");
+        }
+    }
+
+    private static void serve(int port, int threads) {
+        SchedulingService service = new SchedulingService(threads, SERVICE_MAX_BATCH);
+        try {
+            service.start(port);
+        } catch (IOException e) {
+            System.err.println("Could not start service: " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        System.out.println("Listening on http://localhost:" + service.getPort()
+            + "/analyze (metrics at /metrics) with " + threads + " workers");
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            service.stop();
+        }
+    }
+
+    /**
+     * Path queries over the condensation, reusing its topological order when one is
+     * known (computed above or cached) so the queries do not sort again.
+     */
+    private static DAGShortestPath pathsOver(Graph condensationGraph, List<Integer> sccTopoOrder, Metrics metrics) {
+        return sccTopoOrder != null
+            ? new DAGShortestPath(condensationGraph, sccTopoOrder, metrics)
+            : new DAGShortestPath(condensationGraph, metrics);
+    }
+
+    private static void storeInCache(AnalysisCache cache, String key, int numVertices, int numEdges,
+                                     List<List<Integer>> sccs, Map<Integer, Integer> vertexToScc,
+                                     Graph condensationGraph, List<Integer> sccTopoOrder) {
+        int[] assignment = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            assignment[v] = vertexToScc.get(v);
+        }
+        int[] members = sccs.stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+        int[] order = sccTopoOrder.stream().mapToInt(Integer::intValue).toArray();
+        try {
+            cache.store(key, new AnalysisCache.Entry(assignment, members, numEdges, condensationGraph, order));
+        } catch (IOException e) {
+            System.err.println("Warning: Could not write cache entry: " + e.getMessage());
+        }
+    }
+}
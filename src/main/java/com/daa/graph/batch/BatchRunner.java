@@ -0,0 +1,300 @@
+package com.daa.graph.batch;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.pipeline.GraphAnalysis;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.TaskGraphLoader;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Processes many graph files concurrently.
+ * Each graph is driven by its own I/O task (virtual threads when the JVM has them, a
+ * fixed pool otherwise) that reads the file, hands the analysis to a fixed CPU pool
+ * and writes the result. At most {@link #IO_TASKS_PER_CPU_THREAD} tasks per CPU thread
+ * are in flight, so the thread count does not grow with the size of the batch.
+ * A memory budget bounds how many graphs are resident at once:
+ * every graph reserves an estimate of its heap size, derived from its file size, before
+ * it is loaded and releases it once its result is written.
+ * <p>
+ * Each input produces {@code <name>.result.json} in the output directory, and one line
+ * per graph is appended to {@code batch-summary.jsonl}. A graph that fails to load or
+ * analyze yields a result with an "error" field; the rest of the batch continues.
+ */
+public class BatchRunner {
+    /** Heap bytes assumed per byte of an uncompressed input file. */
+    static final int EXPANSION_RAW = 12;
+    /** Heap bytes assumed per byte of a gzip or zstd input file. */
+    static final int EXPANSION_COMPRESSED = 60;
+    static final String SUMMARY_FILE = "batch-summary.jsonl";
+    /** I/O tasks in flight per CPU thread: enough to keep reads ahead of the analyses. */
+    static final int IO_TASKS_PER_CPU_THREAD = 4;
+    private static final int PERMIT_BYTES = 1024;
+
+    private final int cpuThreads;
+    private final long memoryBudgetBytes;
+    private final Path outputDir;
+    private final Gson gson = new Gson();
+
+    /**
+     * Result of a batch run.
+     */
+    public static class Summary {
+        public final int graphs;
+        public final int failures;
+        public final long wallTimeNs;
+
+        public Summary(int graphs, int failures, long wallTimeNs) {
+            this.graphs = graphs;
+            this.failures = failures;
+            this.wallTimeNs = wallTimeNs;
+        }
+
+        public double getGraphsPerSecond() {
+            return graphs * 1e9 / Math.max(1, wallTimeNs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Processed %d graphs (%d failed) in %.2f s (%.1f graphs/s)",
+                graphs, failures, wallTimeNs / 1e9, getGraphsPerSecond());
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param cpuThreads threads for the algorithms (typically the number of cores)
+     * @param memoryBudgetBytes estimated heap the resident graphs may use at once
+     * @param outputDir directory for the results (created if missing)
+     */
+    public BatchRunner(int cpuThreads, long memoryBudgetBytes, Path outputDir) {
+        if (cpuThreads < 1 || memoryBudgetBytes < PERMIT_BYTES) {
+            throw new IllegalArgumentException("Invalid thread count or memory budget");
+        }
+        this.cpuThreads = cpuThreads;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * List the inputs of a batch.
+     * @param source a directory (all regular files in it, sorted by name) or a manifest
+     *               file with one path per line; relative paths are resolved against the
+     *               manifest's directory, and blank lines and '#' comments are ignored
+     * @return input files
+     * @throws IOException if the source cannot be read
+     */
+    public static List<Path> listInputs(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+        Path base = source.toAbsolutePath().getParent();
+        List<Path> inputs = new ArrayList<>();
+        for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (!entry.isEmpty() && !entry.startsWith("#")) {
+                inputs.add(base.resolve(entry));
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Process all inputs and block until every result is written.
+     * @param inputs graph files
+     * @return batch summary
+     * @throws IOException if the output directory cannot be written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Summary run(List<Path> inputs) throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        long start = System.nanoTime();
+        int totalPermits = (int) Math.min(Integer.MAX_VALUE, memoryBudgetBytes / PERMIT_BYTES);
+        Semaphore memory = new Semaphore(totalPermits, true);
+        int ioTasks = (int) Math.min(Integer.MAX_VALUE, (long) cpuThreads * IO_TASKS_PER_CPU_THREAD);
+        Semaphore inFlight = new Semaphore(ioTasks);
+        ExecutorService cpuPool = Executors.newFixedThreadPool(cpuThreads, cpuThreadFactory());
+        ExecutorService ioPool = newIoExecutor(ioTasks);
+        List<String> outputNames = outputNames(inputs);
+
+        List<Future<JsonObject>> futures = new ArrayList<>();
+        try (Writer summary = Files.newBufferedWriter(outputDir.resolve(SUMMARY_FILE), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < inputs.size(); i++) {
+                Path input = inputs.get(i);
+                Path output = outputDir.resolve(outputNames.get(i));
+                inFlight.acquire();
+                try {
+                    futures.add(ioPool.submit(() -> {
+                        try {
+                            return process(input, output, memory, totalPermits, cpuPool, summary);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            int failures = 0;
+            for (Future<JsonObject> future : futures) {
+                try {
+                    if (future.get().has("error")) {
+                        failures++;
+                    }
+                } catch (ExecutionException e) {
+                    failures++;
+                }
+            }
+            return new Summary(inputs.size(), failures, System.nanoTime() - start);
+        } finally {
+            ioPool.shutdownNow();
+            cpuPool.shutdownNow();
+        }
+    }
+
+    private JsonObject process(Path input, Path output, Semaphore memory, int totalPermits,
+                               ExecutorService cpuPool, Writer summary) throws IOException, InterruptedException {
+        int permits = (int) Math.min(totalPermits, Math.max(1, estimateHeapBytes(input) / PERMIT_BYTES));
+        JsonObject result;
+        memory.acquire(permits);
+        try {
+            result = new JsonObject();
+            result.addProperty("input", input.toString());
+            try {
+                long loadStart = System.nanoTime();
+                Graph graph = TaskGraphLoader.loadGraph(input.toString());
+                long loadNs = System.nanoTime() - loadStart;
+                result = cpuPool.submit(() -> analyze(input, graph)).get();
+                result.addProperty("loadMs", loadNs / 1e6);
+            } catch (IOException | RuntimeException e) {
+                result.addProperty("error", String.valueOf(e.getMessage()));
+            } catch (ExecutionException e) {
+                result.addProperty("error", String.valueOf(e.getCause()));
+            }
+            try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                gson.toJson(result, writer);
+            }
+        } finally {
+            memory.release(permits);
+        }
+
+        JsonObject line = new JsonObject();
+        for (String key : new String[]{"input", "vertices", "edges", "sccCount", "criticalPathLength",
+                                       "loadMs", "analysisMs", "error"}) {
+            if (result.has(key)) {
+                line.add(key, result.get(key));
+            }
+        }
+        line.addProperty("output", output.getFileName().toString());
+        synchronized (summary) {
+            summary.write(gson.toJson(line));
+            summary.write("\n");
+            summary.flush();
+        }
+        return result;
+    }
+
+    /**
+     * Run the SCC, condensation, topological sort and critical path pipeline on one graph.
+     */
+    static JsonObject analyze(Path input, Graph graph) {
+        long start = System.nanoTime();
+        GraphAnalysis analysis = new GraphAnalysis(graph);
+        List<List<Integer>> sccs = analysis.getSCCs();
+        Graph condensation = analysis.getCondensation();
+        List<Integer> order = analysis.getTopologicalOrder();
+        DAGShortestPath.CriticalPathResult criticalPath = analysis.getCriticalPath();
+
+        int largest = 0;
+        for (List<Integer> component : sccs) {
+            largest = Math.max(largest, component.size());
+        }
+        JsonObject result = new JsonObject();
+        result.addProperty("input", input.toString());
+        result.addProperty("vertices", graph.getNumVertices());
+        result.addProperty("edges", graph.getNumEdges());
+        result.addProperty("sccCount", sccs.size());
+        result.addProperty("largestScc", largest);
+        result.addProperty("condensationEdges", condensation.getNumEdges());
+        JsonArray orderArray = new JsonArray();
+        order.forEach(orderArray::add);
+        result.add("topologicalOrder", orderArray);
+        JsonArray pathArray = new JsonArray();
+        criticalPath.path.forEach(pathArray::add);
+        result.add("criticalPath", pathArray);
+        result.addProperty("criticalPathLength", criticalPath.length);
+        result.addProperty("analysisMs", (System.nanoTime() - start) / 1e6);
+        return result;
+    }
+
+    /**
+     * Estimate the heap needed to load and analyze a graph file.
+     * @param input graph file
+     * @return estimated bytes
+     * @throws IOException if the file size cannot be read
+     */
+    static long estimateHeapBytes(Path input) throws IOException {
+        if (!Files.exists(input)) {
+            return PERMIT_BYTES;
+        }
+        String name = input.getFileName().toString();
+        boolean compressed = name.endsWith(".gz") || name.endsWith(".zst") || name.endsWith(".zstd");
+        return Files.size(input) * (compressed ? EXPANSION_COMPRESSED : EXPANSION_RAW);
+    }
+
+    private static List<String> outputNames(List<Path> inputs) {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (Path input : inputs) {
+            String base = input.getFileName().toString().replaceFirst("(\\.[A-Za-z0-9]+)+$", "");
+            int count = seen.merge(base, 1, Integer::sum);
+            names.add((count == 1 ? base : base + "-" + count) + ".result.json");
+        }
+        return names;
+    }
+
+    private static ThreadFactory cpuThreadFactory() {
+        // GraphAnalysis is iterative throughout, so default stacks suffice for deep graphs.
+        int[] counter = {0};
+        return task -> {
+            Thread thread;
+            synchronized (counter) {
+                thread = new Thread(task, "batch-cpu-" + counter[0]++);
+            }
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Use a virtual-thread-per-task executor when running on a JDK that has one;
+     * the build targets Java 11, so it is looked up reflectively. Otherwise fall back
+     * to a fixed pool of platform threads.
+     * @param threads size of the fallback pool
+     */
+    static ExecutorService newIoExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "batch-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
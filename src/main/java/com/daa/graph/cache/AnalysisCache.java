@@ -0,0 +1,352 @@
+package com.daa.graph.cache;
+
+import com.daa.graph.util.Graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of SCC, condensation and topological-order results.
+ * Entries are keyed by a SHA-256 hash of the input file contents plus
+ * {@link #ALGORITHM_VERSION}, stored in a compact binary form, and evicted
+ * least-recently-used first once the directory exceeds its size budget.
+ */
+public class AnalysisCache {
+    /**
+     * Bump whenever a change to the algorithms alters their cached output. 2: the
+     * condensation keeps the first edge between two SCCs, and member order is cached.
+     */
+    public static final String ALGORITHM_VERSION = "2";
+
+    private static final int MAGIC = 0x44414143; // "DAAC"
+    private static final int FORMAT_VERSION = 2;
+    private static final String SUFFIX = ".analysis";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Constructor.
+     * @param directory cache directory (created if missing)
+     * @param maxBytes total size budget for all entries
+     * @throws IOException if the directory cannot be created
+     */
+    public AnalysisCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Cached analysis results for one input graph.
+     */
+    public static class Entry {
+        public final int[] vertexToScc;
+        public final int[] members; // all vertices, each SCC's members in the order the analysis listed them
+        public final int numEdges; // edge count of the input graph
+        public final Graph condensation;
+        public final int[] topologicalOrder;
+
+        /**
+         * Constructor.
+         * @param vertexToScc SCC index of every vertex
+         * @param members the SCC member lists concatenated, so a hit lists members in the same order
+         * @param numEdges number of edges of the input graph
+         * @param condensation condensation graph
+         * @param topologicalOrder topological order of the condensation
+         */
+        public Entry(int[] vertexToScc, int[] members, int numEdges, Graph condensation, int[] topologicalOrder) {
+            if (members.length != vertexToScc.length) {
+                throw new IllegalArgumentException("Members must list every vertex once");
+            }
+            this.vertexToScc = vertexToScc;
+            this.members = members;
+            this.numEdges = numEdges;
+            this.condensation = condensation;
+            this.topologicalOrder = topologicalOrder;
+        }
+
+        /**
+         * Rebuild the SCC member lists.
+         * @return list of SCCs, members in the same order as the run that stored the entry
+         */
+        public List<List<Integer>> getSCCs() {
+            List<List<Integer>> sccs = new ArrayList<>();
+            for (int i = 0; i < condensation.getNumVertices(); i++) {
+                sccs.add(new ArrayList<>());
+            }
+            for (int v : members) {
+                sccs.get(vertexToScc[v]).add(v);
+            }
+            return sccs;
+        }
+
+        /**
+         * Get the number of vertices of the input graph.
+         * @return number of vertices
+         */
+        public int getNumVertices() {
+            return vertexToScc.length;
+        }
+
+        /**
+         * Get the mapping from vertex to SCC index.
+         * @return map from vertex index to SCC index
+         */
+        public Map<Integer, Integer> getVertexToScc() {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int v = 0; v < vertexToScc.length; v++) {
+                map.put(v, vertexToScc[v]);
+            }
+            return map;
+        }
+
+        /**
+         * Get the topological order of the condensation graph.
+         * @return topological ordering of SCC indices
+         */
+        public List<Integer> getTopologicalOrder() {
+            List<Integer> order = new ArrayList<>(topologicalOrder.length);
+            for (int scc : topologicalOrder) {
+                order.add(scc);
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Compute the cache key for an input file.
+     * @param inputPath path of the graph file
+     * @return hex-encoded key
+     * @throws IOException if the file cannot be read
+     */
+    public String keyFor(String inputPath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(ALGORITHM_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(Path.of(inputPath))) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Look up a cached entry. An entry that cannot be read or fails validation is
+     * deleted and treated as a miss, so one bad file does not fail every later run.
+     * @param key cache key from {@link #keyFor(String)}
+     * @return cached entry, or null on a miss or an unreadable entry
+     */
+    public Entry lookup(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Entry entry = read(in, Files.size(file));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Another run may be replacing the entry
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Store an entry and evict least-recently-used entries beyond the size budget.
+     * @param key cache key from {@link #keyFor(String)}
+     * @param entry results to store
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(String key, Entry entry) throws IOException {
+        Path file = directory.resolve(key + SUFFIX);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            write(out, entry);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        evict();
+    }
+
+    private void evict() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                files.add(path);
+            }
+        }
+        Map<Path, Long> modified = new HashMap<>();
+        long total = 0;
+        for (Path path : files) {
+            try {
+                total += Files.size(path);
+                modified.put(path, Files.getLastModifiedTime(path).toMillis());
+            } catch (NoSuchFileException e) {
+                modified.put(path, Long.MIN_VALUE);
+            }
+        }
+        files.sort(Comparator.comparingLong(modified::get));
+        for (Path path : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            try {
+                total -= Files.size(path);
+                Files.delete(path);
+            } catch (NoSuchFileException ignored) {
+                // Already evicted by a concurrent run
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeInts(out, entry.vertexToScc);
+        writeInts(out, entry.members);
+        out.writeInt(entry.numEdges);
+
+        Graph condensation = entry.condensation;
+        int numSccs = condensation.getNumVertices();
+        out.writeInt(numSccs);
+        for (int i = 0; i < numSccs; i++) {
+            out.writeInt(condensation.getNodeDuration(i));
+        }
+        out.writeInt(condensation.getNumEdges());
+        for (int from = 0; from < numSccs; from++) {
+            for (Graph.Edge edge : condensation.getOutgoingEdges(from)) {
+                out.writeInt(edge.from);
+                out.writeInt(edge.to);
+                out.writeInt(edge.weight);
+            }
+        }
+
+        writeInts(out, entry.topologicalOrder);
+    }
+
+    private static Entry read(DataInputStream in, long fileSize) throws IOException {
+        EntryReader reader = new EntryReader(in, fileSize);
+        if (reader.readInt() != MAGIC || reader.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a cache entry");
+        }
+        int[] vertexToScc = reader.readInts();
+        int[] members = reader.readInts();
+        int numEdgesInput = reader.readInt();
+
+        int numSccs = reader.readLength(1);
+        Graph condensation = new Graph(numSccs);
+        for (int i = 0; i < numSccs; i++) {
+            condensation.setNodeDuration(i, reader.readInt());
+        }
+        int numEdges = reader.readLength(3);
+        for (int i = 0; i < numEdges; i++) {
+            int from = checkRange(reader.readInt(), numSccs);
+            int to = checkRange(reader.readInt(), numSccs);
+            condensation.addEdge(from, to, reader.readInt());
+        }
+
+        int[] topologicalOrder = reader.readInts();
+        int n = vertexToScc.length;
+        if (members.length != n || numEdgesInput < 0 || topologicalOrder.length != numSccs) {
+            throw new IOException("Corrupt cache entry");
+        }
+        boolean[] listed = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            checkRange(vertexToScc[v], numSccs);
+            int member = checkRange(members[v], n);
+            if (listed[member]) {
+                throw new IOException("Corrupt cache entry");
+            }
+            listed[member] = true;
+        }
+        for (int scc : topologicalOrder) {
+            checkRange(scc, numSccs);
+        }
+        return new Entry(vertexToScc, members, numEdgesInput, condensation, topologicalOrder);
+    }
+
+    private static int checkRange(int value, int bound) throws IOException {
+        if (value < 0 || value >= bound) {
+            throw new IOException("Corrupt cache entry");
+        }
+        return value;
+    }
+
+    /**
+     * Reads an entry while tracking the bytes left in the file, so a corrupt length
+     * fails fast instead of allocating an array the file could never fill.
+     */
+    private static class EntryReader {
+        private final DataInputStream in;
+        private long remaining;
+
+        EntryReader(DataInputStream in, long fileSize) {
+            this.in = in;
+            this.remaining = fileSize;
+        }
+
+        int readInt() throws IOException {
+            remaining -= Integer.BYTES;
+            return in.readInt();
+        }
+
+        /**
+         * Read a count of records of the given number of ints each.
+         */
+        int readLength(int intsPerRecord) throws IOException {
+            int length = readInt();
+            if (length < 0 || (long) length * intsPerRecord * Integer.BYTES > remaining) {
+                throw new IOException("Corrupt cache entry");
+            }
+            return length;
+        }
+
+        int[] readInts() throws IOException {
+            int[] values = new int[readLength(1)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readInt();
+            }
+            return values;
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
@@ -1,17 +1,38 @@
 package com.daa.graph.dagsp;
 
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.ConcurrentMetrics;
 import com.daa.graph.util.Graph;
 import com.daa.graph.util.Metrics;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.PhaseTimer;
+import com.daa.graph.util.Workspace;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 public class DAGShortestPath {
+    /** Levels smaller than this are relaxed on the calling thread. */
+    static final int PARALLEL_LEVEL_THRESHOLD = 2048;
+    private static final int PARALLEL_GRAIN = 512;
+
     private final Graph dag;
     private final Metrics metrics;
     private List<Integer> topologicalOrder;
+    private long topologicalOrderVersion = -1; // dag version the order was computed for
     private int[] distances;
     private int[] predecessors;
+    private int[] topologicalPosition; // inverse of topologicalOrder, built for targeted queries
+    private Graph reversed;
+    private long queryIndexVersion = -1;
+    private Workspace scratch;
+    private int lastVisited;
+    private ForkJoinPool parallelPool;
+    private int[] levelOrder; // vertices grouped by topological level
+    private int[] levelStart; // level l is levelOrder[levelStart[l] .. levelStart[l + 1])
+    private long levelIndexVersion = -1;
 
     /**
      * Constructor.
@@ -21,6 +42,37 @@ public class DAGShortestPath {
     public DAGShortestPath(Graph dag, Metrics metrics) {
         this.dag = dag;
         this.metrics = metrics;
+        metrics.setGraphShape(dag.getNumVertices(), dag.getNumEdges());
+    }
+
+    /**
+     * Constructor with a topological order computed elsewhere, so the path queries
+     * skip their own sort.
+     * @param dag the input DAG
+     * @param topologicalOrder a topological order of the DAG at its current version
+     * @param metrics metrics tracker
+     */
+    public DAGShortestPath(Graph dag, List<Integer> topologicalOrder, Metrics metrics) {
+        this(dag, metrics);
+        if (topologicalOrder.size() != dag.getNumVertices()) {
+            throw new IllegalArgumentException("Topological order does not cover the DAG");
+        }
+        this.topologicalOrder = topologicalOrder;
+        this.topologicalOrderVersion = dag.getVersion();
+    }
+
+    /**
+     * Switch {@link #shortestPathsFromSource(int)}, {@link #longestPaths()} and
+     * {@link #findCriticalPath()} to the parallel wavefront mode. Vertices are grouped by
+     * topological level (longest edge path from a source), and each level is computed
+     * on the pool by pulling over in-edges from earlier levels. Every vertex is written by
+     * one task only, so no atomics are needed. Ties go to the smallest predecessor id,
+     * which makes predecessors and the critical path the same for any pool size.
+     * Distances equal the sequential ones.
+     * @param pool pool to run wide levels on, or null for the sequential sweep
+     */
+    public void setParallelPool(ForkJoinPool pool) {
+        this.parallelPool = pool;
     }
 
     /**
@@ -29,31 +81,40 @@ public class DAGShortestPath {
      * @param source source vertex
      * @return array of shortest distances
      */
+    @SuppressWarnings("try")
     public int[] shortestPathsFromSource(int source) {
-        metrics.startTimer();
         metrics.reset();
+        metrics.startTimer();
 
-        int n = dag.getNumVertices();
-        distances = new int[n];
-        predecessors = new int[n];
-        Arrays.fill(distances, Integer.MAX_VALUE);
-        Arrays.fill(predecessors, -1);
-        distances[source] = 0;
-
-        com.daa.graph.topo.TopologicalSort topoSort = 
-            new com.daa.graph.topo.TopologicalSort(dag, new com.daa.graph.util.Metrics());
-        topologicalOrder = topoSort.kahnTopologicalSort();
-
-        for (int u : topologicalOrder) {
-            if (distances[u] != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : dag.getOutgoingEdges(u)) {
-                    metrics.incrementRelaxations();
-                    int v = edge.to;
-                    int newDist = distances[u] + edge.weight;
-                    if (newDist < distances[v]) {
-                        distances[v] = newDist;
-                        predecessors[v] = u;
+        try (PhaseTimer.Span shortestSpan = metrics.span("shortest")) {
+            int n = dag.getNumVertices();
+            distances = new int[n];
+            predecessors = new int[n];
+            Arrays.fill(distances, Integer.MAX_VALUE);
+            Arrays.fill(predecessors, -1);
+            distances[source] = 0;
+
+            ensureTopologicalOrder();
+
+            try (PhaseTimer.Span span = metrics.span("relax")) {
+                if (parallelPool != null) {
+                    relaxByLevel(false, source);
+                } else {
+                    long relaxations = 0;
+                    for (int u : topologicalOrder) {
+                        if (distances[u] != Integer.MAX_VALUE) {
+                            for (Graph.Edge edge : dag.getOutgoingEdges(u)) {
+                                relaxations++;
+                                int v = edge.to;
+                                int newDist = distances[u] + edge.weight;
+                                if (newDist < distances[v]) {
+                                    distances[v] = newDist;
+                                    predecessors[v] = u;
+                                }
+                            }
+                        }
                     }
+                    metrics.addRelaxations(relaxations);
                 }
             }
         }
@@ -67,61 +128,454 @@ public class DAGShortestPath {
      * Uses node durations: path length = sum of node durations along path.
      * @return array of longest distances from source (first vertex in topo order)
      */
+    @SuppressWarnings("try")
     public int[] longestPaths() {
-        metrics.startTimer();
         metrics.reset();
+        metrics.startTimer();
+
+        try (PhaseTimer.Span longestSpan = metrics.span("longest")) {
+            int n = dag.getNumVertices();
+            distances = new int[n];
+            predecessors = new int[n];
+            Arrays.fill(distances, Integer.MIN_VALUE);
+            Arrays.fill(predecessors, -1);
+
+            ensureTopologicalOrder();
+
+            for (int i = 0; i < n; i++) {
+                distances[i] = dag.getNodeDuration(i);
+            }
 
+            try (PhaseTimer.Span span = metrics.span("relax")) {
+                if (parallelPool != null) {
+                    relaxByLevel(true, -1);
+                } else {
+                    long relaxations = 0;
+                    for (int u : topologicalOrder) {
+                        for (Graph.Edge edge : dag.getOutgoingEdges(u)) {
+                            relaxations++;
+                            int v = edge.to;
+
+                            int newDist = distances[u] + dag.getNodeDuration(v);
+                            if (newDist > distances[v]) {
+                                distances[v] = newDist;
+                                predecessors[v] = u;
+                            }
+                        }
+                    }
+                    metrics.addRelaxations(relaxations);
+                }
+            }
+        }
+
+        metrics.stopTimer();
+        return distances.clone();
+    }
+
+    /**
+     * Compute shortest paths from a source vertex without allocating once the topological
+     * order of the DAG is known. Distances are epoch-stamped in the workspace rather than
+     * reset; read them with {@link Workspace#getDistance(int)} and
+     * {@link Workspace#getPredecessor(int)}. The array results of this object are left untouched.
+     * @param source source vertex
+     * @param workspace caller-owned scratch memory
+     */
+    public void shortestPathsFromSource(int source, Workspace workspace) {
         int n = dag.getNumVertices();
-        distances = new int[n];
-        predecessors = new int[n];
-        Arrays.fill(distances, Integer.MIN_VALUE);
-        Arrays.fill(predecessors, -1);
+        int epoch = workspace.nextDistanceEpoch(n);
+        int[] stamps = workspace.distanceStamps(n);
+        int[] dist = workspace.distances(n);
+        int[] pred = workspace.predecessors(n);
+        stamps[source] = epoch;
+        dist[source] = 0;
+        pred[source] = -1;
 
-        com.daa.graph.topo.TopologicalSort topoSort = 
-            new com.daa.graph.topo.TopologicalSort(dag, new com.daa.graph.util.Metrics());
-        topologicalOrder = topoSort.kahnTopologicalSort();
+        ensureTopologicalOrder();
+        long relaxations = 0;
+        for (int i = 0; i < n; i++) {
+            int u = topologicalOrder.get(i);
+            if (stamps[u] != epoch) {
+                continue;
+            }
+            List<Graph.Edge> edges = dag.getOutgoingEdges(u);
+            for (int e = 0; e < edges.size(); e++) {
+                Graph.Edge edge = edges.get(e);
+                relaxations++;
+                int v = edge.to;
+                int newDist = dist[u] + edge.weight;
+                if (stamps[v] != epoch || newDist < dist[v]) {
+                    stamps[v] = epoch;
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        metrics.addRelaxations(relaxations);
+    }
 
+    /**
+     * Compute longest paths (in node durations) without allocating once the topological
+     * order of the DAG is known; same results as {@link #longestPaths()}. Read them with
+     * {@link Workspace#getDistance(int)} and {@link Workspace#getPredecessor(int)}.
+     * @param workspace caller-owned scratch memory
+     * @return vertex where the critical path ends, or -1 for an empty DAG
+     */
+    public int longestPaths(Workspace workspace) {
+        int n = dag.getNumVertices();
+        int epoch = workspace.nextDistanceEpoch(n);
+        int[] stamps = workspace.distanceStamps(n);
+        int[] dist = workspace.distances(n);
+        int[] pred = workspace.predecessors(n);
         for (int i = 0; i < n; i++) {
-            distances[i] = dag.getNodeDuration(i);
+            stamps[i] = epoch;
+            dist[i] = dag.getNodeDuration(i);
+            pred[i] = -1;
         }
 
-        for (int u : topologicalOrder) {
-            for (Graph.Edge edge : dag.getOutgoingEdges(u)) {
-                metrics.incrementRelaxations();
+        ensureTopologicalOrder();
+        long relaxations = 0;
+        for (int i = 0; i < n; i++) {
+            int u = topologicalOrder.get(i);
+            List<Graph.Edge> edges = dag.getOutgoingEdges(u);
+            for (int e = 0; e < edges.size(); e++) {
+                relaxations++;
+                int v = edges.get(e).to;
+                int newDist = dist[u] + dag.getNodeDuration(v);
+                if (newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        metrics.addRelaxations(relaxations);
+
+        int endVertex = -1;
+        for (int i = 0; i < n; i++) {
+            if (endVertex == -1 || dist[i] > dist[endVertex]) {
+                endVertex = i;
+            }
+        }
+        return endVertex;
+    }
+
+    /**
+     * Shortest path (in edge weights) between two vertices. Only the ancestors of
+     * {@code target} whose topological position lies between those of {@code source}
+     * and {@code target} are visited, found by a backward search over the reversed DAG.
+     * @param source source vertex
+     * @param target target vertex
+     * @return path and distance, or null if target is unreachable from source
+     */
+    public PathResult shortestPath(int source, int target) {
+        return targetedQuery(source, target, false);
+    }
+
+    /**
+     * Longest path (in node durations, counting both endpoints) between two vertices,
+     * visiting the same window as {@link #shortestPath(int, int)}.
+     * @param source source vertex
+     * @param target target vertex
+     * @return path and length, or null if target is unreachable from source
+     */
+    public PathResult longestPath(int source, int target) {
+        return targetedQuery(source, target, true);
+    }
+
+    /**
+     * Critical chain leading to a task: the longest path (in node durations) from any
+     * vertex to {@code target}. Only the ancestors of {@code target} are visited.
+     * @param target target vertex
+     * @return path and length
+     */
+    public PathResult longestPathTo(int target) {
+        return targetedQuery(-1, target, true);
+    }
+
+    /**
+     * Get how many vertices the last targeted query visited.
+     * @return size of the searched ancestor cone
+     */
+    public int getLastQueryVisited() {
+        return lastVisited;
+    }
+
+    /**
+     * Relax only the ancestor cone of the target, restricted to positions at or after
+     * the source's ({@code source == -1} means no source: every ancestor starts a path).
+     */
+    private PathResult targetedQuery(int source, int target, boolean longest) {
+        ensureQueryIndex();
+        int n = dag.getNumVertices();
+        int lowerBound = source == -1 ? 0 : topologicalPosition[source];
+        lastVisited = 0;
+        if (lowerBound > topologicalPosition[target]) {
+            return null;
+        }
+
+        // Backward search from the target; the cone holds topological positions.
+        int epoch = scratch.nextEpoch(n);
+        int[] inCone = scratch.stamps(n);
+        int[] stack = scratch.stack(n);
+        int[] cone = scratch.order(n);
+        int size = 0;
+        int top = 0;
+        inCone[target] = epoch;
+        stack[top++] = target;
+        while (top > 0) {
+            int v = stack[--top];
+            cone[size++] = topologicalPosition[v];
+            List<Graph.Edge> incoming = reversed.getOutgoingEdges(v);
+            for (int e = 0; e < incoming.size(); e++) {
+                int u = incoming.get(e).to;
+                if (inCone[u] != epoch && topologicalPosition[u] >= lowerBound) {
+                    inCone[u] = epoch;
+                    stack[top++] = u;
+                }
+            }
+        }
+        lastVisited = size;
+        if (source != -1 && inCone[source] != epoch) {
+            return null;
+        }
+        Arrays.sort(cone, 0, size);
+
+        int distanceEpoch = scratch.nextDistanceEpoch(n);
+        int[] reached = scratch.distanceStamps(n);
+        int[] dist = scratch.distances(n);
+        int[] pred = scratch.predecessors(n);
+        if (source == -1) {
+            for (int i = 0; i < size; i++) {
+                int v = topologicalOrder.get(cone[i]);
+                reached[v] = distanceEpoch;
+                dist[v] = dag.getNodeDuration(v);
+                pred[v] = -1;
+            }
+        } else {
+            reached[source] = distanceEpoch;
+            dist[source] = longest ? dag.getNodeDuration(source) : 0;
+            pred[source] = -1;
+        }
+
+        long relaxations = 0;
+        for (int i = 0; i < size; i++) {
+            int u = topologicalOrder.get(cone[i]);
+            if (reached[u] != distanceEpoch) {
+                continue;
+            }
+            List<Graph.Edge> edges = dag.getOutgoingEdges(u);
+            for (int e = 0; e < edges.size(); e++) {
+                Graph.Edge edge = edges.get(e);
                 int v = edge.to;
-               
-                int newDist = distances[u] + dag.getNodeDuration(v);
-                if (newDist > distances[v]) {
-                    distances[v] = newDist;
-                    predecessors[v] = u;
+                if (inCone[v] != epoch) {
+                    continue;
+                }
+                relaxations++;
+                int newDist = dist[u] + (longest ? dag.getNodeDuration(v) : edge.weight);
+                if (reached[v] != distanceEpoch || (longest ? newDist > dist[v] : newDist < dist[v])) {
+                    reached[v] = distanceEpoch;
+                    dist[v] = newDist;
+                    pred[v] = u;
                 }
             }
         }
+        metrics.addRelaxations(relaxations);
 
-        metrics.stopTimer();
-        return distances.clone();
+        List<Integer> path = new ArrayList<>();
+        for (int current = target; current != -1; current = pred[current]) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return new PathResult(path, dist[target]);
+    }
+
+    /**
+     * Wavefront relaxation: levels in order, each level's vertices pulled in parallel.
+     * Distances and predecessors must already hold their initial values. Pool tasks
+     * count their relaxations into a {@link ConcurrentMetrics}, which is folded into
+     * this instance's metrics once the sweep is done.
+     */
+    private void relaxByLevel(boolean longest, int source) {
+        ensureLevelIndex();
+        ConcurrentMetrics levelMetrics = new ConcurrentMetrics();
+        for (int level = 0; level + 1 < levelStart.length; level++) {
+            int lo = levelStart[level];
+            int hi = levelStart[level + 1];
+            if (hi - lo < PARALLEL_LEVEL_THRESHOLD) {
+                levelMetrics.addRelaxations(pullLevel(lo, hi, longest, source));
+            } else {
+                parallelPool.invoke(new LevelTask(lo, hi, longest, source, levelMetrics));
+            }
+        }
+        metrics.addRelaxations(levelMetrics.getRelaxations());
+    }
+
+    /**
+     * Compute the distance of each vertex in levelOrder[lo, hi) from its in-edges; all
+     * in-neighbors are on earlier levels and already final.
+     * @return edges relaxed; like the sequential pass, edges from unreachable vertices
+     *         do not count when computing shortest paths
+     */
+    private long pullLevel(int lo, int hi, boolean longest, int source) {
+        long relaxations = 0;
+        for (int i = lo; i < hi; i++) {
+            int v = levelOrder[i];
+            if (v == source) {
+                continue;
+            }
+            int best = distances[v];
+            int bestPred = -1;
+            List<Graph.Edge> incoming = reversed.getOutgoingEdges(v);
+            for (int e = 0; e < incoming.size(); e++) {
+                Graph.Edge edge = incoming.get(e);
+                int u = edge.to;
+                int candidate;
+                if (longest) {
+                    candidate = distances[u] + dag.getNodeDuration(v);
+                } else if (distances[u] != Integer.MAX_VALUE) {
+                    candidate = distances[u] + edge.weight;
+                } else {
+                    continue;
+                }
+                relaxations++;
+                boolean better = longest ? candidate > best : candidate < best;
+                if (better || (candidate == best && bestPred != -1 && u < bestPred)) {
+                    best = candidate;
+                    bestPred = u;
+                }
+            }
+            distances[v] = best;
+            predecessors[v] = bestPred;
+        }
+        return relaxations;
+    }
+
+    /**
+     * Splits one level into halves down to {@link #PARALLEL_GRAIN} vertices.
+     */
+    private final class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int lo;
+        private final int hi;
+        private final boolean longest;
+        private final int source;
+        private final ConcurrentMetrics levelMetrics;
+
+        LevelTask(int lo, int hi, boolean longest, int source, ConcurrentMetrics levelMetrics) {
+            this.lo = lo;
+            this.hi = hi;
+            this.longest = longest;
+            this.source = source;
+            this.levelMetrics = levelMetrics;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_GRAIN) {
+                levelMetrics.addRelaxations(pullLevel(lo, hi, longest, source));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LevelTask(lo, mid, longest, source, levelMetrics),
+                new LevelTask(mid, hi, longest, source, levelMetrics));
+        }
+    }
+
+    /**
+     * Group the vertices by topological level, once per DAG version.
+     */
+    private void ensureLevelIndex() {
+        ensureQueryIndex();
+        if (levelIndexVersion == dag.getVersion()) {
+            return;
+        }
+        int n = dag.getNumVertices();
+        int[] level = new int[n];
+        int depth = 0;
+        for (int i = 0; i < n; i++) {
+            int u = topologicalOrder.get(i);
+            depth = Math.max(depth, level[u] + 1);
+            for (Graph.Edge edge : dag.getOutgoingEdges(u)) {
+                level[edge.to] = Math.max(level[edge.to], level[u] + 1);
+            }
+        }
+        levelStart = new int[depth + 1];
+        for (int v = 0; v < n; v++) {
+            levelStart[level[v] + 1]++;
+        }
+        for (int l = 0; l < depth; l++) {
+            levelStart[l + 1] += levelStart[l];
+        }
+        levelOrder = new int[n];
+        int[] next = Arrays.copyOf(levelStart, depth);
+        for (int v = 0; v < n; v++) {
+            levelOrder[next[level[v]]++] = v;
+        }
+        levelIndexVersion = dag.getVersion();
+    }
+
+    /**
+     * Build the topological positions and reverse adjacency used by targeted queries,
+     * once per DAG version.
+     */
+    private void ensureQueryIndex() {
+        ensureTopologicalOrder();
+        if (queryIndexVersion == dag.getVersion()) {
+            return;
+        }
+        int n = dag.getNumVertices();
+        topologicalPosition = new int[n];
+        for (int i = 0; i < n; i++) {
+            topologicalPosition[topologicalOrder.get(i)] = i;
+        }
+        reversed = dag.getReversed();
+        if (scratch == null) {
+            scratch = new Workspace();
+        }
+        queryIndexVersion = dag.getVersion();
+    }
+
+    /**
+     * Sort the DAG unless an order for its current version is already known, so
+     * repeated queries on the same instance sort only once.
+     */
+    @SuppressWarnings("try")
+    private void ensureTopologicalOrder() {
+        if (topologicalOrder != null && topologicalOrderVersion == dag.getVersion()) {
+            return;
+        }
+        try (PhaseTimer.Span span = metrics.span("topo")) {
+            TopologicalSort topoSort = new TopologicalSort(dag, NoOpMetrics.INSTANCE);
+            topologicalOrder = topoSort.kahnTopologicalSort();
+            topologicalOrderVersion = dag.getVersion();
+        }
     }
 
     /**
      * Find the critical path (longest path in DAG).
      * @return CriticalPathResult containing the path and its length
      */
+    @SuppressWarnings("try")
     public CriticalPathResult findCriticalPath() {
-        int[] longestDistances = longestPaths();
-        
-        // Find the vertex with maximum distance
-        int maxDist = Integer.MIN_VALUE;
-        int endVertex = -1;
-        for (int i = 0; i < longestDistances.length; i++) {
-            if (longestDistances[i] > maxDist) {
-                maxDist = longestDistances[i];
-                endVertex = i;
+        try (PhaseTimer.Span criticalSpan = metrics.span("critical-path")) {
+            int[] longestDistances = longestPaths();
+
+            // Find the vertex with maximum distance
+            int maxDist = Integer.MIN_VALUE;
+            int endVertex = -1;
+            for (int i = 0; i < longestDistances.length; i++) {
+                if (longestDistances[i] > maxDist) {
+                    maxDist = longestDistances[i];
+                    endVertex = i;
+                }
             }
-        }
 
-        List<Integer> path = reconstructPath(endVertex);
-        
-        return new CriticalPathResult(path, maxDist);
+            List<Integer> path;
+            try (PhaseTimer.Span span = metrics.span("reconstruct")) {
+                path = reconstructPath(endVertex);
+            }
+
+            return new CriticalPathResult(path, maxDist);
+        }
     }
 
     /**
@@ -150,6 +604,24 @@ public class DAGShortestPath {
         return distances != null ? distances.clone() : null;
     }
 
+    /**
+     * Result of a targeted path query.
+     */
+    public static class PathResult {
+        public final List<Integer> path;
+        public final int length;
+
+        public PathResult(List<Integer> path, int length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Path: %s (length: %d)", path, length);
+        }
+    }
+
     
     public static class CriticalPathResult {
         public final List<Integer> path;
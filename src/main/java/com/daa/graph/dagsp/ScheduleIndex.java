@@ -0,0 +1,268 @@
+package com.daa.graph.dagsp;
+
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+
+import java.util.*;
+
+/**
+ * Immutable index over a schedule: every task v runs during the closed interval
+ * {@code [getStart(v), getFinish(v)]}. Answers "which tasks run at time t" and
+ * "which tasks overlap window [a, b]" in O(log n + k) for k results, instead of a
+ * scan over all tasks.
+ * <p>
+ * Intervals are kept in a centered interval tree laid out in flat arrays: each node
+ * holds the intervals containing its center, sorted once by start and once by
+ * finish, and the intervals entirely left or right of the center go to its children.
+ * A window query is a stabbing query at {@code a} plus a binary search for the
+ * intervals starting inside {@code (a, b]}.
+ * <p>
+ * Nothing changes after construction, so one index can be shared by any number of
+ * reader threads without locking.
+ */
+public final class ScheduleIndex {
+    private final int[] start;
+    private final int[] finish;
+    private final int[] centers;
+    private final int[] left;
+    private final int[] right;
+    private final int[] nodeOffset; // node i owns entries [nodeOffset[i], nodeOffset[i + 1])
+    private final int[] byStart; // per node, ascending start
+    private final int[] byFinish; // per node, descending finish
+    private final int[] startOrder; // all tasks by ascending start
+    private final int[] sortedStarts;
+    private final int root;
+
+    /**
+     * Constructor.
+     * @param start start time of each task
+     * @param finish finish time of each task, not before its start
+     */
+    public ScheduleIndex(int[] start, int[] finish) {
+        if (start.length != finish.length) {
+            throw new IllegalArgumentException("Start and finish times differ in length");
+        }
+        int n = start.length;
+        for (int v = 0; v < n; v++) {
+            if (finish[v] < start[v]) {
+                throw new IllegalArgumentException("Task " + v + " finishes before it starts");
+            }
+        }
+        this.start = start.clone();
+        this.finish = finish.clone();
+
+        startOrder = sortBy(this.start, identity(n), n, false);
+        sortedStarts = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedStarts[i] = this.start[startOrder[i]];
+        }
+
+        // Every node holds at least one interval, so n nodes suffice.
+        centers = new int[n];
+        left = new int[n];
+        right = new int[n];
+        nodeOffset = new int[n + 1];
+        byStart = new int[n];
+        byFinish = new int[n];
+        root = new Builder().build(identity(n), n);
+    }
+
+    /**
+     * Index the earliest-start schedule of a DAG: every task starts as soon as all its
+     * predecessors have finished.
+     * @param dag the task DAG, e.g. a condensation graph
+     * @return schedule index
+     */
+    public static ScheduleIndex earliestStart(Graph dag) {
+        return fromLongestPaths(dag, new DAGShortestPath(dag, NoOpMetrics.INSTANCE).longestPaths());
+    }
+
+    /**
+     * Index the schedule given by {@link DAGShortestPath#longestPaths()}: the longest
+     * distance ending at a task is its finish time, and its start is that minus its duration.
+     * @param dag the task DAG
+     * @param longestDistances longest distances computed over the DAG
+     * @return schedule index
+     */
+    public static ScheduleIndex fromLongestPaths(Graph dag, int[] longestDistances) {
+        int n = dag.getNumVertices();
+        if (longestDistances.length != n) {
+            throw new IllegalArgumentException("Distances do not cover the DAG");
+        }
+        int[] start = new int[n];
+        for (int v = 0; v < n; v++) {
+            start[v] = longestDistances[v] - dag.getNodeDuration(v);
+        }
+        return new ScheduleIndex(start, longestDistances);
+    }
+
+    /**
+     * Find the tasks running at a time.
+     * @param time point in time
+     * @return tasks v with start(v) <= time <= finish(v)
+     */
+    public List<Integer> runningAt(int time) {
+        List<Integer> result = new ArrayList<>();
+        stab(time, result);
+        return result;
+    }
+
+    /**
+     * Find the tasks overlapping a window.
+     * @param from window start
+     * @param to window end (inclusive)
+     * @return tasks whose interval shares at least one point with [from, to]
+     */
+    public List<Integer> overlapping(int from, int to) {
+        if (to < from) {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        List<Integer> result = new ArrayList<>();
+        stab(from, result);
+        // Intervals not containing 'from' overlap iff they start inside (from, to].
+        int i = upperBound(sortedStarts, from);
+        for (; i < sortedStarts.length && sortedStarts[i] <= to; i++) {
+            result.add(startOrder[i]);
+        }
+        return result;
+    }
+
+    private void stab(int time, List<Integer> result) {
+        int node = root;
+        while (node != -1) {
+            int center = centers[node];
+            int begin = nodeOffset[node];
+            int end = nodeOffset[node + 1];
+            if (time < center) {
+                for (int i = begin; i < end && start[byStart[i]] <= time; i++) {
+                    result.add(byStart[i]);
+                }
+                node = left[node];
+            } else if (time > center) {
+                for (int i = begin; i < end && finish[byFinish[i]] >= time; i++) {
+                    result.add(byFinish[i]);
+                }
+                node = right[node];
+            } else {
+                for (int i = begin; i < end; i++) {
+                    result.add(byStart[i]);
+                }
+                return;
+            }
+        }
+    }
+
+    public int getStart(int task) {
+        return start[task];
+    }
+
+    public int getFinish(int task) {
+        return finish[task];
+    }
+
+    public int size() {
+        return start.length;
+    }
+
+    /**
+     * Get the end of the schedule.
+     * @return latest finish time, or 0 for an empty schedule
+     */
+    public int getMakespan() {
+        int makespan = 0;
+        for (int v = 0; v < finish.length; v++) {
+            makespan = v == 0 ? finish[v] : Math.max(makespan, finish[v]);
+        }
+        return makespan;
+    }
+
+    /**
+     * Builds the tree into the flat arrays; recursion depth is O(log n) because each
+     * center is the median endpoint of its subtree's intervals.
+     */
+    private final class Builder {
+        private int nodes = 0;
+        private int entries = 0;
+
+        int build(int[] tasks, int count) {
+            if (count == 0) {
+                return -1;
+            }
+            int[] endpoints = new int[2 * count];
+            for (int i = 0; i < count; i++) {
+                endpoints[2 * i] = start[tasks[i]];
+                endpoints[2 * i + 1] = finish[tasks[i]];
+            }
+            Arrays.sort(endpoints);
+            int center = endpoints[count];
+
+            int[] lower = new int[count];
+            int[] upper = new int[count];
+            int[] here = new int[count];
+            int lowerCount = 0;
+            int upperCount = 0;
+            int hereCount = 0;
+            for (int i = 0; i < count; i++) {
+                int task = tasks[i];
+                if (finish[task] < center) {
+                    lower[lowerCount++] = task;
+                } else if (start[task] > center) {
+                    upper[upperCount++] = task;
+                } else {
+                    here[hereCount++] = task;
+                }
+            }
+
+            int node = nodes++;
+            centers[node] = center;
+            nodeOffset[node] = entries;
+            System.arraycopy(sortBy(start, here, hereCount, false), 0, byStart, entries, hereCount);
+            System.arraycopy(sortBy(finish, here, hereCount, true), 0, byFinish, entries, hereCount);
+            entries += hereCount;
+            nodeOffset[node + 1] = entries;
+            left[node] = build(lower, lowerCount);
+            right[node] = build(upper, upperCount);
+            return node;
+        }
+    }
+
+    /**
+     * Sort tasks by a key, ties by task id.
+     */
+    private static int[] sortBy(int[] key, int[] tasks, int count, boolean descending) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            int k = descending ? ~key[tasks[i]] : key[tasks[i]];
+            packed[i] = ((long) k << 32) | tasks[i];
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = (int) packed[i];
+        }
+        return sorted;
+    }
+
+    private static int[] identity(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    /** First index whose value is greater than {@code value}. */
+    private static int upperBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,127 @@
+package com.daa.graph.dagsp;
+
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.StaticGraph;
+
+import java.util.*;
+
+/**
+ * Shortest and longest paths over a flat read-only DAG ({@link com.daa.graph.util.CsrGraph}
+ * or {@link com.daa.graph.util.CompressedGraph}), with the same semantics as
+ * {@link DAGShortestPath}: shortest paths use edge weights, longest paths node durations.
+ * Edges are read through one reused cursor per sweep.
+ */
+public class StaticDagPaths {
+    private final StaticGraph dag;
+    private final int[] topologicalOrder;
+    private int[] predecessors;
+
+    /**
+     * Constructor; sorts the DAG.
+     * @param dag the input DAG
+     */
+    public StaticDagPaths(StaticGraph dag) {
+        this(dag, TopologicalSort.kahnTopologicalSort(dag));
+    }
+
+    /**
+     * Constructor with a topological order computed elsewhere.
+     * @param dag the input DAG
+     * @param topologicalOrder a topological order of the DAG
+     */
+    public StaticDagPaths(StaticGraph dag, int[] topologicalOrder) {
+        if (topologicalOrder.length != dag.getNumVertices()) {
+            throw new IllegalArgumentException("Topological order does not cover the DAG");
+        }
+        this.dag = dag;
+        this.topologicalOrder = topologicalOrder;
+    }
+
+    /**
+     * Compute shortest paths from a source vertex.
+     * @param source source vertex
+     * @return shortest distances; Integer.MAX_VALUE marks unreachable vertices
+     */
+    public int[] shortestPathsFromSource(int source) {
+        int n = dag.getNumVertices();
+        int[] distances = new int[n];
+        predecessors = new int[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(predecessors, -1);
+        distances[source] = 0;
+
+        StaticGraph.EdgeCursor cursor = dag.cursor();
+        for (int u : topologicalOrder) {
+            if (distances[u] == Integer.MAX_VALUE) {
+                continue;
+            }
+            for (cursor.moveTo(u); cursor.next(); ) {
+                int v = cursor.target();
+                int newDist = distances[u] + cursor.weight();
+                if (newDist < distances[v]) {
+                    distances[v] = newDist;
+                    predecessors[v] = u;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Compute longest paths in node durations.
+     * @return longest distance ending at each vertex, including its own duration
+     */
+    public int[] longestPaths() {
+        int n = dag.getNumVertices();
+        int[] distances = new int[n];
+        predecessors = new int[n];
+        Arrays.fill(predecessors, -1);
+        for (int v = 0; v < n; v++) {
+            distances[v] = dag.getNodeDuration(v);
+        }
+
+        StaticGraph.EdgeCursor cursor = dag.cursor();
+        for (int u : topologicalOrder) {
+            for (cursor.moveTo(u); cursor.next(); ) {
+                int v = cursor.target();
+                int newDist = distances[u] + dag.getNodeDuration(v);
+                if (newDist > distances[v]) {
+                    distances[v] = newDist;
+                    predecessors[v] = u;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Find the critical path (longest path in DAG).
+     * @return CriticalPathResult containing the path and its length
+     */
+    public DAGShortestPath.CriticalPathResult findCriticalPath() {
+        int[] distances = longestPaths();
+        int endVertex = -1;
+        int maxDist = Integer.MIN_VALUE;
+        for (int v = 0; v < distances.length; v++) {
+            if (distances[v] > maxDist) {
+                maxDist = distances[v];
+                endVertex = v;
+            }
+        }
+        return new DAGShortestPath.CriticalPathResult(reconstructPath(endVertex), maxDist);
+    }
+
+    /**
+     * Reconstruct a path from the last computation.
+     * @param target target vertex
+     * @return list of vertices in the path
+     */
+    public List<Integer> reconstructPath(int target) {
+        List<Integer> path = new ArrayList<>();
+        for (int current = target; current != -1; current = predecessors[current]) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
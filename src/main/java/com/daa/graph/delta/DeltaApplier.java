@@ -0,0 +1,118 @@
+package com.daa.graph.delta;
+
+import com.daa.graph.util.Graph;
+
+import java.util.*;
+
+/**
+ * Applies {@link GraphDelta}s to an in-memory graph and reports what changed.
+ * Keeps a reverse (dependency) index so that duration changes can reweight a
+ * task's incoming edges, following the loader's convention that an edge
+ * dependency -> task is weighted by the duration of the task.
+ */
+public class DeltaApplier {
+    private final Graph graph;
+    private final List<List<Integer>> dependencies;
+
+    /**
+     * Constructor.
+     * @param graph graph to mutate
+     */
+    public DeltaApplier(Graph graph) {
+        this.graph = graph;
+        this.dependencies = new ArrayList<>();
+        for (int i = 0; i < graph.getNumVertices(); i++) {
+            dependencies.add(new ArrayList<>());
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            dependencies.get(edge.to).add(edge.from);
+        }
+    }
+
+    /**
+     * The structural and duration changes actually made by one delta.
+     */
+    public static class AppliedDelta {
+        /** Edges added, as {from, to} pairs. */
+        public final List<int[]> addedEdges = new ArrayList<>();
+        /** Edges removed, as {from, to} pairs. */
+        public final List<int[]> removedEdges = new ArrayList<>();
+        /** Vertices whose duration changed. */
+        public final Set<Integer> durationChanged = new LinkedHashSet<>();
+        /** All vertices touched by the delta. */
+        public final Set<Integer> dirtyVertices = new LinkedHashSet<>();
+
+        public boolean isEmpty() {
+            return dirtyVertices.isEmpty();
+        }
+    }
+
+    /**
+     * Apply a delta to the graph. Removing a dependency that does not exist, or adding
+     * one that the graph's duplicate policy rejects, is a no-op.
+     * @param delta changes to apply
+     * @return what changed
+     * @throws IllegalArgumentException if a change refers to an invalid vertex
+     */
+    public AppliedDelta apply(GraphDelta delta) {
+        AppliedDelta applied = new AppliedDelta();
+        for (GraphDelta.Change change : delta.getChanges()) {
+            int task = change.task;
+            switch (change.op) {
+                case ADD_DEPENDENCY: {
+                    int edgesBefore = graph.getNumEdges();
+                    if (!graph.addEdge(change.dependency, task, graph.getNodeDuration(task))) {
+                        break; // the duplicate policy kept the existing edge
+                    }
+                    if (graph.getNumEdges() > edgesBefore) {
+                        dependencies.get(task).add(change.dependency);
+                        applied.addedEdges.add(new int[]{change.dependency, task});
+                    }
+                    applied.dirtyVertices.add(change.dependency);
+                    applied.dirtyVertices.add(task);
+                    break;
+                }
+                case REMOVE_DEPENDENCY:
+                    if (graph.removeEdge(change.dependency, task) != null) {
+                        dependencies.get(task).remove(Integer.valueOf(change.dependency));
+                        applied.removedEdges.add(new int[]{change.dependency, task});
+                        applied.dirtyVertices.add(change.dependency);
+                        applied.dirtyVertices.add(task);
+                    }
+                    break;
+                case SET_DURATION:
+                    if (task < 0 || task >= graph.getNumVertices()) {
+                        throw new IllegalArgumentException("Invalid vertex index");
+                    }
+                    if (graph.getNodeDuration(task) != change.duration) {
+                        graph.setNodeDuration(task, change.duration);
+                        for (int dependency : dependencies.get(task)) {
+                            graph.removeEdge(dependency, task);
+                            graph.addEdge(dependency, task, change.duration);
+                        }
+                        applied.durationChanged.add(task);
+                        applied.dirtyVertices.add(task);
+                    }
+                    break;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Get the graph being mutated.
+     * @return graph
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Get the dependencies (in-neighbours, with multiplicity) of a vertex.
+     * @param vertex vertex index
+     * @return list of source vertices of incoming edges
+     */
+    public List<Integer> getDependencies(int vertex) {
+        return dependencies.get(vertex);
+    }
+}
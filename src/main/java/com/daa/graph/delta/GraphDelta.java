@@ -0,0 +1,178 @@
+package com.daa.graph.delta;
+
+import com.daa.graph.util.GraphStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of changes to a task graph.
+ * JSON format (may be gzip- or zstd-compressed):
+ * {
+ *   "changes": [
+ *     {"op": "addDependency", "task": 5, "dependency": 3},
+ *     {"op": "removeDependency", "task": 5, "dependency": 1},
+ *     {"op": "setDuration", "task": 2, "duration": 7}
+ *   ]
+ * }
+ * Changes are applied in order.
+ */
+public class GraphDelta {
+    private static final Gson gson = new Gson();
+
+    /**
+     * Change operation enumeration.
+     */
+    public enum Op {
+        ADD_DEPENDENCY,
+        REMOVE_DEPENDENCY,
+        SET_DURATION
+    }
+
+    /**
+     * A single change. For dependency changes the affected edge is dependency -> task.
+     */
+    public static class Change {
+        public final Op op;
+        public final int task;
+        public final int dependency;
+        public final int duration;
+
+        private Change(Op op, int task, int dependency, int duration) {
+            this.op = op;
+            this.task = task;
+            this.dependency = dependency;
+            this.duration = duration;
+        }
+
+        @Override
+        public String toString() {
+            switch (op) {
+                case ADD_DEPENDENCY:
+                    return String.format("+ %d -> %d", dependency, task);
+                case REMOVE_DEPENDENCY:
+                    return String.format("- %d -> %d", dependency, task);
+                default:
+                    return String.format("duration(%d) = %d", task, duration);
+            }
+        }
+    }
+
+    private final List<Change> changes = new ArrayList<>();
+
+    /**
+     * Add a dependency edge dependency -> task.
+     * @param task dependent task
+     * @param dependency task it depends on
+     * @return this delta
+     */
+    public GraphDelta addDependency(int task, int dependency) {
+        changes.add(new Change(Op.ADD_DEPENDENCY, task, dependency, 0));
+        return this;
+    }
+
+    /**
+     * Remove one dependency edge dependency -> task.
+     * @param task dependent task
+     * @param dependency task it depends on
+     * @return this delta
+     */
+    public GraphDelta removeDependency(int task, int dependency) {
+        changes.add(new Change(Op.REMOVE_DEPENDENCY, task, dependency, 0));
+        return this;
+    }
+
+    /**
+     * Change the duration of a task.
+     * @param task task id
+     * @param duration new duration
+     * @return this delta
+     */
+    public GraphDelta setDuration(int task, int duration) {
+        changes.add(new Change(Op.SET_DURATION, task, -1, duration));
+        return this;
+    }
+
+    /**
+     * Get the changes in application order.
+     * @return unmodifiable list of changes
+     */
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Load a delta from a JSON file.
+     * @param filePath path to the delta file
+     * @return parsed delta
+     * @throws IOException if the file cannot be read
+     */
+    public static GraphDelta load(String filePath) throws IOException {
+        JsonObject root;
+        try (Reader reader = new InputStreamReader(GraphStreams.openInput(filePath), StandardCharsets.UTF_8)) {
+            root = gson.fromJson(reader, JsonObject.class);
+        }
+
+        GraphDelta delta = new GraphDelta();
+        for (JsonElement changeElem : root.getAsJsonArray("changes")) {
+            JsonObject change = changeElem.getAsJsonObject();
+            String op = change.get("op").getAsString();
+            int task = change.get("task").getAsInt();
+            switch (op) {
+                case "addDependency":
+                    delta.addDependency(task, change.get("dependency").getAsInt());
+                    break;
+                case "removeDependency":
+                    delta.removeDependency(task, change.get("dependency").getAsInt());
+                    break;
+                case "setDuration":
+                    delta.setDuration(task, change.get("duration").getAsInt());
+                    break;
+                default:
+                    throw new IOException("Unknown delta operation: " + op);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Convert this delta to its JSON form.
+     * @return JSON object with a "changes" array
+     */
+    public JsonObject toJson() {
+        JsonArray array = new JsonArray();
+        for (Change change : changes) {
+            JsonObject obj = new JsonObject();
+            switch (change.op) {
+                case ADD_DEPENDENCY:
+                    obj.addProperty("op", "addDependency");
+                    obj.addProperty("task", change.task);
+                    obj.addProperty("dependency", change.dependency);
+                    break;
+                case REMOVE_DEPENDENCY:
+                    obj.addProperty("op", "removeDependency");
+                    obj.addProperty("task", change.task);
+                    obj.addProperty("dependency", change.dependency);
+                    break;
+                case SET_DURATION:
+                    obj.addProperty("op", "setDuration");
+                    obj.addProperty("task", change.task);
+                    obj.addProperty("duration", change.duration);
+                    break;
+            }
+            array.add(obj);
+        }
+        JsonObject root = new JsonObject();
+        root.add("changes", array);
+        return root;
+    }
+}
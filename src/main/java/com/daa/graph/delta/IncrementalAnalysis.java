@@ -0,0 +1,440 @@
+package com.daa.graph.delta;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+
+import java.util.*;
+
+/**
+ * SCCs, condensation and longest (critical) paths that are kept up to date as
+ * {@link GraphDelta}s are applied, recomputing only what a delta can affect:
+ * <ul>
+ *   <li>SCCs: only components containing an endpoint of a removed internal edge, or lying
+ *       on a cycle that an added edge may have closed, are recomputed.</li>
+ *   <li>Condensation: edge multiplicities are adjusted per changed edge; only edges incident
+ *       to recomputed components are recounted.</li>
+ *   <li>Longest paths: only components downstream of a change are re-relaxed.</li>
+ * </ul>
+ * Component ids are stable for untouched components; recomputed components get fresh ids,
+ * so ids are not contiguous.
+ */
+public class IncrementalAnalysis {
+    private final DeltaApplier applier;
+    private final Graph graph;
+    private final int[] sccOf;
+    private final Map<Integer, List<Integer>> members = new HashMap<>();
+    private final Map<Integer, Map<Integer, Integer>> condOut = new HashMap<>();
+    private final Map<Integer, Map<Integer, Integer>> condIn = new HashMap<>();
+    private final Map<Integer, Integer> sccDuration = new HashMap<>();
+    private final Map<Integer, Integer> longest = new HashMap<>();
+    private final Map<Integer, Integer> longestPred = new HashMap<>();
+    private int nextSccId = 0;
+
+    private int lastRecomputedSccs;
+    private int lastRecomputedVertices;
+    private int lastRelaxedSccs;
+
+    /**
+     * Constructor. Runs one full analysis of the graph.
+     * @param graph graph to analyze; it is mutated by {@link #apply(GraphDelta)}
+     */
+    public IncrementalAnalysis(Graph graph) {
+        this.graph = graph;
+        this.applier = new DeltaApplier(graph);
+        this.sccOf = new int[graph.getNumVertices()];
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        for (List<Integer> component : scc.findSCCs()) {
+            int id = nextSccId++;
+            addComponent(id, new ArrayList<>(component));
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            int from = sccOf[edge.from];
+            int to = sccOf[edge.to];
+            if (from != to) {
+                adjustCondensationEdge(from, to, 1);
+            }
+        }
+        relaxDownstream(members.keySet());
+        lastRelaxedSccs = members.size();
+        lastRecomputedSccs = members.size();
+        lastRecomputedVertices = sccOf.length;
+    }
+
+    /**
+     * Apply a delta and incrementally update all results.
+     * @param delta changes to apply
+     * @return what changed in the graph
+     */
+    public DeltaApplier.AppliedDelta apply(GraphDelta delta) {
+        DeltaApplier.AppliedDelta applied = applier.apply(delta);
+        update(applied);
+        return applied;
+    }
+
+    private void update(DeltaApplier.AppliedDelta applied) {
+        Set<Integer> affected = findAffectedComponents(applied);
+        Set<Integer> dirty = new HashSet<>();
+
+        // Detach affected components from the condensation
+        List<Integer> affectedVertices = new ArrayList<>();
+        for (int id : affected) {
+            affectedVertices.addAll(members.remove(id));
+            for (int succ : condOut.remove(id).keySet()) {
+                if (!affected.contains(succ)) {
+                    condIn.get(succ).remove(id);
+                    dirty.add(succ);
+                }
+            }
+            for (int pred : condIn.remove(id).keySet()) {
+                if (!affected.contains(pred)) {
+                    condOut.get(pred).remove(id);
+                }
+            }
+            sccDuration.remove(id);
+            longest.remove(id);
+            longestPred.remove(id);
+        }
+
+        // Edges between untouched components only change multiplicity
+        for (int[] edge : applied.addedEdges) {
+            int from = sccOf[edge[0]];
+            int to = sccOf[edge[1]];
+            if (from != to && !affected.contains(from) && !affected.contains(to)) {
+                adjustCondensationEdge(from, to, 1);
+                dirty.add(to);
+            }
+        }
+        for (int[] edge : applied.removedEdges) {
+            int from = sccOf[edge[0]];
+            int to = sccOf[edge[1]];
+            if (from != to && !affected.contains(from) && !affected.contains(to)) {
+                adjustCondensationEdge(from, to, -1);
+                dirty.add(to);
+            }
+        }
+
+        // Recompute SCCs of the affected region and recount its condensation edges
+        Set<Integer> created = new HashSet<>();
+        for (List<Integer> component : sccsOf(affectedVertices, affected)) {
+            int id = nextSccId++;
+            addComponent(id, component);
+            created.add(id);
+        }
+        for (int v : affectedVertices) {
+            for (Graph.Edge edge : graph.getOutgoingEdges(v)) {
+                int from = sccOf[v];
+                int to = sccOf[edge.to];
+                if (from != to) {
+                    adjustCondensationEdge(from, to, 1);
+                    dirty.add(to);
+                }
+            }
+            for (int u : applier.getDependencies(v)) {
+                int from = sccOf[u];
+                if (!created.contains(from)) {
+                    adjustCondensationEdge(from, sccOf[v], 1);
+                }
+            }
+        }
+        dirty.addAll(created);
+
+        for (int v : applied.durationChanged) {
+            int id = sccOf[v];
+            if (!created.contains(id)) {
+                sccDuration.put(id, maxDuration(members.get(id)));
+                dirty.add(id);
+            }
+        }
+
+        lastRecomputedSccs = affected.size();
+        lastRecomputedVertices = affectedVertices.size();
+        lastRelaxedSccs = relaxDownstream(dirty);
+    }
+
+    /**
+     * Old components whose membership may change: those with a removed internal edge,
+     * and those both reachable from the head and reaching the tail of some added
+     * edge (i.e. on a potential new cycle).
+     */
+    private Set<Integer> findAffectedComponents(DeltaApplier.AppliedDelta applied) {
+        Set<Integer> affected = new HashSet<>();
+        for (int[] edge : applied.removedEdges) {
+            if (sccOf[edge[0]] == sccOf[edge[1]]) {
+                affected.add(sccOf[edge[0]]);
+            }
+        }
+
+        Map<Integer, List<Integer>> addedOut = new HashMap<>();
+        Map<Integer, List<Integer>> addedIn = new HashMap<>();
+        for (int[] edge : applied.addedEdges) {
+            int from = sccOf[edge[0]];
+            int to = sccOf[edge[1]];
+            if (from != to) {
+                addedOut.computeIfAbsent(from, k -> new ArrayList<>()).add(to);
+                addedIn.computeIfAbsent(to, k -> new ArrayList<>()).add(from);
+            }
+        }
+        if (!addedOut.isEmpty()) {
+            Set<Integer> forward = reach(addedIn.keySet(), condOut, addedOut);
+            Set<Integer> backward = reach(addedOut.keySet(), condIn, addedIn);
+            forward.retainAll(backward);
+            affected.addAll(forward);
+        }
+        return affected;
+    }
+
+    private static Set<Integer> reach(Set<Integer> start, Map<Integer, Map<Integer, Integer>> adjacency,
+                                      Map<Integer, List<Integer>> extra) {
+        Set<Integer> seen = new HashSet<>(start);
+        Deque<Integer> queue = new ArrayDeque<>(start);
+        while (!queue.isEmpty()) {
+            int c = queue.poll();
+            for (int next : adjacency.getOrDefault(c, Collections.emptyMap()).keySet()) {
+                if (seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+            for (int next : extra.getOrDefault(c, Collections.emptyList())) {
+                if (seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Kosaraju's algorithm restricted to the given vertices (iterative, so deep
+     * regions cannot overflow the call stack). Vertices are identified as belonging to
+     * the region by their (not yet reassigned) component id.
+     */
+    private List<List<Integer>> sccsOf(List<Integer> vertices, Set<Integer> region) {
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> finished = new ArrayDeque<>();
+        Deque<int[]> stack = new ArrayDeque<>();
+        for (int start : vertices) {
+            if (!visited.add(start)) {
+                continue;
+            }
+            stack.push(new int[]{start, 0});
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                List<Graph.Edge> out = graph.getOutgoingEdges(frame[0]);
+                if (frame[1] < out.size()) {
+                    int next = out.get(frame[1]++).to;
+                    if (region.contains(sccOf[next]) && visited.add(next)) {
+                        stack.push(new int[]{next, 0});
+                    }
+                } else {
+                    finished.push(stack.pop()[0]);
+                }
+            }
+        }
+
+        List<List<Integer>> components = new ArrayList<>();
+        Set<Integer> assigned = new HashSet<>();
+        Deque<Integer> work = new ArrayDeque<>();
+        for (int root : finished) {
+            if (!assigned.add(root)) {
+                continue;
+            }
+            List<Integer> component = new ArrayList<>();
+            work.push(root);
+            while (!work.isEmpty()) {
+                int v = work.pop();
+                component.add(v);
+                for (int u : applier.getDependencies(v)) {
+                    if (region.contains(sccOf[u]) && assigned.add(u)) {
+                        work.push(u);
+                    }
+                }
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * Recompute longest-path values for all components downstream of the dirty set,
+     * in topological order of that cone. Values outside the cone are unchanged.
+     * @return number of components relaxed
+     */
+    private int relaxDownstream(Set<Integer> dirty) {
+        Set<Integer> cone = reach(dirty, condOut, Collections.emptyMap());
+        Map<Integer, Integer> inDegree = new HashMap<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c : cone) {
+            int degree = 0;
+            for (int pred : condIn.get(c).keySet()) {
+                if (cone.contains(pred)) {
+                    degree++;
+                }
+            }
+            inDegree.put(c, degree);
+            if (degree == 0) {
+                queue.add(c);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int c = queue.poll();
+            int best = 0;
+            int bestPred = -1;
+            for (int pred : condIn.get(c).keySet()) {
+                int dist = longest.get(pred);
+                if (bestPred == -1 || dist > best || (dist == best && pred < bestPred)) {
+                    best = dist;
+                    bestPred = pred;
+                }
+            }
+            longest.put(c, best + sccDuration.get(c));
+            longestPred.put(c, bestPred);
+            for (int succ : condOut.get(c).keySet()) {
+                if (inDegree.merge(succ, -1, Integer::sum) == 0) {
+                    queue.add(succ);
+                }
+            }
+        }
+        return cone.size();
+    }
+
+    private void addComponent(int id, List<Integer> component) {
+        members.put(id, component);
+        for (int v : component) {
+            sccOf[v] = id;
+        }
+        condOut.put(id, new HashMap<>());
+        condIn.put(id, new HashMap<>());
+        sccDuration.put(id, maxDuration(component));
+    }
+
+    private int maxDuration(List<Integer> component) {
+        int max = 0;
+        for (int v : component) {
+            max = Math.max(max, graph.getNodeDuration(v));
+        }
+        return max;
+    }
+
+    private void adjustCondensationEdge(int from, int to, int delta) {
+        Map<Integer, Integer> out = condOut.get(from);
+        int count = out.getOrDefault(to, 0) + delta;
+        if (count > 0) {
+            out.put(to, count);
+            condIn.get(to).put(from, count);
+        } else {
+            out.remove(to);
+            condIn.get(to).remove(from);
+        }
+    }
+
+    /**
+     * Get the component id of a vertex.
+     * @param vertex vertex index
+     * @return component id
+     */
+    public int getSccId(int vertex) {
+        return sccOf[vertex];
+    }
+
+    /**
+     * Get the number of strongly connected components.
+     * @return number of SCCs
+     */
+    public int getSccCount() {
+        return members.size();
+    }
+
+    /**
+     * Get the vertices of a component.
+     * @param sccId component id
+     * @return unmodifiable list of member vertices
+     */
+    public List<Integer> getMembers(int sccId) {
+        return Collections.unmodifiableList(members.get(sccId));
+    }
+
+    /**
+     * Get all components.
+     * @return list of SCCs, each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> getSCCs() {
+        return new ArrayList<>(members.values());
+    }
+
+    /**
+     * Get the condensation successors of a component.
+     * @param sccId component id
+     * @return set of successor component ids
+     */
+    public Set<Integer> getSuccessors(int sccId) {
+        return Collections.unmodifiableSet(condOut.get(sccId).keySet());
+    }
+
+    /**
+     * Get the longest path (sum of component durations) ending at a component.
+     * @param sccId component id
+     * @return longest distance
+     */
+    public int getLongestDistance(int sccId) {
+        return longest.get(sccId);
+    }
+
+    /**
+     * Find the critical path over the condensation.
+     * @return critical path as a list of component ids, with its length
+     */
+    public DAGShortestPath.CriticalPathResult getCriticalPath() {
+        int end = -1;
+        int maxDist = Integer.MIN_VALUE;
+        for (Map.Entry<Integer, Integer> entry : longest.entrySet()) {
+            int id = entry.getKey();
+            int dist = entry.getValue();
+            if (dist > maxDist || (dist == maxDist && id < end)) {
+                maxDist = dist;
+                end = id;
+            }
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int current = end; current != -1; current = longestPred.get(current)) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return new DAGShortestPath.CriticalPathResult(path, end == -1 ? 0 : maxDist);
+    }
+
+    /**
+     * Get the number of old components recomputed by the last update.
+     * @return component count
+     */
+    public int getLastRecomputedSccs() {
+        return lastRecomputedSccs;
+    }
+
+    /**
+     * Get the number of vertices whose SCC was recomputed by the last update.
+     * @return vertex count
+     */
+    public int getLastRecomputedVertices() {
+        return lastRecomputedVertices;
+    }
+
+    /**
+     * Get the number of components whose longest path was recomputed by the last update.
+     * @return component count
+     */
+    public int getLastRelaxedSccs() {
+        return lastRelaxedSccs;
+    }
+
+    /**
+     * Get the underlying (mutated) graph.
+     * @return graph
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,328 @@
+package com.daa.graph.external;
+
+import com.daa.graph.util.BinaryGraphFormat;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.GraphStreams;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Flat on-disk edge list for the semi-external algorithms. Layout (big-endian):
+ * <pre>
+ *   magic "DAAE", int version, int numVertices, long numEdges,
+ *   int[numVertices] durations,
+ *   numEdges records of (int from, int to, int weight)
+ * </pre>
+ * Edges are only ever read front to back, a bounded buffer at a time, so a file may
+ * be far larger than the heap. The scratch files written between passes hold bare
+ * edge records without the header.
+ */
+public final class EdgeFile {
+    /** Magic bytes "DAAE" at the start of every edge file. */
+    public static final int MAGIC = 0x44414145;
+    public static final int VERSION = 1;
+    static final int EDGE_BYTES = 12;
+    private static final int HEADER_BYTES = 20;
+
+    private final Path path;
+    private final int numVertices;
+    private final long numEdges;
+
+    private EdgeFile(Path path, int numVertices, long numEdges) {
+        this.path = path;
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+    }
+
+    /**
+     * Open an existing edge file, reading only its header.
+     * @param path edge file
+     * @return the opened file
+     * @throws IOException if the file is not a valid edge file
+     */
+    public static EdgeFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Truncated edge file header");
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an edge file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported edge file version: " + version);
+            }
+            int numVertices = header.getInt();
+            long numEdges = header.getLong();
+            long expected = HEADER_BYTES + 4L * numVertices + EDGE_BYTES * numEdges;
+            if (numVertices < 0 || numEdges < 0 || channel.size() != expected) {
+                throw new IOException("Edge file size does not match its header");
+            }
+            return new EdgeFile(path, numVertices, numEdges);
+        }
+    }
+
+    /**
+     * Write an in-memory graph as an edge file.
+     * @param graph graph to write
+     * @param path output path
+     * @return the written file
+     * @throws IOException if writing fails
+     */
+    public static EdgeFile write(Graph graph, Path path) throws IOException {
+        int n = graph.getNumVertices();
+        int[] durations = new int[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = graph.getNodeDuration(v);
+        }
+        try (EdgeWriter out = create(path, durations, 1 << 14)) {
+            for (Graph.Edge edge : graph.getEdges()) {
+                out.write(edge.from, edge.to, edge.weight);
+            }
+        }
+        return open(path);
+    }
+
+    /**
+     * Convert a binary task graph ({@link BinaryGraphFormat}) to an edge file one task
+     * record at a time, without building the graph in memory. As in that format, each
+     * dependency d of task t becomes an edge d -> t weighted by the duration of t.
+     * @param input binary task graph stream, possibly compressed; closed when done
+     * @param path output path
+     * @return the written file
+     * @throws IOException if the input is not a valid binary graph or writing fails
+     */
+    public static EdgeFile fromTaskGraph(InputStream input, Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(GraphStreams.wrapInput(input), 1 << 16))) {
+            if (in.readInt() != BinaryGraphFormat.MAGIC) {
+                throw new IOException("Not a binary graph file");
+            }
+            int version = in.readInt();
+            if (version != BinaryGraphFormat.VERSION) {
+                throw new IOException("Unsupported binary graph version: " + version);
+            }
+            int n = in.readInt();
+            // Durations precede the edges in the output, but records interleave them.
+            try (EdgeWriter out = create(path, new int[n], 1 << 14)) {
+                int[] durations = new int[n];
+                for (int task = 0; task < n; task++) {
+                    durations[task] = in.readInt();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        out.write(in.readInt(), task, durations[task]);
+                    }
+                }
+                out.patchDurations(durations);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated binary graph file", e);
+        }
+        return open(path);
+    }
+
+    /**
+     * Create a new edge file; edges are appended through the returned writer and the
+     * header's edge count is filled in on close.
+     */
+    static EdgeWriter create(Path path, int[] durations, int bufferEdges) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 4 * durations.length);
+        header.putInt(MAGIC).putInt(VERSION).putInt(durations.length).putLong(0);
+        for (int duration : durations) {
+            header.putInt(duration);
+        }
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return new EdgeWriter(channel, bufferEdges, true);
+    }
+
+    /**
+     * Create a headerless scratch file of edge records.
+     */
+    static EdgeWriter createScratch(Path path, int bufferEdges) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new EdgeWriter(channel, bufferEdges, false);
+    }
+
+    /**
+     * Create an empty scratch file next to this one, on the disk that already holds the graph.
+     */
+    Path createScratchFile(String prefix) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        return Files.createTempFile(parent != null ? parent : Path.of("."), prefix, ".edges");
+    }
+
+    /**
+     * Read the task durations, O(V) memory.
+     * @return duration of each vertex
+     * @throws IOException if reading fails
+     */
+    public int[] readDurations() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * numVertices);
+            channel.position(HEADER_BYTES);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Truncated edge file");
+                }
+            }
+            buffer.flip();
+            int[] durations = new int[numVertices];
+            buffer.asIntBuffer().get(durations);
+            return durations;
+        }
+    }
+
+    /**
+     * Start a sequential pass over the edges.
+     */
+    EdgeReader reader(int bufferEdges) throws IOException {
+        return new EdgeReader(path, HEADER_BYTES + 4L * numVertices, bufferEdges);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public long getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Reads edge records into caller-owned arrays through one fixed-size byte buffer.
+     */
+    static final class EdgeReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long bytesRead = 0;
+
+        EdgeReader(Path path, long offset, int bufferEdges) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            channel.position(offset);
+            buffer = ByteBuffer.allocate(EDGE_BYTES * Math.max(1, bufferEdges));
+        }
+
+        /**
+         * Fill the arrays with the next edges.
+         * @return number of edges read, 0 at the end of the file
+         */
+        int read(int[] from, int[] to, int[] weight) throws IOException {
+            int max = Math.min(from.length, buffer.capacity() / EDGE_BYTES);
+            buffer.clear().limit(max * EDGE_BYTES);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            if (buffer.remaining() % EDGE_BYTES != 0) {
+                throw new IOException("Truncated edge record");
+            }
+            bytesRead += buffer.remaining();
+            int count = buffer.remaining() / EDGE_BYTES;
+            for (int i = 0; i < count; i++) {
+                from[i] = buffer.getInt();
+                to[i] = buffer.getInt();
+                weight[i] = buffer.getInt();
+            }
+            return count;
+        }
+
+        long getBytesRead() {
+            return bytesRead;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends edge records through one fixed-size byte buffer.
+     */
+    static final class EdgeWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final boolean hasHeader;
+        private long edges = 0;
+        private long bytesWritten = 0;
+
+        EdgeWriter(FileChannel channel, int bufferEdges, boolean hasHeader) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(EDGE_BYTES * Math.max(1, bufferEdges));
+            this.hasHeader = hasHeader;
+        }
+
+        void write(int from, int to, int weight) throws IOException {
+            if (buffer.remaining() < EDGE_BYTES) {
+                flush();
+            }
+            buffer.putInt(from).putInt(to).putInt(weight);
+            edges++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            bytesWritten += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void patchDurations(int[] durations) throws IOException {
+            ByteBuffer block = ByteBuffer.allocate(4 * durations.length);
+            block.asIntBuffer().put(durations);
+            for (long position = HEADER_BYTES; block.hasRemaining(); ) {
+                position += channel.write(block, position);
+            }
+        }
+
+        long getEdgeCount() {
+            return edges;
+        }
+
+        long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                if (hasHeader) {
+                    ByteBuffer count = ByteBuffer.allocate(8).putLong(0, edges);
+                    for (long position = 12; count.hasRemaining(); ) {
+                        position += channel.write(count, position);
+                    }
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
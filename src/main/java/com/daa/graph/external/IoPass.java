@@ -0,0 +1,24 @@
+package com.daa.graph.external;
+
+/**
+ * I/O volume of one sequential pass over an edge file.
+ */
+public final class IoPass {
+    public final String phase;
+    public final long edgesScanned;
+    public final long bytesRead;
+    public final long bytesWritten;
+
+    public IoPass(String phase, long edgesScanned, long bytesRead, long bytesWritten) {
+        this.phase = phase;
+        this.edgesScanned = edgesScanned;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d edges, %d bytes read, %d bytes written",
+            phase, edgesScanned, bytesRead, bytesWritten);
+    }
+}
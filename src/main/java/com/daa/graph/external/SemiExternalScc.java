@@ -0,0 +1,461 @@
+package com.daa.graph.external;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Strongly connected components of a graph on disk with O(V) memory plus a buffer of
+ * a fixed number of edges. Works in sequential passes over the edge file:
+ * <ul>
+ *   <li><b>Contraction</b>: each buffer-full of edges is relabeled through a union-find
+ *       over the vertices, its SCCs are found in memory with Tarjan's algorithm and
+ *       merged, and the surviving inter-component edges are written to a scratch file
+ *       for the next pass. Once the contracted graph fits in the buffer, one last
+ *       in-memory pass finishes the job.</li>
+ *   <li><b>Coloring</b>, when a contraction pass merges nothing (cycles only span
+ *       buffers): every component takes the largest id that reaches it, and the
+ *       components reaching back to their color's origin form one SCC. Edges between
+ *       colors or touching a finished SCC are dropped after each round. The number of
+ *       passes then grows with the depth of the contracted graph.</li>
+ * </ul>
+ * Component ids are contiguous but not in topological order; write the condensation
+ * with {@link #writeCondensation(Path)} and sort it with {@link SemiExternalTopologicalSort}.
+ */
+public class SemiExternalScc {
+    private final EdgeFile input;
+    private final int bufferEdges;
+    private final List<IoPass> passes = new ArrayList<>();
+    private final int[] from;
+    private final int[] to;
+    private final int[] weight;
+    private int[] parent;
+    private int[] size;
+    private int[] component;
+    private int componentCount;
+
+    // Per-buffer scratch: buffer-local vertex ids and a CSR of the buffered edges.
+    private int[] localId;
+    private int[] localStamp;
+    private int chunkEpoch = 0;
+    private final int[] localVertex;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] index;
+    private final int[] lowLink;
+    private final int[] stack;
+    private final int[] callStack;
+    private final int[] edgePosition;
+    private final boolean[] onStack;
+
+    /**
+     * Constructor.
+     * @param input edge file to analyze
+     * @param bufferEdges edges held in memory at once
+     */
+    public SemiExternalScc(EdgeFile input, int bufferEdges) {
+        if (bufferEdges < 1) {
+            throw new IllegalArgumentException("Buffer must hold at least one edge");
+        }
+        this.input = input;
+        this.bufferEdges = bufferEdges;
+        from = new int[bufferEdges];
+        to = new int[bufferEdges];
+        weight = new int[bufferEdges];
+        int local = 2 * bufferEdges;
+        localVertex = new int[local];
+        offsets = new int[local + 1];
+        targets = new int[bufferEdges];
+        index = new int[local];
+        lowLink = new int[local];
+        stack = new int[local];
+        callStack = new int[local];
+        edgePosition = new int[local];
+        onStack = new boolean[local];
+    }
+
+    /**
+     * Compute the SCCs.
+     * @return number of SCCs
+     * @throws IOException if reading or writing fails
+     */
+    public int run() throws IOException {
+        int n = input.getNumVertices();
+        parent = new int[n];
+        size = new int[n];
+        localId = new int[n];
+        localStamp = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        passes.clear();
+
+        Path current = null; // null: the input file itself
+        long edges = input.getNumEdges();
+        try {
+            for (int round = 0; edges > 0; round++) {
+                if (edges <= bufferEdges) {
+                    contract(current, null, "scc in-memory");
+                    break;
+                }
+                Path next = input.createScratchFile("scc");
+                long[] result = contract(current, next, "scc contraction " + round);
+                deleteScratch(current);
+                current = next;
+                edges = result[1];
+                if (result[0] == 0 && edges > bufferEdges) {
+                    color(current);
+                    break;
+                }
+            }
+        } finally {
+            deleteScratch(current);
+        }
+
+        component = new int[n];
+        Arrays.fill(component, -1);
+        componentCount = 0;
+        for (int v = 0; v < n; v++) {
+            int root = find(v);
+            if (component[root] == -1) {
+                component[root] = componentCount++;
+            }
+            component[v] = component[root];
+        }
+        localId = null;
+        localStamp = null;
+        return componentCount;
+    }
+
+    /**
+     * One contraction pass: merge the SCCs of each buffer and copy the remaining
+     * inter-component edges to {@code target} (if given).
+     * @return {merges, edges written}
+     */
+    private long[] contract(Path source, Path target, String phase) throws IOException {
+        long merges = 0;
+        long scanned = 0;
+        EdgeFile.EdgeReader reader = open(source);
+        EdgeFile.EdgeWriter writer = target == null ? null : EdgeFile.createScratch(target, bufferEdges);
+        try (reader) {
+            for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                scanned += count;
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int u = find(from[i]);
+                    int v = find(to[i]);
+                    if (u != v) {
+                        from[kept] = u;
+                        to[kept] = v;
+                        weight[kept] = weight[i];
+                        kept++;
+                    }
+                }
+                merges += mergeBufferSccs(kept);
+                if (writer != null) {
+                    for (int i = 0; i < kept; i++) {
+                        int u = find(from[i]);
+                        int v = find(to[i]);
+                        if (u != v) {
+                            writer.write(u, v, weight[i]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        passes.add(new IoPass(phase, scanned, reader.getBytesRead(), writer == null ? 0 : writer.getBytesWritten()));
+        return new long[]{merges, writer == null ? 0 : writer.getEdgeCount()};
+    }
+
+    /**
+     * Iterative Tarjan over the buffered edges, with vertices renumbered densely so the
+     * work is proportional to the buffer, not to V.
+     * @return number of unions performed
+     */
+    private int mergeBufferSccs(int count) {
+        if (++chunkEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(localStamp, 0);
+            chunkEpoch = 1;
+        }
+        int vertices = 0;
+        for (int i = 0; i < 2 * count; i++) {
+            int v = i < count ? from[i] : to[i - count];
+            if (localStamp[v] != chunkEpoch) {
+                localStamp[v] = chunkEpoch;
+                localId[v] = vertices;
+                localVertex[vertices++] = v;
+            }
+        }
+        Arrays.fill(offsets, 0, vertices + 1, 0);
+        for (int i = 0; i < count; i++) {
+            offsets[localId[from[i]] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+            edgePosition[v] = offsets[v];
+        }
+        for (int i = 0; i < count; i++) {
+            targets[edgePosition[localId[from[i]]]++] = localId[to[i]];
+        }
+
+        Arrays.fill(index, 0, vertices, -1);
+        int unions = 0;
+        int counter = 0;
+        int top = 0;
+        for (int root = 0; root < vertices; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int calls = 0;
+            index[root] = lowLink[root] = counter++;
+            stack[top++] = root;
+            onStack[root] = true;
+            edgePosition[root] = offsets[root];
+            callStack[calls++] = root;
+            while (calls > 0) {
+                int v = callStack[calls - 1];
+                if (edgePosition[v] < offsets[v + 1]) {
+                    int w = targets[edgePosition[v]++];
+                    if (index[w] == -1) {
+                        index[w] = lowLink[w] = counter++;
+                        stack[top++] = w;
+                        onStack[w] = true;
+                        edgePosition[w] = offsets[w];
+                        callStack[calls++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+                calls--;
+                if (calls > 0) {
+                    int caller = callStack[calls - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[v]);
+                }
+                if (lowLink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--top];
+                        onStack[w] = false;
+                        if (w != v && union(localVertex[v], localVertex[w])) {
+                            unions++;
+                        }
+                    } while (w != v);
+                }
+            }
+        }
+        return unions;
+    }
+
+    /**
+     * Coloring rounds on the contracted graph in {@code current} until every component
+     * is final.
+     */
+    private void color(Path current) throws IOException {
+        int n = parent.length;
+        int[] color = new int[n];
+        boolean[] done = new boolean[n];
+        boolean[] marked = new boolean[n];
+        try {
+            for (int round = 0; ; round++) {
+                for (int v = 0; v < n; v++) {
+                    if (parent[v] == v && !done[v]) {
+                        color[v] = v;
+                    }
+                }
+                // Forward: every component takes the largest color that reaches it.
+                for (boolean changed = true; changed; ) {
+                    changed = false;
+                    try (EdgeFile.EdgeReader reader = open(current)) {
+                        long scanned = 0;
+                        for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                            scanned += count;
+                            relabel(count);
+                            for (boolean local = true; local; ) {
+                                local = false;
+                                for (int i = 0; i < count; i++) {
+                                    if (color[from[i]] > color[to[i]]) {
+                                        color[to[i]] = color[from[i]];
+                                        local = true;
+                                        changed = true;
+                                    }
+                                }
+                            }
+                        }
+                        passes.add(new IoPass("scc color " + round, scanned, reader.getBytesRead(), 0));
+                    }
+                }
+                // Backward: within each color, the components that reach its origin.
+                for (int v = 0; v < n; v++) {
+                    marked[v] = parent[v] == v && !done[v] && color[v] == v;
+                }
+                for (boolean changed = true; changed; ) {
+                    changed = false;
+                    try (EdgeFile.EdgeReader reader = open(current)) {
+                        long scanned = 0;
+                        for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                            scanned += count;
+                            relabel(count);
+                            for (boolean local = true; local; ) {
+                                local = false;
+                                for (int i = 0; i < count; i++) {
+                                    int u = from[i];
+                                    int v = to[i];
+                                    if (!marked[u] && marked[v] && color[u] == color[v]) {
+                                        marked[u] = true;
+                                        local = true;
+                                        changed = true;
+                                    }
+                                }
+                            }
+                        }
+                        passes.add(new IoPass("scc reach " + round, scanned, reader.getBytesRead(), 0));
+                    }
+                }
+                for (int v = 0; v < n; v++) {
+                    if (marked[v] && parent[v] == v && color[v] != v) {
+                        union(color[v], v);
+                    }
+                }
+                for (int v = 0; v < n; v++) {
+                    if (marked[v]) {
+                        done[find(v)] = true;
+                    }
+                }
+
+                // Keep only edges inside one color between unfinished components.
+                Path next = input.createScratchFile("scc");
+                long scanned = 0;
+                EdgeFile.EdgeReader reader = open(current);
+                EdgeFile.EdgeWriter writer = EdgeFile.createScratch(next, bufferEdges);
+                try (reader; writer) {
+                    for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                        scanned += count;
+                        for (int i = 0; i < count; i++) {
+                            int u = find(from[i]);
+                            int v = find(to[i]);
+                            if (u != v && !done[u] && !done[v] && color[u] == color[v]) {
+                                writer.write(u, v, weight[i]);
+                            }
+                        }
+                    }
+                }
+                passes.add(new IoPass("scc filter " + round, scanned, reader.getBytesRead(), writer.getBytesWritten()));
+                Files.deleteIfExists(current);
+                current = next;
+                if (writer.getEdgeCount() == 0) {
+                    return; // what is left are single-component SCCs
+                }
+            }
+        } finally {
+            Files.deleteIfExists(current);
+        }
+    }
+
+    private void relabel(int count) {
+        for (int i = 0; i < count; i++) {
+            from[i] = find(from[i]);
+            to[i] = find(to[i]);
+        }
+    }
+
+    private EdgeFile.EdgeReader open(Path scratch) throws IOException {
+        return scratch == null ? input.reader(bufferEdges) : new EdgeFile.EdgeReader(scratch, 0, bufferEdges);
+    }
+
+    private static void deleteScratch(Path scratch) throws IOException {
+        if (scratch != null) {
+            Files.deleteIfExists(scratch);
+        }
+    }
+
+    private boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (size[ra] < size[rb]) {
+            int swap = ra;
+            ra = rb;
+            rb = swap;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        return true;
+    }
+
+    private int find(int v) {
+        int root = v;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[v] != root) {
+            int next = parent[v];
+            parent[v] = root;
+            v = next;
+        }
+        return root;
+    }
+
+    /**
+     * Get the SCC of a vertex from the last run.
+     * @param vertex vertex index
+     * @return component id in 0..getComponentCount()-1
+     */
+    public int getComponent(int vertex) {
+        return component[vertex];
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Get the I/O of each pass of the last run.
+     * @return one entry per pass
+     */
+    public List<IoPass> getPasses() {
+        return Collections.unmodifiableList(passes);
+    }
+
+    /**
+     * Stream the condensation of the last run to a new edge file: one vertex per SCC
+     * with the maximum duration of its members, and one edge per input edge between
+     * different SCCs (parallel edges are kept).
+     * @param path output path
+     * @return the written file
+     * @throws IOException if reading or writing fails
+     */
+    public EdgeFile writeCondensation(Path path) throws IOException {
+        int[] durations = input.readDurations();
+        int[] condensed = new int[componentCount];
+        Arrays.fill(condensed, Integer.MIN_VALUE);
+        for (int v = 0; v < durations.length; v++) {
+            condensed[component[v]] = Math.max(condensed[component[v]], durations[v]);
+        }
+        long scanned = 0;
+        EdgeFile.EdgeReader reader = input.reader(bufferEdges);
+        EdgeFile.EdgeWriter writer = EdgeFile.create(path, condensed, bufferEdges);
+        try (reader; writer) {
+            for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                scanned += count;
+                for (int i = 0; i < count; i++) {
+                    int u = component[from[i]];
+                    int v = component[to[i]];
+                    if (u != v) {
+                        writer.write(u, v, weight[i]);
+                    }
+                }
+            }
+        }
+        passes.add(new IoPass("condensation", scanned, reader.getBytesRead(), writer.getBytesWritten()));
+        return EdgeFile.open(path);
+    }
+}
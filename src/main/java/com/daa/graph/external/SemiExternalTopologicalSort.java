@@ -0,0 +1,159 @@
+package com.daa.graph.external;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Topological sort of a graph on disk with O(V) memory: Kahn's algorithm one level
+ * per pass. Each pass counts, for every unplaced vertex, its incoming edges from
+ * other unplaced vertices; those left with none form the next level. A DAG of depth d
+ * takes d + 1 passes.
+ * <p>
+ * Edges out of placed vertices never matter again. When a pass sees more of those
+ * than live edges, the next pass copies only the live edges to a scratch file, so
+ * later passes read less.
+ */
+public class SemiExternalTopologicalSort {
+    private final EdgeFile input;
+    private final int bufferEdges;
+    private final List<IoPass> passes = new ArrayList<>();
+    private int[] level;
+
+    /**
+     * Constructor.
+     * @param input edge file to sort
+     * @param bufferEdges edges held in memory at once
+     */
+    public SemiExternalTopologicalSort(EdgeFile input, int bufferEdges) {
+        if (bufferEdges < 1) {
+            throw new IllegalArgumentException("Buffer must hold at least one edge");
+        }
+        this.input = input;
+        this.bufferEdges = bufferEdges;
+    }
+
+    /**
+     * Sort the graph.
+     * @return vertices in topological order, by level and then by id
+     * @throws IOException if reading or writing fails
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public int[] sort() throws IOException {
+        int n = input.getNumVertices();
+        level = new int[n];
+        Arrays.fill(level, -1);
+        int[] pending = new int[n];
+        int[] from = new int[bufferEdges];
+        int[] to = new int[bufferEdges];
+        int[] weight = new int[bufferEdges];
+        passes.clear();
+
+        Path scratch = null;
+        boolean compact = false;
+        int placed = 0;
+        try {
+            for (int depth = 0; placed < n; depth++) {
+                for (int v = 0; v < n; v++) {
+                    pending[v] = 0;
+                }
+                Path next = compact ? input.createScratchFile("topo") : null;
+                long live = 0;
+                long dead = 0;
+                long scanned = 0;
+                EdgeFile.EdgeReader reader = scratch == null
+                    ? input.reader(bufferEdges) : new EdgeFile.EdgeReader(scratch, 0, bufferEdges);
+                EdgeFile.EdgeWriter writer = next == null ? null : EdgeFile.createScratch(next, bufferEdges);
+                try (reader) {
+                    for (int count; (count = reader.read(from, to, weight)) > 0; ) {
+                        scanned += count;
+                        for (int i = 0; i < count; i++) {
+                            if (level[from[i]] != -1) {
+                                dead++;
+                                continue;
+                            }
+                            live++;
+                            pending[to[i]]++;
+                            if (writer != null) {
+                                writer.write(from[i], to[i], weight[i]);
+                            }
+                        }
+                    }
+                } finally {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                }
+                passes.add(new IoPass("topo level " + depth, scanned, reader.getBytesRead(),
+                    writer == null ? 0 : writer.getBytesWritten()));
+                if (next != null) {
+                    deleteScratch(scratch);
+                    scratch = next;
+                }
+                compact = dead > live;
+
+                int added = 0;
+                for (int v = 0; v < n; v++) {
+                    if (level[v] == -1 && pending[v] == 0) {
+                        level[v] = depth;
+                        added++;
+                    }
+                }
+                if (added == 0) {
+                    throw new IllegalArgumentException("Graph contains a cycle! Topological sort not possible.");
+                }
+                placed += added;
+            }
+        } finally {
+            deleteScratch(scratch);
+        }
+        return orderByLevel(level);
+    }
+
+    /**
+     * Counting sort of vertices by level.
+     */
+    private static int[] orderByLevel(int[] level) {
+        int depth = 0;
+        for (int l : level) {
+            depth = Math.max(depth, l + 1);
+        }
+        int[] start = new int[depth + 1];
+        for (int l : level) {
+            start[l + 1]++;
+        }
+        for (int l = 0; l < depth; l++) {
+            start[l + 1] += start[l];
+        }
+        int[] order = new int[level.length];
+        for (int v = 0; v < level.length; v++) {
+            order[start[level[v]]++] = v;
+        }
+        return order;
+    }
+
+    private static void deleteScratch(Path scratch) throws IOException {
+        if (scratch != null) {
+            Files.deleteIfExists(scratch);
+        }
+    }
+
+    /**
+     * Get the level of a vertex from the last sort: the length of the longest edge
+     * path (in edges) ending at it.
+     * @param vertex vertex index
+     * @return level
+     */
+    public int getLevel(int vertex) {
+        return level[vertex];
+    }
+
+    /**
+     * Get the I/O of each pass of the last sort.
+     * @return one entry per pass
+     */
+    public List<IoPass> getPasses() {
+        return Collections.unmodifiableList(passes);
+    }
+}
@@ -0,0 +1,138 @@
+package com.daa.graph.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binary encoding of analysis results. The stream starts with {@link #MAGIC} and
+ * {@link #VERSION} (ints); then each record is a one-byte tag followed by big-endian
+ * fields:
+ * <pre>
+ * GRAPH          nameLength:int name:UTF-8 vertices:int edges:long
+ * SCC_SUMMARY    count:int largest:int
+ * SCC            id:int size:int members:int[size]
+ * ORDER          kind:byte(0 = scc, 1 = vertex) count:int ids:int[count]
+ * DISTANCES      kind:byte(0 = shortest, 1 = longest) source:int count:int values:int[count]
+ * CRITICAL_PATH  length:int count:int (-1 if omitted) path:int[count]
+ * END
+ * </pre>
+ * Unreachable distances keep their Integer.MAX_VALUE sentinel.
+ */
+public class BinaryResultWriter extends ResultWriter {
+    public static final int MAGIC = 0x44414152; // "DAAR"
+    public static final int VERSION = 1;
+
+    public static final byte GRAPH = 1;
+    public static final byte SCC_SUMMARY = 2;
+    public static final byte SCC = 3;
+    public static final byte ORDER = 4;
+    public static final byte DISTANCES = 5;
+    public static final byte CRITICAL_PATH = 6;
+    public static final byte END = 7;
+
+    BinaryResultWriter(WritableByteChannel channel, Verbosity verbosity) throws IOException {
+        super(channel, verbosity);
+        ensure(8);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+    }
+
+    @Override
+    public void beginGraph(String name, int vertices, long edges) throws IOException {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        ensure(1 + 4);
+        buffer.put(GRAPH);
+        buffer.putInt(encoded.length);
+        for (int offset = 0; offset < encoded.length; ) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), encoded.length - offset);
+            buffer.put(encoded, offset, chunk);
+            offset += chunk;
+        }
+        ensure(4 + 8);
+        buffer.putInt(vertices);
+        buffer.putLong(edges);
+    }
+
+    @Override
+    public void endGraph() throws IOException {
+        ensure(1);
+        buffer.put(END);
+        flush();
+    }
+
+    @Override
+    protected void writeSccSummary(int count, int largest) throws IOException {
+        ensure(1 + 8);
+        buffer.put(SCC_SUMMARY);
+        buffer.putInt(count);
+        buffer.putInt(largest);
+    }
+
+    @Override
+    protected void writeScc(int id, List<Integer> members) throws IOException {
+        ensure(1 + 8);
+        buffer.put(SCC);
+        buffer.putInt(id);
+        buffer.putInt(members.size());
+        for (int member : members) {
+            putInt(member);
+        }
+    }
+
+    @Override
+    protected void writeOrder(String kind, List<Integer> order, List<List<Integer>> sccs) throws IOException {
+        int count = order.size();
+        if (sccs != null) {
+            count = 0;
+            for (int id : order) {
+                count += sccs.get(id).size();
+            }
+        }
+        ensure(1 + 1 + 4);
+        buffer.put(ORDER);
+        buffer.put((byte) ("vertex".equals(kind) ? 1 : 0));
+        buffer.putInt(count);
+        for (int id : order) {
+            if (sccs == null) {
+                putInt(id);
+            } else {
+                for (int vertex : sccs.get(id)) {
+                    putInt(vertex);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void writeDistanceRecord(String kind, int source, int[] distances) throws IOException {
+        ensure(1 + 1 + 8);
+        buffer.put(DISTANCES);
+        buffer.put((byte) ("longest".equals(kind) ? 1 : 0));
+        buffer.putInt(source);
+        buffer.putInt(distances.length);
+        for (int distance : distances) {
+            putInt(distance);
+        }
+    }
+
+    @Override
+    protected void writeCriticalPathRecord(int length, List<Integer> path) throws IOException {
+        ensure(1 + 8);
+        buffer.put(CRITICAL_PATH);
+        buffer.putInt(length);
+        buffer.putInt(path == null ? -1 : path.size());
+        if (path != null) {
+            for (int vertex : path) {
+                putInt(vertex);
+            }
+        }
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+}
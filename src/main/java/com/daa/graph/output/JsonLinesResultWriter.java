@@ -0,0 +1,189 @@
+package com.daa.graph.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * JSON Lines encoding of analysis results: one object per line, distinguished by its
+ * "type" field ("graph", "sccSummary", "scc", "order", "distances", "criticalPath",
+ * "end"). Numbers are formatted straight into the output buffer, so long arrays are
+ * never built as strings. Unreachable distances are written as null.
+ */
+public class JsonLinesResultWriter extends ResultWriter {
+    private static final int MAX_NUMBER_LENGTH = 20;
+
+    JsonLinesResultWriter(WritableByteChannel channel, Verbosity verbosity) {
+        super(channel, verbosity);
+    }
+
+    @Override
+    public void beginGraph(String name, int vertices, long edges) throws IOException {
+        putRaw("{\"type\":\"graph\",\"name\":");
+        putString(name);
+        putRaw(",\"vertices\":");
+        putNumber(vertices);
+        putRaw(",\"edges\":");
+        putNumber(edges);
+        putRaw("}\n");
+    }
+
+    @Override
+    public void endGraph() throws IOException {
+        putRaw("{\"type\":\"end\"}\n");
+        flush();
+    }
+
+    @Override
+    protected void writeSccSummary(int count, int largest) throws IOException {
+        putRaw("{\"type\":\"sccSummary\",\"count\":");
+        putNumber(count);
+        putRaw(",\"largest\":");
+        putNumber(largest);
+        putRaw("}\n");
+    }
+
+    @Override
+    protected void writeScc(int id, List<Integer> members) throws IOException {
+        putRaw("{\"type\":\"scc\",\"id\":");
+        putNumber(id);
+        putRaw(",\"size\":");
+        putNumber(members.size());
+        putRaw(",\"members\":[");
+        for (int i = 0; i < members.size(); i++) {
+            if (i > 0) {
+                putByte(',');
+            }
+            putNumber(members.get(i));
+        }
+        putRaw("]}\n");
+    }
+
+    @Override
+    protected void writeOrder(String kind, List<Integer> order, List<List<Integer>> sccs) throws IOException {
+        putRaw("{\"type\":\"order\",\"kind\":");
+        putString(kind);
+        putRaw(",\"order\":[");
+        boolean first = true;
+        for (int id : order) {
+            if (sccs == null) {
+                first = putElement(first, id);
+            } else {
+                for (int vertex : sccs.get(id)) {
+                    first = putElement(first, vertex);
+                }
+            }
+        }
+        putRaw("]}\n");
+    }
+
+    @Override
+    protected void writeDistanceRecord(String kind, int source, int[] distances) throws IOException {
+        putRaw("{\"type\":\"distances\",\"kind\":");
+        putString(kind);
+        putRaw(",\"source\":");
+        putNumber(source);
+        putRaw(",\"values\":[");
+        for (int i = 0; i < distances.length; i++) {
+            if (i > 0) {
+                putByte(',');
+            }
+            if (distances[i] == Integer.MAX_VALUE) {
+                putRaw("null");
+            } else {
+                putNumber(distances[i]);
+            }
+        }
+        putRaw("]}\n");
+    }
+
+    @Override
+    protected void writeCriticalPathRecord(int length, List<Integer> path) throws IOException {
+        putRaw("{\"type\":\"criticalPath\",\"length\":");
+        putNumber(length);
+        if (path != null) {
+            putRaw(",\"path\":[");
+            for (int i = 0; i < path.size(); i++) {
+                if (i > 0) {
+                    putByte(',');
+                }
+                putNumber(path.get(i));
+            }
+            putByte(']');
+        }
+        putRaw("}\n");
+    }
+
+    private boolean putElement(boolean first, int value) throws IOException {
+        if (!first) {
+            putByte(',');
+        }
+        putNumber(value);
+        return false;
+    }
+
+    private void putByte(char c) throws IOException {
+        ensure(1);
+        buffer.put((byte) c);
+    }
+
+    /**
+     * Write ASCII text that needs no escaping.
+     */
+    private void putRaw(String ascii) throws IOException {
+        for (int i = 0; i < ascii.length(); i++) {
+            ensure(1);
+            buffer.put((byte) ascii.charAt(i));
+        }
+    }
+
+    private void putString(String text) throws IOException {
+        putByte('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                putByte('\\');
+                putByte(c);
+            } else if (c < 0x20) {
+                putRaw(String.format("\\u%04x", (int) c));
+            } else if (c < 0x80) {
+                putByte(c);
+            } else {
+                byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                if (Character.isHighSurrogate(c) && i + 1 < text.length()) {
+                    encoded = text.substring(i, i + 2).getBytes(StandardCharsets.UTF_8);
+                    i++;
+                }
+                ensure(encoded.length);
+                buffer.put(encoded);
+            }
+        }
+        putByte('"');
+    }
+
+    /**
+     * Format a number directly into the buffer, most significant digit first.
+     */
+    private void putNumber(long value) throws IOException {
+        ensure(MAX_NUMBER_LENGTH);
+        if (value == Long.MIN_VALUE) {
+            putRaw(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + (int) (value % 10)));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte tmp = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, tmp);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.daa.graph.output;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams analysis results to a channel record by record through a fixed-size buffer,
+ * so writing a result costs O(1) memory beyond the result itself no matter how many
+ * SCCs or vertices it has. Records are filtered by {@link Verbosity}; a sequence for
+ * one graph starts with {@link #beginGraph} and ends with {@link #endGraph}.
+ */
+public abstract class ResultWriter implements Closeable {
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Output encoding enumeration.
+     */
+    public enum Format {
+        /** One JSON object per line. */
+        JSONL,
+        /** Tagged big-endian records, see {@link BinaryResultWriter}. */
+        BINARY;
+
+        public static Format forName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Amount of detail written.
+     */
+    public enum Verbosity {
+        /** Counts and the critical path length. */
+        SUMMARY,
+        /** Also SCC membership, the SCC topological order and the critical path. */
+        COMPONENTS,
+        /** Also the vertex order and all distance arrays. */
+        FULL;
+
+        public static Verbosity forName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final Verbosity verbosity;
+    protected final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    protected ResultWriter(WritableByteChannel channel, Verbosity verbosity) {
+        this.channel = channel;
+        this.verbosity = verbosity;
+    }
+
+    /**
+     * Create a writer for a channel.
+     * @param channel destination, closed with the writer
+     * @param format encoding
+     * @param verbosity amount of detail
+     * @return writer
+     * @throws IOException if the header cannot be written
+     */
+    public static ResultWriter create(WritableByteChannel channel, Format format, Verbosity verbosity)
+            throws IOException {
+        return format == Format.BINARY
+            ? new BinaryResultWriter(channel, verbosity)
+            : new JsonLinesResultWriter(channel, verbosity);
+    }
+
+    /**
+     * Create a writer for a file, replacing any existing content.
+     * @param path output file
+     * @param format encoding
+     * @param verbosity amount of detail
+     * @return writer
+     * @throws IOException if the file cannot be opened
+     */
+    public static ResultWriter open(Path path, Format format, Verbosity verbosity) throws IOException {
+        return create(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING), format, verbosity);
+    }
+
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    /**
+     * Check whether records of a level are written.
+     * @param level required level
+     * @return true if this writer's verbosity is at least the level
+     */
+    public boolean includes(Verbosity level) {
+        return verbosity.compareTo(level) >= 0;
+    }
+
+    /**
+     * Start the results of one graph.
+     * @param name graph name, e.g. its file path
+     * @param vertices number of vertices
+     * @param edges number of edges
+     * @throws IOException if writing fails
+     */
+    public abstract void beginGraph(String name, int vertices, long edges) throws IOException;
+
+    /**
+     * Write the SCCs: a single count record at SUMMARY, one record per SCC otherwise.
+     * @param sccs list of SCCs
+     * @throws IOException if writing fails
+     */
+    public void writeSccs(List<List<Integer>> sccs) throws IOException {
+        if (!includes(Verbosity.COMPONENTS)) {
+            int largest = 0;
+            for (List<Integer> scc : sccs) {
+                largest = Math.max(largest, scc.size());
+            }
+            writeSccSummary(sccs.size(), largest);
+            return;
+        }
+        for (int i = 0; i < sccs.size(); i++) {
+            writeScc(i, sccs.get(i));
+        }
+    }
+
+    /**
+     * Write the topological order of the condensation (COMPONENTS and above).
+     * @param sccOrder SCC ids in topological order
+     * @throws IOException if writing fails
+     */
+    public void writeTopologicalOrder(List<Integer> sccOrder) throws IOException {
+        if (includes(Verbosity.COMPONENTS)) {
+            writeOrder("scc", sccOrder, null);
+        }
+    }
+
+    /**
+     * Write the vertex order derived from an SCC order (FULL only). The order is
+     * streamed from the SCC lists without being materialized.
+     * @param sccOrder SCC ids in topological order
+     * @param sccs list of SCCs
+     * @throws IOException if writing fails
+     */
+    public void writeVertexOrder(List<Integer> sccOrder, List<List<Integer>> sccs) throws IOException {
+        if (includes(Verbosity.FULL)) {
+            writeOrder("vertex", sccOrder, sccs);
+        }
+    }
+
+    /**
+     * Write a distance array (FULL only).
+     * @param kind "shortest" or "longest"
+     * @param source source vertex, or -1 for all-sources distances
+     * @param distances distances; Integer.MAX_VALUE marks unreachable vertices
+     * @throws IOException if writing fails
+     */
+    public void writeDistances(String kind, int source, int[] distances) throws IOException {
+        if (includes(Verbosity.FULL)) {
+            writeDistanceRecord(kind, source, distances);
+        }
+    }
+
+    /**
+     * Write the critical path; at SUMMARY only its length.
+     * @param criticalPath critical path
+     * @throws IOException if writing fails
+     */
+    public void writeCriticalPath(DAGShortestPath.CriticalPathResult criticalPath) throws IOException {
+        writeCriticalPathRecord(criticalPath.length, includes(Verbosity.COMPONENTS) ? criticalPath.path : null);
+    }
+
+    /**
+     * End the results of one graph and flush them to the channel.
+     * @throws IOException if writing fails
+     */
+    public abstract void endGraph() throws IOException;
+
+    protected abstract void writeSccSummary(int count, int largest) throws IOException;
+
+    protected abstract void writeScc(int id, List<Integer> members) throws IOException;
+
+    /**
+     * @param sccs null to write {@code order} itself, otherwise write the members of
+     *             each SCC in {@code order}
+     */
+    protected abstract void writeOrder(String kind, List<Integer> order, List<List<Integer>> sccs)
+        throws IOException;
+
+    protected abstract void writeDistanceRecord(String kind, int source, int[] distances) throws IOException;
+
+    /**
+     * @param path null to omit the path
+     */
+    protected abstract void writeCriticalPathRecord(int length, List<Integer> path) throws IOException;
+
+    /**
+     * Make room for at least {@code bytes} bytes, draining the buffer if needed.
+     */
+    protected void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the channel.
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.daa.graph.perf;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.CompressedGraph;
+import com.daa.graph.util.CsrGraph;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+
+import java.util.*;
+
+/**
+ * Heap footprint of the graph representations and analysis results the library
+ * offers, in total and per vertex and edge, as estimated by {@link ObjectSizeEstimator}.
+ * Intended for sizing JVMs: multiply the per-vertex and per-edge costs by the expected
+ * graph size.
+ */
+public class FootprintReport {
+    private final List<Row> rows = new ArrayList<>();
+
+    /**
+     * Footprint of one representation.
+     */
+    public static class Row {
+        public final String name;
+        public final long bytes;
+        public final int vertices;
+        public final long edges;
+
+        public Row(String name, long bytes, int vertices, long edges) {
+            this.name = name;
+            this.bytes = bytes;
+            this.vertices = vertices;
+            this.edges = edges;
+        }
+
+        public double getBytesPerVertex() {
+            return vertices == 0 ? 0 : (double) bytes / vertices;
+        }
+
+        public double getBytesPerEdge() {
+            return edges == 0 ? 0 : (double) bytes / edges;
+        }
+    }
+
+    /**
+     * Measure an object graph and add it as a row.
+     * @param name representation name
+     * @param root root object of the representation
+     * @param vertices number of vertices it describes
+     * @param edges number of edges it describes
+     * @return the added row
+     */
+    public Row add(String name, Object root, int vertices, long edges) {
+        Row row = new Row(name, ObjectSizeEstimator.sizeOf(root), vertices, edges);
+        rows.add(row);
+        return row;
+    }
+
+    public List<Row> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Get a row by name.
+     * @param name representation name
+     * @return row, or null if absent
+     */
+    public Row getRow(String name) {
+        for (Row row : rows) {
+            if (row.name.equals(name)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Measure a graph and everything the analysis pipeline derives from it: the graph
+     * itself broken down by field, its CSR and compressed equivalents, the SCC results,
+     * the condensation graph and the compact form stored by the analysis cache.
+     * @param graph graph to measure
+     * @return report
+     */
+    public static FootprintReport forGraph(Graph graph) {
+        int n = graph.getNumVertices();
+        long m = graph.getNumEdges();
+        FootprintReport report = new FootprintReport();
+
+        report.add("Graph", graph, n, m);
+        for (Map.Entry<String, Long> part : ObjectSizeEstimator.breakdown(graph).entrySet()) {
+            report.rows.add(new Row("  Graph." + part.getKey(), part.getValue(), n, m));
+        }
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        report.add("CSR graph", csr, n, m);
+        report.add("Compressed graph", CompressedGraph.fromStatic(csr), n, m);
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        List<List<Integer>> sccs = scc.findSCCs();
+        Map<Integer, Integer> vertexToScc = scc.getVertexToScc();
+        report.add("SCC lists", sccs, n, m);
+        report.add("SCC vertex map", vertexToScc, n, m);
+
+        Graph condensation = scc.buildCondensationGraph();
+        report.add("Condensation graph", condensation, condensation.getNumVertices(),
+            condensation.getNumEdges());
+
+        int[] assignment = new int[n];
+        for (int v = 0; v < n; v++) {
+            assignment[v] = vertexToScc.get(v);
+        }
+        report.add("SCC assignment (int[])", assignment, n, m);
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-28s %14s %10s %12s %10s %10s%n",
+            "Representation", "Bytes", "Vertices", "Edges", "B/vertex", "B/edge"));
+        for (Row row : rows) {
+            sb.append(String.format(Locale.ROOT, "%-28s %,14d %10d %12d %10.1f %10.1f%n",
+                row.name, row.bytes, row.vertices, row.edges, row.getBytesPerVertex(), row.getBytesPerEdge()));
+        }
+        return sb.toString();
+    }
+}
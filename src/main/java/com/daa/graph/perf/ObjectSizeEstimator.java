@@ -0,0 +1,301 @@
+package com.daa.graph.perf;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Estimates the retained heap size of an object graph by walking it.
+ * Sizes follow the 64-bit HotSpot layout with compressed oops and class pointers
+ * (12-byte object header, 16-byte array header, 4-byte references, 8-byte alignment),
+ * which is what JVMs with heaps under 32 GB use.
+ * <p>
+ * Library classes are walked by reflection. JDK collections cannot be reflected into on
+ * recent JDKs, so ArrayList, HashMap, LinkedHashMap, HashSet, boxed numbers and strings
+ * are sized with a model of their OpenJDK implementation instead. ArrayList capacity is
+ * read from the list's backing array when java.util is opened to reflection (lists built
+ * with an exact initial capacity, as by GraphBuilder, are much smaller than grown ones);
+ * otherwise the size is used as a lower bound. Hash tables are sized for the default
+ * load factor. Boxed values that come from the JDK's shared caches
+ * (e.g. Integer -128..127) cost nothing. Objects reachable several times are counted once.
+ */
+public class ObjectSizeEstimator {
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int ALIGNMENT = 8;
+
+    private static final Map<Class<?>, Long> SHALLOW_SIZES = new HashMap<>();
+    private static final Map<Class<?>, List<Field>> REFERENCE_FIELDS = new HashMap<>();
+
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long objectCount = 0;
+
+    /**
+     * Estimate the deep size of an object graph.
+     * @param root root object
+     * @return estimated bytes retained by everything reachable from root
+     */
+    public static long sizeOf(Object root) {
+        return new ObjectSizeEstimator().add(root);
+    }
+
+    /**
+     * Add an object graph to this estimator. Objects already counted by an earlier
+     * call are not counted again, so successive calls attribute shared objects to
+     * whichever root reached them first.
+     * @param root root object (null costs nothing)
+     * @return bytes newly attributed to this root
+     */
+    public long add(Object root) {
+        long total = 0;
+        Deque<Object> pending = new ArrayDeque<>();
+        push(pending, root);
+        while (!pending.isEmpty()) {
+            Object obj = pending.pop();
+            total += shallowSize(obj, pending);
+            objectCount++;
+        }
+        return total;
+    }
+
+    /**
+     * Break the deep size of an object down by its instance fields, in declaration
+     * order. Objects reachable from several fields are attributed to the first one.
+     * @param root object to break down
+     * @return map from field name to bytes; "(header)" holds the object's own shallow size
+     */
+    public static Map<String, Long> breakdown(Object root) {
+        ObjectSizeEstimator estimator = new ObjectSizeEstimator();
+        estimator.visited.add(root);
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        sizes.put("(header)", shallowInstanceSize(root.getClass()));
+        for (Field field : referenceFields(root.getClass())) {
+            try {
+                sizes.merge(field.getName(), estimator.add(field.get(root)), Long::sum);
+            } catch (IllegalAccessException e) {
+                sizes.put(field.getName(), 0L);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Get the number of distinct objects counted so far.
+     * @return object count
+     */
+    public long getObjectCount() {
+        return objectCount;
+    }
+
+    private void push(Deque<Object> pending, Object obj) {
+        if (obj == null || isShared(obj) || !visited.add(obj)) {
+            return;
+        }
+        pending.push(obj);
+    }
+
+    /**
+     * Size one object and queue the objects it references.
+     */
+    private long shallowSize(Object obj, Deque<Object> pending) {
+        Class<?> type = obj.getClass();
+        if (type.isArray()) {
+            return arraySize(obj, pending);
+        }
+        if (obj instanceof Integer || obj instanceof Float) {
+            return align(OBJECT_HEADER + 4);
+        }
+        if (obj instanceof Long || obj instanceof Double) {
+            return align(OBJECT_HEADER + 8);
+        }
+        if (obj instanceof String) {
+            // String object (hash, coder, value) plus its Latin-1 byte[] payload.
+            return align(OBJECT_HEADER + 4 + 1 + REFERENCE) + arrayBytes(((String) obj).length(), 1);
+        }
+        if (type == ArrayList.class) {
+            List<?> list = (List<?>) obj;
+            for (Object element : list) {
+                push(pending, element);
+            }
+            int capacity = ArrayListCapacity.of(list);
+            return align(OBJECT_HEADER + 4 + 4 + REFERENCE)
+                + (capacity == 0 ? 0 : arrayBytes(capacity, REFERENCE));
+        }
+        if (type == HashMap.class || type == LinkedHashMap.class) {
+            Map<?, ?> map = (Map<?, ?>) obj;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                push(pending, entry.getKey());
+                push(pending, entry.getValue());
+            }
+            boolean linked = type == LinkedHashMap.class;
+            // LinkedHashMap adds head/tail/accessOrder; its entries add before/after links.
+            long mapObject = align(OBJECT_HEADER + 4 * REFERENCE + 3 * 4 + 4
+                + (linked ? 2 * REFERENCE + 1 : 0));
+            long node = align(OBJECT_HEADER + 4 + 3 * REFERENCE + (linked ? 2 * REFERENCE : 0));
+            return mapObject + hashTableBytes(map.size()) + map.size() * node;
+        }
+        if (type == HashSet.class) {
+            Set<?> set = (Set<?>) obj;
+            for (Object element : set) {
+                push(pending, element);
+            }
+            // HashSet wraps a HashMap whose values all point to one shared sentinel.
+            long mapObject = align(OBJECT_HEADER + 4 * REFERENCE + 3 * 4 + 4);
+            long node = align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+            return align(OBJECT_HEADER + REFERENCE) + mapObject + hashTableBytes(set.size()) + set.size() * node;
+        }
+
+        for (Field field : referenceFields(type)) {
+            try {
+                push(pending, field.get(obj));
+            } catch (IllegalAccessException e) {
+                // Inaccessible JDK internals are counted shallowly.
+            }
+        }
+        return shallowInstanceSize(type);
+    }
+
+    private long arraySize(Object array, Deque<Object> pending) {
+        Class<?> component = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (!component.isPrimitive()) {
+            Object[] elements = (Object[]) array;
+            for (Object element : elements) {
+                push(pending, element);
+            }
+        }
+        return arrayBytes(length, fieldSize(component));
+    }
+
+    private static boolean isShared(Object obj) {
+        if (obj instanceof Integer) {
+            int value = (Integer) obj;
+            return value >= -128 && value <= 127 && obj == Integer.valueOf(value);
+        }
+        if (obj instanceof Long) {
+            long value = (Long) obj;
+            return value >= -128 && value <= 127 && obj == Long.valueOf(value);
+        }
+        return obj instanceof Boolean || obj instanceof Class || obj instanceof Enum;
+    }
+
+    /**
+     * Check whether ArrayList capacities are read from the lists themselves. That needs
+     * java.util opened to this code ({@code --add-opens java.base/java.util=ALL-UNNAMED});
+     * otherwise a list's size stands in for its capacity and estimates are lower bounds.
+     * @return true if capacities are exact
+     */
+    public static boolean isArrayListCapacityExact() {
+        return ArrayListCapacity.GETTER != null;
+    }
+
+    /**
+     * Reads the length of ArrayList.elementData when java.util is open to reflection.
+     */
+    private static final class ArrayListCapacity {
+        static final MethodHandle GETTER = findGetter(); // (ArrayList) -> Object[]
+
+        static int of(List<?> list) {
+            if (GETTER == null) {
+                return list.size();
+            }
+            try {
+                return ((Object[]) GETTER.invoke((ArrayList<?>) list)).length;
+            } catch (Throwable e) {
+                return list.size();
+            }
+        }
+
+        private static MethodHandle findGetter() {
+            try {
+                Field elementData = ArrayList.class.getDeclaredField("elementData");
+                if (!elementData.trySetAccessible()) {
+                    return null;
+                }
+                return MethodHandles.lookup().unreflectGetter(elementData)
+                    .asType(MethodType.methodType(Object[].class, ArrayList.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Bytes of a HashMap bucket array holding the given number of entries.
+     */
+    static long hashTableBytes(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        int capacity = 16;
+        while (size > capacity * 3L / 4) {
+            capacity <<= 1;
+        }
+        return arrayBytes(capacity, REFERENCE);
+    }
+
+    static long arrayBytes(long length, int elementSize) {
+        return align(ARRAY_HEADER + length * elementSize);
+    }
+
+    static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    private static synchronized long shallowInstanceSize(Class<?> type) {
+        Long cached = SHALLOW_SIZES.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        long size = OBJECT_HEADER;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += fieldSize(field.getType());
+                }
+            }
+        }
+        size = align(size);
+        SHALLOW_SIZES.put(type, size);
+        return size;
+    }
+
+    private static synchronized List<Field> referenceFields(Class<?> type) {
+        List<Field> cached = REFERENCE_FIELDS.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()
+                        && field.trySetAccessible()) {
+                    fields.add(field);
+                }
+            }
+        }
+        REFERENCE_FIELDS.put(type, fields);
+        return fields;
+    }
+}
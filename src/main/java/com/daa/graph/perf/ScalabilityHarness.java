@@ -0,0 +1,285 @@
+package com.daa.graph.perf;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.ScalableGraphGenerator;
+import com.daa.graph.util.TaskGraphLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Size-sweep harness that guards against accidental super-linear behavior.
+ * Every pipeline stage runs over generated graphs whose size grows geometrically; the
+ * median time per size is fitted to time ~ (V+E)^k. All stages are expected to be
+ * O(V+E), so a fitted k well above 1 means something quadratic crept in.
+ * Stages after the condensation are measured against the size of the condensation
+ * graph, which is their actual input. Families whose condensation barely grows with
+ * the graph leave those stages without an exponent ("n/a") rather than fitting noise.
+ */
+public class ScalabilityHarness {
+    /** Default largest acceptable growth exponent: linear plus slack for cache and GC effects. */
+    public static final double DEFAULT_MAX_EXPONENT = 1.3;
+    /** Default tolerated throughput drop against a baseline. */
+    public static final double DEFAULT_MAX_DROP = 0.2;
+    private static final long SEED = 42;
+
+    /**
+     * Pipeline stage enumeration.
+     */
+    public enum Stage {
+        LOAD,
+        SCC,
+        CONDENSATION,
+        TOPO,
+        SHORTEST_PATHS,
+        CRITICAL_PATH
+    }
+
+    private final ScalableGraphGenerator.Family family;
+    private final int minVertices;
+    private final int steps;
+    private final double growth;
+    private final int averageDegree;
+    private final int repetitions;
+
+    /**
+     * Constructor.
+     * @param family generated graph family
+     * @param minVertices number of vertices of the smallest graph
+     * @param steps number of sizes
+     * @param growth size ratio between consecutive steps (must be greater than 1)
+     * @param averageDegree average number of dependencies per vertex
+     * @param repetitions timed runs per stage and size; the median is kept
+     */
+    public ScalabilityHarness(ScalableGraphGenerator.Family family, int minVertices, int steps,
+                              double growth, int averageDegree, int repetitions) {
+        if (minVertices < 1 || steps < 2 || growth <= 1 || averageDegree < 0 || repetitions < 1) {
+            throw new IllegalArgumentException("Invalid sweep configuration");
+        }
+        this.family = family;
+        this.minVertices = minVertices;
+        this.steps = steps;
+        this.growth = growth;
+        this.averageDegree = averageDegree;
+        this.repetitions = repetitions;
+    }
+
+    /**
+     * Get the vertex counts of the sweep.
+     * @return sizes in increasing order
+     */
+    public int[] getSizes() {
+        int[] sizes = new int[steps];
+        for (int i = 0; i < steps; i++) {
+            sizes[i] = (int) Math.round(minVertices * Math.pow(growth, i));
+        }
+        return sizes;
+    }
+
+    /**
+     * Run the sweep.
+     * @return report with one result per stage
+     * @throws IOException if a graph cannot be generated or loaded
+     */
+    public ScalingReport run() throws IOException {
+        int[] sizes = getSizes();
+        Map<Stage, List<ScalingReport.Measurement>> measurements = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            measurements.put(stage, new ArrayList<>());
+        }
+
+        // Warm up the JIT on the smallest size so the first data point is not interpreted code.
+        byte[] warmup = generate(sizes[0]);
+        for (int i = 0; i < Math.max(3, repetitions); i++) {
+            runOnce(warmup, null);
+        }
+
+        for (int size : sizes) {
+            byte[] input = generate(size);
+            long[][] samples = new long[Stage.values().length][repetitions];
+            Run run = null;
+            System.gc();
+            runOnce(input, null);
+            for (int r = 0; r < repetitions; r++) {
+                long[] times = new long[Stage.values().length];
+                run = runOnce(input, times);
+                for (int s = 0; s < times.length; s++) {
+                    samples[s][r] = times[s];
+                }
+            }
+            for (Stage stage : Stage.values()) {
+                Graph stageInput = stage.ordinal() <= Stage.CONDENSATION.ordinal() ? run.graph : run.condensation;
+                measurements.get(stage).add(new ScalingReport.Measurement(stageInput.getNumVertices(),
+                    stageInput.getNumEdges(), median(samples[stage.ordinal()])));
+            }
+        }
+
+        List<ScalingReport.StageResult> results = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            results.add(new ScalingReport.StageResult(stage.name(), measurements.get(stage)));
+        }
+        return new ScalingReport(family.name(), results);
+    }
+
+    private static class Run {
+        Graph graph;
+        Graph condensation;
+    }
+
+    private Run runOnce(byte[] input, long[] times) throws IOException {
+        Run run = new Run();
+        long start = System.nanoTime();
+        run.graph = TaskGraphLoader.loadGraph(new ByteArrayInputStream(input));
+        start = lap(times, Stage.LOAD, start);
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(run.graph, NoOpMetrics.INSTANCE);
+        scc.findSCCs();
+        start = lap(times, Stage.SCC, start);
+
+        run.condensation = scc.buildCondensationGraph();
+        start = lap(times, Stage.CONDENSATION, start);
+
+        List<Integer> order = new TopologicalSort(run.condensation, NoOpMetrics.INSTANCE).kahnTopologicalSort();
+        start = lap(times, Stage.TOPO, start);
+
+        if (!order.isEmpty()) {
+            new DAGShortestPath(run.condensation, NoOpMetrics.INSTANCE).shortestPathsFromSource(order.get(0));
+        }
+        start = lap(times, Stage.SHORTEST_PATHS, start);
+
+        new DAGShortestPath(run.condensation, NoOpMetrics.INSTANCE).findCriticalPath();
+        lap(times, Stage.CRITICAL_PATH, start);
+        return run;
+    }
+
+    private static long lap(long[] times, Stage stage, long start) {
+        long now = System.nanoTime();
+        if (times != null) {
+            times[stage.ordinal()] = now - start;
+        }
+        return now;
+    }
+
+    private byte[] generate(int vertices) throws IOException {
+        return new ScalableGraphGenerator(family, vertices, averageDegree, SEED)
+            .toBytes(ScalableGraphGenerator.Format.BINARY);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Command-line entry point. Exits with status 1 if any check fails.
+     * Usage: ScalabilityHarness [--family F] [--min-vertices N] [--steps N] [--growth X]
+     *        [--degree N] [--repetitions N] [--max-exponent X] [--baseline FILE]
+     *        [--max-drop X] [--csv FILE] [--json FILE]
+     */
+    public static void main(String[] args) throws Exception {
+        ScalableGraphGenerator.Family family = ScalableGraphGenerator.Family.LAYERED_DAG;
+        int minVertices = 4096;
+        int steps = 6;
+        double growth = 2;
+        int degree = 4;
+        int repetitions = 5;
+        double maxExponent = DEFAULT_MAX_EXPONENT;
+        double maxDrop = DEFAULT_MAX_DROP;
+        String baseline = null;
+        String csv = null;
+        String json = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--family":
+                    family = ScalableGraphGenerator.Family.valueOf(args[++i].toUpperCase());
+                    break;
+                case "--min-vertices":
+                    minVertices = Integer.parseInt(args[++i]);
+                    break;
+                case "--steps":
+                    steps = Integer.parseInt(args[++i]);
+                    break;
+                case "--growth":
+                    growth = Double.parseDouble(args[++i]);
+                    break;
+                case "--degree":
+                    degree = Integer.parseInt(args[++i]);
+                    break;
+                case "--repetitions":
+                    repetitions = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-exponent":
+                    maxExponent = Double.parseDouble(args[++i]);
+                    break;
+                case "--baseline":
+                    baseline = args[++i];
+                    break;
+                case "--max-drop":
+                    maxDrop = Double.parseDouble(args[++i]);
+                    break;
+                case "--csv":
+                    csv = args[++i];
+                    break;
+                case "--json":
+                    json = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ScalabilityHarness harness = new ScalabilityHarness(family, minVertices, steps, growth, degree, repetitions);
+        // The Kosaraju DFS is recursive, so run the sweep on a thread with a large stack.
+        AtomicReference<Object> outcome = new AtomicReference<>();
+        Thread worker = new Thread(null, () -> {
+            try {
+                outcome.set(harness.run());
+            } catch (IOException | RuntimeException e) {
+                outcome.set(e);
+            }
+        }, "scalability-sweep", 1L << 30);
+        worker.start();
+        worker.join();
+        if (outcome.get() instanceof Exception) {
+            throw (Exception) outcome.get();
+        }
+        ScalingReport report = (ScalingReport) outcome.get();
+        System.out.print(report);
+
+        if (csv != null) {
+            try (Writer writer = Files.newBufferedWriter(Path.of(csv), StandardCharsets.UTF_8)) {
+                report.writeCsv(writer);
+            }
+        }
+        if (json != null) {
+            try (Writer writer = Files.newBufferedWriter(Path.of(json), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+        }
+
+        List<String> violations = new ArrayList<>(report.checkExponents(maxExponent));
+        if (baseline != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(baseline), StandardCharsets.UTF_8)) {
+                violations.addAll(report.checkBaseline(ScalingReport.readBaseline(reader), maxDrop));
+            }
+        }
+        for (String violation : violations) {
+            System.err.println("FAIL: " + violation);
+        }
+        if (!violations.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.daa.graph.perf;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Results of a size sweep: per-stage timings, fitted growth exponents and checks
+ * against an expected bound and a stored baseline.
+ * The JSON written by {@link #writeJson(Writer)} is also the baseline format read by
+ * {@link #readBaseline(Reader)}.
+ */
+public class ScalingReport {
+    /**
+     * Smallest ratio between the largest and smallest input of a stage for which an
+     * exponent is fitted. Below it timing noise dominates the slope.
+     */
+    public static final double MIN_WORK_GROWTH = 2;
+
+    private final String family;
+    private final List<StageResult> stages;
+
+    /**
+     * One timed run of a stage at one input size.
+     */
+    public static class Measurement {
+        public final int vertices;
+        public final long edges;
+        public final long medianNs;
+
+        public Measurement(int vertices, long edges, long medianNs) {
+            this.vertices = vertices;
+            this.edges = edges;
+            this.medianNs = medianNs;
+        }
+
+        /**
+         * Get the input size V + E the stage is expected to be linear in.
+         * @return work units
+         */
+        public long getWork() {
+            return vertices + edges;
+        }
+
+        /**
+         * Get throughput in work units (vertices + edges) per second.
+         * @return throughput
+         */
+        public double getThroughput() {
+            return getWork() * 1e9 / Math.max(1, medianNs);
+        }
+    }
+
+    /**
+     * All measurements of one stage, in increasing size order.
+     */
+    public static class StageResult {
+        public final String stage;
+        public final List<Measurement> measurements;
+
+        public StageResult(String stage, List<Measurement> measurements) {
+            this.stage = stage;
+            this.measurements = Collections.unmodifiableList(new ArrayList<>(measurements));
+        }
+
+        /**
+         * Fit time ~ work^k by least squares on log-log scale.
+         * @return growth exponent k, or NaN with fewer than two sizes or when the stage's
+         *         input grows by less than {@link #MIN_WORK_GROWTH} across the sweep (e.g.
+         *         a condensation that stays the same size as the graph grows)
+         */
+        public double getExponent() {
+            double[] work = new double[measurements.size()];
+            double[] time = new double[measurements.size()];
+            double minWork = Double.MAX_VALUE;
+            double maxWork = 0;
+            for (int i = 0; i < work.length; i++) {
+                work[i] = measurements.get(i).getWork();
+                time[i] = measurements.get(i).medianNs;
+                minWork = Math.min(minWork, work[i]);
+                maxWork = Math.max(maxWork, work[i]);
+            }
+            if (maxWork < minWork * MIN_WORK_GROWTH) {
+                return Double.NaN;
+            }
+            return fitExponent(work, time);
+        }
+
+        /**
+         * Get the throughput at the largest measured size.
+         * @return work units per second, or 0 if nothing was measured
+         */
+        public double getThroughput() {
+            return measurements.isEmpty() ? 0 : measurements.get(measurements.size() - 1).getThroughput();
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param family name of the generated graph family
+     * @param stages per-stage results
+     */
+    public ScalingReport(String family, List<StageResult> stages) {
+        this.family = family;
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public List<StageResult> getStages() {
+        return stages;
+    }
+
+    /**
+     * Least-squares slope of log(y) against log(x).
+     * @param x sizes
+     * @param y times
+     * @return fitted exponent, or NaN if fewer than two usable points
+     */
+    public static double fitExponent(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Sizes and times differ in length");
+        }
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        int n = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] <= 0 || y[i] <= 0) {
+                continue;
+            }
+            double lx = Math.log(x[i]);
+            double ly = Math.log(y[i]);
+            sumX += lx;
+            sumY += ly;
+            sumXX += lx * lx;
+            sumXY += lx * ly;
+            n++;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        if (n < 2 || denominator == 0) {
+            return Double.NaN;
+        }
+        return (n * sumXY - sumX * sumY) / denominator;
+    }
+
+    /**
+     * Find stages whose fitted exponent exceeds the allowed bound. Stages without a
+     * fitted exponent are not checked.
+     * @param maxExponent largest acceptable exponent (1 is exactly linear in V + E)
+     * @return one message per violation
+     */
+    public List<String> checkExponents(double maxExponent) {
+        List<String> violations = new ArrayList<>();
+        for (StageResult result : stages) {
+            double exponent = result.getExponent();
+            if (!Double.isNaN(exponent) && exponent > maxExponent) {
+                violations.add(String.format(Locale.ROOT,
+                    "%s scales as (V+E)^%.2f, expected at most ^%.2f", result.stage, exponent, maxExponent));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Find stages whose throughput dropped against a baseline. Stages are compared at
+     * the largest size measured in both runs; stages missing from either side are skipped.
+     * @param baseline baseline report
+     * @param maxDrop tolerated relative drop, e.g. 0.2 for 20%
+     * @return one message per violation
+     */
+    public List<String> checkBaseline(ScalingReport baseline, double maxDrop) {
+        List<String> violations = new ArrayList<>();
+        for (StageResult result : stages) {
+            StageResult base = baseline.getStage(result.stage);
+            if (base == null) {
+                continue;
+            }
+            Measurement current = null;
+            Measurement previous = null;
+            for (Measurement m : result.measurements) {
+                for (Measurement b : base.measurements) {
+                    if (m.vertices == b.vertices) {
+                        current = m;
+                        previous = b;
+                    }
+                }
+            }
+            if (current == null) {
+                continue;
+            }
+            double ratio = current.getThroughput() / previous.getThroughput();
+            if (ratio < 1 - maxDrop) {
+                violations.add(String.format(Locale.ROOT,
+                    "%s throughput at V=%d dropped %.1f%% (%.0f -> %.0f elements/s)",
+                    result.stage, current.vertices, (1 - ratio) * 100,
+                    previous.getThroughput(), current.getThroughput()));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Get the result of one stage.
+     * @param stage stage name
+     * @return result, or null if the stage was not measured
+     */
+    public StageResult getStage(String stage) {
+        for (StageResult result : stages) {
+            if (result.stage.equals(stage)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write one CSV row per (stage, size).
+     * @param writer destination
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("family,stage,vertices,edges,work,median_ns,throughput_per_s\n");
+        for (StageResult result : stages) {
+            for (Measurement m : result.measurements) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.1f\n",
+                    family, result.stage, m.vertices, m.edges, m.getWork(), m.medianNs, m.getThroughput()));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write the report as JSON, including fitted exponents.
+     * @param writer destination
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("family", family);
+        JsonArray stageArray = new JsonArray();
+        for (StageResult result : stages) {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("stage", result.stage);
+            double exponent = result.getExponent();
+            if (!Double.isNaN(exponent)) {
+                obj.addProperty("exponent", exponent);
+            }
+            obj.addProperty("throughput", result.getThroughput());
+            JsonArray measurementArray = new JsonArray();
+            for (Measurement m : result.measurements) {
+                JsonObject mObj = new JsonObject();
+                mObj.addProperty("vertices", m.vertices);
+                mObj.addProperty("edges", m.edges);
+                mObj.addProperty("medianNs", m.medianNs);
+                measurementArray.add(mObj);
+            }
+            obj.add("measurements", measurementArray);
+            stageArray.add(obj);
+        }
+        root.add("stages", stageArray);
+        new GsonBuilder().setPrettyPrinting().create().toJson(root, writer);
+        writer.flush();
+    }
+
+    /**
+     * Read a report previously written by {@link #writeJson(Writer)}. Only
+     * {@code family}, each stage's {@code stage} name and its {@code measurements}
+     * ({@code vertices}, {@code edges}, {@code medianNs}) are read; {@code exponent} and
+     * {@code throughput} are recomputed from the measurements, so a hand-written
+     * baseline may leave them out:
+     * <pre>
+     * {"family": "LAYERED_DAG",
+     *  "stages": [{"stage": "SCC",
+     *              "measurements": [{"vertices": 4096, "edges": 16210, "medianNs": 912345}, ...]},
+     *             ...]}
+     * </pre>
+     * {@link #checkBaseline(ScalingReport, double)} pairs measurements by {@code vertices},
+     * so the baseline should come from a sweep with the same sizes.
+     * @param reader source
+     * @return report
+     */
+    public static ScalingReport readBaseline(Reader reader) {
+        JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+        List<StageResult> stages = new ArrayList<>();
+        for (JsonElement stageElement : root.getAsJsonArray("stages")) {
+            JsonObject obj = stageElement.getAsJsonObject();
+            List<Measurement> measurements = new ArrayList<>();
+            for (JsonElement mElement : obj.getAsJsonArray("measurements")) {
+                JsonObject m = mElement.getAsJsonObject();
+                measurements.add(new Measurement(m.get("vertices").getAsInt(),
+                    m.get("edges").getAsLong(), m.get("medianNs").getAsLong()));
+            }
+            stages.add(new StageResult(obj.get("stage").getAsString(), measurements));
+        }
+        return new ScalingReport(root.get("family").getAsString(), stages);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Scaling (" + family + "):\n");
+        for (StageResult result : stages) {
+            double exponent = result.getExponent();
+            sb.append(String.format(Locale.ROOT, "  %-14s exponent=%5s  throughput=%,.0f elements/s\n",
+                result.stage, Double.isNaN(exponent) ? "n/a" : String.format(Locale.ROOT, "%.2f", exponent),
+                result.getThroughput()));
+        }
+        return sb.toString();
+    }
+}
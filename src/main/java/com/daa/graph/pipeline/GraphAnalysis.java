@@ -0,0 +1,268 @@
+package com.daa.graph.pipeline;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
+import com.daa.graph.util.Metrics;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.PhaseTimer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The SCC -> condensation -> topological order -> paths pipeline for one graph, with
+ * every intermediate result computed lazily and at most once.
+ * Each artifact remembers the {@link Graph#getVersion() graph version} it was computed
+ * for; after the graph is modified the next request recomputes it (and, through the
+ * accessors it depends on, everything upstream that is also stale).
+ * <p>
+ * Accessors are thread-safe: concurrent callers of the same artifact wait for a single
+ * computation, so independent stages can run in parallel, e.g. through
+ * {@link #computePathsAsync(int, Executor)}. Path results refer to the condensation,
+ * i.e. vertices are SCC ids.
+ * <p>
+ * Every stage is iterative (SCCs come from
+ * {@link StronglyConnectedComponents#findSCCsIterative()}), so any thread may drive the
+ * pipeline, including common-pool workers with their default stack size.
+ */
+public class GraphAnalysis {
+    private final Graph graph;
+    private final PhaseTimer phaseTimer;
+    private final Map<Artifact, AtomicInteger> computations = new EnumMap<>(Artifact.class);
+
+    private final Memo<SccResult> scc = new Memo<>(Artifact.SCCS);
+    private final Memo<Graph> condensation = new Memo<>(Artifact.CONDENSATION);
+    private final Memo<List<Integer>> topologicalOrder = new Memo<>(Artifact.TOPOLOGICAL_ORDER);
+    private final Memo<Map<Integer, int[]>> shortestBySource = new Memo<>(null);
+    private final Memo<LongestPaths> longest = new Memo<>(Artifact.LONGEST_DISTANCES);
+
+    /**
+     * Pipeline artifact enumeration.
+     */
+    public enum Artifact {
+        SCCS,
+        CONDENSATION,
+        TOPOLOGICAL_ORDER,
+        SHORTEST_DISTANCES,
+        LONGEST_DISTANCES
+    }
+
+    private static class SccResult {
+        final StronglyConnectedComponents algorithm;
+        final List<List<Integer>> sccs;
+
+        SccResult(StronglyConnectedComponents algorithm, List<List<Integer>> sccs) {
+            this.algorithm = algorithm;
+            this.sccs = sccs;
+        }
+    }
+
+    private static class LongestPaths {
+        final int[] distances;
+        final DAGShortestPath.CriticalPathResult criticalPath;
+
+        LongestPaths(int[] distances, DAGShortestPath.CriticalPathResult criticalPath) {
+            this.distances = distances;
+            this.criticalPath = criticalPath;
+        }
+    }
+
+    /**
+     * A lazily computed value tied to the graph version it was computed for.
+     */
+    private class Memo<T> {
+        private final Artifact artifact;
+        private T value;
+        private long version = -1;
+
+        Memo(Artifact artifact) {
+            this.artifact = artifact;
+        }
+
+        synchronized T get(Supplier<T> compute) {
+            long current = graph.getVersion();
+            if (version != current) {
+                value = compute.get();
+                version = current;
+                if (artifact != null) {
+                    computations.get(artifact).incrementAndGet();
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param graph graph to analyze
+     */
+    public GraphAnalysis(Graph graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Constructor.
+     * @param graph graph to analyze
+     * @param phaseTimer timer receiving the algorithms' phase spans, or null
+     */
+    public GraphAnalysis(Graph graph, PhaseTimer phaseTimer) {
+        this.graph = graph;
+        this.phaseTimer = phaseTimer;
+        for (Artifact artifact : Artifact.values()) {
+            computations.put(artifact, new AtomicInteger());
+        }
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Get the strongly connected components.
+     * @return list of SCCs, each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> getSCCs() {
+        return Collections.unmodifiableList(sccs().sccs);
+    }
+
+    /**
+     * Get the mapping from vertex to SCC index.
+     * @return map from vertex index to SCC index
+     */
+    public Map<Integer, Integer> getVertexToScc() {
+        return Collections.unmodifiableMap(sccs().algorithm.getVertexToScc());
+    }
+
+    /**
+     * Get the SCC containing a vertex.
+     * @param vertex vertex index
+     * @return SCC index
+     */
+    public int getComponentOf(int vertex) {
+        return sccs().algorithm.getVertexToScc().get(vertex);
+    }
+
+    /**
+     * Get the condensation graph. It must not be modified.
+     * @return DAG of SCCs
+     */
+    public Graph getCondensation() {
+        return condensation.get(() -> sccs().algorithm.buildCondensationGraph());
+    }
+
+    /**
+     * Get a topological order of the condensation.
+     * @return SCC ids in topological order
+     */
+    public List<Integer> getTopologicalOrder() {
+        return topologicalOrder.get(() -> Collections.unmodifiableList(
+            new TopologicalSort(getCondensation(), newMetrics()).kahnTopologicalSort()));
+    }
+
+    /**
+     * Get the vertex order derived from the SCC topological order.
+     * @return vertices, grouped by SCC, in topological order of their SCCs
+     */
+    public List<Integer> getVertexOrder() {
+        return TopologicalSort.convertSccOrderToVertexOrder(getTopologicalOrder(), getVertexToScc(), getSCCs());
+    }
+
+    /**
+     * Get shortest distances (edge weights) in the condensation from one source SCC.
+     * Each source is computed once per graph version.
+     * @param source source SCC id
+     * @return distances; Integer.MAX_VALUE marks unreachable SCCs
+     */
+    public int[] getShortestDistances(int source) {
+        Map<Integer, int[]> bySource = shortestBySource.get(ConcurrentHashMap::new);
+        return bySource.computeIfAbsent(source, s -> {
+            computations.get(Artifact.SHORTEST_DISTANCES).incrementAndGet();
+            return newPaths().shortestPathsFromSource(s);
+        }).clone();
+    }
+
+    /**
+     * Get longest (critical path) distances in the condensation, in node durations.
+     * @return distances
+     */
+    public int[] getLongestDistances() {
+        return longestPaths().distances.clone();
+    }
+
+    /**
+     * Get the critical path of the condensation.
+     * @return critical path over SCC ids and its length
+     */
+    public DAGShortestPath.CriticalPathResult getCriticalPath() {
+        return longestPaths().criticalPath;
+    }
+
+    /**
+     * Compute the shortest distances from a source and the longest paths in parallel.
+     * Both share the memoized topological order, which is computed once up front.
+     * @param source source SCC id
+     * @param executor executor for the two path computations
+     * @return future completing when both results are memoized
+     */
+    public CompletableFuture<Void> computePathsAsync(int source, Executor executor) {
+        return CompletableFuture.supplyAsync(this::getTopologicalOrder, executor)
+            .thenCompose(order -> CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> getShortestDistances(source), executor),
+                CompletableFuture.runAsync(this::longestPaths, executor)));
+    }
+
+    /**
+     * Compute the shortest distances from a source and the longest paths in parallel
+     * on the common pool.
+     * @param source source SCC id
+     * @return future completing when both results are memoized
+     */
+    public CompletableFuture<Void> computePathsAsync(int source) {
+        return computePathsAsync(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Get how many times an artifact has been computed, e.g. to verify memoization.
+     * @param artifact artifact
+     * @return number of computations
+     */
+    public int getComputationCount(Artifact artifact) {
+        return computations.get(artifact).get();
+    }
+
+    private SccResult sccs() {
+        return scc.get(() -> {
+            StronglyConnectedComponents algorithm = new StronglyConnectedComponents(graph, newMetrics());
+            return new SccResult(algorithm, algorithm.findSCCsIterative());
+        });
+    }
+
+    private LongestPaths longestPaths() {
+        return longest.get(() -> {
+            DAGShortestPath paths = newPaths();
+            DAGShortestPath.CriticalPathResult criticalPath = paths.findCriticalPath();
+            return new LongestPaths(paths.getDistances(), criticalPath);
+        });
+    }
+
+    private DAGShortestPath newPaths() {
+        return new DAGShortestPath(getCondensation(), getTopologicalOrder(), newMetrics());
+    }
+
+    private Metrics newMetrics() {
+        if (phaseTimer == null) {
+            return NoOpMetrics.INSTANCE;
+        }
+        Metrics metrics = new BasicMetrics();
+        metrics.setPhaseTimer(phaseTimer);
+        return metrics;
+    }
+}
@@ -0,0 +1,329 @@
+package com.daa.graph.reorder;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.CsrGraph;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.GraphBuilder;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.Workspace;
+
+import java.util.*;
+
+/**
+ * Renumbers the vertices of a graph so that traversals touch memory nearly in order.
+ * Loaded vertex ids follow whatever order the upstream system used; after relabeling,
+ * vertices that are visited together have nearby ids, so the per-vertex arrays of the
+ * algorithms (distances, marks, in-degrees) are read almost sequentially.
+ * <p>
+ * Run the algorithms on {@link #getGraph()} with {@link #toNew(int) translated} inputs
+ * and translate their results back with the {@code mapBack} helpers.
+ */
+public class Relabeling {
+    private final Graph graph;
+    private final int[] oldToNew;
+    private final int[] newToOld;
+
+    /**
+     * Vertex order enumeration.
+     */
+    public enum Strategy {
+        /** Topological order of the SCCs, vertices of one SCC kept together; defined for cyclic graphs too. */
+        TOPOLOGICAL,
+        /** Breadth-first over outgoing edges, starting from the vertices without predecessors. */
+        BFS,
+        /** Reverse Cuthill-McKee on the undirected graph: minimizes the id distance along edges. */
+        RCM;
+
+        /**
+         * Parse a strategy name, ignoring case.
+         * @param name strategy name
+         * @return strategy
+         */
+        public static Strategy forName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown relabeling strategy: " + name);
+            }
+        }
+    }
+
+    private Relabeling(Graph graph, int[] oldToNew, int[] newToOld) {
+        this.graph = graph;
+        this.oldToNew = oldToNew;
+        this.newToOld = newToOld;
+    }
+
+    /**
+     * Relabel a graph.
+     * @param graph graph to relabel; it is not modified
+     * @param strategy vertex order
+     * @return relabeled graph with its permutation
+     */
+    public static Relabeling of(Graph graph, Strategy strategy) {
+        int[] newToOld;
+        switch (strategy) {
+            case TOPOLOGICAL:
+                newToOld = topologicalOrder(graph);
+                break;
+            case BFS:
+                newToOld = bfsOrder(graph);
+                break;
+            case RCM:
+                newToOld = reverseCuthillMcKee(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown relabeling strategy: " + strategy);
+        }
+        return of(graph, newToOld);
+    }
+
+    /**
+     * Relabel a graph with a given order.
+     * @param graph graph to relabel; it is not modified
+     * @param newToOld newToOld[i] is the old id of the vertex that gets id i
+     * @return relabeled graph with its permutation
+     * @throws IllegalArgumentException if newToOld is not a permutation
+     */
+    public static Relabeling of(Graph graph, int[] newToOld) {
+        int n = graph.getNumVertices();
+        if (newToOld.length != n) {
+            throw new IllegalArgumentException("Permutation has " + newToOld.length + " entries for " + n + " vertices");
+        }
+        int[] oldToNew = new int[n];
+        Arrays.fill(oldToNew, -1);
+        for (int i = 0; i < n; i++) {
+            int old = newToOld[i];
+            if (old < 0 || old >= n || oldToNew[old] != -1) {
+                throw new IllegalArgumentException("Not a permutation: vertex " + old + " at position " + i);
+            }
+            oldToNew[old] = i;
+        }
+
+        List<Graph.Edge> edges = graph.getEdges();
+        GraphBuilder builder = new GraphBuilder(n, edges.size(), Graph.DuplicateEdgePolicy.ALLOW);
+        for (int i = 0; i < n; i++) {
+            int old = newToOld[i];
+            builder.setNodeDuration(i, graph.getNodeDuration(old));
+            List<Graph.Edge> outgoing = graph.getOutgoingEdges(old);
+            for (int e = 0; e < outgoing.size(); e++) {
+                Graph.Edge edge = outgoing.get(e);
+                builder.addEdge(i, oldToNew[edge.to], edge.weight);
+            }
+        }
+        return new Relabeling(builder.build(), oldToNew, newToOld.clone());
+    }
+
+    /**
+     * Get the relabeled graph.
+     * @return graph over the new ids
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Translate an original vertex id.
+     * @param oldVertex id in the original graph
+     * @return id in the relabeled graph
+     */
+    public int toNew(int oldVertex) {
+        return oldToNew[oldVertex];
+    }
+
+    /**
+     * Translate a relabeled vertex id back.
+     * @param newVertex id in the relabeled graph
+     * @return id in the original graph
+     */
+    public int toOld(int newVertex) {
+        return newToOld[newVertex];
+    }
+
+    /**
+     * Get the forward permutation.
+     * @return array mapping original ids to new ids
+     */
+    public int[] getPermutation() {
+        return oldToNew.clone();
+    }
+
+    /**
+     * Get the inverse permutation.
+     * @return array mapping new ids to original ids
+     */
+    public int[] getInversePermutation() {
+        return newToOld.clone();
+    }
+
+    /**
+     * Translate per-vertex values (distances, levels, ...) back to the original ids.
+     * @param valuesByNewId values indexed by new id
+     * @return the same values indexed by original id
+     */
+    public int[] mapBack(int[] valuesByNewId) {
+        int[] valuesByOldId = new int[valuesByNewId.length];
+        for (int i = 0; i < valuesByNewId.length; i++) {
+            valuesByOldId[newToOld[i]] = valuesByNewId[i];
+        }
+        return valuesByOldId;
+    }
+
+    /**
+     * Translate a list of vertices (a path or an order) back to the original ids.
+     * @param newVertices vertices as new ids
+     * @return the same vertices as original ids, in the same order
+     */
+    public List<Integer> mapBack(List<Integer> newVertices) {
+        List<Integer> oldVertices = new ArrayList<>(newVertices.size());
+        for (int v : newVertices) {
+            oldVertices.add(newToOld[v]);
+        }
+        return oldVertices;
+    }
+
+    /**
+     * Translate SCCs back to the original ids. Components keep their ids.
+     * @param sccs SCCs over new ids
+     * @return SCCs over original ids
+     */
+    public List<List<Integer>> mapBackComponents(List<List<Integer>> sccs) {
+        List<List<Integer>> mapped = new ArrayList<>(sccs.size());
+        for (List<Integer> scc : sccs) {
+            mapped.add(mapBack(scc));
+        }
+        return mapped;
+    }
+
+    /**
+     * Translate a vertex-to-SCC map back to original ids.
+     * @param vertexToScc map from new id to component
+     * @return map from original id to component
+     */
+    public Map<Integer, Integer> mapBackVertexToScc(Map<Integer, Integer> vertexToScc) {
+        Map<Integer, Integer> mapped = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : vertexToScc.entrySet()) {
+            mapped.put(newToOld[entry.getKey()], entry.getValue());
+        }
+        return mapped;
+    }
+
+    /**
+     * Vertices grouped by SCC, SCCs in topological order, vertices of an SCC by id.
+     */
+    private static int[] topologicalOrder(Graph graph) {
+        int n = graph.getNumVertices();
+        Workspace workspace = new Workspace();
+        int count = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE).findSCCs(workspace);
+        int[] start = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            start[workspace.getComponent(v) + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            start[c + 1] += start[c];
+        }
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[workspace.getComponent(v)]++] = v;
+        }
+        return order;
+    }
+
+    private static int[] bfsOrder(Graph graph) {
+        int n = graph.getNumVertices();
+        int[] inDegree = new int[n];
+        for (Graph.Edge edge : graph.getEdges()) {
+            inDegree[edge.to]++;
+        }
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        int tail = 0;
+        // Roots first, then whatever is only reachable through cycles.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < n; root++) {
+                if (visited[root] || (pass == 0 && inDegree[root] > 0)) {
+                    continue;
+                }
+                int head = tail;
+                visited[root] = true;
+                order[tail++] = root;
+                while (head < tail) {
+                    List<Graph.Edge> outgoing = graph.getOutgoingEdges(order[head++]);
+                    for (int e = 0; e < outgoing.size(); e++) {
+                        int w = outgoing.get(e).to;
+                        if (!visited[w]) {
+                            visited[w] = true;
+                            order[tail++] = w;
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Cuthill-McKee over the symmetrized graph, each component started from a vertex of
+     * minimum degree, neighbors enqueued by increasing degree; the result is reversed.
+     */
+    private static int[] reverseCuthillMcKee(Graph graph) {
+        int n = graph.getNumVertices();
+        List<Graph.Edge> edges = graph.getEdges();
+        GraphBuilder builder = new GraphBuilder(n, 2 * edges.size(), Graph.DuplicateEdgePolicy.ALLOW);
+        for (Graph.Edge edge : edges) {
+            if (edge.from != edge.to) {
+                builder.addEdge(edge.from, edge.to, 0);
+                builder.addEdge(edge.to, edge.from, 0);
+            }
+        }
+        CsrGraph undirected = builder.buildCsr();
+
+        int[] byDegree = new int[n];
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = ((long) undirected.getOutDegree(v) << 32) | v;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < n; i++) {
+            byDegree[i] = (int) keys[i];
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        long[] neighbors = new long[16];
+        int tail = 0;
+        for (int start : byDegree) {
+            if (visited[start]) {
+                continue;
+            }
+            int head = tail;
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int v = order[head++];
+                int count = 0;
+                for (int e = undirected.getEdgeStart(v); e < undirected.getEdgeEnd(v); e++) {
+                    int w = undirected.getTarget(e);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        if (count == neighbors.length) {
+                            neighbors = Arrays.copyOf(neighbors, count * 2);
+                        }
+                        neighbors[count++] = ((long) undirected.getOutDegree(w) << 32) | w;
+                    }
+                }
+                Arrays.sort(neighbors, 0, count);
+                for (int i = 0; i < count; i++) {
+                    order[tail++] = (int) neighbors[i];
+                }
+            }
+        }
+
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
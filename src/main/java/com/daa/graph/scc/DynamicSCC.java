@@ -0,0 +1,399 @@
+package com.daa.graph.scc;
+
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.Workspace;
+
+import java.util.*;
+
+/**
+ * Strongly connected components maintained under edge insertions. Components are kept
+ * in a union-find structure (a component is named by its representative vertex) and
+ * the condensation DAG is kept together with a topological order of its components,
+ * maintained with the Pearce-Kelly algorithm.
+ * <p>
+ * An inserted edge u -> v that agrees with the order costs O(1). Otherwise only the
+ * components ordered between v's and u's are searched: forward from v and backward from
+ * u. Components found by both searches lie on the new cycle and are merged into one,
+ * and the searched components are reordered within the positions they already occupied.
+ * Nothing outside that window is touched.
+ * <p>
+ * Edge deletions are not supported; see {@link com.daa.graph.delta.IncrementalAnalysis}
+ * for a structure that also handles removals at a higher cost per update.
+ */
+public class DynamicSCC {
+    private final Graph graph;
+    private final int[] parent;
+    private final int[] rank;
+    private final int[] position; // topological priority of each component, by representative
+    private final int[] duration; // max member duration, by representative
+    private final List<List<Integer>> members;
+    private final List<Map<Integer, CondensationEdge>> out;
+    private final List<Map<Integer, CondensationEdge>> in;
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private int epoch = 0;
+    private int componentCount;
+    private int lastSearched;
+
+    /**
+     * A condensation edge: how many graph edges it stands for, and the weight of the
+     * first of them in {@link Graph#getEdges()} order, which is the edge
+     * {@link StronglyConnectedComponents#buildCondensationGraph()} keeps.
+     */
+    private static class CondensationEdge {
+        int count;
+        long first; // source vertex << 32 | position in its adjacency list
+        int weight;
+
+        CondensationEdge(int count, long first, int weight) {
+            this.count = count;
+            this.first = first;
+            this.weight = weight;
+        }
+
+        void offer(long position, int edgeWeight) {
+            if (position <= first) {
+                first = position;
+                weight = edgeWeight;
+            }
+        }
+    }
+
+    /**
+     * Constructor. Runs one full SCC computation.
+     * @param graph graph to track; later insertions must go through {@link #addEdge}
+     */
+    public DynamicSCC(Graph graph) {
+        this.graph = graph;
+        int n = graph.getNumVertices();
+        parent = new int[n];
+        rank = new int[n];
+        position = new int[n];
+        duration = new int[n];
+        forwardMark = new int[n];
+        backwardMark = new int[n];
+        members = new ArrayList<>(Collections.nCopies(n, (List<Integer>) null));
+        out = new ArrayList<>(Collections.nCopies(n, (Map<Integer, CondensationEdge>) null));
+        in = new ArrayList<>(Collections.nCopies(n, (Map<Integer, CondensationEdge>) null));
+
+        Workspace workspace = new Workspace();
+        componentCount = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE).findSCCs(workspace);
+        int[] representative = new int[componentCount];
+        Arrays.fill(representative, -1);
+        for (int v = 0; v < n; v++) {
+            int component = workspace.getComponent(v);
+            if (representative[component] == -1) {
+                representative[component] = v;
+                members.set(v, new ArrayList<>());
+                out.set(v, new HashMap<>());
+                in.set(v, new HashMap<>());
+                position[v] = component; // workspace ids are already topologically ordered
+                duration[v] = Integer.MIN_VALUE;
+            }
+            int rep = representative[component];
+            parent[v] = rep;
+            members.get(rep).add(v);
+            duration[rep] = Math.max(duration[rep], graph.getNodeDuration(v));
+        }
+        for (int u = 0; u < n; u++) {
+            List<Graph.Edge> edges = graph.getOutgoingEdges(u);
+            for (int i = 0; i < edges.size(); i++) {
+                int from = parent[u];
+                int to = parent[edges.get(i).to];
+                if (from != to) {
+                    connect(from, to, 1, edgePosition(u, i), edges.get(i).weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an edge to the graph and update the components, merging those on a new cycle.
+     * @param from source vertex
+     * @param to destination vertex
+     * @param weight edge weight
+     * @return number of components merged into one (0 if no cycle was closed)
+     */
+    public int addEdge(int from, int to, int weight) {
+        lastSearched = 0;
+        int edgesBefore = graph.getNumEdges();
+        if (!graph.addEdge(from, to, weight)) {
+            return 0;
+        }
+        int cu = find(from);
+        int cv = find(to);
+        if (cu == cv) {
+            return 0;
+        }
+        boolean known = out.get(cu).containsKey(cv);
+        List<Graph.Edge> outgoing = graph.getOutgoingEdges(from);
+        if (graph.getNumEdges() > edgesBefore) {
+            connect(cu, cv, 1, edgePosition(from, outgoing.size() - 1), weight);
+        } else {
+            // A KEEP_MIN or KEEP_MAX graph replaced the weight of an existing edge in place.
+            int i = 0;
+            while (outgoing.get(i).to != to) {
+                i++;
+            }
+            CondensationEdge edge = out.get(cu).get(cv);
+            if (edge.first == edgePosition(from, i)) {
+                edge.weight = weight;
+            }
+        }
+        if (known || position[cu] < position[cv]) {
+            return 0;
+        }
+
+        epoch++;
+        List<Integer> forward = search(cv, cu, true);
+        List<Integer> backward = search(cu, cv, false);
+        lastSearched = forward.size() + backward.size();
+
+        // Components reached from both sides lie on a path v ~> u and now form a cycle.
+        List<Integer> cycle = new ArrayList<>();
+        List<Integer> before = new ArrayList<>();
+        List<Integer> after = new ArrayList<>();
+        for (int c : backward) {
+            (forwardMark[c] == epoch ? cycle : before).add(c);
+        }
+        for (int c : forward) {
+            if (backwardMark[c] != epoch) {
+                after.add(c);
+            }
+        }
+
+        int[] pool = new int[before.size() + cycle.size() + after.size()];
+        int k = 0;
+        for (List<Integer> group : List.of(before, cycle, after)) {
+            for (int c : group) {
+                pool[k++] = position[c];
+            }
+        }
+        Arrays.sort(pool);
+        Comparator<Integer> byPosition = Comparator.comparingInt(c -> position[c]);
+        before.sort(byPosition);
+        after.sort(byPosition);
+
+        // New order: everything reaching u, then the merged cycle, then everything reached from v.
+        k = 0;
+        for (int c : before) {
+            position[c] = pool[k++];
+        }
+        int merged = cycle.isEmpty() ? -1 : merge(cycle);
+        if (merged != -1) {
+            position[merged] = pool[k++];
+        }
+        for (int c : after) {
+            position[c] = pool[k++];
+        }
+        return cycle.size();
+    }
+
+    /**
+     * Bounded search over the condensation for Pearce-Kelly: forward from v through
+     * components ordered before u (noting u itself if reached), or backward from u
+     * through components ordered after v.
+     */
+    private List<Integer> search(int start, int boundary, boolean forward) {
+        int[] mark = forward ? forwardMark : backwardMark;
+        List<Integer> visited = new ArrayList<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        mark[start] = epoch;
+        visited.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            int c = stack.pop();
+            for (int next : (forward ? out : in).get(c).keySet()) {
+                if (mark[next] == epoch) {
+                    continue;
+                }
+                boolean inWindow = forward ? position[next] < position[boundary] : position[next] > position[boundary];
+                if (next == boundary || inWindow) {
+                    mark[next] = epoch;
+                    visited.add(next);
+                    if (next != boundary) {
+                        stack.push(next);
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Merge components into the one with the most members; returns its representative.
+     */
+    private int merge(List<Integer> cycle) {
+        int rep = cycle.get(0);
+        for (int c : cycle) {
+            if (members.get(c).size() > members.get(rep).size()) {
+                rep = c;
+            }
+        }
+        Set<Integer> merging = new HashSet<>(cycle);
+        for (int c : cycle) {
+            for (int other : new ArrayList<>(out.get(c).keySet())) {
+                if (merging.contains(other)) {
+                    disconnect(c, other);
+                }
+            }
+        }
+        for (int c : cycle) {
+            if (c == rep) {
+                continue;
+            }
+            for (Map.Entry<Integer, CondensationEdge> edge : new ArrayList<>(out.get(c).entrySet())) {
+                disconnect(c, edge.getKey());
+                connect(rep, edge.getKey(), edge.getValue());
+            }
+            for (Map.Entry<Integer, CondensationEdge> edge : new ArrayList<>(in.get(c).entrySet())) {
+                disconnect(edge.getKey(), c);
+                connect(edge.getKey(), rep, edge.getValue());
+            }
+            members.get(rep).addAll(members.get(c));
+            duration[rep] = Math.max(duration[rep], duration[c]);
+            union(rep, c);
+            members.set(c, null);
+            out.set(c, null);
+            in.set(c, null);
+        }
+        componentCount -= cycle.size() - 1;
+        return rep;
+    }
+
+    private void connect(int from, int to, CondensationEdge merged) {
+        connect(from, to, merged.count, merged.first, merged.weight);
+    }
+
+    private void connect(int from, int to, int count, long position, int weight) {
+        CondensationEdge edge = out.get(from).get(to);
+        if (edge == null) {
+            edge = new CondensationEdge(0, position, weight);
+            out.get(from).put(to, edge);
+            in.get(to).put(from, edge);
+        }
+        edge.count += count;
+        edge.offer(position, weight);
+    }
+
+    private static long edgePosition(int from, int index) {
+        return (long) from << 32 | index;
+    }
+
+    private void disconnect(int from, int to) {
+        out.get(from).remove(to);
+        in.get(to).remove(from);
+    }
+
+    /** Attach {@code child}'s tree under {@code rep}, which must stay the representative. */
+    private void union(int rep, int child) {
+        parent[child] = rep;
+        if (rank[child] >= rank[rep]) {
+            rank[rep] = rank[child] + 1;
+        }
+    }
+
+    private int find(int v) {
+        int root = v;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[v] != root) {
+            int next = parent[v];
+            parent[v] = root;
+            v = next;
+        }
+        return root;
+    }
+
+    /**
+     * Get the component of a vertex, named by its representative vertex.
+     * @param vertex vertex index
+     * @return representative of the vertex's SCC
+     */
+    public int getComponent(int vertex) {
+        return find(vertex);
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Get the members of a component.
+     * @param component representative vertex
+     * @return member vertices
+     */
+    public List<Integer> getMembers(int component) {
+        return Collections.unmodifiableList(members.get(find(component)));
+    }
+
+    /**
+     * Get the condensation successors of a component.
+     * @param component representative vertex
+     * @return representatives of the components it has edges to
+     */
+    public Set<Integer> getSuccessors(int component) {
+        return Collections.unmodifiableSet(out.get(find(component)).keySet());
+    }
+
+    /**
+     * Get the components in the maintained topological order.
+     * @return representatives, sources first
+     */
+    public List<Integer> getTopologicalOrder() {
+        List<Integer> order = new ArrayList<>(componentCount);
+        for (int v = 0; v < parent.length; v++) {
+            if (parent[v] == v) {
+                order.add(v);
+            }
+        }
+        order.sort(Comparator.comparingInt(c -> position[c]));
+        return order;
+    }
+
+    /**
+     * Get how many components the last {@link #addEdge} call had to search.
+     * @return components visited by the Pearce-Kelly searches, 0 if none were needed
+     */
+    public int getLastSearchedComponents() {
+        return lastSearched;
+    }
+
+    /**
+     * Snapshot of the SCCs in the same form as {@link StronglyConnectedComponents#findSCCs()}:
+     * ids are contiguous and follow the topological order.
+     * @return list of SCCs, each a list of vertex indices
+     */
+    public List<List<Integer>> getSCCs() {
+        List<List<Integer>> sccs = new ArrayList<>(componentCount);
+        for (int c : getTopologicalOrder()) {
+            sccs.add(new ArrayList<>(members.get(c)));
+        }
+        return sccs;
+    }
+
+    /**
+     * Snapshot of the condensation graph with the ids of {@link #getSCCs()}. A node's
+     * duration is the maximum of its members'; an edge's weight is that of the first
+     * graph edge it stands for, as in {@link StronglyConnectedComponents#buildCondensationGraph()}.
+     * @return condensation graph
+     */
+    public Graph buildCondensationGraph() {
+        List<Integer> order = getTopologicalOrder();
+        Map<Integer, Integer> id = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            id.put(order.get(i), i);
+        }
+        Graph condensation = new Graph(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            int c = order.get(i);
+            condensation.setNodeDuration(i, duration[c]);
+            for (Map.Entry<Integer, CondensationEdge> edge : out.get(c).entrySet()) {
+                condensation.addEdge(i, id.get(edge.getKey()), edge.getValue().weight);
+            }
+        }
+        return condensation;
+    }
+}
@@ -2,6 +2,8 @@ package com.daa.graph.scc;
 
 import com.daa.graph.util.Graph;
 import com.daa.graph.util.Metrics;
+import com.daa.graph.util.PhaseTimer;
+import com.daa.graph.util.Workspace;
 
 import java.util.*;
 
@@ -21,82 +23,220 @@ public class StronglyConnectedComponents {
     public StronglyConnectedComponents(Graph graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
+        metrics.setGraphShape(graph.getNumVertices(), graph.getNumEdges());
     }
 
     /**
      * Find all strongly connected components.
      * @return list of SCCs, each SCC is a list of vertex indices
      */
+    @SuppressWarnings("try")
     public List<List<Integer>> findSCCs() {
-        metrics.startTimer();
         metrics.reset();
-        
-        int n = graph.getNumVertices();
-        boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
-        sccs = new ArrayList<>();
-        vertexToScc = new HashMap<>();
-
-        for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                firstDFS(i, visited, stack);
+        metrics.startTimer();
+
+        try (PhaseTimer.Span sccSpan = metrics.span("scc")) {
+            int n = graph.getNumVertices();
+            boolean[] visited = new boolean[n];
+            Stack<Integer> stack = new Stack<>();
+            sccs = new ArrayList<>();
+            vertexToScc = new HashMap<>();
+
+            try (PhaseTimer.Span span = metrics.span("dfs1")) {
+                long edgeTraversals = 0;
+                for (int i = 0; i < n; i++) {
+                    if (!visited[i]) {
+                        edgeTraversals += firstDFS(i, visited, stack);
+                    }
+                }
+                metrics.addDfsVisits(n);
+                metrics.addEdgeTraversals(edgeTraversals);
             }
-        }
 
-        Graph reversedGraph = graph.getReversed();
-        Arrays.fill(visited, false);
-
-        int sccId = 0;
-        while (!stack.isEmpty()) {
-            int v = stack.pop();
-            if (!visited[v]) {
-                List<Integer> scc = new ArrayList<>();
-                secondDFS(v, reversedGraph, visited, scc, sccId);
-                sccs.add(scc);
-                sccId++;
+            Graph reversedGraph;
+            try (PhaseTimer.Span span = metrics.span("reverse")) {
+                reversedGraph = graph.getReversed();
+            }
+            Arrays.fill(visited, false);
+
+            try (PhaseTimer.Span span = metrics.span("dfs2")) {
+                int sccId = 0;
+                long edgeTraversals = 0;
+                while (!stack.isEmpty()) {
+                    int v = stack.pop();
+                    if (!visited[v]) {
+                        List<Integer> scc = new ArrayList<>();
+                        edgeTraversals += secondDFS(v, reversedGraph, visited, scc, sccId);
+                        sccs.add(scc);
+                        sccId++;
+                    }
+                }
+                metrics.addDfsVisits(n);
+                metrics.addEdgeTraversals(edgeTraversals);
+
+                for (int i = 0; i < sccs.size(); i++) {
+                    for (int vertex : sccs.get(i)) {
+                        vertexToScc.put(vertex, i);
+                    }
+                }
             }
         }
 
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToScc.put(vertex, i);
+        metrics.stopTimer();
+        return sccs;
+    }
+
+    /**
+     * Find all strongly connected components like {@link #findSCCs()}, but with the
+     * iterative search of {@link #findSCCs(Workspace)}, so deep graphs need no large
+     * thread stack. Ids are in topological order of the condensation too, though they
+     * may differ from those of {@link #findSCCs()} where that order has ties; members
+     * are listed in increasing vertex order. The results back {@link #getVertexToScc()}
+     * and {@link #buildCondensationGraph()} in the same way.
+     * @return list of SCCs, each SCC is a list of vertex indices
+     */
+    @SuppressWarnings("try")
+    public List<List<Integer>> findSCCsIterative() {
+        metrics.reset();
+        metrics.startTimer();
+
+        try (PhaseTimer.Span span = metrics.span("scc")) {
+            Workspace workspace = new Workspace();
+            int count = findSCCs(workspace);
+            int n = graph.getNumVertices();
+            sccs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sccs.add(new ArrayList<>());
+            }
+            vertexToScc = new HashMap<>();
+            for (int v = 0; v < n; v++) {
+                int component = workspace.getComponent(v);
+                sccs.get(component).add(v);
+                vertexToScc.put(v, component);
             }
+            condensationGraph = null;
         }
 
         metrics.stopTimer();
         return sccs;
     }
 
-    
-    private void firstDFS(int v, boolean[] visited, Stack<Integer> stack) {
+    /**
+     * Find all strongly connected components without allocating: an iterative Tarjan
+     * search over scratch arrays owned by the workspace. Component ids follow the same
+     * convention as {@link #findSCCs()}: they are numbered in topological order of the
+     * condensation. Read them with {@link Workspace#getComponent(int)}.
+     * The list-based results of this object are left untouched.
+     * @param workspace caller-owned scratch memory
+     * @return number of SCCs
+     */
+    public int findSCCs(Workspace workspace) {
+        int n = graph.getNumVertices();
+        int epoch = workspace.nextEpoch(n);
+        int[] visited = workspace.stamps(n);
+        int[] index = workspace.index(n);
+        int[] lowLink = workspace.lowLink(n);
+        int[] stack = workspace.stack(n);
+        int[] callStack = workspace.callStack(n);
+        int[] edgePositions = workspace.edgePositions(n);
+        int[] components = workspace.components(n);
+        int nextIndex = 0;
+        int stackSize = 0;
+        int count = 0;
+        long edgeTraversals = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (visited[root] == epoch) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            visited[root] = epoch;
+            index[root] = lowLink[root] = nextIndex++;
+            edgePositions[root] = 0;
+            stack[stackSize++] = root;
+            components[root] = -1;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                List<Graph.Edge> edges = graph.getOutgoingEdges(v);
+                if (edgePositions[v] < edges.size()) {
+                    int w = edges.get(edgePositions[v]++).to;
+                    edgeTraversals++;
+                    if (visited[w] != epoch) {
+                        visited[w] = epoch;
+                        index[w] = lowLink[w] = nextIndex++;
+                        edgePositions[w] = 0;
+                        stack[stackSize++] = w;
+                        components[w] = -1;
+                        callStack[depth++] = w;
+                    } else if (components[w] == -1) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (lowLink[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        components[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+            }
+        }
+
+        // Tarjan completes sink components first; flip ids into topological order.
+        for (int v = 0; v < n; v++) {
+            components[v] = count - 1 - components[v];
+        }
+        metrics.addDfsVisits(n);
+        metrics.addEdgeTraversals(edgeTraversals);
+        workspace.setComponentCount(count);
+        return count;
+    }
+
+    /**
+     * DFS from v, pushing vertices onto the stack as they finish.
+     * @return edges traversed in the DFS tree rooted at v
+     */
+    private long firstDFS(int v, boolean[] visited, Stack<Integer> stack) {
         visited[v] = true;
-        metrics.incrementDfsVisits();
+        List<Graph.Edge> edges = graph.getOutgoingEdges(v);
+        long edgeTraversals = edges.size();
 
-        for (Graph.Edge edge : graph.getOutgoingEdges(v)) {
-            metrics.incrementEdgeTraversals();
+        for (Graph.Edge edge : edges) {
             int neighbor = edge.to;
             if (!visited[neighbor]) {
-                firstDFS(neighbor, visited, stack);
+                edgeTraversals += firstDFS(neighbor, visited, stack);
             }
         }
 
         stack.push(v);
+        return edgeTraversals;
     }
 
     
-    private void secondDFS(int v, Graph reversedGraph, boolean[] visited, 
+    private long secondDFS(int v, Graph reversedGraph, boolean[] visited, 
                            List<Integer> scc, int sccId) {
         visited[v] = true;
         scc.add(v);
-        metrics.incrementDfsVisits();
+        List<Graph.Edge> edges = reversedGraph.getOutgoingEdges(v);
+        long edgeTraversals = edges.size();
 
-        for (Graph.Edge edge : reversedGraph.getOutgoingEdges(v)) {
-            metrics.incrementEdgeTraversals();
+        for (Graph.Edge edge : edges) {
             int neighbor = edge.to;
             if (!visited[neighbor]) {
-                secondDFS(neighbor, reversedGraph, visited, scc, sccId);
+                edgeTraversals += secondDFS(neighbor, reversedGraph, visited, scc, sccId);
             }
         }
+        return edgeTraversals;
     }
 
     /**
@@ -111,34 +251,35 @@ public class StronglyConnectedComponents {
      * Build the condensation graph (DAG of SCCs).
      * @return condensation graph
      */
+    @SuppressWarnings("try")
     public Graph buildCondensationGraph() {
-        if (vertexToScc == null || vertexToScc.isEmpty()) {
+        if (vertexToScc == null) {
             findSCCs();
         }
 
-        int numSccs = sccs.size();
-        condensationGraph = new Graph(numSccs);
+        try (PhaseTimer.Span span = metrics.span("condensation")) {
+            int numSccs = sccs.size();
+            // Keep the first edge between two SCCs; the index makes the check O(1) and is
+            // dropped afterwards so the condensation costs no more than a plain graph.
+            condensationGraph = new Graph(numSccs, Graph.DuplicateEdgePolicy.KEEP_FIRST);
 
-        for (int i = 0; i < sccs.size(); i++) {
-            int maxDuration = 0;
-            for (int vertex : sccs.get(i)) {
-                maxDuration = Math.max(maxDuration, graph.getNodeDuration(vertex));
+            for (int i = 0; i < sccs.size(); i++) {
+                int maxDuration = 0;
+                for (int vertex : sccs.get(i)) {
+                    maxDuration = Math.max(maxDuration, graph.getNodeDuration(vertex));
+                }
+                condensationGraph.setNodeDuration(i, maxDuration);
             }
-            condensationGraph.setNodeDuration(i, maxDuration);
-        }
 
-        Set<String> addedEdges = new HashSet<>();
-        for (Graph.Edge edge : graph.getEdges()) {
-            int fromScc = vertexToScc.get(edge.from);
-            int toScc = vertexToScc.get(edge.to);
+            for (Graph.Edge edge : graph.getEdges()) {
+                int fromScc = vertexToScc.get(edge.from);
+                int toScc = vertexToScc.get(edge.to);
             
-            if (fromScc != toScc) {
-                String edgeKey = fromScc + "->" + toScc;
-                if (!addedEdges.contains(edgeKey)) {
-                    addedEdges.add(edgeKey);
+                if (fromScc != toScc) {
                     condensationGraph.addEdge(fromScc, toScc, edge.weight);
                 }
             }
+            condensationGraph.releaseEdgeIndex();
         }
 
         return condensationGraph;
@@ -160,10 +301,18 @@ public class StronglyConnectedComponents {
      * @return formatted string with SCCs and their sizes
      */
     public String getSCCInfo() {
-        if (sccs == null || sccs.isEmpty()) {
+        if (sccs == null) {
             findSCCs();
         }
+        return formatSCCInfo(sccs);
+    }
 
+    /**
+     * Format a list of SCCs the same way as {@link #getSCCInfo()}.
+     * @param sccs list of SCCs
+     * @return formatted string with SCCs and their sizes
+     */
+    public static String formatSCCInfo(List<List<Integer>> sccs) {
         StringBuilder sb = new StringBuilder();
         sb.append("Strongly Connected Components:\n");
         sb.append("Total SCCs: ").append(sccs.size()).append("\n");
@@ -0,0 +1,313 @@
+package com.daa.graph.service;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.pipeline.GraphAnalysis;
+import com.daa.graph.telemetry.LatencyHistogram;
+import com.daa.graph.telemetry.PhaseTelemetry;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.TaskGraphLoader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Long-running HTTP service that analyzes task graphs, so callers pay JVM startup and
+ * JIT warm-up once instead of per graph.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *   <li>{@code POST /analyze}: body is a task graph in any format {@link TaskGraphLoader}
+ *       accepts; the response is JSON with the SCC assignment, topological order of the
+ *       condensation and its critical path.</li>
+ *   <li>{@code GET /metrics}: latency histograms of the service stages in Prometheus
+ *       text format ("request" end to end, "queue" wait, "analysis").</li>
+ * </ul>
+ * HTTP threads only enqueue requests. A dispatcher drains the queue into micro-batches
+ * of up to {@code maxBatchSize} requests, and each batch runs on one worker of a fixed
+ * pool, which amortizes the hand-off cost when many small requests arrive together.
+ * Workers keep a per-thread response buffer that is reused across requests.
+ */
+public class SchedulingService {
+    /** Requests waiting beyond this many are rejected with 503. */
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private final int workers;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingRequest> queue;
+    private final PhaseTelemetry telemetry = new PhaseTelemetry();
+    private final ThreadLocal<StringBuilder> responseBuffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+    private HttpServer server;
+    private ExecutorService httpPool;
+    private ExecutorService workerPool;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private static class PendingRequest {
+        final byte[] body;
+        final long enqueuedNs = System.nanoTime();
+        final CompletableFuture<String> response = new CompletableFuture<>();
+
+        PendingRequest(byte[] body) {
+            this.body = body;
+        }
+    }
+
+    /**
+     * Signals a payload that could not be parsed as a graph.
+     */
+    static class BadRequestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param workers number of analysis threads
+     * @param maxBatchSize largest number of requests handed to a worker at once
+     */
+    public SchedulingService(int workers, int maxBatchSize) {
+        if (workers < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Workers and batch size must be positive");
+        }
+        this.workers = workers;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new LinkedBlockingQueue<>(DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Start listening.
+     * @param port TCP port, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start(int port) throws IOException {
+        if (running) {
+            throw new IllegalStateException("Service already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        httpPool = Executors.newCachedThreadPool(daemonFactory("http"));
+        workerPool = Executors.newFixedThreadPool(workers, daemonFactory("worker"));
+        server.setExecutor(httpPool);
+        server.createContext("/analyze", this::handleAnalyze);
+        server.createContext("/metrics", this::handleMetrics);
+        running = true;
+        dispatcher = new Thread(this::dispatch, "scheduling-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        server.start();
+    }
+
+    /**
+     * Stop the service; queued requests are failed.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        server.stop(0);
+        dispatcher.interrupt();
+        workerPool.shutdownNow();
+        httpPool.shutdownNow();
+        PendingRequest pending;
+        while ((pending = queue.poll()) != null) {
+            pending.response.completeExceptionally(new IllegalStateException("Service stopped"));
+        }
+    }
+
+    /**
+     * Get the bound port.
+     * @return port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Get the latency histogram of one service stage.
+     * @param stage "request", "queue" or "analysis"
+     * @return histogram, or null if nothing was recorded
+     */
+    public LatencyHistogram getLatency(String stage) {
+        return telemetry.getHistogram(stage);
+    }
+
+    private void handleAnalyze(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "{\"error\":\"use POST\"}");
+                return;
+            }
+            PendingRequest request = new PendingRequest(exchange.getRequestBody().readAllBytes());
+            if (!queue.offer(request)) {
+                send(exchange, 503, "{\"error\":\"queue full\"}");
+                return;
+            }
+            try {
+                send(exchange, 200, request.response.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                int status = cause instanceof BadRequestException ? 400 : 500;
+                send(exchange, status, "{\"error\":" + quote(String.valueOf(cause.getMessage())) + "}");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "{\"error\":\"interrupted\"}");
+            }
+            telemetry.record("request", System.nanoTime() - request.enqueuedNs);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            StringWriter writer = new StringWriter();
+            telemetry.writePrometheus(writer);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+            byte[] body = writer.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Dispatcher loop: block for one request, then take whatever else is already
+     * queued (up to the batch size) and hand the batch to a worker.
+     */
+    private void dispatch() {
+        while (running) {
+            List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                workerPool.execute(() -> runBatch(batch));
+            } catch (RejectedExecutionException e) {
+                for (PendingRequest request : batch) {
+                    request.response.completeExceptionally(new IllegalStateException("Service stopped"));
+                }
+                return;
+            }
+        }
+    }
+
+    private void runBatch(List<PendingRequest> batch) {
+        for (PendingRequest request : batch) {
+            long start = System.nanoTime();
+            telemetry.record("queue", start - request.enqueuedNs);
+            try {
+                request.response.complete(analyze(request.body, batch.size()));
+            } catch (BadRequestException | RuntimeException e) {
+                request.response.completeExceptionally(e);
+            }
+            telemetry.record("analysis", System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Run the pipeline on one payload and render the response.
+     */
+    String analyze(byte[] body, int batchSize) throws BadRequestException {
+        Graph graph;
+        try {
+            graph = TaskGraphLoader.loadGraph(new ByteArrayInputStream(body));
+        } catch (IOException | RuntimeException e) {
+            throw new BadRequestException("invalid graph: " + e.getMessage());
+        }
+        // Iterative SCCs and one shared topological order: no deep stacks, no second sort.
+        GraphAnalysis analysis = new GraphAnalysis(graph);
+        List<List<Integer>> sccs = analysis.getSCCs();
+        Map<Integer, Integer> vertexToScc = analysis.getVertexToScc();
+        List<Integer> order = analysis.getTopologicalOrder();
+        DAGShortestPath.CriticalPathResult criticalPath = analysis.getCriticalPath();
+
+        StringBuilder sb = responseBuffers.get();
+        sb.setLength(0);
+        sb.append("{\"vertices\":").append(graph.getNumVertices())
+          .append(",\"edges\":").append(graph.getNumEdges())
+          .append(",\"sccCount\":").append(sccs.size())
+          .append(",\"vertexToScc\":[");
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            if (v > 0) {
+                sb.append(',');
+            }
+            sb.append(vertexToScc.get(v));
+        }
+        sb.append("],\"topologicalOrder\":");
+        appendList(sb, order);
+        sb.append(",\"criticalPath\":");
+        appendList(sb, criticalPath.path);
+        sb.append(",\"criticalPathLength\":").append(criticalPath.length)
+          .append(",\"batchSize\":").append(batchSize)
+          .append('}');
+        String response = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_BUFFER) {
+            responseBuffers.remove();
+        }
+        return response;
+    }
+
+    private static void appendList(StringBuilder sb, List<Integer> values) {
+        sb.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values.get(i));
+        }
+        sb.append(']');
+    }
+
+    private static String quote(String text) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        int[] counter = {0};
+        return task -> {
+            Thread thread;
+            synchronized (counter) {
+                thread = new Thread(task, "scheduling-" + prefix + "-" + counter[0]++);
+            }
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,339 @@
+package com.daa.graph.shard;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.GraphBuilder;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.Workspace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.*;
+
+/**
+ * One shard of a {@link ShardedAnalysis}: owns a contiguous range of vertices (and
+ * later of condensation nodes) and answers the coordinator's commands over a local
+ * socket. Runs either in its own JVM through {@link #main(String[])} or on a thread
+ * of the coordinator's JVM.
+ * <p>
+ * On connecting the worker first sends the token it was started with, so the
+ * coordinator only accepts the workers it launched.
+ * <p>
+ * Commands, each answered by exactly one reply:
+ * <ul>
+ *   <li>{@code LOAD}: the shard's vertex range, internal edges, exit vertices (sources
+ *       of edges leaving the shard) and entry vertices (targets of edges entering it).
+ *       The shard condenses its internal SCCs and trims every component that is not
+ *       both reachable from an entry and able to reach an exit, since only those can
+ *       lie on a cycle through other shards. Reply: each vertex's local component
+ *       representative and the condensed edges between untrimmed components.</li>
+ *   <li>{@code CONDENSE}: final SCC ids of the owned vertices. Reply: the distinct
+ *       condensation edges among internal edges, with the first weight seen.</li>
+ *   <li>{@code DAG}: the shard's range of condensation nodes with durations,
+ *       out-edges and in-degrees.</li>
+ *   <li>{@code STEP}: one superstep of the level-by-level sweep. Incoming relaxations
+ *       are applied, then every node whose in-degree has reached zero is placed at
+ *       this level and relaxes its out-edges. Reply: number placed and the relaxations
+ *       addressed to other shards.</li>
+ *   <li>{@code RESULT}: reply with level, longest distance and predecessor of every owned node.</li>
+ *   <li>{@code SHUTDOWN}: close the connection.</li>
+ * </ul>
+ */
+public class ShardWorker implements Runnable {
+    static final int LOAD = 1;
+    static final int CONDENSE = 2;
+    static final int DAG = 3;
+    static final int STEP = 4;
+    static final int RESULT = 5;
+    static final int SHUTDOWN = 6;
+
+    private final Socket socket;
+    private final long token;
+
+    // Vertex-range state, kept from LOAD for CONDENSE.
+    private int lo;
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeWeight;
+
+    // Condensation-range state for the sweep.
+    private int nodeLo;
+    private int[] durations;
+    private int[] offsets;
+    private int[] targets;
+    private int[] inDegree;
+    private int[] level;
+    private int[] dist;
+    private int[] pred;
+    private int[] ready;
+    private int readyCount;
+
+    ShardWorker(Socket socket, long token) {
+        this.socket = socket;
+        this.token = token;
+    }
+
+    /**
+     * Entry point of a worker process.
+     * @param args coordinator host, port and token
+     * @throws IOException if the connection fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: ShardWorker HOST PORT TOKEN");
+        }
+        new ShardWorker(new Socket(args[0], Integer.parseInt(args[1])), Long.parseLong(args[2])).run();
+    }
+
+    @Override
+    public void run() {
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream(), 1 << 16))) {
+            out.writeLong(token);
+            out.flush();
+            while (true) {
+                int command = in.readInt();
+                switch (command) {
+                    case LOAD:
+                        load(in, out);
+                        break;
+                    case CONDENSE:
+                        condense(in, out);
+                        break;
+                    case DAG:
+                        loadDag(in);
+                        out.writeInt(0);
+                        break;
+                    case STEP:
+                        step(in, out);
+                        break;
+                    case RESULT:
+                        writeInts(out, level);
+                        writeInts(out, dist);
+                        writeInts(out, pred);
+                        break;
+                    case SHUTDOWN:
+                        return;
+                    default:
+                        throw new IOException("Unknown shard command: " + command);
+                }
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // Coordinator went away; nothing left to do.
+        } catch (IOException e) {
+            throw new IllegalStateException("Shard worker failed", e);
+        }
+    }
+
+    private void load(DataInputStream in, DataOutputStream out) throws IOException {
+        lo = in.readInt();
+        int n = in.readInt() - lo;
+        edgeFrom = readInts(in);
+        edgeTo = readInts(in);
+        edgeWeight = readInts(in);
+        int[] exits = readInts(in);
+        int[] entries = readInts(in);
+
+        int m = edgeFrom.length;
+        int[] localFrom = new int[m];
+        int[] localTo = new int[m];
+        for (int i = 0; i < m; i++) {
+            localFrom[i] = edgeFrom[i] - lo;
+            localTo[i] = edgeTo[i] - lo;
+        }
+        GraphBuilder builder = new GraphBuilder(n, m, Graph.DuplicateEdgePolicy.ALLOW);
+        builder.addEdges(localFrom, localTo, edgeWeight, 0, m);
+        Graph local = builder.build();
+
+        Workspace workspace = new Workspace();
+        int components = new StronglyConnectedComponents(local, NoOpMetrics.INSTANCE).findSCCs(workspace);
+        int[] rep = new int[components];
+        Arrays.fill(rep, -1);
+        int[] vertexRep = new int[n];
+        for (int v = 0; v < n; v++) {
+            int c = workspace.getComponent(v);
+            if (rep[c] == -1) {
+                rep[c] = lo + v;
+            }
+            vertexRep[v] = rep[c];
+        }
+
+        // Trim: keep components reachable from an entry that also reach an exit.
+        boolean[] fromEntry = reach(local, entries);
+        boolean[] toExit = reach(local.getReversed(), exits);
+        Set<Long> seen = new HashSet<>();
+        IntList summaryFrom = new IntList();
+        IntList summaryTo = new IntList();
+        for (int i = 0; i < m; i++) {
+            int u = localFrom[i];
+            int v = localTo[i];
+            if (vertexRep[u] != vertexRep[v] && fromEntry[u] && toExit[u] && fromEntry[v] && toExit[v]
+                    && seen.add(((long) vertexRep[u] << 32) | vertexRep[v])) {
+                summaryFrom.add(vertexRep[u]);
+                summaryTo.add(vertexRep[v]);
+            }
+        }
+        writeInts(out, vertexRep);
+        writeInts(out, summaryFrom.toArray());
+        writeInts(out, summaryTo.toArray());
+    }
+
+    private boolean[] reach(Graph graph, int[] starts) {
+        boolean[] marked = new boolean[graph.getNumVertices()];
+        int[] stack = new int[graph.getNumVertices()];
+        int top = 0;
+        for (int s : starts) {
+            if (!marked[s - lo]) {
+                marked[s - lo] = true;
+                stack[top++] = s - lo;
+            }
+        }
+        while (top > 0) {
+            int u = stack[--top];
+            List<Graph.Edge> edges = graph.getOutgoingEdges(u);
+            for (int e = 0; e < edges.size(); e++) {
+                int v = edges.get(e).to;
+                if (!marked[v]) {
+                    marked[v] = true;
+                    stack[top++] = v;
+                }
+            }
+        }
+        return marked;
+    }
+
+    private void condense(DataInputStream in, DataOutputStream out) throws IOException {
+        int[] finalId = readInts(in);
+        Set<Long> seen = new HashSet<>();
+        IntList from = new IntList();
+        IntList to = new IntList();
+        IntList weight = new IntList();
+        for (int i = 0; i < edgeFrom.length; i++) {
+            int u = finalId[edgeFrom[i] - lo];
+            int v = finalId[edgeTo[i] - lo];
+            if (u != v && seen.add(((long) u << 32) | v)) {
+                from.add(u);
+                to.add(v);
+                weight.add(edgeWeight[i]);
+            }
+        }
+        writeInts(out, from.toArray());
+        writeInts(out, to.toArray());
+        writeInts(out, weight.toArray());
+    }
+
+    private void loadDag(DataInputStream in) throws IOException {
+        nodeLo = in.readInt();
+        durations = readInts(in);
+        offsets = readInts(in);
+        targets = readInts(in);
+        inDegree = readInts(in);
+        int nodes = durations.length;
+        level = new int[nodes];
+        dist = durations.clone();
+        pred = new int[nodes];
+        ready = new int[nodes];
+        readyCount = 0;
+        Arrays.fill(level, -1);
+        Arrays.fill(pred, -1);
+        for (int v = 0; v < nodes; v++) {
+            if (inDegree[v] == 0) {
+                ready[readyCount++] = v;
+            }
+        }
+    }
+
+    private void step(DataInputStream in, DataOutputStream out) throws IOException {
+        int depth = in.readInt();
+        int[] messageTarget = readInts(in);
+        int[] messageDist = readInts(in);
+        int[] messageFrom = readInts(in);
+        for (int i = 0; i < messageTarget.length; i++) {
+            relax(messageTarget[i] - nodeLo, messageDist[i], messageFrom[i]);
+        }
+
+        int[] frontier = Arrays.copyOf(ready, readyCount);
+        readyCount = 0;
+        IntList outTarget = new IntList();
+        IntList outDist = new IntList();
+        IntList outFrom = new IntList();
+        int nodes = durations.length;
+        for (int u : frontier) {
+            level[u] = depth;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = targets[e] - nodeLo;
+                if (w >= 0 && w < nodes) {
+                    relax(w, dist[u], nodeLo + u);
+                } else {
+                    outTarget.add(targets[e]);
+                    outDist.add(dist[u]);
+                    outFrom.add(nodeLo + u);
+                }
+            }
+        }
+        out.writeInt(frontier.length);
+        writeInts(out, outTarget.toArray());
+        writeInts(out, outDist.toArray());
+        writeInts(out, outFrom.toArray());
+    }
+
+    /**
+     * Longest-path relaxation; equal lengths go to the smallest predecessor id, so the
+     * result does not depend on message order.
+     */
+    private void relax(int w, int fromDist, int from) {
+        int candidate = fromDist + durations[w];
+        if (candidate > dist[w] || (candidate == dist[w] && pred[w] != -1 && from < pred[w])) {
+            dist[w] = candidate;
+            pred[w] = from;
+        }
+        if (--inDegree[w] == 0) {
+            ready[readyCount++] = w;
+        }
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Growable int array for building replies.
+     */
+    static final class IntList {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
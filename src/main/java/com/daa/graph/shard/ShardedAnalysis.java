@@ -0,0 +1,557 @@
+package com.daa.graph.shard;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.GraphBuilder;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.Workspace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SCC, condensation, topological levels and critical path of one graph, computed by
+ * several local workers that each own a contiguous vertex range. The coordinator talks
+ * to the {@link ShardWorker}s over loopback sockets; no other service is involved.
+ * <ol>
+ *   <li>Each shard condenses its internal SCCs and trims the components that cannot
+ *       lie on a cycle through other shards.</li>
+ *   <li>The coordinator merges the remaining summary edges with the boundary edges
+ *       and finds the SCCs that span shards on that (much smaller) graph.</li>
+ *   <li>Shards map their internal edges to condensation edges; the coordinator adds
+ *       the boundary ones.</li>
+ *   <li>The condensation is swept level by level: in each superstep every shard places
+ *       its nodes whose in-degree reached zero and relaxes their out-edges, and the
+ *       coordinator routes relaxations between shards.</li>
+ * </ol>
+ * In {@link Mode#PROCESS} every worker is its own JVM started from the current class
+ * path; {@link Mode#THREAD} runs the same workers and protocol on threads of this JVM,
+ * which is what tests use.
+ */
+public class ShardedAnalysis implements AutoCloseable {
+    private static final int ACCEPT_TIMEOUT_MS = 60_000;
+
+    private final int workers;
+    private final Mode mode;
+    private final long token = new SecureRandom().nextLong();
+    private ServerSocket server;
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<DataInputStream> inputs = new ArrayList<>();
+    private final List<DataOutputStream> outputs = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * Where the workers run.
+     */
+    public enum Mode {
+        PROCESS,
+        THREAD
+    }
+
+    /**
+     * Result of a sharded analysis; condensation node ids are numbered by their
+     * smallest member vertex.
+     */
+    public static class Result {
+        public final int[] vertexToScc;
+        public final int componentCount;
+        public final Graph condensation;
+        public final int[] levels;
+        public final int[] topologicalOrder;
+        public final int[] longestDistances;
+        public final List<Integer> criticalPath;
+        public final int criticalPathLength;
+        public final int supersteps;
+
+        Result(int[] vertexToScc, int componentCount, Graph condensation, int[] levels, int[] topologicalOrder,
+               int[] longestDistances, List<Integer> criticalPath, int criticalPathLength, int supersteps) {
+            this.vertexToScc = vertexToScc;
+            this.componentCount = componentCount;
+            this.condensation = condensation;
+            this.levels = levels;
+            this.topologicalOrder = topologicalOrder;
+            this.longestDistances = longestDistances;
+            this.criticalPath = criticalPath;
+            this.criticalPathLength = criticalPathLength;
+            this.supersteps = supersteps;
+        }
+    }
+
+    /**
+     * Constructor; workers are started by {@link #start()}.
+     * @param workers number of shards
+     * @param mode where the workers run
+     */
+    public ShardedAnalysis(int workers, Mode mode) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker");
+        }
+        this.workers = workers;
+        this.mode = mode;
+    }
+
+    /**
+     * Start the workers and wait until all of them have connected. Connections that
+     * do not present this run's token are dropped. If startup fails, everything
+     * started so far is shut down again and {@code start()} may be retried.
+     * @throws IOException if a worker cannot be started or does not connect in time
+     */
+    public void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Workers already started");
+        }
+        try {
+            listen();
+            String host = InetAddress.getLoopbackAddress().getHostAddress();
+            int port = server.getLocalPort();
+            for (int i = 0; i < workers; i++) {
+                if (mode == Mode.PROCESS) {
+                    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+                    processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        ShardWorker.class.getName(), host, String.valueOf(port), String.valueOf(token))
+                        .inheritIO().start());
+                } else {
+                    Thread thread = new Thread(() -> {
+                        try {
+                            new ShardWorker(new Socket(host, port), token).run();
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Shard worker could not connect", e);
+                        }
+                    }, "shard-worker-" + i);
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_TIMEOUT_MS);
+            for (int i = 0; i < workers; i++) {
+                acceptWorker(deadline);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open the loopback server socket the workers connect to.
+     * @return its port
+     * @throws IOException if the socket cannot be opened
+     */
+    int listen() throws IOException {
+        server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress());
+        return server.getLocalPort();
+    }
+
+    /**
+     * Accept connections until one presents the token, and register it as the next worker.
+     * @param deadline {@link System#nanoTime()} by which a worker must have connected
+     * @throws SocketTimeoutException if no worker connected before the deadline
+     */
+    void acceptWorker(long deadline) throws IOException {
+        while (true) {
+            server.setSoTimeout(remainingMillis(deadline));
+            Socket socket = server.accept();
+            try {
+                socket.setSoTimeout(remainingMillis(deadline));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                if (in.readLong() == token) {
+                    socket.setSoTimeout(0);
+                    socket.setTcpNoDelay(true);
+                    sockets.add(socket);
+                    inputs.add(in);
+                    outputs.add(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16)));
+                    return;
+                }
+            } catch (SocketTimeoutException e) {
+                socket.close();
+                throw e;
+            } catch (IOException e) {
+                // Not one of our workers; keep waiting for them.
+            }
+            socket.close();
+        }
+    }
+
+    private static int remainingMillis(long deadline) throws SocketTimeoutException {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Shard workers did not connect in time");
+        }
+        return (int) remaining;
+    }
+
+    /**
+     * Analyze a graph across the shards.
+     * @param graph graph to analyze
+     * @return SCCs, condensation, levels and critical path
+     * @throws IOException if a worker fails
+     */
+    public Result analyze(Graph graph) throws IOException {
+        if (server == null) {
+            throw new IllegalStateException("Workers not started");
+        }
+        int n = graph.getNumVertices();
+        int[] bounds = ranges(n, workers);
+        int[] shardOf = new int[n];
+        for (int s = 0; s < workers; s++) {
+            Arrays.fill(shardOf, bounds[s], bounds[s + 1], s);
+        }
+
+        // Split the edges: internal ones go to their shard, boundary ones stay here.
+        List<ShardWorker.IntList[]> internal = new ArrayList<>();
+        List<Set<Integer>> exits = new ArrayList<>();
+        List<Set<Integer>> entries = new ArrayList<>();
+        for (int s = 0; s < workers; s++) {
+            internal.add(new ShardWorker.IntList[]{
+                new ShardWorker.IntList(), new ShardWorker.IntList(), new ShardWorker.IntList()});
+            exits.add(new TreeSet<>());
+            entries.add(new TreeSet<>());
+        }
+        ShardWorker.IntList boundaryFrom = new ShardWorker.IntList();
+        ShardWorker.IntList boundaryTo = new ShardWorker.IntList();
+        ShardWorker.IntList boundaryWeight = new ShardWorker.IntList();
+        for (Graph.Edge edge : graph.getEdges()) {
+            int s = shardOf[edge.from];
+            if (s == shardOf[edge.to]) {
+                internal.get(s)[0].add(edge.from);
+                internal.get(s)[1].add(edge.to);
+                internal.get(s)[2].add(edge.weight);
+            } else {
+                boundaryFrom.add(edge.from);
+                boundaryTo.add(edge.to);
+                boundaryWeight.add(edge.weight);
+                exits.get(s).add(edge.from);
+                entries.get(shardOf[edge.to]).add(edge.to);
+            }
+        }
+
+        // 1. Local condensation and trimming.
+        for (int s = 0; s < workers; s++) {
+            DataOutputStream out = outputs.get(s);
+            out.writeInt(ShardWorker.LOAD);
+            out.writeInt(bounds[s]);
+            out.writeInt(bounds[s + 1]);
+            for (ShardWorker.IntList list : internal.get(s)) {
+                ShardWorker.writeInts(out, list.toArray());
+            }
+            ShardWorker.writeInts(out, toArray(exits.get(s)));
+            ShardWorker.writeInts(out, toArray(entries.get(s)));
+            out.flush();
+        }
+        int[] localRep = new int[n];
+        Map<Integer, Integer> summaryId = new HashMap<>();
+        ShardWorker.IntList summaryFrom = new ShardWorker.IntList();
+        ShardWorker.IntList summaryTo = new ShardWorker.IntList();
+        for (int s = 0; s < workers; s++) {
+            DataInputStream in = inputs.get(s);
+            int[] reps = ShardWorker.readInts(in);
+            System.arraycopy(reps, 0, localRep, bounds[s], reps.length);
+            int[] from = ShardWorker.readInts(in);
+            int[] to = ShardWorker.readInts(in);
+            for (int i = 0; i < from.length; i++) {
+                summaryFrom.add(summaryNode(summaryId, from[i]));
+                summaryTo.add(summaryNode(summaryId, to[i]));
+            }
+        }
+
+        // 2. SCCs spanning shards, on the summary plus boundary edges.
+        int[] boundaryFromArray = boundaryFrom.toArray();
+        int[] boundaryToArray = boundaryTo.toArray();
+        for (int i = 0; i < boundaryFromArray.length; i++) {
+            summaryFrom.add(summaryNode(summaryId, localRep[boundaryFromArray[i]]));
+            summaryTo.add(summaryNode(summaryId, localRep[boundaryToArray[i]]));
+        }
+        GraphBuilder summaryBuilder = new GraphBuilder(summaryId.size(), summaryFrom.size(), Graph.DuplicateEdgePolicy.ALLOW);
+        summaryBuilder.addEdges(summaryFrom.toArray(), summaryTo.toArray(), new int[summaryFrom.size()], 0, summaryFrom.size());
+        Workspace workspace = new Workspace();
+        new StronglyConnectedComponents(summaryBuilder.build(), NoOpMetrics.INSTANCE).findSCCs(workspace);
+
+        // Final ids, numbered by smallest member vertex.
+        int[] groupOf = new int[n]; // key: localRep, or n + summary SCC for merged components
+        for (int v = 0; v < n; v++) {
+            Integer node = summaryId.get(localRep[v]);
+            groupOf[v] = node == null ? localRep[v] : n + workspace.getComponent(node);
+        }
+        int[] idOfGroup = new int[2 * n];
+        Arrays.fill(idOfGroup, -1);
+        int[] vertexToScc = new int[n];
+        int componentCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (idOfGroup[groupOf[v]] == -1) {
+                idOfGroup[groupOf[v]] = componentCount++;
+            }
+            vertexToScc[v] = idOfGroup[groupOf[v]];
+        }
+
+        // 3. Condensation edges.
+        for (int s = 0; s < workers; s++) {
+            DataOutputStream out = outputs.get(s);
+            out.writeInt(ShardWorker.CONDENSE);
+            ShardWorker.writeInts(out, Arrays.copyOfRange(vertexToScc, bounds[s], bounds[s + 1]));
+            out.flush();
+        }
+        Graph condensation = new Graph(componentCount, Graph.DuplicateEdgePolicy.KEEP_FIRST);
+        for (int s = 0; s < workers; s++) {
+            DataInputStream in = inputs.get(s);
+            int[] from = ShardWorker.readInts(in);
+            int[] to = ShardWorker.readInts(in);
+            int[] weight = ShardWorker.readInts(in);
+            for (int i = 0; i < from.length; i++) {
+                condensation.addEdge(from[i], to[i], weight[i]);
+            }
+        }
+        int[] boundaryWeightArray = boundaryWeight.toArray();
+        for (int i = 0; i < boundaryFromArray.length; i++) {
+            int u = vertexToScc[boundaryFromArray[i]];
+            int v = vertexToScc[boundaryToArray[i]];
+            if (u != v) {
+                condensation.addEdge(u, v, boundaryWeightArray[i]);
+            }
+        }
+        condensation.releaseEdgeIndex();
+        int[] durations = new int[componentCount];
+        Arrays.fill(durations, Integer.MIN_VALUE);
+        for (int v = 0; v < n; v++) {
+            durations[vertexToScc[v]] = Math.max(durations[vertexToScc[v]], graph.getNodeDuration(v));
+        }
+        for (int c = 0; c < componentCount; c++) {
+            condensation.setNodeDuration(c, durations[c]);
+        }
+
+        return sweep(condensation, vertexToScc, componentCount, nodeRanges(vertexToScc, bounds));
+    }
+
+    /**
+     * Level-synchronous longest-path sweep over the condensation.
+     */
+    private Result sweep(Graph condensation, int[] vertexToScc, int componentCount, int[] nodeBounds)
+            throws IOException {
+        int[] inDegree = new int[componentCount];
+        for (Graph.Edge edge : condensation.getEdges()) {
+            inDegree[edge.to]++;
+        }
+        for (int s = 0; s < workers; s++) {
+            int first = nodeBounds[s];
+            int last = nodeBounds[s + 1];
+            int[] offsets = new int[last - first + 1];
+            ShardWorker.IntList targets = new ShardWorker.IntList();
+            int[] durations = new int[last - first];
+            for (int c = first; c < last; c++) {
+                durations[c - first] = condensation.getNodeDuration(c);
+                for (Graph.Edge edge : condensation.getOutgoingEdges(c)) {
+                    targets.add(edge.to);
+                }
+                offsets[c - first + 1] = targets.size();
+            }
+            DataOutputStream out = outputs.get(s);
+            out.writeInt(ShardWorker.DAG);
+            out.writeInt(first);
+            ShardWorker.writeInts(out, durations);
+            ShardWorker.writeInts(out, offsets);
+            ShardWorker.writeInts(out, targets.toArray());
+            ShardWorker.writeInts(out, Arrays.copyOfRange(inDegree, first, last));
+            out.flush();
+        }
+        for (int s = 0; s < workers; s++) {
+            inputs.get(s).readInt();
+        }
+
+        ShardWorker.IntList[][] inbox = newInboxes();
+        int placed = 0;
+        int depth = 0;
+        while (true) {
+            for (int s = 0; s < workers; s++) {
+                DataOutputStream out = outputs.get(s);
+                out.writeInt(ShardWorker.STEP);
+                out.writeInt(depth);
+                for (ShardWorker.IntList list : inbox[s]) {
+                    ShardWorker.writeInts(out, list.toArray());
+                }
+                out.flush();
+            }
+            inbox = newInboxes();
+            int placedNow = 0;
+            int messages = 0;
+            for (int s = 0; s < workers; s++) {
+                DataInputStream in = inputs.get(s);
+                placedNow += in.readInt();
+                int[] target = ShardWorker.readInts(in);
+                int[] fromDist = ShardWorker.readInts(in);
+                int[] from = ShardWorker.readInts(in);
+                messages += target.length;
+                for (int i = 0; i < target.length; i++) {
+                    int owner = owner(nodeBounds, target[i]);
+                    inbox[owner][0].add(target[i]);
+                    inbox[owner][1].add(fromDist[i]);
+                    inbox[owner][2].add(from[i]);
+                }
+            }
+            placed += placedNow;
+            if (placedNow == 0 && messages == 0) {
+                break;
+            }
+            depth++;
+        }
+        if (placed != componentCount) {
+            throw new IllegalStateException("Condensation sweep placed " + placed + " of " + componentCount + " nodes");
+        }
+
+        int[] levels = new int[componentCount];
+        int[] distances = new int[componentCount];
+        int[] predecessors = new int[componentCount];
+        for (int s = 0; s < workers; s++) {
+            outputs.get(s).writeInt(ShardWorker.RESULT);
+            outputs.get(s).flush();
+        }
+        for (int s = 0; s < workers; s++) {
+            DataInputStream in = inputs.get(s);
+            int first = nodeBounds[s];
+            System.arraycopy(ShardWorker.readInts(in), 0, levels, first, nodeBounds[s + 1] - first);
+            System.arraycopy(ShardWorker.readInts(in), 0, distances, first, nodeBounds[s + 1] - first);
+            System.arraycopy(ShardWorker.readInts(in), 0, predecessors, first, nodeBounds[s + 1] - first);
+        }
+
+        int[] order = new int[componentCount];
+        int[] levelStart = new int[depth + 2];
+        for (int level : levels) {
+            levelStart[level + 1]++;
+        }
+        for (int l = 0; l <= depth; l++) {
+            levelStart[l + 1] += levelStart[l];
+        }
+        for (int c = 0; c < componentCount; c++) {
+            order[levelStart[levels[c]]++] = c;
+        }
+
+        int end = -1;
+        for (int c = 0; c < componentCount; c++) {
+            if (end == -1 || distances[c] > distances[end]) {
+                end = c;
+            }
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int c = end; c != -1; c = predecessors[c]) {
+            path.add(c);
+        }
+        Collections.reverse(path);
+        return new Result(vertexToScc, componentCount, condensation, levels, order, distances, path,
+            end == -1 ? 0 : distances[end], depth);
+    }
+
+    private ShardWorker.IntList[][] newInboxes() {
+        ShardWorker.IntList[][] inbox = new ShardWorker.IntList[workers][3];
+        for (ShardWorker.IntList[] lists : inbox) {
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = new ShardWorker.IntList();
+            }
+        }
+        return inbox;
+    }
+
+    private static int summaryNode(Map<Integer, Integer> ids, int rep) {
+        Integer id = ids.get(rep);
+        if (id == null) {
+            id = ids.size();
+            ids.put(rep, id);
+        }
+        return id;
+    }
+
+    /**
+     * Split 0..n-1 into contiguous ranges of near-equal size.
+     */
+    static int[] ranges(int n, int parts) {
+        int[] bounds = new int[parts + 1];
+        for (int s = 0; s <= parts; s++) {
+            bounds[s] = (int) ((long) n * s / parts);
+        }
+        return bounds;
+    }
+
+    /**
+     * Condensation node c belongs to the shard of its smallest member vertex. Ids are
+     * numbered by that vertex, so every shard owns a contiguous range of ids.
+     */
+    private int[] nodeRanges(int[] vertexToScc, int[] bounds) {
+        int[] nodeBounds = new int[workers + 1];
+        int next = 0;
+        for (int s = 0; s < workers; s++) {
+            for (int v = bounds[s]; v < bounds[s + 1]; v++) {
+                next = Math.max(next, vertexToScc[v] + 1);
+            }
+            nodeBounds[s + 1] = next;
+        }
+        return nodeBounds;
+    }
+
+    private static int owner(int[] nodeBounds, int node) {
+        int s = Arrays.binarySearch(nodeBounds, node);
+        if (s < 0) {
+            return -s - 2;
+        }
+        while (nodeBounds[s + 1] == node) {
+            s++; // skip shards that own no nodes
+        }
+        return s;
+    }
+
+    private static int[] toArray(Set<Integer> values) {
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (int value : values) {
+            array[i++] = value;
+        }
+        return array;
+    }
+
+    /**
+     * Shut the workers down and release the sockets.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataOutputStream out : outputs) {
+            try {
+                out.writeInt(ShardWorker.SHUTDOWN);
+                out.flush();
+            } catch (IOException e) {
+                // Worker already gone.
+            }
+        }
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+        sockets.clear();
+        inputs.clear();
+        outputs.clear();
+        processes.clear();
+    }
+}
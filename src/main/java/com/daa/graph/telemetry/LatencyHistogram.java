@@ -0,0 +1,101 @@
+package com.daa.graph.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory, lock-free latency histogram in the style of HdrHistogram.
+ * Values below 128 are counted exactly; larger values fall into log-linear buckets
+ * with 64 sub-buckets per power of two, so any recorded value is reported with a
+ * relative error below 1.6% over the full positive long range.
+ */
+public class LatencyHistogram {
+    private static final int EXACT = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_MAGNITUDE = 7;
+    private static final int BUCKETS = EXACT + (63 - FIRST_MAGNITUDE) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record one value. Negative values are recorded as zero.
+     * @param value value to record (typically nanoseconds)
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    static int bucketOf(long v) {
+        if (v < EXACT) {
+            return (int) v;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (v >>> shift) - SUB_BUCKETS;
+        return EXACT + (magnitude - FIRST_MAGNITUDE) * SUB_BUCKETS + sub;
+    }
+
+    static long representativeValue(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int k = bucket - EXACT;
+        int magnitude = k / SUB_BUCKETS + FIRST_MAGNITUDE;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        long lower = (long) (k % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Get a percentile of the recorded values (nearest-rank, bucket-resolution).
+     * @param percentile percentile in [0, 100]
+     * @return value at the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(getMax(), representativeValue(i)));
+            }
+        }
+        return getMax();
+    }
+}
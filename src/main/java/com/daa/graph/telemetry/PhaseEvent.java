@@ -0,0 +1,46 @@
+package com.daa.graph.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning one algorithm phase; its start time and
+ * duration are those of the phase.
+ */
+@Name("com.daa.graph.Phase")
+@Label("Graph Algorithm Phase")
+@Description("One phase of an SCC, topological sort or DAG path computation")
+@Category({"DAA", "Graph"})
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated Bytes")
+    long allocatedBytes;
+
+    @Label("Vertices")
+    int vertices;
+
+    @Label("Edges")
+    long edges;
+
+    @Label("DFS Visits")
+    long dfsVisits;
+
+    @Label("Edge Traversals")
+    long edgeTraversals;
+
+    @Label("Kahn Pops")
+    long kahnPops;
+
+    @Label("Kahn Pushes")
+    long kahnPushes;
+
+    @Label("Relaxations")
+    long relaxations;
+}
@@ -0,0 +1,169 @@
+package com.daa.graph.telemetry;
+
+import com.daa.graph.util.Metrics;
+import com.daa.graph.util.PhaseTimer;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Span listener that emits a {@link PhaseEvent} to Java Flight Recorder for every
+ * phase and keeps an in-process {@link LatencyHistogram} per phase path. The event
+ * begins when the span opens and ends when it closes, so phases show up as intervals
+ * on the recording timeline.
+ * Histograms can be dumped as JSON or in the Prometheus text exposition format.
+ * <p>
+ * Usage: {@code timer.addListener(PhaseTelemetry.getDefault())}.
+ */
+public class PhaseTelemetry implements PhaseTimer.SpanListener {
+    private static final PhaseTelemetry DEFAULT = new PhaseTelemetry();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final String[] JSON_KEYS = {"p50Ns", "p90Ns", "p99Ns", "p999Ns"};
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<PhaseEvent>> openEvents = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Get the process-wide telemetry instance.
+     * @return default instance
+     */
+    public static PhaseTelemetry getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public void onSpanOpened(String path) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = path;
+        event.begin();
+        openEvents.get().push(event);
+    }
+
+    @Override
+    public void onSpanClosed(String path, long elapsedNs, long allocatedBytes, Metrics metrics) {
+        record(path, elapsedNs);
+
+        Deque<PhaseEvent> open = openEvents.get();
+        PhaseEvent event;
+        if (!open.isEmpty() && path.equals(open.peek().phase)) {
+            event = open.pop();
+        } else {
+            // Listener was added while this span was already open.
+            event = new PhaseEvent();
+            event.phase = path;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocatedBytes = allocatedBytes;
+            if (metrics != null) {
+                event.vertices = metrics.getGraphVertices();
+                event.edges = metrics.getGraphEdges();
+                event.dfsVisits = metrics.getDfsVisits();
+                event.edgeTraversals = metrics.getEdgeTraversals();
+                event.kahnPops = metrics.getKahnPops();
+                event.kahnPushes = metrics.getKahnPushes();
+                event.relaxations = metrics.getRelaxations();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Record a latency for an operation.
+     * @param operation operation name
+     * @param nanos latency in nanoseconds
+     */
+    public void record(String operation, long nanos) {
+        histograms.computeIfAbsent(operation, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Get the histogram of one operation.
+     * @param operation operation name
+     * @return histogram, or null if nothing was recorded
+     */
+    public LatencyHistogram getHistogram(String operation) {
+        return histograms.get(operation);
+    }
+
+    /**
+     * Discard all histograms.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Write all histograms as a JSON object keyed by operation.
+     * @param writer destination
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        JsonObject root = new JsonObject();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            JsonObject obj = new JsonObject();
+            obj.addProperty("count", h.getCount());
+            obj.addProperty("minNs", h.getMin());
+            obj.addProperty("meanNs", h.getMean());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                obj.addProperty(JSON_KEYS[i], h.getPercentile(PERCENTILES[i]));
+            }
+            obj.addProperty("maxNs", h.getMax());
+            root.add(entry.getKey(), obj);
+        }
+        new GsonBuilder().setPrettyPrinting().create().toJson(root, writer);
+        writer.flush();
+    }
+
+    /**
+     * Write all histograms in the Prometheus text exposition format, as a summary
+     * metric labelled by phase.
+     * @param writer destination
+     * @throws IOException if writing fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        String name = "daa_phase_latency_seconds";
+        writer.write("# HELP " + name + " Latency of graph algorithm phases.\n");
+        writer.write("# TYPE " + name + " summary\n");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            String label = "phase=\"" + entry.getKey().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+            LatencyHistogram h = entry.getValue();
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                writer.write(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.9f\n",
+                    name, label, QUANTILE_LABELS[i], h.getPercentile(PERCENTILES[i]) / 1e9));
+            }
+            writer.write(String.format(Locale.ROOT, "%s_sum{%s} %.9f\n", name, label, h.getSum() / 1e9));
+            writer.write(String.format(Locale.ROOT, "%s_count{%s} %d\n", name, label, h.getCount()));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Dump all histograms to a file: Prometheus text for ".prom"/".txt", JSON otherwise.
+     * @param path output file
+     * @throws IOException if writing fails
+     */
+    public void dump(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (fileName.endsWith(".prom") || fileName.endsWith(".txt")) {
+                writePrometheus(writer);
+            } else {
+                writeJson(writer);
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.daa.graph.topo;
 
 import com.daa.graph.util.Graph;
 import com.daa.graph.util.Metrics;
+import com.daa.graph.util.PhaseTimer;
+import com.daa.graph.util.StaticGraph;
+import com.daa.graph.util.Workspace;
 
 import java.util.*;
 
@@ -19,55 +22,146 @@ public class TopologicalSort {
     public TopologicalSort(Graph graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
+        metrics.setGraphShape(graph.getNumVertices(), graph.getNumEdges());
     }
 
     /**
      * Compute topological order using Kahn's algorithm.
      * @return topological ordering as a list of vertex indices
      */
+    @SuppressWarnings("try")
     public List<Integer> kahnTopologicalSort() {
-        metrics.startTimer();
         metrics.reset();
+        metrics.startTimer();
+
+        try (PhaseTimer.Span span = metrics.span("topo")) {
+            int n = graph.getNumVertices();
+            int[] inDegree = new int[n];
+            List<Integer> order = new ArrayList<>();
+
+            for (int i = 0; i < n; i++) {
+                for (Graph.Edge edge : graph.getOutgoingEdges(i)) {
+                    inDegree[edge.to]++;
+                }
+            }
+
+            Queue<Integer> queue = new LinkedList<>();
+            long pushes = 0;
+            for (int i = 0; i < n; i++) {
+                if (inDegree[i] == 0) {
+                    queue.offer(i);
+                    pushes++;
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                order.add(u);
+
+                for (Graph.Edge edge : graph.getOutgoingEdges(u)) {
+                    int v = edge.to;
+                    inDegree[v]--;
+                    if (inDegree[v] == 0) {
+                        queue.offer(v);
+                        pushes++;
+                    }
+                }
+            }
+            metrics.addKahnPushes(pushes);
+            metrics.addKahnPops(order.size());
+
+            if (order.size() != n) {
+                throw new IllegalArgumentException("Graph contains a cycle! Topological sort not possible.");
+            }
+            // Only publish complete orders, so a failed sort is retried rather than cached.
+            topologicalOrder = order;
+        }
 
+        metrics.stopTimer();
+        return topologicalOrder;
+    }
+
+    /**
+     * Compute a topological order with Kahn's algorithm without allocating. The order
+     * array of the workspace doubles as the queue; read the result with
+     * {@link Workspace#getOrder(int)}. The list-based results of this object are left untouched.
+     * @param workspace caller-owned scratch memory
+     * @return number of vertices in the order (always all of them)
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public int kahnTopologicalSort(Workspace workspace) {
         int n = graph.getNumVertices();
-        int[] inDegree = new int[n];
-        topologicalOrder = new ArrayList<>();
+        int[] inDegree = workspace.inDegree(n);
+        int[] order = workspace.order(n);
+        Arrays.fill(inDegree, 0, n, 0);
 
         for (int i = 0; i < n; i++) {
-            for (Graph.Edge edge : graph.getOutgoingEdges(i)) {
-                inDegree[edge.to]++;
+            List<Graph.Edge> edges = graph.getOutgoingEdges(i);
+            for (int e = 0; e < edges.size(); e++) {
+                inDegree[edges.get(e).to]++;
             }
         }
 
-        Queue<Integer> queue = new LinkedList<>();
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.incrementKahnPushes();
+                order[tail++] = i;
             }
         }
-
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementKahnPops();
-            topologicalOrder.add(u);
-
-            for (Graph.Edge edge : graph.getOutgoingEdges(u)) {
-                int v = edge.to;
-                inDegree[v]--;
-                if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.incrementKahnPushes();
+        int head = 0;
+        while (head < tail) {
+            int u = order[head++];
+            List<Graph.Edge> edges = graph.getOutgoingEdges(u);
+            for (int e = 0; e < edges.size(); e++) {
+                int v = edges.get(e).to;
+                if (--inDegree[v] == 0) {
+                    order[tail++] = v;
                 }
             }
         }
 
-        if (topologicalOrder.size() != n) {
+        workspace.setOrderLength(0);
+        if (tail != n) {
             throw new IllegalArgumentException("Graph contains a cycle! Topological sort not possible.");
         }
+        workspace.setOrderLength(n);
+        return n;
+    }
 
-        metrics.stopTimer();
-        return topologicalOrder;
+    /**
+     * Compute a topological order of a flat read-only graph with Kahn's algorithm.
+     * @param graph the input DAG, e.g. a CsrGraph or CompressedGraph
+     * @return vertices in topological order
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public static int[] kahnTopologicalSort(StaticGraph graph) {
+        int n = graph.getNumVertices();
+        int[] inDegree = new int[n];
+        int[] order = new int[n];
+        StaticGraph.EdgeCursor cursor = graph.cursor();
+        for (int u = 0; u < n; u++) {
+            for (cursor.moveTo(u); cursor.next(); ) {
+                inDegree[cursor.target()]++;
+            }
+        }
+
+        int tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) {
+                order[tail++] = u;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            for (cursor.moveTo(order[head]); cursor.next(); ) {
+                if (--inDegree[cursor.target()] == 0) {
+                    order[tail++] = cursor.target();
+                }
+            }
+        }
+        if (tail != n) {
+            throw new IllegalArgumentException("Graph contains a cycle! Topological sort not possible.");
+        }
+        return order;
     }
 
     /**
@@ -76,7 +170,7 @@ public class TopologicalSort {
      * @return topological ordering
      */
     public List<Integer> getTopologicalOrder() {
-        if (topologicalOrder == null || topologicalOrder.isEmpty()) {
+        if (topologicalOrder == null) {
             kahnTopologicalSort();
         }
         return new ArrayList<>(topologicalOrder);
@@ -107,7 +201,7 @@ public class TopologicalSort {
      * @return formatted string
      */
     public String getTopologicalOrderString() {
-        if (topologicalOrder == null || topologicalOrder.isEmpty()) {
+        if (topologicalOrder == null) {
             kahnTopologicalSort();
         }
         
@@ -0,0 +1,58 @@
+package com.daa.graph.util;
+
+/**
+ * State shared by the recording {@link Metrics} implementations: the attached phase
+ * timer and the graph shape reported to span listeners. Counters and the timer live
+ * in the subclasses, each with its own representation.
+ */
+abstract class AbstractMetrics implements Metrics {
+    private volatile PhaseTimer phaseTimer;
+    private volatile int graphVertices = 0;
+    private volatile long graphEdges = 0;
+
+    @Override
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
+
+    @Override
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    @Override
+    public PhaseTimer.Span span(String phase) {
+        PhaseTimer timer = phaseTimer;
+        return timer == null ? PhaseTimer.NOOP_SPAN : timer.start(phase, this);
+    }
+
+    @Override
+    public void setGraphShape(int vertices, long edges) {
+        graphVertices = vertices;
+        graphEdges = edges;
+    }
+
+    @Override
+    public int getGraphVertices() {
+        return graphVertices;
+    }
+
+    @Override
+    public long getGraphEdges() {
+        return graphEdges;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Metrics{DFS Visits: %d, Edge Traversals: %d, Kahn Pops: %d, Kahn Pushes: %d, Relaxations: %d, Time: %.3f ms}",
+            getDfsVisits(), getEdgeTraversals(), getKahnPops(), getKahnPushes(), getRelaxations(),
+            getElapsedTimeMs()
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package com.daa.graph.util;
+
+
+/**
+ * Metrics backed by plain long fields, for a single thread.
+ */
+public final class BasicMetrics extends AbstractMetrics {
+    private long dfsVisits = 0;
+    private long edgeTraversals = 0;
+    private long kahnPops = 0;
+    private long kahnPushes = 0;
+    private long relaxations = 0;
+    private long startTime = 0;
+    private long endTime = 0;
+
+    @Override
+    public void startTimer() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stopTimer() {
+        endTime = System.nanoTime();
+    }
+
+    @Override
+    public long getElapsedTimeNs() {
+        return endTime - startTime;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+        dfsVisits++;
+    }
+
+    @Override
+    public void incrementEdgeTraversals() {
+        edgeTraversals++;
+    }
+
+    @Override
+    public void incrementKahnPops() {
+        kahnPops++;
+    }
+
+    @Override
+    public void incrementKahnPushes() {
+        kahnPushes++;
+    }
+
+    @Override
+    public void incrementRelaxations() {
+        relaxations++;
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits += count;
+    }
+
+    @Override
+    public void addEdgeTraversals(long count) {
+        edgeTraversals += count;
+    }
+
+    @Override
+    public void addKahnPops(long count) {
+        kahnPops += count;
+    }
+
+    @Override
+    public void addKahnPushes(long count) {
+        kahnPushes += count;
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+        relaxations += count;
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return dfsVisits;
+    }
+
+    @Override
+    public long getEdgeTraversals() {
+        return edgeTraversals;
+    }
+
+    @Override
+    public long getKahnPops() {
+        return kahnPops;
+    }
+
+    @Override
+    public long getKahnPushes() {
+        return kahnPushes;
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations;
+    }
+
+    @Override
+    public void reset() {
+        dfsVisits = 0;
+        edgeTraversals = 0;
+        kahnPops = 0;
+        kahnPushes = 0;
+        relaxations = 0;
+        startTime = 0;
+        endTime = 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.daa.graph.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compact binary encoding of a task graph, equivalent to the JSON task format.
+ * Layout (big-endian):
+ * <pre>
+ *   magic "DAAG", int version, int numVertices,
+ *   then for each task id 0..numVertices-1:
+ *     int duration, int dependencyCount, int[dependencyCount] dependencies
+ * </pre>
+ * As in the JSON format, each dependency d of task t becomes an edge d -> t
+ * weighted by the duration of t. Files may be gzip- or zstd-compressed.
+ */
+public final class BinaryGraphFormat {
+    /** Magic bytes "DAAG" at the start of every binary graph file. */
+    public static final int MAGIC = 0x44414147;
+    public static final int VERSION = 1;
+
+    private BinaryGraphFormat() {
+    }
+
+    /**
+     * Check whether a header starts with the binary graph magic.
+     * @param header first bytes of the (decompressed) stream
+     * @param length number of valid bytes in header
+     * @return true if the header is a binary graph header
+     */
+    public static boolean isBinaryGraph(byte[] header, int length) {
+        return length >= 4
+            && ((header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16
+                | (header[2] & 0xFF) << 8 | (header[3] & 0xFF)) == MAGIC;
+    }
+
+    /**
+     * Write the file header.
+     * @param out output stream
+     * @param numVertices number of tasks that will follow
+     * @throws IOException if writing fails
+     */
+    public static void writeHeader(DataOutputStream out, int numVertices) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(numVertices);
+    }
+
+    /**
+     * Write one task record. Tasks must be written in id order.
+     * @param out output stream
+     * @param duration task duration
+     * @param dependencies dependency array
+     * @param from first dependency index (inclusive)
+     * @param to last dependency index (exclusive)
+     * @throws IOException if writing fails
+     */
+    public static void writeTask(DataOutputStream out, int duration, int[] dependencies, int from, int to)
+            throws IOException {
+        out.writeInt(duration);
+        out.writeInt(to - from);
+        for (int i = from; i < to; i++) {
+            out.writeInt(dependencies[i]);
+        }
+    }
+
+    /**
+     * Write a graph in binary form. Each vertex's dependencies are its incoming edges.
+     * @param graph graph to write
+     * @param path output path; ".gz" or ".zst" selects compression
+     * @throws IOException if writing fails
+     */
+    public static void write(Graph graph, String path) throws IOException {
+        int n = graph.getNumVertices();
+        int[] inDegree = new int[n + 1];
+        for (Graph.Edge edge : graph.getEdges()) {
+            inDegree[edge.to + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            inDegree[i + 1] += inDegree[i];
+        }
+        int[] dependencies = new int[inDegree[n]];
+        int[] cursor = inDegree.clone();
+        for (Graph.Edge edge : graph.getEdges()) {
+            dependencies[cursor[edge.to]++] = edge.from;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(GraphStreams.openOutput(path))) {
+            writeHeader(out, n);
+            for (int v = 0; v < n; v++) {
+                writeTask(out, graph.getNodeDuration(v), dependencies, inDegree[v], inDegree[v + 1]);
+            }
+        }
+    }
+
+    /**
+     * Read a binary graph from a stream that may be compressed.
+     * @param input input stream, closed once the graph has been read
+     * @return Graph object
+     * @throws IOException if the stream is not a valid binary graph
+     */
+    public static Graph read(InputStream input) throws IOException {
+        return read(input, Graph.DuplicateEdgePolicy.ALLOW);
+    }
+
+    /**
+     * Read a binary graph from a stream that may be compressed.
+     * @param input input stream, closed once the graph has been read
+     * @param duplicatePolicy how to treat repeated dependencies
+     * @return Graph object
+     * @throws IOException if the stream is not a valid binary graph
+     */
+    public static Graph read(InputStream input, Graph.DuplicateEdgePolicy duplicatePolicy) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(GraphStreams.wrapInput(input), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary graph file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version: " + version);
+            }
+            int numVertices = in.readInt();
+            GraphBuilder builder = new GraphBuilder(numVertices, numVertices, duplicatePolicy);
+            for (int task = 0; task < numVertices; task++) {
+                int duration = in.readInt();
+                int count = in.readInt();
+                builder.setNodeDuration(task, duration);
+                for (int i = 0; i < count; i++) {
+                    builder.addEdge(in.readInt(), task, duration);
+                }
+            }
+            return builder.build();
+        } catch (EOFException e) {
+            throw new IOException("Truncated binary graph file", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.daa.graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph whose adjacency is packed into one byte array of variable-length
+ * integers. Each vertex's outgoing edges are sorted by target and stored as
+ * <pre>
+ * degree  zigzag(target[0] - vertex) weight[0]  gap[1] weight[1]  ...
+ * </pre>
+ * where {@code gap[i] = target[i] - target[i - 1] >= 0} and weights are zigzag-encoded,
+ * all as 7-bit little-endian varints. With good id locality (see
+ * {@link com.daa.graph.reorder.Relabeling}) and small weights an edge takes 2-3 bytes
+ * instead of the 8 of {@link CsrGraph}. Edges are decoded sequentially through
+ * {@link #cursor()}; the order of parallel edges and of a vertex's edges in the source
+ * graph is not preserved.
+ */
+public final class CompressedGraph implements StaticGraph {
+    private final int[] offsets; // start of each vertex's record in data
+    private final byte[] data;
+    private final int[] nodeDurations;
+    private final int numEdges;
+
+    private CompressedGraph(int[] offsets, byte[] data, int[] nodeDurations, int numEdges) {
+        this.offsets = offsets;
+        this.data = data;
+        this.nodeDurations = nodeDurations;
+        this.numEdges = numEdges;
+    }
+
+    /**
+     * Compress an adjacency-list graph.
+     * @param graph graph to compress
+     * @return compressed copy
+     */
+    public static CompressedGraph fromGraph(Graph graph) {
+        return fromStatic(CsrGraph.fromGraph(graph));
+    }
+
+    /**
+     * Compress any static graph, e.g. a {@link CsrGraph} built by {@link GraphBuilder#buildCsr()}.
+     * @param graph graph to compress
+     * @return compressed copy
+     */
+    public static CompressedGraph fromStatic(StaticGraph graph) {
+        int n = graph.getNumVertices();
+        int[] offsets = new int[n];
+        int[] durations = new int[n];
+        Encoder out = new Encoder((int) Math.min(Integer.MAX_VALUE - 8, 16 + 3L * graph.getNumEdges()));
+        long[] pairs = new long[16];
+        StaticGraph.EdgeCursor cursor = graph.cursor();
+
+        for (int v = 0; v < n; v++) {
+            offsets[v] = out.size;
+            durations[v] = graph.getNodeDuration(v);
+            int degree = 0;
+            for (cursor.moveTo(v); cursor.next(); ) {
+                if (degree == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, degree * 2);
+                }
+                pairs[degree++] = ((long) cursor.target() << 32) | (cursor.weight() & 0xffffffffL);
+            }
+            Arrays.sort(pairs, 0, degree);
+
+            out.writeVarint(degree);
+            int previous = v;
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (pairs[i] >>> 32);
+                int weight = (int) pairs[i];
+                out.writeVarint(i == 0 ? zigzag(target - v) : target - previous);
+                out.writeVarint(zigzag(weight));
+                previous = target;
+            }
+        }
+        return new CompressedGraph(offsets, Arrays.copyOf(out.bytes, out.size), durations, graph.getNumEdges());
+    }
+
+    @Override
+    public int getNumVertices() {
+        return nodeDurations.length;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getNodeDuration(int node) {
+        return nodeDurations[node];
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        int position = offsets[vertex];
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            result |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Get the size of the encoded adjacency.
+     * @return bytes used by the edge data
+     */
+    public int getEncodedBytes() {
+        return data.length;
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes one vertex's record; all state lives in int fields, so traversal allocates nothing.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int position;
+        private int remaining;
+        private boolean first;
+        private int target;
+        private int weight;
+
+        @Override
+        public EdgeCursor moveTo(int vertex) {
+            position = offsets[vertex];
+            remaining = readVarint();
+            first = true;
+            target = vertex;
+            return this;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            int delta = readVarint();
+            target += first ? unzigzag(delta) : delta;
+            first = false;
+            weight = unzigzag(readVarint());
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        private int readVarint() {
+            byte b = data[position++];
+            if (b >= 0) {
+                return b;
+            }
+            int result = b & 0x7f;
+            for (int shift = 7; ; shift += 7) {
+                b = data[position++];
+                result |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer for varints.
+     */
+    private static final class Encoder {
+        byte[] bytes;
+        int size;
+
+        Encoder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeVarint(int value) {
+            if (size + 5 > bytes.length) {
+                long grown = Math.min(Integer.MAX_VALUE - 8,
+                    Math.max((long) size + 5, (long) bytes.length + (bytes.length >> 1)));
+                if (grown < size + 5) {
+                    throw new IllegalArgumentException("Graph too large for a compressed adjacency array");
+                }
+                bytes = Arrays.copyOf(bytes, (int) grown);
+            }
+            while ((value & ~0x7f) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.daa.graph.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics for parallel algorithms.
+ * Counters are striped {@link LongAdder}s, so concurrent increments from many threads
+ * do not contend on a single cache line; reads sum the stripes.
+ * The timer is not striped: start and stop it from the coordinating thread.
+ */
+public final class ConcurrentMetrics extends AbstractMetrics {
+    private final LongAdder dfsVisits = new LongAdder();
+    private final LongAdder edgeTraversals = new LongAdder();
+    private final LongAdder kahnPops = new LongAdder();
+    private final LongAdder kahnPushes = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private volatile long startTime = 0;
+    private volatile long endTime = 0;
+
+    @Override
+    public void startTimer() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stopTimer() {
+        endTime = System.nanoTime();
+    }
+
+    @Override
+    public long getElapsedTimeNs() {
+        return endTime - startTime;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+        dfsVisits.increment();
+    }
+
+    @Override
+    public void incrementEdgeTraversals() {
+        edgeTraversals.increment();
+    }
+
+    @Override
+    public void incrementKahnPops() {
+        kahnPops.increment();
+    }
+
+    @Override
+    public void incrementKahnPushes() {
+        kahnPushes.increment();
+    }
+
+    @Override
+    public void incrementRelaxations() {
+        relaxations.increment();
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits.add(count);
+    }
+
+    @Override
+    public void addEdgeTraversals(long count) {
+        edgeTraversals.add(count);
+    }
+
+    @Override
+    public void addKahnPops(long count) {
+        kahnPops.add(count);
+    }
+
+    @Override
+    public void addKahnPushes(long count) {
+        kahnPushes.add(count);
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+        relaxations.add(count);
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return dfsVisits.sum();
+    }
+
+    @Override
+    public long getEdgeTraversals() {
+        return edgeTraversals.sum();
+    }
+
+    @Override
+    public long getKahnPops() {
+        return kahnPops.sum();
+    }
+
+    @Override
+    public long getKahnPushes() {
+        return kahnPushes.sum();
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations.sum();
+    }
+
+    @Override
+    public void reset() {
+        dfsVisits.reset();
+        edgeTraversals.reset();
+        kahnPops.reset();
+        kahnPushes.reset();
+        relaxations.reset();
+        startTime = 0;
+        endTime = 0;
+    }
+}
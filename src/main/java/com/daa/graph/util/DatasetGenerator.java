@@ -4,8 +4,10 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -17,6 +19,7 @@ public class DatasetGenerator {
 
     /**
      * Generate a dataset and save to file.
+     * A ".gz" or ".zst" filename produces a compressed file.
      * @param filename output filename
      * @param numNodes number of nodes
      * @param type type of graph structure
@@ -46,7 +49,7 @@ public class DatasetGenerator {
         root.add("tasks", tasks);
 
         // Write to file
-        try (FileWriter writer = new FileWriter(filename)) {
+        try (Writer writer = new OutputStreamWriter(GraphStreams.openOutput(filename), StandardCharsets.UTF_8)) {
             gson.toJson(root, writer);
         }
     }
@@ -210,12 +213,11 @@ public class DatasetGenerator {
         generateDataset("data/large_sparse.json", 25, GraphType.SPARSE_DAG);
         generateDataset("data/large_complex.json", 35, GraphType.COMPLEX_MIXED);
         generateDataset("data/large_multiple_sccs.json", 30, GraphType.MULTIPLE_SCCS);
-
-        System.out.println("Generated 9 datasets in data/ directory");
     }
 
     public static void main(String[] args) throws IOException {
         generateAllDatasets();
+        System.out.println("Generated 9 datasets in data/ directory");
     }
 }
 
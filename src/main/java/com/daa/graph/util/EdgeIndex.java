@@ -0,0 +1,174 @@
+package com.daa.graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of the (from, to) pairs of a {@link Graph}, keyed on the pair
+ * packed into a long. Each slot also keeps the number of parallel edges for the pair and
+ * the position of one of them in the source's adjacency list; positions are only hints
+ * (removals shift adjacency lists) and are verified by the graph before use.
+ * Linear probing with backward-shift deletion, so no tombstones accumulate.
+ */
+final class EdgeIndex {
+    private static final long EMPTY = -1L; // unreachable as a key: both halves are non-negative
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] counts;
+    private int[] positions;
+    private int size;
+    private int mask;
+
+    EdgeIndex(int expectedPairs) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedPairs * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Number of parallel edges from one vertex to another.
+     * @param from source vertex
+     * @param to destination vertex
+     * @return edge count, 0 if absent
+     */
+    int count(int from, int to) {
+        int slot = find(pack(from, to));
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    /**
+     * Remembered adjacency position of a from -> to edge.
+     * @param from source vertex
+     * @param to destination vertex
+     * @return position hint, or -1 if absent
+     */
+    int position(int from, int to) {
+        int slot = find(pack(from, to));
+        return slot < 0 ? -1 : positions[slot];
+    }
+
+    /**
+     * Update the position hint of an existing pair.
+     * @param from source vertex
+     * @param to destination vertex
+     * @param position position in the adjacency list of {@code from}
+     */
+    void setPosition(int from, int to, int position) {
+        int slot = find(pack(from, to));
+        if (slot >= 0) {
+            positions[slot] = position;
+        }
+    }
+
+    /**
+     * Record one more from -> to edge.
+     * @param from source vertex
+     * @param to destination vertex
+     * @param position position of the new edge in the adjacency list of {@code from}
+     */
+    void add(int from, int to, int position) {
+        long key = pack(from, to);
+        int slot = slotFor(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        counts[slot] = 1;
+        positions[slot] = position;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Forget one from -> to edge; the pair is dropped once its count reaches zero.
+     * @param from source vertex
+     * @param to destination vertex
+     */
+    void remove(int from, int to) {
+        int slot = find(pack(from, to));
+        if (slot < 0 || --counts[slot] > 0) {
+            return;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the hole.
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slotFor(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                positions[hole] = positions[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Number of distinct (from, to) pairs.
+     * @return pair count
+     */
+    int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int slot = slotFor(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int[] oldPositions = positions;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new int[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slotFor(long key) {
+        // Murmur3 finalizer: consecutive ids must not land in consecutive slots.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static long pack(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+}
@@ -6,8 +6,26 @@ import java.util.*;
 public class Graph {
     private final int numVertices;
     private final List<List<Edge>> adjacencyList;
-    private final Map<Integer, Integer> nodeDurations; // Node durations for critical path
-    private final List<Edge> edges;
+    private final int[] nodeDurations; // Node durations for critical path
+    private List<Edge> edges; // Flat edge list; rebuilt from adjacency after a removal
+    private int numEdges = 0;
+    private long version = 0; // Bumped on every mutation so derived results can detect staleness
+    private final DuplicateEdgePolicy duplicatePolicy;
+    private EdgeIndex edgeIndex; // (from, to) membership; eager under a dedup policy, else built on demand
+
+    /**
+     * What {@link #addEdge} does with an edge whose endpoints are already connected.
+     */
+    public enum DuplicateEdgePolicy {
+        /** Store parallel edges (the historical behavior). */
+        ALLOW,
+        /** Ignore the new edge. */
+        KEEP_FIRST,
+        /** Keep a single edge with the smaller weight. */
+        KEEP_MIN,
+        /** Keep a single edge with the larger weight. */
+        KEEP_MAX
+    }
 
    
     public static class Edge {
@@ -32,14 +50,43 @@ public class Graph {
      * @param numVertices number of vertices
      */
     public Graph(int numVertices) {
+        this(numVertices, DuplicateEdgePolicy.ALLOW);
+    }
+
+    /**
+     * Constructor for a graph with n vertices and a duplicate-edge policy.
+     * @param numVertices number of vertices
+     * @param duplicatePolicy how to treat an edge between already connected vertices
+     */
+    public Graph(int numVertices, DuplicateEdgePolicy duplicatePolicy) {
         this.numVertices = numVertices;
+        this.duplicatePolicy = duplicatePolicy;
+        if (duplicatePolicy != DuplicateEdgePolicy.ALLOW) {
+            this.edgeIndex = new EdgeIndex(numVertices);
+        }
         this.adjacencyList = new ArrayList<>();
-        this.nodeDurations = new HashMap<>();
+        this.nodeDurations = new int[numVertices];
         this.edges = new ArrayList<>();
         
         for (int i = 0; i < numVertices; i++) {
             adjacencyList.add(new ArrayList<>());
-            nodeDurations.put(i, 1); // Default duration of 1
+        }
+        Arrays.fill(nodeDurations, 1); // Default duration of 1
+    }
+
+    /**
+     * Constructor taking over adjacency lists assembled by {@link GraphBuilder}.
+     * @param adjacencyList one mutable list of outgoing edges per vertex
+     * @param nodeDurations node durations, one per vertex
+     */
+    Graph(List<List<Edge>> adjacencyList, int[] nodeDurations) {
+        this.numVertices = nodeDurations.length;
+        this.adjacencyList = adjacencyList;
+        this.nodeDurations = nodeDurations;
+        this.duplicatePolicy = DuplicateEdgePolicy.ALLOW;
+        this.edges = null; // built on first getEdges()
+        for (List<Edge> outgoing : adjacencyList) {
+            numEdges += outgoing.size();
         }
     }
 
@@ -48,14 +95,102 @@ public class Graph {
      * @param from source vertex
      * @param to destination vertex
      * @param weight edge weight
+     * @return false if the duplicate policy left the graph unchanged
      */
-    public void addEdge(int from, int to, int weight) {
+    public boolean addEdge(int from, int to, int weight) {
         if (from < 0 || from >= numVertices || to < 0 || to >= numVertices) {
             throw new IllegalArgumentException("Invalid vertex indices");
         }
+        List<Edge> outgoing = adjacencyList.get(from);
+        if (duplicatePolicy != DuplicateEdgePolicy.ALLOW && edgeIndex == null) {
+            buildEdgeIndex();
+        }
+        if (duplicatePolicy != DuplicateEdgePolicy.ALLOW && edgeIndex.count(from, to) > 0) {
+            if (duplicatePolicy == DuplicateEdgePolicy.KEEP_FIRST) {
+                return false;
+            }
+            int position = locate(from, to);
+            int existing = outgoing.get(position).weight;
+            boolean better = duplicatePolicy == DuplicateEdgePolicy.KEEP_MIN ? weight < existing : weight > existing;
+            if (!better) {
+                return false;
+            }
+            outgoing.set(position, new Edge(from, to, weight));
+            edges = null;
+            version++;
+            return true;
+        }
         Edge edge = new Edge(from, to, weight);
-        adjacencyList.get(from).add(edge);
-        edges.add(edge);
+        outgoing.add(edge);
+        numEdges++;
+        if (edges != null) {
+            edges.add(edge);
+        }
+        if (edgeIndex != null) {
+            edgeIndex.add(from, to, outgoing.size() - 1);
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Remove one directed edge from 'from' to 'to', if present.
+     * @param from source vertex
+     * @param to destination vertex
+     * @return the removed edge, or null if there was no such edge
+     */
+    public Edge removeEdge(int from, int to) {
+        if (from < 0 || from >= numVertices || to < 0 || to >= numVertices) {
+            throw new IllegalArgumentException("Invalid vertex indices");
+        }
+        if (edgeIndex != null) {
+            if (edgeIndex.count(from, to) == 0) {
+                return null;
+            }
+            edges = null;
+            version++;
+            numEdges--;
+            Edge removed = adjacencyList.get(from).remove(locate(from, to));
+            edgeIndex.remove(from, to);
+            return removed;
+        }
+        List<Edge> outgoing = adjacencyList.get(from);
+        for (int i = 0; i < outgoing.size(); i++) {
+            if (outgoing.get(i).to == to) {
+                edges = null;
+                version++;
+                numEdges--;
+                return outgoing.remove(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the adjacency position of an indexed from -> to edge. The index's hint is
+     * usually exact; after removals from the same list it is re-learned by a scan.
+     */
+    private int locate(int from, int to) {
+        List<Edge> outgoing = adjacencyList.get(from);
+        int hint = edgeIndex.position(from, to);
+        if (hint >= 0 && hint < outgoing.size() && outgoing.get(hint).to == to) {
+            return hint;
+        }
+        for (int i = 0; i < outgoing.size(); i++) {
+            if (outgoing.get(i).to == to) {
+                edgeIndex.setPosition(from, to, i);
+                return i;
+            }
+        }
+        throw new IllegalStateException("Edge index out of sync for " + from + " -> " + to);
+    }
+
+    /**
+     * Get the duplicate-edge policy.
+     * @return policy applied by {@link #addEdge}
+     */
+    public DuplicateEdgePolicy getDuplicatePolicy() {
+        return duplicatePolicy;
     }
 
     /**
@@ -64,7 +199,20 @@ public class Graph {
      * @param duration duration value
      */
     public void setNodeDuration(int node, int duration) {
-        nodeDurations.put(node, duration);
+        if (node < 0 || node >= numVertices) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+        nodeDurations[node] = duration;
+        version++;
+    }
+
+    /**
+     * Get the modification counter. It changes whenever an edge is added or removed or
+     * a duration is set, so results computed at one version are stale at any other.
+     * @return current version
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -73,7 +221,7 @@ public class Graph {
      * @return duration
      */
     public int getNodeDuration(int node) {
-        return nodeDurations.getOrDefault(node, 1);
+        return node >= 0 && node < numVertices ? nodeDurations[node] : 1;
     }
 
     /**
@@ -90,6 +238,12 @@ public class Graph {
      * @return list of all edges
      */
     public List<Edge> getEdges() {
+        if (edges == null) {
+            edges = new ArrayList<>();
+            for (List<Edge> outgoing : adjacencyList) {
+                edges.addAll(outgoing);
+            }
+        }
         return edges;
     }
 
@@ -101,29 +255,83 @@ public class Graph {
         return numVertices;
     }
 
+    /**
+     * Get the number of edges in O(1), without building the flat edge list.
+     * @return number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
     /**
      * Get the reversed graph (all edges reversed).
      * @return reversed graph
      */
     public Graph getReversed() {
-        Graph reversed = new Graph(numVertices);
-        for (Map.Entry<Integer, Integer> entry : nodeDurations.entrySet()) {
-            reversed.setNodeDuration(entry.getKey(), entry.getValue());
-        }
-        for (Edge edge : edges) {
-            reversed.addEdge(edge.to, edge.from, edge.weight);
+        List<Edge> all = getEdges();
+        int m = all.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int i = 0; i < m; i++) {
+            Edge edge = all.get(i);
+            from[i] = edge.to;
+            to[i] = edge.from;
+            weight[i] = edge.weight;
         }
+        GraphBuilder builder = new GraphBuilder(numVertices, 0, DuplicateEdgePolicy.ALLOW);
+        builder.addEdges(from, to, weight, 0, m);
+        Graph reversed = builder.build();
+        System.arraycopy(nodeDurations, 0, reversed.nodeDurations, 0, numVertices);
         return reversed;
     }
 
     /**
-     * Check if there is an edge from u to v.
+     * Check if there is an edge from u to v. Runs in O(1) when the graph has an edge
+     * index (graphs with a dedup policy, or after {@link #buildEdgeIndex()}), otherwise
+     * scans the outgoing edges of u. Never modifies the graph, so concurrent readers
+     * may call it.
      * @param u source vertex
      * @param v destination vertex
      * @return true if edge exists
      */
     public boolean hasEdge(int u, int v) {
-        return adjacencyList.get(u).stream().anyMatch(e -> e.to == v);
+        EdgeIndex index = edgeIndex;
+        if (index != null) {
+            return index.count(u, v) > 0;
+        }
+        List<Edge> outgoing = adjacencyList.get(u);
+        for (int i = 0; i < outgoing.size(); i++) {
+            if (outgoing.get(i).to == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop the edge index, e.g. once a deduplicated graph is fully built and only read.
+     * It is rebuilt from the adjacency lists by the next call that needs it.
+     */
+    public void releaseEdgeIndex() {
+        edgeIndex = null;
+    }
+
+    /**
+     * Build the edge index so {@link #hasEdge(int, int)} answers in O(1) on graphs
+     * without a dedup policy, e.g. ones with hub vertices. The index is then maintained
+     * on every mutation until {@link #releaseEdgeIndex()}. Call it before sharing the
+     * graph with readers.
+     */
+    public void buildEdgeIndex() {
+        EdgeIndex index = new EdgeIndex(numEdges);
+        for (int from = 0; from < numVertices; from++) {
+            List<Edge> outgoing = adjacencyList.get(from);
+            for (int i = 0; i < outgoing.size(); i++) {
+                index.add(from, outgoing.get(i).to, i);
+            }
+        }
+        edgeIndex = index;
     }
 
     @Override
@@ -0,0 +1,238 @@
+package com.daa.graph.util;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk construction of a {@link Graph} or {@link CsrGraph} from primitive edge arrays.
+ * Edges are appended to growable int arrays (no per-edge objects or list appends) and
+ * grouped by source in one parallel, stable counting sort, so each adjacency list
+ * keeps the order in which its edges were added: the result is identical to calling
+ * {@link Graph#addEdge} for every edge in turn.
+ * <p>
+ * A builder is not thread-safe, and may be built more than once.
+ */
+public class GraphBuilder {
+    private static final int MIN_CHUNK_EDGES = 1 << 16; // smaller inputs are sorted on one thread
+
+    private final int numVertices;
+    private final Graph.DuplicateEdgePolicy duplicatePolicy;
+    private final int[] nodeDurations;
+    private int[] sources;
+    private int[] targets;
+    private int[] weights;
+    private int numEdges;
+
+    /**
+     * Constructor.
+     * @param numVertices number of vertices
+     */
+    public GraphBuilder(int numVertices) {
+        this(numVertices, 0, Graph.DuplicateEdgePolicy.ALLOW);
+    }
+
+    /**
+     * Constructor.
+     * @param numVertices number of vertices
+     * @param expectedEdges initial edge capacity
+     * @param duplicatePolicy policy of the built {@link Graph}; anything but ALLOW is
+     *                        applied edge by edge through {@link Graph#addEdge}
+     */
+    public GraphBuilder(int numVertices, int expectedEdges, Graph.DuplicateEdgePolicy duplicatePolicy) {
+        if (numVertices < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("Negative graph size");
+        }
+        this.numVertices = numVertices;
+        this.duplicatePolicy = duplicatePolicy;
+        this.nodeDurations = new int[numVertices];
+        Arrays.fill(nodeDurations, 1);
+        this.sources = new int[expectedEdges];
+        this.targets = new int[expectedEdges];
+        this.weights = new int[expectedEdges];
+    }
+
+    /**
+     * Append one directed edge.
+     * @param from source vertex
+     * @param to destination vertex
+     * @param weight edge weight
+     */
+    public void addEdge(int from, int to, int weight) {
+        if (from < 0 || from >= numVertices || to < 0 || to >= numVertices) {
+            throw new IllegalArgumentException("Invalid vertex indices");
+        }
+        ensureCapacity(numEdges + 1);
+        sources[numEdges] = from;
+        targets[numEdges] = to;
+        weights[numEdges] = weight;
+        numEdges++;
+    }
+
+    /**
+     * Append a chunk of edges given as parallel arrays.
+     * @param from source vertices
+     * @param to destination vertices
+     * @param weight edge weights
+     * @param offset first array index to take
+     * @param length number of edges to take
+     */
+    public void addEdges(int[] from, int[] to, int[] weight, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (from[i] < 0 || from[i] >= numVertices || to[i] < 0 || to[i] >= numVertices) {
+                throw new IllegalArgumentException("Invalid vertex indices at " + i);
+            }
+        }
+        ensureCapacity(numEdges + length);
+        System.arraycopy(from, offset, sources, numEdges, length);
+        System.arraycopy(to, offset, targets, numEdges, length);
+        System.arraycopy(weight, offset, weights, numEdges, length);
+        numEdges += length;
+    }
+
+    /**
+     * Set the duration for a node.
+     * @param node vertex index
+     * @param duration duration value
+     */
+    public void setNodeDuration(int node, int duration) {
+        if (node < 0 || node >= numVertices) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+        nodeDurations[node] = duration;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Build a mutable adjacency-list graph.
+     * @return graph with the appended edges
+     */
+    public Graph build() {
+        if (duplicatePolicy != Graph.DuplicateEdgePolicy.ALLOW) {
+            Graph graph = new Graph(numVertices, duplicatePolicy);
+            for (int v = 0; v < numVertices; v++) {
+                graph.setNodeDuration(v, nodeDurations[v]);
+            }
+            for (int i = 0; i < numEdges; i++) {
+                graph.addEdge(sources[i], targets[i], weights[i]);
+            }
+            return graph;
+        }
+
+        int[] offsets = new int[numVertices + 1];
+        int[] order = sortBySource(offsets);
+        @SuppressWarnings("unchecked")
+        List<Graph.Edge>[] lists = (List<Graph.Edge>[]) new List<?>[numVertices];
+        forEachBlock(parallelism(numEdges), numVertices, (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+                List<Graph.Edge> list = new ArrayList<>(offsets[v + 1] - offsets[v]);
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    int i = order[j];
+                    list.add(new Graph.Edge(sources[i], targets[i], weights[i]));
+                }
+                lists[v] = list;
+            }
+        });
+        List<List<Graph.Edge>> adjacency = new ArrayList<>(Arrays.asList(lists));
+        return new Graph(adjacency, nodeDurations.clone());
+    }
+
+    /**
+     * Build an immutable compressed-sparse-row graph. Parallel edges are kept.
+     * @return CSR graph with the appended edges
+     */
+    public CsrGraph buildCsr() {
+        int[] offsets = new int[numVertices + 1];
+        int[] order = sortBySource(offsets);
+        int[] csrTargets = new int[numEdges];
+        int[] csrWeights = new int[numEdges];
+        forEachBlock(parallelism(numEdges), numEdges, (lo, hi) -> {
+            for (int j = lo; j < hi; j++) {
+                csrTargets[j] = targets[order[j]];
+                csrWeights[j] = weights[order[j]];
+            }
+        });
+        return new CsrGraph(offsets, csrTargets, csrWeights, nodeDurations.clone());
+    }
+
+    /**
+     * Stable counting sort of the edge indices by source. Each of the chunks counts its
+     * own slice of edges, a prefix sum over (vertex, chunk) gives every chunk a private
+     * output range per vertex, and the chunks then scatter without synchronization.
+     * @param offsets receives the start of each vertex's edges (length numVertices + 1)
+     * @return edge indices grouped by source, in insertion order within a source
+     */
+    private int[] sortBySource(int[] offsets) {
+        // One histogram per chunk; cap the chunk count so histograms stay below the edge arrays.
+        int chunks = Math.max(1, Math.min(parallelism(numEdges), numEdges / Math.max(1, numVertices)));
+        int chunkSize = (numEdges + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][numVertices];
+        forEachBlock(chunks, chunks, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                int[] count = counts[c];
+                for (int i = c * chunkSize, end = Math.min(numEdges, (c + 1) * chunkSize); i < end; i++) {
+                    count[sources[i]]++;
+                }
+            }
+        });
+
+        int running = 0;
+        for (int v = 0; v < numVertices; v++) {
+            offsets[v] = running;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][v];
+                counts[c][v] = running;
+                running += count;
+            }
+        }
+        offsets[numVertices] = running;
+
+        int[] order = new int[numEdges];
+        forEachBlock(chunks, chunks, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                int[] next = counts[c];
+                for (int i = c * chunkSize, end = Math.min(numEdges, (c + 1) * chunkSize); i < end; i++) {
+                    order[next[sources[i]]++] = i;
+                }
+            }
+        });
+        return order;
+    }
+
+    private interface RangeTask {
+        void run(int lo, int hi);
+    }
+
+    /**
+     * Split [0, size) into blocks and run them on the common fork-join pool, or inline
+     * when there is a single block.
+     */
+    private static void forEachBlock(int blocks, int size, RangeTask task) {
+        if (blocks <= 1) {
+            task.run(0, size);
+            return;
+        }
+        int blockSize = (size + blocks - 1) / blocks;
+        IntStream.range(0, blocks).parallel()
+            .forEach(b -> task.run(Math.min(size, b * blockSize), Math.min(size, (b + 1) * blockSize)));
+    }
+
+    private static int parallelism(int work) {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), work / MIN_CHUNK_EDGES));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > sources.length) {
+            int grown = Math.max(capacity, Math.max(16, sources.length + (sources.length >> 1)));
+            sources = Arrays.copyOf(sources, grown);
+            targets = Arrays.copyOf(targets, grown);
+            weights = Arrays.copyOf(weights, grown);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.daa.graph.util;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens graph files as streams, transparently handling gzip and zstd compression.
+ * Input compression is detected from the magic bytes at the start of the file,
+ * output compression from the file extension (".gz" or ".zst").
+ */
+public final class GraphStreams {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PIPELINE_DEPTH = 4;
+
+    private GraphStreams() {
+    }
+
+    /**
+     * Supported compression formats.
+     */
+    public enum Compression {
+        NONE,
+        GZIP,
+        ZSTD;
+
+        /**
+         * Detect the compression format from the leading bytes of a stream.
+         * @param header first bytes of the stream
+         * @param length number of valid bytes in header
+         * @return detected compression
+         */
+        public static Compression detect(byte[] header, int length) {
+            if (length >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B) {
+                return GZIP;
+            }
+            if (length >= 4 && (header[0] & 0xFF) == 0x28 && (header[1] & 0xFF) == 0xB5
+                    && (header[2] & 0xFF) == 0x2F && (header[3] & 0xFF) == 0xFD) {
+                return ZSTD;
+            }
+            return NONE;
+        }
+
+        /**
+         * Choose the compression format for an output file from its name.
+         * @param fileName output file name
+         * @return compression implied by the extension
+         */
+        public static Compression forFileName(String fileName) {
+            if (fileName.endsWith(".gz")) {
+                return GZIP;
+            }
+            if (fileName.endsWith(".zst") || fileName.endsWith(".zstd")) {
+                return ZSTD;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Open a file for reading, decompressing it if it starts with a gzip or zstd header.
+     * Decompression runs on a separate thread so that parsing overlaps with I/O.
+     * @param path file path
+     * @return buffered, decompressed input stream
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream openInput(String path) throws IOException {
+        return wrapInput(new FileInputStream(path));
+    }
+
+    /**
+     * Wrap an arbitrary stream, decompressing it if it starts with a gzip or zstd header.
+     * @param raw raw input stream (closed when the returned stream is closed)
+     * @return buffered, decompressed input stream
+     * @throws IOException if the header cannot be read
+     */
+    public static InputStream wrapInput(InputStream raw) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(raw, BUFFER_SIZE);
+        byte[] header = new byte[4];
+        in.mark(header.length);
+        int length = in.readNBytes(header, 0, header.length);
+        in.reset();
+
+        switch (Compression.detect(header, length)) {
+            case GZIP:
+                return new PipelinedInputStream(new GZIPInputStream(in, BUFFER_SIZE));
+            case ZSTD:
+                return new PipelinedInputStream(new ZstdInputStream(in));
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * Open a file for writing, compressing it according to its extension.
+     * @param path file path
+     * @return buffered output stream
+     * @throws IOException if the file cannot be created
+     */
+    public static OutputStream openOutput(String path) throws IOException {
+        return wrapOutput(new FileOutputStream(path), Compression.forFileName(path));
+    }
+
+    /**
+     * Wrap an arbitrary stream with the given compression.
+     * @param raw raw output stream (closed when the returned stream is closed)
+     * @param compression compression to apply
+     * @return buffered output stream
+     * @throws IOException if the compressor cannot be created
+     */
+    public static OutputStream wrapOutput(OutputStream raw, Compression compression) throws IOException {
+        switch (compression) {
+            case GZIP:
+                return new BufferedOutputStream(new GZIPOutputStream(raw, BUFFER_SIZE), BUFFER_SIZE);
+            case ZSTD:
+                return new BufferedOutputStream(new ZstdOutputStream(raw), BUFFER_SIZE);
+            default:
+                return new BufferedOutputStream(raw, BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Input stream that drains a source stream on a background thread into a
+     * bounded queue of chunks, so that the consumer never waits on decompression
+     * unless the queue is empty. A failure on the background thread, including an
+     * unchecked one from the decompressor, is rethrown from the consumer's read once
+     * the chunks before it have been consumed.
+     */
+    static final class PipelinedInputStream extends InputStream {
+        private static final byte[] END = new byte[0];
+
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        private final InputStream source;
+        private final Thread reader;
+        private volatile IOException failure;
+        private volatile boolean closed;
+        private byte[] current = new byte[0];
+        private int position = 0;
+        private boolean finished = false;
+
+        PipelinedInputStream(InputStream source) {
+            this.source = source;
+            this.reader = new Thread(this::pump, "graph-decompressor");
+            this.reader.setDaemon(true);
+            this.reader.start();
+        }
+
+        private void pump() {
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while (!closed && (read = source.readNBytes(buffer, 0, buffer.length)) > 0) {
+                    chunks.put(Arrays.copyOf(buffer, read));
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException | Error e) {
+                failure = new IOException("Decompression failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    if (!closed) {
+                        chunks.put(END);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private boolean fill() throws IOException {
+            if (finished) {
+                return false;
+            }
+            while (position == current.length) {
+                byte[] next;
+                try {
+                    next = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+                }
+                if (next == END) {
+                    finished = true;
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return false;
+                }
+                current = next;
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current.length - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            reader.interrupt();
+            chunks.clear();
+            source.close();
+        }
+    }
+}
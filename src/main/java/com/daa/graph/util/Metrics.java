@@ -1,98 +1,121 @@
 package com.daa.graph.util;
 
 
-public class Metrics {
-    private int dfsVisits = 0;
-    private int edgeTraversals = 0;
-    private int kahnPops = 0;
-    private int kahnPushes = 0;
-    private int relaxations = 0;
-    private long startTime = 0;
-    private long endTime = 0;
-
-   
-    public void startTimer() {
-        startTime = System.nanoTime();
-    }
+/**
+ * Operation counters and timing for the graph algorithms.
+ * Use {@link BasicMetrics} on a single thread, {@link ConcurrentMetrics} when several
+ * threads record into the same instance, and {@link NoOpMetrics#INSTANCE} to disable
+ * instrumentation. All three are final, and the algorithms count into locals inside
+ * their loops and report once per pass through the {@code add} methods, so no
+ * per-edge call depends on which implementation a call site has seen.
+ */
+public interface Metrics {
 
-    
-    public void stopTimer() {
-        endTime = System.nanoTime();
-    }
+    void startTimer();
+
+    void stopTimer();
 
     /**
      * Get elapsed time in milliseconds.
      * @return elapsed time in ms
      */
-    public double getElapsedTimeMs() {
-        return (endTime - startTime) / 1_000_000.0;
+    default double getElapsedTimeMs() {
+        return getElapsedTimeNs() / 1_000_000.0;
     }
 
     /**
      * Get elapsed time in nanoseconds.
      * @return elapsed time in ns
      */
-    public long getElapsedTimeNs() {
-        return endTime - startTime;
-    }
+    long getElapsedTimeNs();
 
-    public void incrementDfsVisits() {
-        dfsVisits++;
-    }
+    void incrementDfsVisits();
 
-    public void incrementEdgeTraversals() {
-        edgeTraversals++;
-    }
+    void incrementEdgeTraversals();
 
-    public void incrementKahnPops() {
-        kahnPops++;
-    }
+    void incrementKahnPops();
 
-    public void incrementKahnPushes() {
-        kahnPushes++;
-    }
+    void incrementKahnPushes();
 
-    public void incrementRelaxations() {
-        relaxations++;
-    }
+    void incrementRelaxations();
 
-    public int getDfsVisits() {
-        return dfsVisits;
-    }
+    /**
+     * Add a batch of DFS visits counted locally by the caller.
+     * @param count number of visits
+     */
+    void addDfsVisits(long count);
 
-    public int getEdgeTraversals() {
-        return edgeTraversals;
-    }
+    /**
+     * Add a batch of edge traversals counted locally by the caller.
+     * @param count number of traversals
+     */
+    void addEdgeTraversals(long count);
 
-    public int getKahnPops() {
-        return kahnPops;
-    }
+    /**
+     * Add a batch of Kahn queue pops counted locally by the caller.
+     * @param count number of pops
+     */
+    void addKahnPops(long count);
 
-    public int getKahnPushes() {
-        return kahnPushes;
-    }
+    /**
+     * Add a batch of Kahn queue pushes counted locally by the caller.
+     * @param count number of pushes
+     */
+    void addKahnPushes(long count);
 
-    public int getRelaxations() {
-        return relaxations;
-    }
+    /**
+     * Add a batch of relaxations counted locally by the caller.
+     * @param count number of relaxations
+     */
+    void addRelaxations(long count);
 
-    
-    public void reset() {
-        dfsVisits = 0;
-        edgeTraversals = 0;
-        kahnPops = 0;
-        kahnPushes = 0;
-        relaxations = 0;
-        startTime = 0;
-        endTime = 0;
-    }
+    long getDfsVisits();
 
-    @Override
-    public String toString() {
-        return String.format(
-            "Metrics{DFS Visits: %d, Edge Traversals: %d, Kahn Pops: %d, Kahn Pushes: %d, Relaxations: %d, Time: %.3f ms}",
-            dfsVisits, edgeTraversals, kahnPops, kahnPushes, relaxations, getElapsedTimeMs()
-        );
-    }
-}
+    long getEdgeTraversals();
+
+    long getKahnPops();
+
+    long getKahnPushes();
+
+    long getRelaxations();
+
+    /**
+     * Attach a phase timer that records the spans opened through {@link #span(String)}.
+     * The timer is kept across {@link #reset()}.
+     * @param phaseTimer timer, or null to stop recording spans
+     */
+    void setPhaseTimer(PhaseTimer phaseTimer);
+
+    /**
+     * Get the attached phase timer.
+     * @return timer, or null if none is attached
+     */
+    PhaseTimer getPhaseTimer();
 
+    /**
+     * Open a timing span for an algorithm phase, nested under any span already open
+     * on this thread.
+     * @param phase phase name
+     * @return span to close when the phase ends (a no-op if no timer is attached)
+     */
+    PhaseTimer.Span span(String phase);
+
+    /**
+     * Record the size of the graph the algorithm runs on, for span listeners.
+     * @param vertices number of vertices
+     * @param edges number of edges
+     */
+    void setGraphShape(int vertices, long edges);
+
+    int getGraphVertices();
+
+    long getGraphEdges();
+
+    /**
+     * Check whether this instance records anything.
+     * @return false for the no-op implementation
+     */
+    boolean isEnabled();
+
+    void reset();
+}
@@ -0,0 +1,134 @@
+package com.daa.graph.util;
+
+/**
+ * Metrics implementation that records nothing.
+ * Every method is empty or returns a constant; a call site that only sees this class
+ * inlines the call away.
+ */
+public final class NoOpMetrics implements Metrics {
+    /** Shared instance; it has no state. */
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void startTimer() {
+    }
+
+    @Override
+    public void stopTimer() {
+    }
+
+    @Override
+    public long getElapsedTimeNs() {
+        return 0;
+    }
+
+    @Override
+    public void incrementDfsVisits() {
+    }
+
+    @Override
+    public void incrementEdgeTraversals() {
+    }
+
+    @Override
+    public void incrementKahnPops() {
+    }
+
+    @Override
+    public void incrementKahnPushes() {
+    }
+
+    @Override
+    public void incrementRelaxations() {
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+    }
+
+    @Override
+    public void addEdgeTraversals(long count) {
+    }
+
+    @Override
+    public void addKahnPops(long count) {
+    }
+
+    @Override
+    public void addKahnPushes(long count) {
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return 0;
+    }
+
+    @Override
+    public long getEdgeTraversals() {
+        return 0;
+    }
+
+    @Override
+    public long getKahnPops() {
+        return 0;
+    }
+
+    @Override
+    public long getKahnPushes() {
+        return 0;
+    }
+
+    @Override
+    public long getRelaxations() {
+        return 0;
+    }
+
+    @Override
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+    }
+
+    @Override
+    public PhaseTimer getPhaseTimer() {
+        return null;
+    }
+
+    @Override
+    public PhaseTimer.Span span(String phase) {
+        return PhaseTimer.NOOP_SPAN;
+    }
+
+    @Override
+    public void setGraphShape(int vertices, long edges) {
+    }
+
+    @Override
+    public int getGraphVertices() {
+        return 0;
+    }
+
+    @Override
+    public long getGraphEdges() {
+        return 0;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String toString() {
+        return "Metrics{disabled}";
+    }
+}
@@ -0,0 +1,263 @@
+package com.daa.graph.util;
+
+import com.daa.graph.telemetry.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hierarchical phase timing.
+ * {@link #start(String)} opens a span nested under whatever span the current thread
+ * already has open, so a phase is identified by its path, e.g. "scc/dfs1". Each path
+ * aggregates all of its runs in fixed memory: count, min/median/p99/max wall time
+ * (percentiles from a {@link LatencyHistogram}) and the bytes the thread allocated
+ * while the span was open (when the JVM supports thread allocation accounting). Spans must be closed in reverse order of opening, which
+ * try-with-resources guarantees.
+ */
+public class PhaseTimer {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED = allocationSupported();
+
+    /** Span that does nothing, for disabled timing. */
+    public static final Span NOOP_SPAN = () -> { };
+
+    private final ThreadLocal<Deque<String>> openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, PhaseStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrder = new AtomicInteger();
+    private final List<SpanListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * An open timing span. Spans are usually only opened and closed by a
+     * try-with-resources block, so methods that time phases suppress javac's "try" lint.
+     */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Callbacks invoked on the recording thread whenever a span opens or closes. Spans
+     * on one thread are strictly nested, so each close matches the latest unmatched open.
+     */
+    @FunctionalInterface
+    public interface SpanListener {
+        /**
+         * @param path phase path of the span just opened, e.g. "scc/dfs1"
+         */
+        default void onSpanOpened(String path) {
+        }
+
+        /**
+         * @param path phase path, e.g. "scc/dfs1"
+         * @param elapsedNs wall time of the span
+         * @param allocatedBytes bytes allocated by the thread during the span, or 0 if unsupported
+         * @param metrics metrics the span was opened through, or null
+         */
+        void onSpanClosed(String path, long elapsedNs, long allocatedBytes, Metrics metrics);
+    }
+
+    /**
+     * Aggregated statistics for one phase path. Durations go into a fixed-size histogram,
+     * so a timer that lives as long as the process does not grow with the number of runs.
+     */
+    public static class PhaseStats {
+        private final int order; // first-start order, used to print phases chronologically
+        private final LatencyHistogram durations = new LatencyHistogram();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        PhaseStats(int order) {
+            this.order = order;
+        }
+
+        void record(long nanos, long bytes) {
+            durations.record(nanos);
+            allocatedBytes.add(bytes);
+        }
+
+        public int getCount() {
+            return (int) Math.min(Integer.MAX_VALUE, durations.getCount());
+        }
+
+        public long getTotalNs() {
+            return durations.getSum();
+        }
+
+        public long getMinNs() {
+            return durations.getMin();
+        }
+
+        public long getMedianNs() {
+            return percentileNs(50);
+        }
+
+        public long getP99Ns() {
+            return percentileNs(99);
+        }
+
+        public long getMaxNs() {
+            return durations.getMax();
+        }
+
+        /**
+         * Get a percentile of the recorded durations (nearest-rank, within the
+         * histogram's 1.6% resolution).
+         * @param percentile percentile in [0, 100]
+         * @return duration in ns, or 0 if nothing was recorded
+         */
+        public long percentileNs(double percentile) {
+            return durations.getPercentile(percentile);
+        }
+
+        /**
+         * Get total bytes allocated inside this phase over all runs.
+         * @return allocated bytes, or -1 if the JVM does not support allocation accounting
+         */
+        public long getAllocatedBytes() {
+            return ALLOCATION_SUPPORTED ? allocatedBytes.sum() : -1;
+        }
+
+        @Override
+        public String toString() {
+            long bytes = getAllocatedBytes();
+            return String.format("n=%d min=%.3fms median=%.3fms p99=%.3fms alloc/run=%s",
+                getCount(), getMinNs() / 1e6, getMedianNs() / 1e6, getP99Ns() / 1e6,
+                bytes < 0 ? "n/a" : (bytes / Math.max(1, getCount())) + "B");
+        }
+    }
+
+    /**
+     * Open a span nested under the current thread's innermost open span.
+     * @param phase phase name (must not contain '/')
+     * @return span to close when the phase ends
+     */
+    public Span start(String phase) {
+        return start(phase, null);
+    }
+
+    /**
+     * Open a span on behalf of an algorithm; listeners receive the metrics on close.
+     * @param phase phase name (must not contain '/')
+     * @param metrics metrics of the running algorithm, or null
+     * @return span to close when the phase ends
+     */
+    public Span start(String phase, Metrics metrics) {
+        Deque<String> open = openSpans.get();
+        String path = open.isEmpty() ? phase : open.peek() + "/" + phase;
+        open.push(path);
+        PhaseStats phaseStats = stats.computeIfAbsent(path, k -> new PhaseStats(nextOrder.getAndIncrement()));
+        for (SpanListener listener : listeners) {
+            listener.onSpanOpened(path);
+        }
+        long allocatedBefore = allocatedBytes();
+        long startNs = System.nanoTime();
+        return () -> {
+            long elapsed = System.nanoTime() - startNs;
+            long allocated = allocatedBytes() - allocatedBefore;
+            Deque<String> current = openSpans.get();
+            if (!path.equals(current.peek())) {
+                throw new IllegalStateException("Span " + path + " closed out of order");
+            }
+            current.pop();
+            phaseStats.record(elapsed, allocated);
+            for (SpanListener listener : listeners) {
+                listener.onSpanClosed(path, elapsed, allocated, metrics);
+            }
+        };
+    }
+
+    /**
+     * Register a listener for closed spans.
+     * @param listener listener to add
+     */
+    public void addListener(SpanListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the statistics of one phase path.
+     * @param path phase path, e.g. "scc/dfs1"
+     * @return statistics, or null if the phase never started
+     */
+    public PhaseStats getStats(String path) {
+        return stats.get(path);
+    }
+
+    /**
+     * Get statistics of all phase paths in tree order: each phase is followed by its
+     * children, and siblings appear in the order they first started.
+     * @return map from path to statistics
+     */
+    public Map<String, PhaseStats> getAllStats() {
+        List<String> paths = new ArrayList<>(stats.keySet());
+        Map<String, int[]> keys = new HashMap<>();
+        for (String path : paths) {
+            String[] parts = path.split("/");
+            int[] key = new int[parts.length];
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    prefix.append('/');
+                }
+                prefix.append(parts[i]);
+                PhaseStats ancestor = stats.get(prefix.toString());
+                key[i] = ancestor != null ? ancestor.order : -1;
+            }
+            keys.put(path, key);
+        }
+        paths.sort((a, b) -> Arrays.compare(keys.get(a), keys.get(b)));
+
+        Map<String, PhaseStats> ordered = new LinkedHashMap<>();
+        for (String path : paths) {
+            ordered.put(path, stats.get(path));
+        }
+        return ordered;
+    }
+
+    /**
+     * Discard all recorded statistics.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Format all phases as an indented tree.
+     * @return formatted report
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, PhaseStats> entry : getAllStats().entrySet()) {
+            String path = entry.getKey();
+            int depth = path.length() - path.replace("/", "").length();
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            sb.append("  ".repeat(depth + 1))
+              .append(String.format("%-" + Math.max(1, 24 - 2 * depth) + "s", name))
+              .append(entry.getValue())
+              .append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static long allocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean allocationSupported() {
+        try {
+            return THREADS instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+        } catch (LinkageError | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.daa.graph.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generator for benchmark-sized task graphs (up to ~10^8 edges).
+ * Vertices are generated in fixed-size chunks on a thread pool; each chunk draws from its
+ * own {@link SplittableRandom} seeded from (seed, chunk index), so the output is identical
+ * regardless of thread count. Chunks are serialized in parallel and streamed to the output
+ * in order, so memory use is bounded by the number of chunks in flight.
+ */
+public class ScalableGraphGenerator {
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final int SMALL_SCC_SIZE = 5;
+    private static final int CHAIN_WINDOW = 8;
+    private static final int MAX_DEGREE_FACTOR = 64;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Graph family enumeration.
+     */
+    public enum Family {
+        /** Vertices in layers of ~sqrt(V); dependencies only on the previous layer. */
+        LAYERED_DAG,
+        /** DAG with power-law out-degree: low ids are heavily depended upon. */
+        SCALE_FREE,
+        /** One long chain with short-range extra dependencies; very deep critical path. */
+        LONG_CHAIN,
+        /** Many cycles of five vertices connected by DAG edges. */
+        SMALL_SCCS,
+        /** A ring through all vertices plus random chords: one giant SCC. */
+        GIANT_SCC
+    }
+
+    /**
+     * Output format enumeration.
+     */
+    public enum Format {
+        JSON,
+        BINARY;
+
+        /**
+         * Choose the format from a file name, ignoring a compression suffix.
+         * @param fileName output file name
+         * @return BINARY for ".bin" files, JSON otherwise
+         */
+        public static Format forFileName(String fileName) {
+            String name = fileName.replaceFirst("\\.(gz|zst|zstd)$", "");
+            return name.endsWith(".bin") ? BINARY : JSON;
+        }
+    }
+
+    private final Family family;
+    private final int numVertices;
+    private final int averageDegree;
+    private final long seed;
+    private final int threads;
+
+    /**
+     * Constructor.
+     * @param family graph family
+     * @param numVertices number of vertices
+     * @param averageDegree average number of dependencies per vertex
+     * @param seed base seed; the same seed always produces the same graph
+     */
+    public ScalableGraphGenerator(Family family, int numVertices, int averageDegree, long seed) {
+        this(family, numVertices, averageDegree, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     * @param family graph family
+     * @param numVertices number of vertices
+     * @param averageDegree average number of dependencies per vertex
+     * @param seed base seed; the same seed always produces the same graph
+     * @param threads number of generator threads
+     */
+    public ScalableGraphGenerator(Family family, int numVertices, int averageDegree, long seed, int threads) {
+        if (numVertices < 0 || averageDegree < 0 || threads < 1) {
+            throw new IllegalArgumentException("Invalid generator parameters");
+        }
+        this.family = family;
+        this.numVertices = numVertices;
+        this.averageDegree = averageDegree;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Generate the graph and write it to a file.
+     * @param path output path; ".gz"/".zst" selects compression, ".bin" selects binary
+     * @return number of edges written
+     * @throws IOException if writing fails
+     */
+    public long writeTo(String path) throws IOException {
+        try (OutputStream out = GraphStreams.openOutput(path)) {
+            return writeTo(out, Format.forFileName(path));
+        }
+    }
+
+    /**
+     * Generate the graph into memory.
+     * @param format output format
+     * @return the serialized graph
+     * @throws IOException if generation fails
+     */
+    public byte[] toBytes(Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(out, format);
+        return out.toByteArray();
+    }
+
+    /**
+     * Generate the graph in memory and load it as {@link TaskGraphLoader} would load a
+     * binary file.
+     * @return the loaded graph
+     * @throws IOException if generation fails
+     */
+    public Graph toGraph() throws IOException {
+        return TaskGraphLoader.loadGraph(new ByteArrayInputStream(toBytes(Format.BINARY)));
+    }
+
+    /**
+     * Generate the graph and stream it to an output stream.
+     * @param out output stream (not closed)
+     * @param format output format
+     * @return number of edges written
+     * @throws IOException if writing fails
+     */
+    public long writeTo(OutputStream out, Format format) throws IOException {
+        int numChunks = (numVertices + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "graph-generator");
+            t.setDaemon(true);
+            return t;
+        });
+        long edges = 0;
+        try {
+            out.write(header(format));
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk < numChunks || !inFlight.isEmpty()) {
+                while (nextChunk < numChunks && inFlight.size() < 2 * threads) {
+                    final int chunk = nextChunk++;
+                    inFlight.add(pool.submit(() -> generateChunk(chunk, format)));
+                }
+                Chunk chunk = inFlight.poll().get();
+                out.write(chunk.bytes, 0, chunk.length);
+                edges += chunk.edges;
+            }
+            out.write(footer(format));
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating graph", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Graph generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return edges;
+    }
+
+    private byte[] header(Format format) {
+        if (format == Format.BINARY) {
+            ByteSink sink = new ByteSink(12);
+            sink.appendInt32(BinaryGraphFormat.MAGIC);
+            sink.appendInt32(BinaryGraphFormat.VERSION);
+            sink.appendInt32(numVertices);
+            return Arrays.copyOf(sink.bytes, sink.length);
+        }
+        return "{\"tasks\":[".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] footer(Format format) {
+        return format == Format.BINARY ? new byte[0] : "]}".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Chunk {
+        final byte[] bytes;
+        final int length;
+        final long edges;
+
+        Chunk(byte[] bytes, int length, long edges) {
+            this.bytes = bytes;
+            this.length = length;
+            this.edges = edges;
+        }
+    }
+
+    private Chunk generateChunk(int chunk, Format format) {
+        SplittableRandom random = new SplittableRandom(seed + GOLDEN_GAMMA * (chunk + 1));
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(numVertices, from + CHUNK_SIZE);
+        ByteSink sink = new ByteSink((to - from) * (16 + 8 * averageDegree));
+        int[] deps = new int[Math.max(16, 4 * averageDegree)];
+        long edges = 0;
+
+        for (int v = from; v < to; v++) {
+            int duration = random.nextInt(10) + 1; // Duration 1-10
+            int count = generateDependencies(v, random, deps);
+            while (count > deps.length) {
+                deps = new int[Math.max(count, 2 * deps.length)];
+                count = generateDependencies(v, random, deps);
+            }
+            count = sortUnique(deps, count);
+            edges += count;
+
+            if (format == Format.BINARY) {
+                sink.appendInt32(duration);
+                sink.appendInt32(count);
+                for (int i = 0; i < count; i++) {
+                    sink.appendInt32(deps[i]);
+                }
+            } else {
+                if (v > 0) {
+                    sink.appendAscii(",");
+                }
+                sink.appendAscii("{\"id\":").appendDecimal(v)
+                    .appendAscii(",\"name\":\"task").appendDecimal(v)
+                    .appendAscii("\",\"duration\":").appendDecimal(duration)
+                    .appendAscii(",\"dependencies\":[");
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        sink.appendAscii(",");
+                    }
+                    sink.appendDecimal(deps[i]);
+                }
+                sink.appendAscii("]}");
+            }
+        }
+        return new Chunk(sink.bytes, sink.length, edges);
+    }
+
+    /**
+     * Fill deps with the dependencies of vertex v.
+     * @return number of dependencies; if larger than deps.length nothing beyond the
+     *         capacity was written and the caller must retry with a larger array
+     */
+    private int generateDependencies(int v, SplittableRandom random, int[] deps) {
+        int n = numVertices;
+        int count = 0;
+        switch (family) {
+            case LAYERED_DAG: {
+                int width = Math.max(1, (int) Math.sqrt(n));
+                int layer = v / width;
+                if (layer > 0) {
+                    int prevStart = (layer - 1) * width;
+                    int want = Math.min(width, averageDegree);
+                    for (int i = 0; i < want; i++) {
+                        count = put(deps, count, prevStart + random.nextInt(width));
+                    }
+                }
+                break;
+            }
+            case SCALE_FREE: {
+                if (v > 0) {
+                    // Pareto-distributed degree with mean ~averageDegree, capped by v
+                    double u = 1.0 - random.nextDouble();
+                    double degree = averageDegree / 2.0 * Math.pow(u, -0.5);
+                    int cap = Math.min(v, MAX_DEGREE_FACTOR * Math.max(1, averageDegree));
+                    int want = (int) Math.min(cap, Math.max(1, degree));
+                    for (int i = 0; i < want; i++) {
+                        // Bias towards low ids so early vertices become hubs
+                        double r = random.nextDouble();
+                        count = put(deps, count, (int) (v * r * r * r));
+                    }
+                }
+                break;
+            }
+            case LONG_CHAIN: {
+                if (v > 0) {
+                    count = put(deps, count, v - 1);
+                    for (int i = 1; i < averageDegree && v > 1; i++) {
+                        int back = 2 + random.nextInt(Math.min(CHAIN_WINDOW, v - 1));
+                        count = put(deps, count, v - Math.min(back, v));
+                    }
+                }
+                break;
+            }
+            case SMALL_SCCS: {
+                int group = v / SMALL_SCC_SIZE;
+                int groupStart = group * SMALL_SCC_SIZE;
+                int groupEnd = Math.min(n, groupStart + SMALL_SCC_SIZE);
+                if (groupEnd - groupStart > 1) {
+                    count = put(deps, count, v == groupStart ? groupEnd - 1 : v - 1);
+                }
+                for (int i = 1; i < averageDegree && groupStart > 0; i++) {
+                    count = put(deps, count, random.nextInt(groupStart));
+                }
+                break;
+            }
+            case GIANT_SCC: {
+                if (n > 1) {
+                    count = put(deps, count, v == 0 ? n - 1 : v - 1);
+                }
+                for (int i = 1; i < averageDegree && n > 1; i++) {
+                    count = put(deps, count, random.nextInt(n));
+                }
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static int put(int[] deps, int count, int value) {
+        if (count < deps.length) {
+            deps[count] = value;
+        }
+        return count + 1;
+    }
+
+    private static int sortUnique(int[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || values[unique - 1] != values[i]) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Growable byte buffer with allocation-free ASCII and big-endian int encoding.
+     */
+    private static final class ByteSink {
+        byte[] bytes;
+        int length;
+
+        ByteSink(int capacity) {
+            bytes = new byte[Math.max(64, capacity)];
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        ByteSink appendAscii(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+
+        ByteSink appendDecimal(int value) {
+            ensure(11);
+            if (value < 0) {
+                bytes[length++] = '-';
+                value = -value;
+            }
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = tmp;
+            }
+            return this;
+        }
+
+        void appendInt32(int value) {
+            ensure(4);
+            bytes[length++] = (byte) (value >>> 24);
+            bytes[length++] = (byte) (value >>> 16);
+            bytes[length++] = (byte) (value >>> 8);
+            bytes[length++] = (byte) value;
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: ScalableGraphGenerator family vertices averageDegree output [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: ScalableGraphGenerator <family> <vertices> <avgDegree> <output> [seed]");
+            System.err.println("Families: " + Arrays.toString(Family.values()));
+            System.exit(1);
+        }
+        Family family = Family.valueOf(args[0].toUpperCase());
+        int vertices = Integer.parseInt(args[1]);
+        int degree = Integer.parseInt(args[2]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        long start = System.nanoTime();
+        long edges = new ScalableGraphGenerator(family, vertices, degree, seed).writeTo(args[3]);
+        System.out.printf("Generated %s: %d vertices, %d edges in %.1f s -> %s%n",
+            family, vertices, edges, (System.nanoTime() - start) / 1e9, args[3]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.daa.graph.util;
+
+/**
+ * Read-only graph whose edges are visited through a reusable cursor rather than as
+ * {@link Graph.Edge} objects, so the flat representations ({@link CsrGraph},
+ * {@link CompressedGraph}) can be traversed without allocating.
+ * <pre>
+ * StaticGraph.EdgeCursor cursor = graph.cursor();
+ * for (cursor.moveTo(v); cursor.next(); ) {
+ *     visit(cursor.target(), cursor.weight());
+ * }
+ * </pre>
+ */
+public interface StaticGraph {
+
+    int getNumVertices();
+
+    int getNumEdges();
+
+    /**
+     * Get the duration for a node.
+     * @param node vertex index
+     * @return duration
+     */
+    int getNodeDuration(int node);
+
+    /**
+     * Get the number of outgoing edges of a vertex.
+     * @param vertex vertex index
+     * @return out-degree
+     */
+    int getOutDegree(int vertex);
+
+    /**
+     * Create a cursor over outgoing edges. A cursor is not thread-safe; create one per thread.
+     * @return new cursor, positioned nowhere until {@link EdgeCursor#moveTo(int)}
+     */
+    EdgeCursor cursor();
+
+    /**
+     * Sequential iterator over the outgoing edges of one vertex at a time.
+     */
+    interface EdgeCursor {
+        /**
+         * Position the cursor before the first outgoing edge of a vertex.
+         * @param vertex vertex index
+         * @return this cursor
+         */
+        EdgeCursor moveTo(int vertex);
+
+        /**
+         * Advance to the next edge.
+         * @return false once the vertex has no more edges
+         */
+        boolean next();
+
+        /** @return destination of the current edge */
+        int target();
+
+        /** @return weight of the current edge */
+        int weight();
+    }
+}
@@ -5,13 +5,18 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
-import java.io.FileReader;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Loads a task graph from a JSON file.
+ * Loads a task graph from a JSON file (or a {@link BinaryGraphFormat} file).
  * Expected format:
  * {
  *   "tasks": [
@@ -19,6 +24,7 @@ import java.util.Map;
  *     ...
  *   ]
  * }
+ * Gzip- and zstd-compressed files are detected by their magic bytes and decompressed on the fly.
  */
 public class TaskGraphLoader {
     private static final Gson gson = new Gson();
@@ -31,7 +37,54 @@ public class TaskGraphLoader {
      * @throws IOException if file cannot be read
      */
     public static Graph loadGraph(String filePath) throws IOException {
-        JsonObject root = gson.fromJson(new FileReader(filePath), JsonObject.class);
+        return loadGraph(new FileInputStream(filePath));
+    }
+
+    /**
+     * Load a graph from a JSON or binary file, applying a duplicate-edge policy to
+     * dependencies that are listed more than once.
+     * @param filePath path to the file
+     * @param duplicatePolicy how to treat repeated dependencies
+     * @return Graph object
+     * @throws IOException if file cannot be read
+     */
+    public static Graph loadGraph(String filePath, Graph.DuplicateEdgePolicy duplicatePolicy) throws IOException {
+        return loadGraph(new FileInputStream(filePath), duplicatePolicy);
+    }
+
+    /**
+     * Load a graph from a JSON or {@link BinaryGraphFormat} stream, which may be
+     * gzip- or zstd-compressed.
+     * @param input input stream, closed once the graph has been read
+     * @return Graph object
+     * @throws IOException if the stream cannot be read
+     */
+    public static Graph loadGraph(InputStream input) throws IOException {
+        return loadGraph(input, Graph.DuplicateEdgePolicy.ALLOW);
+    }
+
+    /**
+     * Load a graph from a JSON or {@link BinaryGraphFormat} stream, which may be
+     * gzip- or zstd-compressed, applying a duplicate-edge policy.
+     * @param input input stream, closed once the graph has been read
+     * @param duplicatePolicy how to treat repeated dependencies
+     * @return Graph object
+     * @throws IOException if the stream cannot be read
+     */
+    public static Graph loadGraph(InputStream input, Graph.DuplicateEdgePolicy duplicatePolicy) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(GraphStreams.wrapInput(input));
+        byte[] header = new byte[4];
+        in.mark(header.length);
+        int length = in.readNBytes(header, 0, header.length);
+        in.reset();
+        if (BinaryGraphFormat.isBinaryGraph(header, length)) {
+            return BinaryGraphFormat.read(in, duplicatePolicy);
+        }
+
+        JsonObject root;
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            root = gson.fromJson(reader, JsonObject.class);
+        }
         JsonArray tasks = root.getAsJsonArray("tasks");
 
         // First pass: count vertices
@@ -48,7 +101,7 @@ public class TaskGraphLoader {
         }
 
         int numVertices = maxId + 1;
-        Graph graph = new Graph(numVertices);
+        GraphBuilder builder = new GraphBuilder(numVertices, tasks.size(), duplicatePolicy);
 
         // Second pass: set durations and add edges
         for (JsonElement taskElem : tasks) {
@@ -58,7 +111,7 @@ public class TaskGraphLoader {
             // Set node duration if provided
             if (task.has("duration")) {
                 int duration = task.get("duration").getAsInt();
-                graph.setNodeDuration(id, duration);
+                builder.setNodeDuration(id, duration);
             }
 
             // Add dependency edges
@@ -68,12 +121,12 @@ public class TaskGraphLoader {
                     int depId = depElem.getAsInt();
                     // Edge weight is the duration of the source node
                     int weight = task.has("duration") ? task.get("duration").getAsInt() : DEFAULT_EDGE_WEIGHT;
-                    graph.addEdge(depId, id, weight);
+                    builder.addEdge(depId, id, weight);
                 }
             }
         }
 
-        return graph;
+        return builder.build();
     }
 }
 
@@ -0,0 +1,179 @@
+package com.daa.graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Caller-owned scratch memory for the allocation-free algorithm variants
+ * ({@code findSCCs(Workspace)}, {@code kahnTopologicalSort(Workspace)},
+ * {@code shortestPathsFromSource(int, Workspace)}, {@code longestPaths(Workspace)}).
+ * Arrays grow to the largest graph seen and are then reused, so repeated queries
+ * allocate nothing. Instead of clearing "visited" marks or distances with
+ * {@code Arrays.fill}, entries are stamped with an epoch that is bumped per run:
+ * an entry whose stamp differs from the current epoch counts as unset.
+ * <p>
+ * A workspace is not thread-safe; keep one per thread. Results (component ids,
+ * orders, distances) live in the workspace and are overwritten by the next run
+ * that uses the same arrays.
+ */
+public final class Workspace {
+    private int[] stamps = new int[0];
+    private int[] distanceStamps = new int[0];
+    private int[] stack = new int[0];
+    private int[] callStack = new int[0];
+    private int[] edgePositions = new int[0];
+    private int[] index = new int[0];
+    private int[] lowLink = new int[0];
+    private int[] components = new int[0];
+    private int[] inDegree = new int[0];
+    private int[] order = new int[0];
+    private int[] distances = new int[0];
+    private int[] predecessors = new int[0];
+    private int epoch = 0;
+    private int distanceEpoch = 0;
+    private int componentCount = 0;
+    private int orderLength = 0;
+
+    /**
+     * Start a new visit: every mark from earlier visits becomes unset.
+     * @param n number of vertices
+     * @return epoch to stamp visited vertices with in {@link #stamps(int)}
+     */
+    public int nextEpoch(int n) {
+        stamps = grow(stamps, n);
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    /**
+     * Start a new distance computation: every distance from earlier runs becomes unset.
+     * @param n number of vertices
+     * @return epoch to stamp written distances with in {@link #distanceStamps(int)}
+     */
+    public int nextDistanceEpoch(int n) {
+        distanceStamps = grow(distanceStamps, n);
+        if (++distanceEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(distanceStamps, 0);
+            distanceEpoch = 1;
+        }
+        return distanceEpoch;
+    }
+
+    public int[] stamps(int n) {
+        return stamps = grow(stamps, n);
+    }
+
+    public int[] distanceStamps(int n) {
+        return distanceStamps = grow(distanceStamps, n);
+    }
+
+    public int[] stack(int n) {
+        return stack = grow(stack, n);
+    }
+
+    public int[] callStack(int n) {
+        return callStack = grow(callStack, n);
+    }
+
+    public int[] edgePositions(int n) {
+        return edgePositions = grow(edgePositions, n);
+    }
+
+    public int[] index(int n) {
+        return index = grow(index, n);
+    }
+
+    public int[] lowLink(int n) {
+        return lowLink = grow(lowLink, n);
+    }
+
+    public int[] components(int n) {
+        return components = grow(components, n);
+    }
+
+    public int[] inDegree(int n) {
+        return inDegree = grow(inDegree, n);
+    }
+
+    public int[] order(int n) {
+        return order = grow(order, n);
+    }
+
+    public int[] distances(int n) {
+        return distances = grow(distances, n);
+    }
+
+    public int[] predecessors(int n) {
+        return predecessors = grow(predecessors, n);
+    }
+
+    /**
+     * Record the number of components found by the last SCC run.
+     * @param count number of components
+     */
+    public void setComponentCount(int count) {
+        componentCount = count;
+    }
+
+    /**
+     * Record the length of the order written by the last topological sort.
+     * @param length number of vertices in {@link #order(int)}
+     */
+    public void setOrderLength(int length) {
+        orderLength = length;
+    }
+
+    /**
+     * Get the SCC of a vertex from the last SCC run.
+     * @param vertex vertex index
+     * @return component id
+     */
+    public int getComponent(int vertex) {
+        return components[vertex];
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Get one position of the last topological order.
+     * @param position position in the order
+     * @return vertex at that position
+     */
+    public int getOrder(int position) {
+        if (position >= orderLength) {
+            throw new IndexOutOfBoundsException("Position " + position + " beyond order length " + orderLength);
+        }
+        return order[position];
+    }
+
+    public int getOrderLength() {
+        return orderLength;
+    }
+
+    /**
+     * Get a distance from the last path computation.
+     * @param vertex vertex index
+     * @return distance, or Integer.MAX_VALUE if the vertex was not reached
+     */
+    public int getDistance(int vertex) {
+        return vertex < distanceStamps.length && distanceStamps[vertex] == distanceEpoch
+            ? distances[vertex] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Get a predecessor from the last path computation.
+     * @param vertex vertex index
+     * @return predecessor on the best path, or -1 for sources and unreached vertices
+     */
+    public int getPredecessor(int vertex) {
+        return getDistance(vertex) == Integer.MAX_VALUE ? -1 : predecessors[vertex];
+    }
+
+    private static int[] grow(int[] array, int n) {
+        return array.length >= n ? array : Arrays.copyOf(array, Math.max(n, array.length + (array.length >> 1)));
+    }
+}
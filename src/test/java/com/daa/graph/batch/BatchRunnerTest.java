@@ -0,0 +1,110 @@
+package com.daa.graph.batch;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.ScalableGraphGenerator;
+import com.daa.graph.util.TaskGraphLoader;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    private static JsonObject readResult(Path file) throws IOException {
+        return JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+    }
+
+    @Test
+    void testProcessesDirectory(@TempDir Path dir) throws Exception {
+        Path inputs = Files.createDirectory(dir.resolve("in"));
+        ScalableGraphGenerator.Family[] families = ScalableGraphGenerator.Family.values();
+        for (int i = 0; i < families.length; i++) {
+            String name = "g" + i + (i % 2 == 0 ? ".json" : ".bin.gz");
+            new ScalableGraphGenerator(families[i], 500 + 100 * i, 3, i).writeTo(inputs.resolve(name).toString());
+        }
+        Files.writeString(inputs.resolve("broken.json"), "{\"tasks\": [");
+
+        Path out = dir.resolve("out");
+        // A budget smaller than one graph still makes progress: graphs then run one at a time.
+        BatchRunner runner = new BatchRunner(2, 4096, out);
+        BatchRunner.Summary summary = runner.run(BatchRunner.listInputs(inputs));
+
+        assertEquals(families.length + 1, summary.graphs);
+        assertEquals(1, summary.failures);
+        assertTrue(readResult(out.resolve("broken.result.json")).has("error"));
+
+        for (int i = 0; i < families.length; i++) {
+            Path input = inputs.resolve("g" + i + (i % 2 == 0 ? ".json" : ".bin.gz"));
+            List<List<Integer>> expected = new StronglyConnectedComponents(
+                TaskGraphLoader.loadGraph(input.toString()), NoOpMetrics.INSTANCE).findSCCs();
+            JsonObject result = readResult(out.resolve("g" + i + ".result.json"));
+            assertEquals(500 + 100 * i, result.get("vertices").getAsInt());
+            assertEquals(expected.size(), result.get("sccCount").getAsInt());
+            assertEquals(expected.size(), result.getAsJsonArray("topologicalOrder").size());
+        }
+        assertEquals(families.length + 1, Files.readAllLines(out.resolve(BatchRunner.SUMMARY_FILE)).size());
+    }
+
+    @Test
+    void testManifest(@TempDir Path dir) throws Exception {
+        Path a = dir.resolve("a/graph.json");
+        Path b = dir.resolve("b/graph.json");
+        Files.createDirectories(a.getParent());
+        Files.createDirectories(b.getParent());
+        Files.writeString(a, "{\"tasks\":[{\"id\":0,\"duration\":2,\"dependencies\":[1]},{\"id\":1,\"duration\":3,\"dependencies\":[]}]}");
+        Files.writeString(b, "{\"tasks\":[{\"id\":0,\"duration\":4,\"dependencies\":[]}]}");
+        Path manifest = Files.writeString(dir.resolve("manifest.txt"), "# tenants\na/graph.json\n\nb/graph.json\n");
+
+        List<Path> inputs = BatchRunner.listInputs(manifest);
+        assertEquals(List.of(a, b), inputs);
+
+        Path out = dir.resolve("out");
+        BatchRunner.Summary summary = new BatchRunner(1, 1 << 20, out).run(inputs);
+        assertEquals(0, summary.failures);
+        // Same file name in two directories: the second result gets a suffix.
+        assertEquals(5, readResult(out.resolve("graph.result.json")).get("criticalPathLength").getAsInt());
+        assertEquals(4, readResult(out.resolve("graph-2.result.json")).get("criticalPathLength").getAsInt());
+    }
+
+    @Test
+    void testThreadCountDoesNotGrowWithBatch(@TempDir Path dir) throws Exception {
+        Path inputs = Files.createDirectory(dir.resolve("in"));
+        for (int i = 0; i < 200; i++) {
+            Files.writeString(inputs.resolve("g" + i + ".json"),
+                "{\"tasks\": [{\"id\": 0, \"duration\": 1, \"dependencies\": []}]}");
+        }
+        int before = Thread.activeCount();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                peak.accumulateAndGet(Thread.activeCount(), Math::max);
+                LockSupport.parkNanos(100_000);
+            }
+        });
+        sampler.start();
+        BatchRunner.Summary summary;
+        try {
+            summary = new BatchRunner(1, 1 << 20, dir.resolve("out")).run(BatchRunner.listInputs(inputs));
+        } finally {
+            done.set(true);
+            sampler.join();
+        }
+
+        assertEquals(200, summary.graphs);
+        assertEquals(0, summary.failures);
+        // One CPU thread, at most IO_TASKS_PER_CPU_THREAD I/O threads, the sampler and some slack.
+        assertTrue(peak.get() <= before + 1 + BatchRunner.IO_TASKS_PER_CPU_THREAD + 1 + 4, "peak " + peak.get());
+    }
+}
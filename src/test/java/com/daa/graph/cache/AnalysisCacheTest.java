@@ -0,0 +1,103 @@
+package com.daa.graph.cache;
+
+import com.daa.graph.util.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisCacheTest {
+
+    private static AnalysisCache.Entry sampleEntry() {
+        Graph condensation = new Graph(2);
+        condensation.setNodeDuration(0, 4);
+        condensation.setNodeDuration(1, 7);
+        condensation.addEdge(0, 1, 3);
+        return new AnalysisCache.Entry(new int[]{0, 0, 1}, new int[]{1, 0, 2}, 4, condensation, new int[]{0, 1});
+    }
+
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        Path input = Files.writeString(dir.resolve("graph.json"), "{\"tasks\":[]}");
+        AnalysisCache cache = new AnalysisCache(dir.resolve("cache"), 1 << 20);
+        String key = cache.keyFor(input.toString());
+
+        assertNull(cache.lookup(key));
+        cache.store(key, sampleEntry());
+        AnalysisCache.Entry entry = cache.lookup(key);
+
+        assertNotNull(entry);
+        assertArrayEquals(new int[]{0, 0, 1}, entry.vertexToScc);
+        assertEquals(List.of(List.of(1, 0), List.of(2)), entry.getSCCs());
+        assertEquals(3, entry.getNumVertices());
+        assertEquals(4, entry.numEdges);
+        assertEquals(7, entry.condensation.getNodeDuration(1));
+        assertTrue(entry.condensation.hasEdge(0, 1));
+        assertEquals(List.of(0, 1), entry.getTopologicalOrder());
+    }
+
+    @Test
+    void testCorruptEntriesAreDeletedAsMisses(@TempDir Path dir) throws IOException {
+        AnalysisCache cache = new AnalysisCache(dir.resolve("cache"), 1 << 20);
+        Path file = dir.resolve("cache").resolve("entry.analysis");
+        // Byte offsets in the sample entry: vertexToScc length, vertexToScc[0],
+        // members[0], first condensation edge source, first topological order value.
+        int[][] corruptions = {{8, Integer.MAX_VALUE}, {8, -1}, {12, 5}, {28, 3}, {60, 9}, {76, -2}};
+        for (int[] corruption : corruptions) {
+            cache.store("entry", sampleEntry());
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(corruption[0], corruption[1]);
+            Files.write(file, bytes);
+
+            assertNull(cache.lookup("entry"), "offset " + corruption[0]);
+            assertFalse(Files.exists(file));
+        }
+
+        cache.store("entry", sampleEntry());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 6));
+        assertNull(cache.lookup("entry"));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testKeyDependsOnContent(@TempDir Path dir) throws IOException {
+        AnalysisCache cache = new AnalysisCache(dir.resolve("cache"), 1 << 20);
+        Path a = Files.writeString(dir.resolve("a.json"), "{\"tasks\":[]}");
+        Path b = Files.writeString(dir.resolve("b.json"), "{\"tasks\":[]}");
+        Path c = Files.writeString(dir.resolve("c.json"), "{\"tasks\":[{\"id\":0}]}");
+
+        assertEquals(cache.keyFor(a.toString()), cache.keyFor(b.toString()));
+        assertNotEquals(cache.keyFor(a.toString()), cache.keyFor(c.toString()));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed(@TempDir Path dir) throws IOException {
+        Path cacheDir = dir.resolve("cache");
+        AnalysisCache probe = new AnalysisCache(cacheDir, Long.MAX_VALUE);
+        probe.store("probe", sampleEntry());
+        long entrySize = Files.size(cacheDir.resolve("probe.analysis"));
+        Files.delete(cacheDir.resolve("probe.analysis"));
+
+        AnalysisCache cache = new AnalysisCache(cacheDir, 2 * entrySize);
+        cache.store("old", sampleEntry());
+        cache.store("recent", sampleEntry());
+        Files.setLastModifiedTime(cacheDir.resolve("old.analysis"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(cacheDir.resolve("recent.analysis"), FileTime.fromMillis(2_000));
+        assertNotNull(cache.lookup("old"));
+
+        cache.store("newest", sampleEntry());
+
+        assertNotNull(cache.lookup("old"));
+        assertNull(cache.lookup("recent"));
+        assertNotNull(cache.lookup("newest"));
+    }
+}
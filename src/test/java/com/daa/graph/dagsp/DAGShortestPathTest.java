@@ -1,10 +1,14 @@
 package com.daa.graph.dagsp;
 
 import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
 import com.daa.graph.util.Metrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DAGShortestPathTest {
@@ -12,7 +16,7 @@ public class DAGShortestPathTest {
 
     @BeforeEach
     void setUp() {
-        metrics = new Metrics();
+        metrics = new BasicMetrics();
     }
 
     @Test
@@ -94,5 +98,170 @@ public class DAGShortestPathTest {
         assertTrue(path.contains(1));
         assertTrue(path.contains(2));
     }
-}
 
+    @Test
+    void testTargetedQueriesMatchFullSweeps() {
+        int n = 300;
+        Random random = new Random(5);
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n; v++) {
+            graph.setNodeDuration(v, 1 + random.nextInt(20));
+        }
+        for (int i = 0; i < 1500; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                graph.addEdge(Math.min(a, b), Math.max(a, b), 1 + random.nextInt(50));
+            }
+        }
+        DAGShortestPath dagsp = new DAGShortestPath(graph, metrics);
+        int[] longestEnding = dagsp.longestPaths();
+
+        for (int query = 0; query < 100; query++) {
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            int[] full = dagsp.shortestPathsFromSource(source);
+            DAGShortestPath.PathResult shortest = dagsp.shortestPath(source, target);
+            if (full[target] == Integer.MAX_VALUE) {
+                assertNull(shortest);
+                assertNull(dagsp.longestPath(source, target));
+                continue;
+            }
+            assertEquals(full[target], shortest.length);
+            assertEquals(full[target], weightOf(graph, shortest.path));
+
+            // Vertex ids are a topological order here, so a forward DP is the reference.
+            int[] best = new int[n];
+            Arrays.fill(best, Integer.MIN_VALUE);
+            best[source] = graph.getNodeDuration(source);
+            for (int u = source; u <= target; u++) {
+                if (best[u] == Integer.MIN_VALUE) {
+                    continue;
+                }
+                for (Graph.Edge edge : graph.getOutgoingEdges(u)) {
+                    best[edge.to] = Math.max(best[edge.to], best[u] + graph.getNodeDuration(edge.to));
+                }
+            }
+            DAGShortestPath.PathResult longest = dagsp.longestPath(source, target);
+            assertEquals(best[target], longest.length);
+            assertEquals(source, longest.path.get(0).intValue());
+            assertEquals(best[target], durationOf(graph, longest.path));
+
+            DAGShortestPath.PathResult chain = dagsp.longestPathTo(target);
+            assertEquals(longestEnding[target], chain.length);
+            assertEquals(target, chain.path.get(chain.path.size() - 1).intValue());
+            assertEquals(chain.length, durationOf(graph, chain.path));
+        }
+    }
+
+    @Test
+    void testTargetedQueryVisitsOnlyLocalCone() {
+        int n = 100_000;
+        Graph graph = new Graph(n);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 2);
+            graph.setNodeDuration(v, 1);
+        }
+        DAGShortestPath dagsp = new DAGShortestPath(graph, metrics);
+
+        DAGShortestPath.PathResult result = dagsp.shortestPath(50_000, 50_010);
+        assertEquals(20, result.length);
+        assertEquals(11, result.path.size());
+        assertEquals(11, dagsp.getLastQueryVisited());
+
+        assertNull(dagsp.shortestPath(50_010, 50_000));
+        assertEquals(0, dagsp.getLastQueryVisited());
+    }
+
+    @Test
+    void testParallelWavefrontMatchesSequential() {
+        int levels = 12;
+        int width = 5000;
+        int n = levels * width;
+        Random random = new Random(9);
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n; v++) {
+            graph.setNodeDuration(v, random.nextInt(4)); // small range: many ties
+        }
+        for (int level = 0; level + 1 < levels; level++) {
+            for (int i = 0; i < 3 * width; i++) {
+                int u = level * width + random.nextInt(width);
+                int v = (level + 1 + random.nextInt(Math.min(2, levels - level - 1))) * width + random.nextInt(width);
+                graph.addEdge(u, v, 1 + random.nextInt(3));
+            }
+        }
+
+        DAGShortestPath sequential = new DAGShortestPath(graph, metrics);
+        int[] longest = sequential.longestPaths();
+        long longestRelaxations = metrics.getRelaxations();
+        int[] shortest = sequential.shortestPathsFromSource(17);
+        long shortestRelaxations = metrics.getRelaxations();
+        assertTrue(shortestRelaxations < longestRelaxations); // most vertices are unreachable from 17
+        int criticalLength = sequential.findCriticalPath().length;
+
+        List<Integer> reference = null;
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Metrics parallelMetrics = new BasicMetrics();
+                DAGShortestPath parallel = new DAGShortestPath(graph, parallelMetrics);
+                parallel.setParallelPool(pool);
+                assertArrayEquals(shortest, parallel.shortestPathsFromSource(17));
+                assertEquals(shortestRelaxations, parallelMetrics.getRelaxations());
+                assertArrayEquals(longest, parallel.longestPaths());
+                assertEquals(longestRelaxations, parallelMetrics.getRelaxations());
+                // Each chosen predecessor is the smallest id among the optimal ones.
+                int[] smallest = new int[n];
+                Arrays.fill(smallest, -1);
+                for (Graph.Edge edge : graph.getEdges()) {
+                    int v = edge.to;
+                    if (longest[edge.from] + graph.getNodeDuration(v) == longest[v]
+                            && longest[v] != graph.getNodeDuration(v)
+                            && (smallest[v] == -1 || edge.from < smallest[v])) {
+                        smallest[v] = edge.from;
+                    }
+                }
+                for (int v = 0; v < n; v++) {
+                    List<Integer> path = parallel.reconstructPath(v);
+                    assertEquals(smallest[v], path.size() > 1 ? path.get(path.size() - 2) : -1);
+                }
+                DAGShortestPath.CriticalPathResult critical = parallel.findCriticalPath();
+                assertEquals(criticalLength, critical.length);
+                assertEquals(critical.length, durationOf(graph, critical.path));
+                if (reference == null) {
+                    reference = critical.path;
+                } else {
+                    assertEquals(reference, critical.path);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static int weightOf(Graph graph, List<Integer> path) {
+        int total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int best = Integer.MAX_VALUE;
+            for (Graph.Edge edge : graph.getOutgoingEdges(path.get(i))) {
+                if (edge.to == path.get(i + 1)) {
+                    best = Math.min(best, edge.weight);
+                }
+            }
+            assertNotEquals(Integer.MAX_VALUE, best);
+            total += best;
+        }
+        return total;
+    }
+
+    private static int durationOf(Graph graph, List<Integer> path) {
+        int total = 0;
+        for (int i = 0; i < path.size(); i++) {
+            if (i > 0) {
+                assertTrue(graph.hasEdge(path.get(i - 1), path.get(i)));
+            }
+            total += graph.getNodeDuration(path.get(i));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,103 @@
+package com.daa.graph.dagsp;
+
+import com.daa.graph.util.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleIndexTest {
+
+    @Test
+    void testEarliestStartSchedule() {
+        Graph graph = new Graph(4);
+        graph.setNodeDuration(0, 3);
+        graph.setNodeDuration(1, 2);
+        graph.setNodeDuration(2, 5);
+        graph.setNodeDuration(3, 1);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 3, 1);
+
+        ScheduleIndex index = ScheduleIndex.earliestStart(graph);
+        assertEquals(0, index.getStart(0));
+        assertEquals(3, index.getStart(2));
+        assertEquals(8, index.getStart(3));
+        assertEquals(9, index.getMakespan());
+
+        assertEquals(Set.of(0, 1, 2), new HashSet<>(index.runningAt(3)));
+        assertEquals(Set.of(2), new HashSet<>(index.runningAt(6)));
+        assertEquals(Set.of(2, 3), new HashSet<>(index.overlapping(7, 20)));
+        assertTrue(index.runningAt(10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.overlapping(5, 4));
+    }
+
+    @Test
+    void testQueriesMatchLinearScan() {
+        Random random = new Random(17);
+        int n = 2000;
+        int[] start = new int[n];
+        int[] finish = new int[n];
+        for (int v = 0; v < n; v++) {
+            start[v] = random.nextInt(10_000) - 500;
+            finish[v] = start[v] + (random.nextInt(10) == 0 ? 0 : random.nextInt(400));
+        }
+        ScheduleIndex index = new ScheduleIndex(start, finish);
+
+        for (int query = 0; query < 500; query++) {
+            int a = random.nextInt(11_000) - 1000;
+            int b = a + random.nextInt(300);
+            Set<Integer> running = new HashSet<>();
+            Set<Integer> overlapping = new HashSet<>();
+            for (int v = 0; v < n; v++) {
+                if (start[v] <= a && a <= finish[v]) {
+                    running.add(v);
+                }
+                if (start[v] <= b && finish[v] >= a) {
+                    overlapping.add(v);
+                }
+            }
+            List<Integer> stab = index.runningAt(a);
+            List<Integer> window = index.overlapping(a, b);
+            assertEquals(running.size(), stab.size());
+            assertEquals(running, new HashSet<>(stab));
+            assertEquals(overlapping.size(), window.size());
+            assertEquals(overlapping, new HashSet<>(window));
+        }
+    }
+
+    @Test
+    void testConcurrentReaders() throws Exception {
+        int n = 5000;
+        int[] start = new int[n];
+        int[] finish = new int[n];
+        for (int v = 0; v < n; v++) {
+            start[v] = v;
+            finish[v] = v + 9;
+        }
+        ScheduleIndex index = new ScheduleIndex(start, finish);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    for (int time = 9; time < n - 1; time++) {
+                        if (index.runningAt(time).size() != 10 || index.overlapping(time, time + 1).size() != 11) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
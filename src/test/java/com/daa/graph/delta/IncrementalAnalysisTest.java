@@ -0,0 +1,141 @@
+package com.daa.graph.delta;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
+import com.daa.graph.util.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalAnalysisTest {
+
+    private static Set<Set<Integer>> partition(List<List<Integer>> sccs) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            result.add(new HashSet<>(scc));
+        }
+        return result;
+    }
+
+    private static void assertMatchesFullRecompute(IncrementalAnalysis analysis) {
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(analysis.getGraph(), new BasicMetrics());
+        List<List<Integer>> expected = scc.findSCCs();
+        assertEquals(partition(expected), partition(analysis.getSCCs()));
+
+        Graph condensation = scc.buildCondensationGraph();
+        DAGShortestPath dagsp = new DAGShortestPath(condensation, new BasicMetrics());
+        int expectedLength = condensation.getNumVertices() == 0 ? 0 : dagsp.findCriticalPath().length;
+        assertEquals(expectedLength, analysis.getCriticalPath().length);
+    }
+
+    @Test
+    void testDuplicateDependencyOnDedupGraph() {
+        Graph graph = new Graph(3, Graph.DuplicateEdgePolicy.KEEP_FIRST);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        DeltaApplier applier = new DeltaApplier(graph);
+
+        DeltaApplier.AppliedDelta applied = applier.apply(new GraphDelta().addDependency(1, 0));
+        assertTrue(applied.isEmpty());
+        assertEquals(List.of(0), applier.getDependencies(1));
+
+        // Reweighting must touch only the one edge the graph holds.
+        applier.apply(new GraphDelta().setDuration(1, 5));
+        assertEquals(2, graph.getNumEdges());
+        assertEquals(1, graph.getOutgoingEdges(0).size());
+        assertEquals(5, graph.getOutgoingEdges(0).get(0).weight);
+    }
+
+    @Test
+    void testAddedEdgeClosesCycle() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        IncrementalAnalysis analysis = new IncrementalAnalysis(graph);
+        assertEquals(4, analysis.getSccCount());
+
+        analysis.apply(new GraphDelta().addDependency(0, 2));
+
+        assertEquals(2, analysis.getSccCount());
+        assertEquals(analysis.getSccId(0), analysis.getSccId(2));
+        assertEquals(3, analysis.getLastRecomputedSccs());
+        assertMatchesFullRecompute(analysis);
+    }
+
+    @Test
+    void testRemovedEdgeSplitsCycle() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        IncrementalAnalysis analysis = new IncrementalAnalysis(graph);
+        assertEquals(1, analysis.getSccCount());
+
+        analysis.apply(new GraphDelta().removeDependency(0, 2));
+
+        assertEquals(3, analysis.getSccCount());
+        assertMatchesFullRecompute(analysis);
+    }
+
+    @Test
+    void testDurationChangeOnlyRelaxesDownstream() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(3, 4, 1);
+        IncrementalAnalysis analysis = new IncrementalAnalysis(graph);
+
+        analysis.apply(new GraphDelta().setDuration(1, 10));
+
+        assertEquals(0, analysis.getLastRecomputedSccs());
+        assertEquals(2, analysis.getLastRelaxedSccs());
+        assertEquals(12, analysis.getCriticalPath().length);
+        assertEquals(10, graph.getOutgoingEdges(0).get(0).weight);
+    }
+
+    @Test
+    void testRandomDeltasMatchFullRecompute() {
+        Random random = new Random(7);
+        int n = 60;
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n; v++) {
+            graph.setNodeDuration(v, random.nextInt(10) + 1);
+        }
+        for (int i = 0; i < 80; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            graph.addEdge(Math.min(a, b), Math.max(a, b), 1);
+        }
+        IncrementalAnalysis analysis = new IncrementalAnalysis(graph);
+        assertMatchesFullRecompute(analysis);
+
+        for (int round = 0; round < 100; round++) {
+            GraphDelta delta = new GraphDelta();
+            for (int i = 0; i < 3; i++) {
+                int task = random.nextInt(n);
+                int dependency = random.nextInt(n);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        delta.addDependency(task, dependency);
+                        break;
+                    case 1:
+                        List<Graph.Edge> edges = graph.getEdges();
+                        if (!edges.isEmpty()) {
+                            Graph.Edge edge = edges.get(random.nextInt(edges.size()));
+                            delta.removeDependency(edge.to, edge.from);
+                        }
+                        break;
+                    default:
+                        delta.setDuration(task, random.nextInt(10) + 1);
+                }
+            }
+            analysis.apply(delta);
+            assertMatchesFullRecompute(analysis);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.daa.graph.external;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.BinaryGraphFormat;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemiExternalSccTest {
+
+    @Test
+    void testMatchesInMemorySccWithSmallBuffer(@TempDir Path dir) throws IOException {
+        Random random = new Random(23);
+        for (int trial = 0; trial < 6; trial++) {
+            int n = 300;
+            Graph graph = new Graph(n);
+            for (int i = 0; i < 500; i++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                // Mostly forward edges, so the graph mixes large SCCs with DAG parts.
+                graph.addEdge(Math.min(u, v), Math.max(u, v), 1);
+                if (random.nextInt(8) == 0) {
+                    graph.addEdge(Math.max(u, v), Math.min(u, v), 1);
+                }
+            }
+            EdgeFile file = EdgeFile.write(graph, dir.resolve("graph" + trial + ".edges"));
+
+            SemiExternalScc scc = new SemiExternalScc(file, 64);
+            int count = scc.run();
+            assertSamePartition(graph, scc, count);
+            assertFalse(scc.getPasses().isEmpty());
+            for (IoPass pass : scc.getPasses()) {
+                assertTrue(pass.bytesRead <= 12L * pass.edgesScanned);
+            }
+        }
+        // Scratch files are cleaned up.
+        try (var files = Files.list(dir)) {
+            assertEquals(6, files.count());
+        }
+    }
+
+    @Test
+    void testCyclesSpanningBuffersUseColoring(@TempDir Path dir) throws IOException {
+        // One big cycle whose edges are written far apart: no buffer ever holds a cycle.
+        int n = 200;
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n; v += 2) {
+            graph.addEdge(v, (v + 1) % n, 1);
+        }
+        for (int v = 1; v < n; v += 2) {
+            graph.addEdge(v, (v + 1) % n, 1);
+        }
+        EdgeFile file = EdgeFile.write(graph, dir.resolve("cycle.edges"));
+
+        SemiExternalScc scc = new SemiExternalScc(file, 16);
+        assertEquals(1, scc.run());
+        assertTrue(scc.getPasses().stream().anyMatch(pass -> pass.phase.startsWith("scc color")));
+    }
+
+    @Test
+    void testCondensationSortsExternally(@TempDir Path dir) throws IOException {
+        Graph graph = new Graph(6);
+        graph.setNodeDuration(0, 2);
+        graph.setNodeDuration(1, 7);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 2, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(5, 0, 1);
+        Path tasks = dir.resolve("tasks.bin");
+        BinaryGraphFormat.write(graph, tasks.toString());
+        EdgeFile file;
+        try (InputStream in = Files.newInputStream(tasks)) {
+            file = EdgeFile.fromTaskGraph(in, dir.resolve("tasks.edges"));
+        }
+        assertEquals(6, file.getNumVertices());
+        assertEquals(7, file.getNumEdges());
+        assertEquals(7, file.readDurations()[1]);
+
+        SemiExternalScc scc = new SemiExternalScc(file, 2);
+        assertEquals(4, scc.run());
+        EdgeFile condensation = scc.writeCondensation(dir.resolve("condensation.edges"));
+        assertEquals(4, condensation.getNumVertices());
+        assertEquals(7, condensation.readDurations()[scc.getComponent(0)]);
+
+        int[] order = new SemiExternalTopologicalSort(condensation, 2).sort();
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            int u = scc.getComponent(edge.from);
+            int v = scc.getComponent(edge.to);
+            assertTrue(u == v || position[u] < position[v]);
+        }
+    }
+
+    private static void assertSamePartition(Graph graph, SemiExternalScc scc, int count) {
+        List<List<Integer>> expected = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE).findSCCs();
+        assertEquals(expected.size(), count);
+        Set<Integer> seen = new HashSet<>();
+        for (List<Integer> component : expected) {
+            int id = scc.getComponent(component.get(0));
+            assertTrue(seen.add(id));
+            for (int v : component) {
+                assertEquals(id, scc.getComponent(v));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.daa.graph.external;
+
+import com.daa.graph.util.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemiExternalTopologicalSortTest {
+
+    @Test
+    void testSortsRandomDagWithSmallBuffer(@TempDir Path dir) throws IOException {
+        int n = 500;
+        Random random = new Random(31);
+        int[] label = new int[n];
+        for (int v = 0; v < n; v++) {
+            label[v] = v;
+        }
+        for (int v = n - 1; v > 0; v--) {
+            int j = random.nextInt(v + 1);
+            int swap = label[v];
+            label[v] = label[j];
+            label[j] = swap;
+        }
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 3000; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a != b) {
+                graph.addEdge(label[Math.min(a, b)], label[Math.max(a, b)], 1);
+            }
+        }
+        EdgeFile file = EdgeFile.write(graph, dir.resolve("dag.edges"));
+
+        SemiExternalTopologicalSort sort = new SemiExternalTopologicalSort(file, 100);
+        int[] order = sort.sort();
+        assertEquals(n, order.length);
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            assertEquals(-1, position[order[i]]);
+            position[order[i]] = i;
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            assertTrue(position[edge.from] < position[edge.to]);
+            assertTrue(sort.getLevel(edge.from) < sort.getLevel(edge.to));
+        }
+
+        // Later passes read only the live edges once most of the graph is placed.
+        List<IoPass> passes = sort.getPasses();
+        IoPass last = passes.get(passes.size() - 1);
+        assertTrue(last.bytesRead < passes.get(0).bytesRead);
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testCycleIsRejected(@TempDir Path dir) throws IOException {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+        EdgeFile file = EdgeFile.write(graph, dir.resolve("cycle.edges"));
+
+        assertThrows(IllegalArgumentException.class, () -> new SemiExternalTopologicalSort(file, 2).sort());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.daa.graph.output;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultWriterTest {
+    private static final int LARGE = 100_000;
+
+    private static byte[] write(ResultWriter.Format format, ResultWriter.Verbosity verbosity) throws IOException {
+        List<List<Integer>> sccs = new ArrayList<>();
+        sccs.add(List.of(0, 2));
+        sccs.add(List.of(1));
+        List<Integer> bigScc = new ArrayList<>();
+        for (int v = 3; v < LARGE; v++) {
+            bigScc.add(v);
+        }
+        sccs.add(bigScc);
+        int[] distances = {0, Integer.MAX_VALUE, -7};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ResultWriter writer = ResultWriter.create(Channels.newChannel(bytes), format, verbosity)) {
+            writer.beginGraph("g \"1\"", LARGE, 12);
+            writer.writeSccs(sccs);
+            writer.writeTopologicalOrder(List.of(2, 0, 1));
+            writer.writeVertexOrder(List.of(1, 0), sccs);
+            writer.writeDistances("shortest", 0, distances);
+            writer.writeCriticalPath(new DAGShortestPath.CriticalPathResult(List.of(2, 0), 42));
+            writer.endGraph();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<JsonObject> parseLines(byte[] bytes) {
+        List<JsonObject> records = new ArrayList<>();
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+            records.add(JsonParser.parseString(line).getAsJsonObject());
+        }
+        return records;
+    }
+
+    @Test
+    void testJsonLinesFull() throws IOException {
+        List<JsonObject> records = parseLines(write(ResultWriter.Format.JSONL, ResultWriter.Verbosity.FULL));
+
+        assertEquals(9, records.size());
+        assertEquals("g \"1\"", records.get(0).get("name").getAsString());
+        JsonArray bigMembers = records.get(3).getAsJsonArray("members");
+        assertEquals(LARGE - 3, bigMembers.size());
+        assertEquals(LARGE - 1, bigMembers.get(bigMembers.size() - 1).getAsInt());
+        assertEquals("[2,0,1]", records.get(4).get("order").toString());
+        assertEquals("[1,0,2]", records.get(5).get("order").toString());
+        assertEquals("[0,null,-7]", records.get(6).get("values").toString());
+        assertEquals(42, records.get(7).get("length").getAsInt());
+        assertEquals("end", records.get(8).get("type").getAsString());
+    }
+
+    @Test
+    void testVerbosityLevels() throws IOException {
+        List<JsonObject> summary = parseLines(write(ResultWriter.Format.JSONL, ResultWriter.Verbosity.SUMMARY));
+        assertEquals(4, summary.size());
+        assertEquals(3, summary.get(1).get("count").getAsInt());
+        assertEquals(LARGE - 3, summary.get(1).get("largest").getAsInt());
+        assertFalse(summary.get(2).has("path"));
+
+        List<JsonObject> components = parseLines(write(ResultWriter.Format.JSONL, ResultWriter.Verbosity.COMPONENTS));
+        // graph, 3 SCCs, SCC order, critical path, end: no vertex order or distances.
+        assertEquals(7, components.size());
+        assertEquals("[2,0]", components.get(5).get("path").toString());
+    }
+
+    @Test
+    void testBinary() throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+            write(ResultWriter.Format.BINARY, ResultWriter.Verbosity.FULL)));
+
+        assertEquals(BinaryResultWriter.MAGIC, in.readInt());
+        assertEquals(BinaryResultWriter.VERSION, in.readInt());
+        assertEquals(BinaryResultWriter.GRAPH, in.readByte());
+        byte[] name = new byte[in.readInt()];
+        in.readFully(name);
+        assertEquals("g \"1\"", new String(name, StandardCharsets.UTF_8));
+        assertEquals(LARGE, in.readInt());
+        assertEquals(12, in.readLong());
+
+        for (int id = 0; id < 3; id++) {
+            assertEquals(BinaryResultWriter.SCC, in.readByte());
+            assertEquals(id, in.readInt());
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                in.readInt();
+            }
+        }
+        assertEquals(BinaryResultWriter.ORDER, in.readByte());
+        assertEquals(0, in.readByte());
+        assertEquals(3, in.readInt());
+        assertEquals(2, in.readInt());
+        in.skipBytes(8);
+        assertEquals(BinaryResultWriter.ORDER, in.readByte());
+        assertEquals(1, in.readByte());
+        assertEquals(3, in.readInt());
+        in.skipBytes(12);
+        assertEquals(BinaryResultWriter.DISTANCES, in.readByte());
+        assertEquals(0, in.readByte());
+        assertEquals(0, in.readInt());
+        assertEquals(3, in.readInt());
+        assertEquals(0, in.readInt());
+        assertEquals(Integer.MAX_VALUE, in.readInt());
+        assertEquals(-7, in.readInt());
+        assertEquals(BinaryResultWriter.CRITICAL_PATH, in.readByte());
+        assertEquals(42, in.readInt());
+        assertEquals(2, in.readInt());
+        in.skipBytes(8);
+        assertEquals(BinaryResultWriter.END, in.readByte());
+        assertEquals(-1, in.read());
+    }
+}
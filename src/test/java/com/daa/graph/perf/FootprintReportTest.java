@@ -0,0 +1,97 @@
+package com.daa.graph.perf;
+
+import com.daa.graph.util.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class FootprintReportTest {
+
+    @Test
+    void testPrimitiveArrays() {
+        assertEquals(16, ObjectSizeEstimator.sizeOf(new int[0]));
+        assertEquals(56, ObjectSizeEstimator.sizeOf(new int[10]));
+        assertEquals(24, ObjectSizeEstimator.sizeOf(new byte[5]));
+        assertEquals(96, ObjectSizeEstimator.sizeOf(new long[10]));
+    }
+
+    @Test
+    void testListOfEdges() {
+        List<Graph.Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            edges.add(new Graph.Edge(0, i, 1));
+        }
+        // ArrayList (24) + Object[10] (56) + 3 edges of 3 ints each (24).
+        assertEquals(24 + 56 + 3 * 24, ObjectSizeEstimator.sizeOf(edges));
+
+        // The same edge reached twice is counted once.
+        edges.add(edges.get(0));
+        assertEquals(24 + 56 + 3 * 24, ObjectSizeEstimator.sizeOf(edges));
+    }
+
+    @Test
+    void testPresizedListUsesItsRealCapacity() {
+        assumeTrue(ObjectSizeEstimator.isArrayListCapacityExact());
+        List<Graph.Edge> edges = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            edges.add(new Graph.Edge(0, i, 1));
+        }
+        // ArrayList (24) + Object[3] (32) + 3 edges, not the Object[10] of a grown list.
+        assertEquals(24 + 32 + 3 * 24, ObjectSizeEstimator.sizeOf(edges));
+
+        List<Graph.Edge> oversized = new ArrayList<>(100);
+        oversized.addAll(edges);
+        assertEquals(24 + 416 + 3 * 24, ObjectSizeEstimator.sizeOf(oversized));
+    }
+
+    @Test
+    void testBoxedIntegers() {
+        Map<Integer, Integer> small = new HashMap<>();
+        Map<Integer, Integer> large = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            small.put(i, i);
+            large.put(1000 + i, 1000 + i);
+        }
+        // Cached Integers are free; others cost 16 bytes each for key and value.
+        assertEquals(ObjectSizeEstimator.sizeOf(small) + 20 * 16, ObjectSizeEstimator.sizeOf(large));
+    }
+
+    @Test
+    void testGraphBreakdownAddsUp() {
+        Graph graph = new Graph(200);
+        for (int v = 1; v < 200; v++) {
+            graph.addEdge(v - 1, v, 1);
+            graph.addEdge(v / 2, v, 1);
+        }
+
+        Map<String, Long> parts = ObjectSizeEstimator.breakdown(graph);
+        long sum = parts.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(ObjectSizeEstimator.sizeOf(graph), sum);
+        // Edge objects are shared with the flat list but attributed to the adjacency lists.
+        assertTrue(parts.get("adjacencyList") > parts.get("edges"));
+    }
+
+    @Test
+    void testForGraph() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+
+        FootprintReport report = FootprintReport.forGraph(graph);
+        FootprintReport.Row whole = report.getRow("Graph");
+        assertEquals(4, whole.vertices);
+        assertEquals(4, whole.edges);
+        assertEquals(whole.bytes / 4.0, whole.getBytesPerEdge(), 1e-9);
+        assertEquals(3, report.getRow("Condensation graph").vertices);
+        assertEquals(32, report.getRow("SCC assignment (int[])").bytes);
+        assertTrue(report.toString().contains("Condensation graph"));
+    }
+}
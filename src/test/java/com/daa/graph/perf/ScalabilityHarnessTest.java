@@ -0,0 +1,101 @@
+package com.daa.graph.perf;
+
+import com.daa.graph.util.ScalableGraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScalabilityHarnessTest {
+
+    private static ScalingReport report(String stage, long... nanos) {
+        List<ScalingReport.Measurement> measurements = new ArrayList<>();
+        for (int i = 0; i < nanos.length; i++) {
+            int vertices = 1000 << i;
+            measurements.add(new ScalingReport.Measurement(vertices, 4L * vertices, nanos[i]));
+        }
+        return new ScalingReport("TEST", List.of(new ScalingReport.StageResult(stage, measurements)));
+    }
+
+    @Test
+    void testFitExponent() {
+        double[] sizes = {1e3, 1e4, 1e5, 1e6};
+        assertEquals(1.0, ScalingReport.fitExponent(sizes, new double[]{2e3, 2e4, 2e5, 2e6}), 1e-9);
+        assertEquals(2.0, ScalingReport.fitExponent(sizes, new double[]{1e6, 1e8, 1e10, 1e12}), 1e-9);
+        assertTrue(Double.isNaN(ScalingReport.fitExponent(new double[]{5}, new double[]{7})));
+    }
+
+    @Test
+    void testCheckExponents() {
+        assertTrue(report("linear", 1_000_000, 2_000_000, 4_000_000).checkExponents(1.3).isEmpty());
+
+        List<String> violations = report("quadratic", 1_000_000, 4_000_000, 16_000_000).checkExponents(1.3);
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).startsWith("quadratic"));
+    }
+
+    @Test
+    void testFlatInputHasNoExponent() {
+        // A condensation that stays the same size while its time grows must not fail the check.
+        List<ScalingReport.Measurement> measurements = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            measurements.add(new ScalingReport.Measurement(10 + i, 12, 1_000L << (2 * i)));
+        }
+        ScalingReport report = new ScalingReport("TEST",
+            List.of(new ScalingReport.StageResult("TOPO", measurements)));
+
+        assertTrue(Double.isNaN(report.getStage("TOPO").getExponent()));
+        assertTrue(report.checkExponents(1.3).isEmpty());
+        assertTrue(report.toString().contains("exponent=  n/a"));
+    }
+
+    @Test
+    void testBaselineRoundTripAndRegression() throws IOException {
+        ScalingReport baseline = report("SCC", 1_000_000, 2_000_000, 4_000_000);
+        StringWriter json = new StringWriter();
+        baseline.writeJson(json);
+        ScalingReport stored = ScalingReport.readBaseline(new StringReader(json.toString()));
+
+        assertEquals(3, stored.getStage("SCC").measurements.size());
+        assertEquals(baseline.getStage("SCC").getThroughput(), stored.getStage("SCC").getThroughput(), 1e-6);
+
+        assertTrue(report("SCC", 1_000_000, 2_000_000, 4_400_000).checkBaseline(stored, 0.2).isEmpty());
+        assertEquals(1, report("SCC", 1_000_000, 2_000_000, 6_000_000).checkBaseline(stored, 0.2).size());
+        // Stages absent from the baseline are not compared.
+        assertTrue(report("TOPO", 9_000_000, 9_000_000, 9_000_000).checkBaseline(stored, 0.2).isEmpty());
+    }
+
+    @Test
+    void testRunMeasuresEveryStage() throws IOException {
+        ScalabilityHarness harness = new ScalabilityHarness(
+            ScalableGraphGenerator.Family.SMALL_SCCS, 200, 3, 2, 3, 1);
+        ScalingReport result = harness.run();
+
+        assertEquals(ScalabilityHarness.Stage.values().length, result.getStages().size());
+        for (ScalingReport.StageResult stage : result.getStages()) {
+            assertEquals(3, stage.measurements.size());
+        }
+        ScalingReport.StageResult scc = result.getStage("SCC");
+        assertEquals(200, scc.measurements.get(0).vertices);
+        assertEquals(800, scc.measurements.get(2).vertices);
+        // Later stages run on the condensation, which is smaller than the input.
+        assertTrue(result.getStage("TOPO").measurements.get(2).vertices < 800);
+
+        StringWriter csv = new StringWriter();
+        result.writeCsv(csv);
+        assertEquals(1 + 3 * ScalabilityHarness.Stage.values().length, csv.toString().split("\n").length);
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalabilityHarness(
+            ScalableGraphGenerator.Family.LAYERED_DAG, 100, 1, 2, 4, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ScalabilityHarness(
+            ScalableGraphGenerator.Family.LAYERED_DAG, 100, 3, 1, 4, 1));
+    }
+}
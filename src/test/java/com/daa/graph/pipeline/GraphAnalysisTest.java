@@ -0,0 +1,132 @@
+package com.daa.graph.pipeline;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphAnalysisTest {
+
+    /** Cycle 0-1-2, then 2 -> 3 -> 4 and 2 -> 4. */
+    private static Graph sampleGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 2);
+        graph.addEdge(3, 4, 2);
+        graph.addEdge(2, 4, 7);
+        for (int v = 0; v < 5; v++) {
+            graph.setNodeDuration(v, v + 1);
+        }
+        return graph;
+    }
+
+    @Test
+    void testArtifactsComputedOnce() {
+        GraphAnalysis analysis = new GraphAnalysis(sampleGraph());
+
+        assertEquals(3, analysis.getSCCs().size());
+        assertEquals(analysis.getComponentOf(0), analysis.getComponentOf(2));
+        int source = analysis.getTopologicalOrder().get(0);
+        analysis.getShortestDistances(source);
+        analysis.getShortestDistances(source);
+        analysis.getCriticalPath();
+        analysis.getLongestDistances();
+        analysis.getVertexOrder();
+        analysis.getCondensation();
+
+        for (GraphAnalysis.Artifact artifact : GraphAnalysis.Artifact.values()) {
+            assertEquals(1, analysis.getComputationCount(artifact), artifact.name());
+        }
+    }
+
+    @Test
+    void testResultsMatchDirectComputation() {
+        Graph graph = sampleGraph();
+        GraphAnalysis analysis = new GraphAnalysis(graph);
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        Graph condensation = scc.buildCondensationGraph();
+        DAGShortestPath paths = new DAGShortestPath(condensation, NoOpMetrics.INSTANCE);
+        DAGShortestPath.CriticalPathResult expected = paths.findCriticalPath();
+
+        assertEquals(expected.length, analysis.getCriticalPath().length);
+        assertEquals(expected.path, analysis.getCriticalPath().path);
+        assertArrayEquals(paths.getDistances(), analysis.getLongestDistances());
+        int source = analysis.getTopologicalOrder().get(0);
+        assertArrayEquals(new DAGShortestPath(condensation, NoOpMetrics.INSTANCE).shortestPathsFromSource(source),
+            analysis.getShortestDistances(source));
+    }
+
+    @Test
+    void testInvalidatedByGraphVersion() {
+        Graph graph = sampleGraph();
+        GraphAnalysis analysis = new GraphAnalysis(graph);
+        assertEquals(3, analysis.getSCCs().size());
+        int lengthBefore = analysis.getCriticalPath().length;
+
+        graph.addEdge(4, 0, 1);
+        assertEquals(1, analysis.getSCCs().size());
+        assertEquals(2, analysis.getComputationCount(GraphAnalysis.Artifact.SCCS));
+        assertEquals(1, analysis.getCondensation().getNumVertices());
+
+        graph.setNodeDuration(4, 100);
+        assertTrue(analysis.getCriticalPath().length > lengthBefore);
+        assertEquals(100, analysis.getCriticalPath().length);
+    }
+
+    @Test
+    void testParallelPaths() throws Exception {
+        GraphAnalysis analysis = new GraphAnalysis(sampleGraph());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            int source = new GraphAnalysis(sampleGraph()).getTopologicalOrder().get(0);
+            analysis.computePathsAsync(source, executor).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, analysis.getComputationCount(GraphAnalysis.Artifact.TOPOLOGICAL_ORDER));
+        assertEquals(1, analysis.getComputationCount(GraphAnalysis.Artifact.SHORTEST_DISTANCES));
+        assertEquals(1, analysis.getComputationCount(GraphAnalysis.Artifact.LONGEST_DISTANCES));
+        assertEquals(List.of(0, 1, 2), analysis.getCriticalPath().path);
+    }
+
+    @Test
+    void testDeepGraphOnCommonPool() throws Exception {
+        // Deep enough to overflow a default-size stack under a recursive DFS.
+        int n = 300_000;
+        Graph graph = new Graph(n);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        graph.addEdge(n - 1, n - 3, 1);
+        GraphAnalysis analysis = new GraphAnalysis(graph);
+
+        analysis.computePathsAsync(0).get();
+
+        assertEquals(n - 2, analysis.getSCCs().size());
+        assertEquals(n - 2, analysis.getCriticalPath().path.size());
+    }
+
+    @Test
+    void testCyclicTopologicalSortNotCached() {
+        Graph cyclic = new Graph(2);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 0, 1);
+        TopologicalSort sort = new TopologicalSort(cyclic, NoOpMetrics.INSTANCE);
+
+        assertThrows(IllegalArgumentException.class, sort::kahnTopologicalSort);
+        // A failed sort leaves no partial order behind.
+        assertThrows(IllegalArgumentException.class, sort::getTopologicalOrder);
+    }
+}
@@ -0,0 +1,112 @@
+package com.daa.graph.reorder;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import com.daa.graph.util.ScalableGraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelabelingTest {
+
+    /** A chain whose ids have been shuffled. */
+    private static Graph shuffledChain(int n) {
+        List<Integer> ids = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            ids.add(v);
+        }
+        Collections.shuffle(ids, new Random(1));
+        Graph graph = new Graph(n);
+        for (int i = 1; i < n; i++) {
+            graph.addEdge(ids.get(i - 1), ids.get(i), 1);
+        }
+        return graph;
+    }
+
+    private static int bandwidth(Graph graph) {
+        int max = 0;
+        for (Graph.Edge edge : graph.getEdges()) {
+            max = Math.max(max, Math.abs(edge.from - edge.to));
+        }
+        return max;
+    }
+
+    @Test
+    void testResultsMapBack() throws IOException {
+        for (ScalableGraphGenerator.Family family : ScalableGraphGenerator.Family.values()) {
+            Graph graph = new ScalableGraphGenerator(family, 2_000, 4, 9L).toGraph();
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+            List<List<Integer>> sccs = scc.findSCCs();
+            Graph condensation = scc.buildCondensationGraph();
+            int[] longest = new DAGShortestPath(condensation, NoOpMetrics.INSTANCE).longestPaths();
+
+            for (Relabeling.Strategy strategy : Relabeling.Strategy.values()) {
+                String label = family + "/" + strategy;
+                Relabeling relabeling = Relabeling.of(graph, strategy);
+                Graph relabeled = relabeling.getGraph();
+                assertEquals(graph.getEdges().size(), relabeled.getEdges().size(), label);
+                for (int v = 0; v < graph.getNumVertices(); v++) {
+                    assertEquals(v, relabeling.toOld(relabeling.toNew(v)), label);
+                    assertEquals(graph.getNodeDuration(v), relabeled.getNodeDuration(relabeling.toNew(v)), label);
+                }
+
+                StronglyConnectedComponents relabeledScc = new StronglyConnectedComponents(relabeled, NoOpMetrics.INSTANCE);
+                Set<Set<Integer>> expected = new HashSet<>();
+                for (List<Integer> component : sccs) {
+                    expected.add(new HashSet<>(component));
+                }
+                Set<Set<Integer>> actual = new HashSet<>();
+                for (List<Integer> component : relabeling.mapBackComponents(relabeledScc.findSCCs())) {
+                    actual.add(new HashSet<>(component));
+                }
+                assertEquals(expected, actual, label);
+
+                // Per-vertex longest paths agree once both are expanded to original vertices.
+                Graph relabeledCondensation = relabeledScc.buildCondensationGraph();
+                int[] relabeledLongest = new DAGShortestPath(relabeledCondensation, NoOpMetrics.INSTANCE).longestPaths();
+                Map<Integer, Integer> vertexToScc = relabeling.mapBackVertexToScc(relabeledScc.getVertexToScc());
+                for (int v = 0; v < graph.getNumVertices(); v++) {
+                    assertEquals(longest[scc.getVertexToScc().get(v)], relabeledLongest[vertexToScc.get(v)], label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testTopologicalIdsIncreaseAlongEdges() throws IOException {
+        Graph dag = new ScalableGraphGenerator(ScalableGraphGenerator.Family.SCALE_FREE, 3_000, 4, 9L).toGraph();
+        Graph relabeled = Relabeling.of(dag, Relabeling.Strategy.TOPOLOGICAL).getGraph();
+        for (Graph.Edge edge : relabeled.getEdges()) {
+            assertTrue(edge.from < edge.to, edge.toString());
+        }
+    }
+
+    @Test
+    void testLocalityOrdersShrinkBandwidth() {
+        Graph chain = shuffledChain(5_000);
+        assertTrue(bandwidth(chain) > 1_000);
+        assertEquals(1, bandwidth(Relabeling.of(chain, Relabeling.Strategy.RCM).getGraph()));
+        assertEquals(1, bandwidth(Relabeling.of(chain, Relabeling.Strategy.BFS).getGraph()));
+        assertEquals(1, bandwidth(Relabeling.of(chain, Relabeling.Strategy.TOPOLOGICAL).getGraph()));
+    }
+
+    @Test
+    void testMapBackHelpers() {
+        Graph graph = new Graph(3);
+        graph.addEdge(2, 1, 4);
+        graph.addEdge(1, 0, 5);
+        Relabeling relabeling = Relabeling.of(graph, new int[] {2, 1, 0});
+
+        assertArrayEquals(new int[] {2, 1, 0}, relabeling.getPermutation());
+        assertTrue(relabeling.getGraph().hasEdge(0, 1));
+        assertEquals(List.of(2, 1, 0), relabeling.mapBack(List.of(0, 1, 2)));
+        assertArrayEquals(new int[] {30, 20, 10}, relabeling.mapBack(new int[] {10, 20, 30}));
+        assertThrows(IllegalArgumentException.class, () -> Relabeling.of(graph, new int[] {0, 0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> Relabeling.Strategy.forName("random"));
+    }
+}
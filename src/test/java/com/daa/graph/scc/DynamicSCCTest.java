@@ -0,0 +1,154 @@
+package com.daa.graph.scc;
+
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicSCCTest {
+
+    @Test
+    void testClosingCycleMergesComponents() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+
+        DynamicSCC dynamic = new DynamicSCC(graph);
+        assertEquals(5, dynamic.getComponentCount());
+        assertEquals(0, dynamic.addEdge(0, 4, 1)); // agrees with the order
+        assertEquals(0, dynamic.getLastSearchedComponents());
+
+        assertEquals(3, dynamic.addEdge(3, 1, 1));
+        assertEquals(3, dynamic.getComponentCount());
+        int merged = dynamic.getComponent(1);
+        assertEquals(merged, dynamic.getComponent(2));
+        assertEquals(merged, dynamic.getComponent(3));
+        assertEquals(Set.of(1, 2, 3), new HashSet<>(dynamic.getMembers(merged)));
+        assertEquals(Set.of(dynamic.getComponent(4)), dynamic.getSuccessors(merged));
+        assertEquals(List.of(0, merged, 4), dynamic.getTopologicalOrder());
+        assertTrue(graph.hasEdge(3, 1));
+    }
+
+    @Test
+    void testMatchesFullRecomputationUnderRandomInsertions() {
+        int n = 60;
+        Random random = new Random(11);
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 40; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        DynamicSCC dynamic = new DynamicSCC(graph);
+
+        for (int step = 0; step < 150; step++) {
+            dynamic.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+            List<List<Integer>> expected = scc.findSCCs();
+            assertEquals(expected.size(), dynamic.getComponentCount());
+            for (List<Integer> component : expected) {
+                int rep = dynamic.getComponent(component.get(0));
+                for (int v : component) {
+                    assertEquals(rep, dynamic.getComponent(v));
+                }
+                assertEquals(component.size(), dynamic.getMembers(rep).size());
+            }
+
+            // The maintained order must be a topological order of the condensation.
+            Map<Integer, Integer> rank = new HashMap<>();
+            List<Integer> order = dynamic.getTopologicalOrder();
+            for (int i = 0; i < order.size(); i++) {
+                rank.put(order.get(i), i);
+            }
+            for (Graph.Edge edge : graph.getEdges()) {
+                int from = dynamic.getComponent(edge.from);
+                int to = dynamic.getComponent(edge.to);
+                if (from != to) {
+                    assertTrue(rank.get(from) < rank.get(to));
+                    assertTrue(dynamic.getSuccessors(from).contains(to));
+                }
+            }
+            assertEquals(scc.buildCondensationGraph().getEdges().size(),
+                dynamic.buildCondensationGraph().getEdges().size());
+        }
+    }
+
+    @Test
+    void testCondensationWeightsMatchFullRecomputation() {
+        for (Graph.DuplicateEdgePolicy policy : Graph.DuplicateEdgePolicy.values()) {
+            assertCondensationMatchesUnderInsertions(policy);
+        }
+    }
+
+    private static void assertCondensationMatchesUnderInsertions(Graph.DuplicateEdgePolicy policy) {
+        int n = 40;
+        Random random = new Random(5);
+        Graph graph = new Graph(n, policy);
+        for (int i = 0; i < 30; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        DynamicSCC dynamic = new DynamicSCC(graph);
+
+        for (int step = 0; step < 100; step++) {
+            // Parallel edges with other weights land between the same components, and on
+            // KEEP_MIN or KEEP_MAX graphs some insertions replace the weight of an edge.
+            dynamic.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+            List<List<Integer>> expectedSccs = scc.findSCCs();
+            Graph expected = scc.buildCondensationGraph();
+            List<List<Integer>> actualSccs = dynamic.getSCCs();
+            Graph actual = dynamic.buildCondensationGraph();
+
+            int[] actualId = new int[n];
+            for (int c = 0; c < actualSccs.size(); c++) {
+                for (int v : actualSccs.get(c)) {
+                    actualId[v] = c;
+                }
+            }
+            Set<String> expectedEdges = new HashSet<>();
+            for (Graph.Edge edge : expected.getEdges()) {
+                int from = actualId[expectedSccs.get(edge.from).get(0)];
+                int to = actualId[expectedSccs.get(edge.to).get(0)];
+                expectedEdges.add(from + "->" + to + ":" + edge.weight);
+            }
+            Set<String> actualEdges = new HashSet<>();
+            for (Graph.Edge edge : actual.getEdges()) {
+                actualEdges.add(edge.from + "->" + edge.to + ":" + edge.weight);
+            }
+            assertEquals(expectedEdges, actualEdges, policy + " after step " + step);
+            assertEquals(expected.getEdges().size(), actual.getEdges().size());
+        }
+    }
+
+    @Test
+    void testSearchStaysInsideOrderWindow() {
+        int n = 2000;
+        Graph graph = new Graph(n);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        DynamicSCC dynamic = new DynamicSCC(graph);
+
+        assertEquals(4, dynamic.addEdge(1003, 1000, 1));
+        assertTrue(dynamic.getLastSearchedComponents() <= 8);
+        assertEquals(n - 3, dynamic.getComponentCount());
+        List<List<Integer>> sccs = dynamic.getSCCs();
+        assertEquals(List.of(1000, 1001, 1002, 1003), sorted(sccs.get(1000)));
+
+        Graph condensation = dynamic.buildCondensationGraph();
+        assertEquals(n - 4, condensation.getEdges().size());
+        assertTrue(condensation.hasEdge(999, 1000));
+        assertTrue(condensation.hasEdge(1000, 1001));
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        List<Integer> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+}
@@ -1,6 +1,7 @@
 package com.daa.graph.scc;
 
 import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
 import com.daa.graph.util.Metrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +16,7 @@ public class StronglyConnectedComponentsTest {
 
     @BeforeEach
     void setUp() {
-        metrics = new Metrics();
+        metrics = new BasicMetrics();
     }
 
     @Test
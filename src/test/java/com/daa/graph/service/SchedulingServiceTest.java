@@ -0,0 +1,129 @@
+package com.daa.graph.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulingServiceTest {
+    private static final String CYCLE_GRAPH = "{\"tasks\":["
+        + "{\"id\":0,\"duration\":2,\"dependencies\":[2]},"
+        + "{\"id\":1,\"duration\":3,\"dependencies\":[0]},"
+        + "{\"id\":2,\"duration\":4,\"dependencies\":[1]},"
+        + "{\"id\":3,\"duration\":5,\"dependencies\":[2]}]}";
+
+    private SchedulingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new SchedulingService(2, 8);
+        service.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+            new URL("http://localhost:" + service.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testAnalyze() throws IOException {
+        Response response = request("POST", "/analyze", CYCLE_GRAPH);
+        assertEquals(200, response.status);
+
+        JsonObject json = JsonParser.parseString(response.body).getAsJsonObject();
+        assertEquals(4, json.get("vertices").getAsInt());
+        assertEquals(2, json.get("sccCount").getAsInt());
+        int cycle = json.getAsJsonArray("vertexToScc").get(0).getAsInt();
+        assertEquals(cycle, json.getAsJsonArray("vertexToScc").get(1).getAsInt());
+        assertEquals(cycle, json.getAsJsonArray("vertexToScc").get(2).getAsInt());
+        // The cycle's condensed duration is its longest task (4), then task 3 (5).
+        assertEquals(9, json.get("criticalPathLength").getAsInt());
+    }
+
+    @Test
+    void testDeepGraph() throws IOException {
+        // A chain this long overflows a default worker stack under a recursive DFS.
+        int n = 200_000;
+        StringBuilder graph = new StringBuilder("{\"tasks\":[{\"id\":0,\"duration\":1,\"dependencies\":[]}");
+        for (int v = 1; v < n; v++) {
+            graph.append(",{\"id\":").append(v).append(",\"duration\":1,\"dependencies\":[").append(v - 1).append("]}");
+        }
+        Response response = request("POST", "/analyze", graph.append("]}").toString());
+        assertEquals(200, response.status, response.body);
+
+        JsonObject json = JsonParser.parseString(response.body).getAsJsonObject();
+        assertEquals(n, json.get("sccCount").getAsInt());
+        assertEquals(n, json.get("criticalPathLength").getAsInt());
+    }
+
+    @Test
+    void testErrors() throws IOException {
+        assertEquals(400, request("POST", "/analyze", "{\"tasks\": [").status);
+        assertEquals(405, request("GET", "/analyze", null).status);
+    }
+
+    @Test
+    void testConcurrentRequestsAndMetrics() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(clients.submit(() -> request("POST", "/analyze", CYCLE_GRAPH)));
+            }
+            for (Future<Response> future : futures) {
+                Response response = future.get();
+                assertEquals(200, response.status);
+                int batchSize = JsonParser.parseString(response.body).getAsJsonObject().get("batchSize").getAsInt();
+                assertTrue(batchSize >= 1 && batchSize <= 8);
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertEquals(40, service.getLatency("analysis").getCount());
+        Response metrics = request("GET", "/metrics", null);
+        assertEquals(200, metrics.status);
+        assertTrue(metrics.body.contains("daa_phase_latency_seconds_count{phase=\"analysis\"} 40"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.daa.graph.shard;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedAnalysisTest {
+
+    @Test
+    void testThreadWorkersMatchSingleProcessAnalysis() throws IOException {
+        Random random = new Random(41);
+        try (ShardedAnalysis sharded = new ShardedAnalysis(4, ShardedAnalysis.Mode.THREAD)) {
+            sharded.start();
+            for (int trial = 0; trial < 5; trial++) {
+                int n = 400;
+                Graph graph = new Graph(n);
+                for (int v = 0; v < n; v++) {
+                    graph.setNodeDuration(v, 1 + random.nextInt(20));
+                }
+                for (int i = 0; i < 700; i++) {
+                    int u = random.nextInt(n);
+                    int v = random.nextInt(n);
+                    // Mostly forward edges with a few back edges closing cycles across shards.
+                    if (random.nextInt(10) == 0) {
+                        graph.addEdge(Math.max(u, v), Math.min(u, v), 1);
+                    } else {
+                        graph.addEdge(Math.min(u, v), Math.max(u, v), 1);
+                    }
+                }
+                assertMatches(graph, sharded.analyze(graph));
+            }
+        }
+    }
+
+    @Test
+    void testCycleThroughEveryShard() throws IOException {
+        int n = 100;
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n; v++) {
+            graph.setNodeDuration(v, 1);
+        }
+        for (int v = 0; v + 1 < 50; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        graph.addEdge(49, 0, 1);
+        for (int v = 50; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        graph.addEdge(10, 50, 1);
+
+        try (ShardedAnalysis sharded = new ShardedAnalysis(5, ShardedAnalysis.Mode.THREAD)) {
+            sharded.start();
+            ShardedAnalysis.Result result = sharded.analyze(graph);
+            assertEquals(51, result.componentCount);
+            assertEquals(result.vertexToScc[0], result.vertexToScc[49]);
+            assertEquals(1 + 50, result.criticalPathLength); // the cycle counts its longest member once
+            assertEquals(51, result.criticalPath.size());
+            assertMatches(graph, result);
+        }
+    }
+
+    @Test
+    void testProcessWorkers() throws IOException {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        graph.addEdge(4, 5, 1);
+        for (int v = 0; v < 6; v++) {
+            graph.setNodeDuration(v, v + 1);
+        }
+
+        try (ShardedAnalysis sharded = new ShardedAnalysis(2, ShardedAnalysis.Mode.PROCESS)) {
+            sharded.start();
+            ShardedAnalysis.Result result = sharded.analyze(graph);
+            assertEquals(3, result.componentCount);
+            assertEquals(List.of(0, 1, 2), result.criticalPath);
+            assertEquals(3 + 5 + 6, result.criticalPathLength);
+        }
+    }
+
+    @Test
+    void testConnectionsWithoutTokenAreDropped() throws Exception {
+        try (ShardedAnalysis sharded = new ShardedAnalysis(1, ShardedAnalysis.Mode.THREAD)) {
+            int port = sharded.listen();
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            try (Socket silent = new Socket(loopback, port);
+                 Socket stranger = new Socket(loopback, port)) {
+                silent.close();
+                new DataOutputStream(stranger.getOutputStream()).writeLong(42);
+                assertThrows(SocketTimeoutException.class,
+                    () -> sharded.acceptWorker(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500)));
+                // The stranger was rejected, so its connection is closed from our side.
+                assertEquals(-1, stranger.getInputStream().read());
+            }
+        }
+    }
+
+    @Test
+    void testStartCanBeRetriedAfterClose() throws IOException {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        try (ShardedAnalysis sharded = new ShardedAnalysis(2, ShardedAnalysis.Mode.THREAD)) {
+            sharded.listen();
+            assertThrows(SocketTimeoutException.class, () -> sharded.acceptWorker(System.nanoTime()));
+            sharded.close();
+            sharded.start();
+            assertEquals(3, sharded.analyze(graph).componentCount);
+        }
+    }
+
+    private static void assertMatches(Graph graph, ShardedAnalysis.Result result) {
+        List<List<Integer>> sccs = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE).findSCCs();
+        assertEquals(sccs.size(), result.componentCount);
+        for (List<Integer> component : sccs) {
+            for (int v : component) {
+                assertEquals(result.vertexToScc[component.get(0)], result.vertexToScc[v]);
+            }
+        }
+
+        Graph condensation = result.condensation;
+        int[] position = new int[result.componentCount];
+        for (int i = 0; i < result.topologicalOrder.length; i++) {
+            position[result.topologicalOrder[i]] = i;
+        }
+        for (Graph.Edge edge : graph.getEdges()) {
+            int u = result.vertexToScc[edge.from];
+            int v = result.vertexToScc[edge.to];
+            if (u != v) {
+                assertTrue(condensation.hasEdge(u, v));
+                assertTrue(position[u] < position[v]);
+                assertTrue(result.levels[u] < result.levels[v]);
+            }
+        }
+
+        int[] expected = new DAGShortestPath(condensation, NoOpMetrics.INSTANCE).longestPaths();
+        assertArrayEquals(expected, result.longestDistances);
+        assertEquals(Arrays.stream(expected).max().orElse(0), result.criticalPathLength);
+        int total = 0;
+        for (int c : result.criticalPath) {
+            total += condensation.getNodeDuration(c);
+        }
+        assertEquals(result.criticalPathLength, total);
+    }
+}
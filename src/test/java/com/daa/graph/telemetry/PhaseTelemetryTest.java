@@ -0,0 +1,131 @@
+package com.daa.graph.telemetry;
+
+import com.daa.graph.topo.TopologicalSort;
+import com.daa.graph.util.Graph;
+import com.daa.graph.util.BasicMetrics;
+import com.daa.graph.util.Metrics;
+import com.daa.graph.util.PhaseTimer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseTelemetryTest {
+
+    @Test
+    void testHistogramPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(1_000 + random.nextInt(1_000_000));
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        long median = histogram.getPercentile(50);
+        assertTrue(Math.abs(median - 501_000) < 501_000 * 0.03, "median " + median);
+        assertTrue(histogram.getPercentile(99) <= histogram.getMax());
+        assertTrue(histogram.getPercentile(0) >= histogram.getMin());
+    }
+
+    @Test
+    void testBucketsAreMonotonic() {
+        int previous = -1;
+        for (long v = 0; v < 1 << 20; v += 7) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+        }
+        assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) >= previous);
+    }
+
+    @Test
+    void testDumpFormats() throws IOException {
+        PhaseTelemetry telemetry = new PhaseTelemetry();
+        telemetry.record("scc/dfs1", 1_500);
+        telemetry.record("scc/dfs1", 2_500);
+
+        StringWriter json = new StringWriter();
+        telemetry.writeJson(json);
+        assertTrue(json.toString().contains("\"scc/dfs1\""));
+        assertTrue(json.toString().contains("\"count\": 2"));
+
+        StringWriter prom = new StringWriter();
+        telemetry.writePrometheus(prom);
+        assertTrue(prom.toString().contains("daa_phase_latency_seconds_count{phase=\"scc/dfs1\"} 2"));
+        assertTrue(prom.toString().contains("quantile=\"0.99\""));
+    }
+
+    @Test
+    void testEmitsFlightRecorderEvents(@TempDir Path dir) throws IOException {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        PhaseTelemetry telemetry = new PhaseTelemetry();
+        PhaseTimer timer = new PhaseTimer();
+        timer.addListener(telemetry);
+        Metrics metrics = new BasicMetrics();
+        metrics.setPhaseTimer(timer);
+
+        Path file = dir.resolve("phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.class);
+            recording.start();
+            new TopologicalSort(graph, metrics).kahnTopologicalSort();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent event = events.stream()
+            .filter(e -> e.getEventType().getName().equals("com.daa.graph.Phase"))
+            .findFirst().orElseThrow();
+        assertEquals("topo", event.getString("phase"));
+        assertEquals(3, event.getInt("vertices"));
+        assertEquals(3, event.getLong("kahnPops"));
+        assertEquals(1, telemetry.getHistogram("topo").getCount());
+    }
+
+    @Test
+    void testEventsSpanTheirPhase(@TempDir Path dir) throws Exception {
+        PhaseTelemetry telemetry = new PhaseTelemetry();
+        PhaseTimer timer = new PhaseTimer();
+        timer.addListener(telemetry);
+
+        Path file = dir.resolve("nested.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            PhaseTimer.Span outer = timer.start("outer");
+            PhaseTimer.Span inner = timer.start("inner");
+            Thread.sleep(20);
+            inner.close();
+            outer.close();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> byPhase = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("com.daa.graph.Phase")) {
+                byPhase.put(event.getString("phase"), event);
+            }
+        }
+        RecordedEvent outerEvent = byPhase.get("outer");
+        RecordedEvent innerEvent = byPhase.get("outer/inner");
+        assertTrue(innerEvent.getDuration().toMillis() >= 15, innerEvent.getDuration().toString());
+        assertFalse(innerEvent.getStartTime().isBefore(outerEvent.getStartTime()));
+        assertFalse(innerEvent.getEndTime().isAfter(outerEvent.getEndTime()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.daa.graph.util;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.dagsp.StaticDagPaths;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGraphTest {
+
+    private static List<Long> sortedEdges(StaticGraph graph, int vertex) {
+        List<Long> edges = new ArrayList<>();
+        StaticGraph.EdgeCursor cursor = graph.cursor();
+        for (cursor.moveTo(vertex); cursor.next(); ) {
+            edges.add(((long) cursor.target() << 32) | (cursor.weight() & 0xffffffffL));
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    @Test
+    void testRoundTrip() {
+        Random random = new Random(2);
+        int n = 3_000;
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 20_000; i++) {
+            // Far and near targets, parallel edges, self loops and negative weights.
+            int from = random.nextInt(n);
+            int to = random.nextBoolean() ? random.nextInt(n) : Math.min(n - 1, from + random.nextInt(3));
+            graph.addEdge(from, to, random.nextInt(2_000_000) - 1_000_000);
+        }
+        graph.setNodeDuration(7, 123);
+
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        CompressedGraph compressed = CompressedGraph.fromGraph(graph);
+        assertEquals(csr.getNumEdges(), compressed.getNumEdges());
+        assertEquals(123, compressed.getNodeDuration(7));
+        for (int v = 0; v < n; v++) {
+            assertEquals(csr.getOutDegree(v), compressed.getOutDegree(v));
+            assertEquals(sortedEdges(csr, v), sortedEdges(compressed, v), "vertex " + v);
+        }
+    }
+
+    @Test
+    void testPathsMatchAdjacencyListGraph() throws IOException {
+        for (ScalableGraphGenerator.Family family : ScalableGraphGenerator.Family.values()) {
+            Graph graph = new ScalableGraphGenerator(family, 2_000, 4, 13L).toGraph();
+            Graph dag = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE).buildCondensationGraph();
+            DAGShortestPath expected = new DAGShortestPath(dag, NoOpMetrics.INSTANCE);
+
+            for (StaticGraph flat : List.of(CsrGraph.fromGraph(dag), CompressedGraph.fromGraph(dag))) {
+                StaticDagPaths paths = new StaticDagPaths(flat);
+                assertArrayEquals(expected.longestPaths(), paths.longestPaths(), family.name());
+                assertArrayEquals(expected.shortestPathsFromSource(0), paths.shortestPathsFromSource(0), family.name());
+                DAGShortestPath.CriticalPathResult critical = paths.findCriticalPath();
+                assertEquals(expected.findCriticalPath().length, critical.length, family.name());
+                assertEquals(flat.getNodeDuration(critical.path.get(0)), paths.longestPaths()[critical.path.get(0)]);
+            }
+        }
+    }
+
+    @Test
+    void testCompressionRatio() throws IOException {
+        Graph graph = new ScalableGraphGenerator(ScalableGraphGenerator.Family.LAYERED_DAG, 20_000, 4, 13L).toGraph();
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        CompressedGraph compressed = CompressedGraph.fromStatic(csr);
+        // CSR spends 8 bytes per edge on targets and weights.
+        assertTrue(compressed.getEncodedBytes() * 2L < 8L * csr.getNumEdges(),
+            compressed.getEncodedBytes() + " bytes for " + csr.getNumEdges() + " edges");
+    }
+}
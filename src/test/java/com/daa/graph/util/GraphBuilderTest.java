@@ -0,0 +1,102 @@
+package com.daa.graph.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphBuilderTest {
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getNumVertices(), actual.getNumVertices());
+        assertEquals(expected.getEdges().size(), actual.getEdges().size());
+        for (int v = 0; v < expected.getNumVertices(); v++) {
+            assertEquals(expected.getNodeDuration(v), actual.getNodeDuration(v));
+            List<Graph.Edge> a = expected.getOutgoingEdges(v);
+            List<Graph.Edge> b = actual.getOutgoingEdges(v);
+            assertEquals(a.size(), b.size(), "out-degree of " + v);
+            for (int i = 0; i < a.size(); i++) {
+                assertEquals(a.get(i).to, b.get(i).to);
+                assertEquals(a.get(i).weight, b.get(i).weight);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesIncrementalConstruction() {
+        // Enough edges for the parallel sort to split the input into several chunks.
+        int n = 1_000;
+        int m = 400_000;
+        Random random = new Random(5);
+        Graph expected = new Graph(n);
+        GraphBuilder builder = new GraphBuilder(n);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+            weight[i] = random.nextInt(10);
+            expected.addEdge(from[i], to[i], weight[i]);
+        }
+        builder.addEdges(from, to, weight, 0, m / 2);
+        for (int i = m / 2; i < m; i++) {
+            builder.addEdge(from[i], to[i], weight[i]);
+        }
+        expected.setNodeDuration(3, 7);
+        builder.setNodeDuration(3, 7);
+
+        Graph built = builder.build();
+        assertSameGraph(expected, built);
+        assertSameGraph(expected, CsrGraph.fromGraph(expected).toGraph());
+        Graph reversed = new Graph(n);
+        for (Graph.Edge edge : expected.getEdges()) {
+            reversed.addEdge(edge.to, edge.from, edge.weight);
+        }
+        reversed.setNodeDuration(3, 7);
+        assertSameGraph(reversed, expected.getReversed());
+
+        // The built graph is an ordinary mutable graph.
+        built.addEdge(0, 1, 1);
+        assertTrue(built.hasEdge(0, 1));
+        assertEquals(m + 1, built.getEdges().size());
+    }
+
+    @Test
+    void testCsr() {
+        GraphBuilder builder = new GraphBuilder(4);
+        builder.addEdge(2, 3, 5);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(2, 0, 6);
+        builder.setNodeDuration(2, 9);
+        CsrGraph csr = builder.buildCsr();
+
+        assertEquals(4, csr.getNumVertices());
+        assertEquals(3, csr.getNumEdges());
+        assertEquals(0, csr.getOutDegree(1));
+        assertEquals(2, csr.getOutDegree(2));
+        int e = csr.getEdgeStart(2);
+        assertEquals(3, csr.getTarget(e));
+        assertEquals(6, csr.getWeight(e + 1));
+        assertEquals(csr.getEdgeEnd(2), csr.getNumEdges());
+        assertEquals(9, csr.getNodeDuration(2));
+    }
+
+    @Test
+    void testDuplicatePolicyAndValidation() {
+        GraphBuilder builder = new GraphBuilder(3, 4, Graph.DuplicateEdgePolicy.KEEP_MAX);
+        builder.addEdge(0, 1, 2);
+        builder.addEdge(0, 1, 8);
+        builder.addEdge(0, 1, 4);
+        Graph graph = builder.build();
+        assertEquals(1, graph.getEdges().size());
+        assertEquals(8, graph.getEdges().get(0).weight);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 3, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> builder.addEdges(new int[] {0, -1}, new int[] {1, 1}, new int[] {1, 1}, 0, 2));
+        assertEquals(3, builder.getNumEdges());
+    }
+}
@@ -0,0 +1,102 @@
+package com.daa.graph.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphStreamsTest {
+    private static final String JSON =
+        "{\"tasks\":[{\"id\":0,\"duration\":3,\"dependencies\":[]},"
+        + "{\"id\":1,\"duration\":4,\"dependencies\":[0]},"
+        + "{\"id\":2,\"duration\":5,\"dependencies\":[0,1]}]}";
+
+    private static byte[] compress(GraphStreams.Compression compression) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = GraphStreams.wrapOutput(bytes, compression)) {
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testDetectsCompressionFromMagicBytes() throws IOException {
+        byte[] gzip = compress(GraphStreams.Compression.GZIP);
+        byte[] zstd = compress(GraphStreams.Compression.ZSTD);
+        byte[] plain = compress(GraphStreams.Compression.NONE);
+
+        assertEquals(GraphStreams.Compression.GZIP, GraphStreams.Compression.detect(gzip, gzip.length));
+        assertEquals(GraphStreams.Compression.ZSTD, GraphStreams.Compression.detect(zstd, zstd.length));
+        assertEquals(GraphStreams.Compression.NONE, GraphStreams.Compression.detect(plain, plain.length));
+    }
+
+    @Test
+    void testLoadsCompressedStreams() throws IOException {
+        for (GraphStreams.Compression compression : GraphStreams.Compression.values()) {
+            Graph graph = TaskGraphLoader.loadGraph(new ByteArrayInputStream(compress(compression)));
+
+            assertEquals(3, graph.getNumVertices());
+            assertEquals(3, graph.getEdges().size());
+            assertEquals(5, graph.getNodeDuration(2));
+            assertTrue(graph.hasEdge(1, 2));
+        }
+    }
+
+    @Test
+    void testPipelinedStreamReadsLargeInput() throws IOException {
+        byte[] data = new byte[1 << 20];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = GraphStreams.wrapOutput(bytes, GraphStreams.Compression.GZIP)) {
+            out.write(data);
+        }
+
+        try (InputStream in = GraphStreams.wrapInput(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testPipelinedStreamRethrowsUncheckedDecompressorFailure() throws IOException {
+        // A source that yields some data and then fails with an unchecked exception,
+        // as a decompressor does on corrupt input.
+        InputStream failing = new InputStream() {
+            private int remaining = 100_000;
+
+            @Override
+            public int read() {
+                if (remaining == 0) {
+                    throw new IllegalStateException("corrupt frame");
+                }
+                remaining--;
+                return 7;
+            }
+        };
+
+        try (InputStream in = new GraphStreams.PipelinedInputStream(failing)) {
+            IOException e = assertThrows(IOException.class, in::readAllBytes);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testGeneratorWritesCompressedFiles(@TempDir Path dir) throws IOException {
+        String gz = dir.resolve("dag.json.gz").toString();
+        String zst = dir.resolve("dag.json.zst").toString();
+        DatasetGenerator.generateDataset(gz, 10, DatasetGenerator.GraphType.SINGLE_CYCLE);
+        DatasetGenerator.generateDataset(zst, 10, DatasetGenerator.GraphType.SINGLE_CYCLE);
+
+        assertEquals(10, TaskGraphLoader.loadGraph(gz).getNumVertices());
+        assertEquals(10, TaskGraphLoader.loadGraph(zst).getNumVertices());
+    }
+}
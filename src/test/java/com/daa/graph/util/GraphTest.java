@@ -0,0 +1,114 @@
+package com.daa.graph.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphTest {
+
+    @Test
+    void testDuplicatePolicies() {
+        Graph allow = new Graph(2);
+        Graph first = new Graph(2, Graph.DuplicateEdgePolicy.KEEP_FIRST);
+        Graph min = new Graph(2, Graph.DuplicateEdgePolicy.KEEP_MIN);
+        Graph max = new Graph(2, Graph.DuplicateEdgePolicy.KEEP_MAX);
+        for (Graph graph : List.of(allow, first, min, max)) {
+            graph.addEdge(0, 1, 5);
+            graph.addEdge(0, 1, 2);
+            graph.addEdge(0, 1, 9);
+        }
+
+        assertEquals(3, allow.getEdges().size());
+        assertEquals(1, first.getEdges().size());
+        assertEquals(5, first.getOutgoingEdges(0).get(0).weight);
+        assertEquals(2, min.getOutgoingEdges(0).get(0).weight);
+        assertEquals(9, max.getEdges().get(0).weight);
+        assertFalse(max.addEdge(0, 1, 3));
+
+        // A released index is rebuilt when the policy next needs it.
+        first.releaseEdgeIndex();
+        assertFalse(first.addEdge(0, 1, 7));
+        assertTrue(first.addEdge(1, 0, 7));
+        assertEquals(2, first.getEdges().size());
+    }
+
+    @Test
+    void testEdgeCountTracksMutations() {
+        Graph graph = new Graph(3, Graph.DuplicateEdgePolicy.KEEP_MIN);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 1);
+        assertEquals(2, graph.getNumEdges());
+        graph.removeEdge(0, 1);
+        graph.removeEdge(0, 1);
+        assertEquals(1, graph.getNumEdges());
+
+        GraphBuilder builder = new GraphBuilder(3, 2, Graph.DuplicateEdgePolicy.ALLOW);
+        builder.addEdges(new int[] {0, 1}, new int[] {1, 2}, new int[] {1, 1}, 0, 2);
+        Graph built = builder.build();
+        assertEquals(2, built.getNumEdges());
+        built.addEdge(2, 0, 1);
+        assertEquals(3, built.getNumEdges());
+        assertEquals(built.getEdges().size(), built.getNumEdges());
+    }
+
+    @Test
+    void testHubVertexIndex() {
+        int n = 50_000;
+        Graph graph = new Graph(n);
+        for (int v = 1; v < n; v += 2) {
+            graph.addEdge(0, v, 1);
+        }
+
+        // Without an index the adjacency list is scanned.
+        assertTrue(graph.hasEdge(0, n - 1));
+        assertFalse(graph.hasEdge(0, 2));
+
+        graph.buildEdgeIndex();
+        assertTrue(graph.hasEdge(0, 1));
+        assertTrue(graph.hasEdge(0, n - 1));
+        assertFalse(graph.hasEdge(0, 2));
+        assertFalse(graph.hasEdge(1, 0));
+
+        // The index follows later mutations.
+        graph.addEdge(0, 2, 1);
+        assertTrue(graph.hasEdge(0, 2));
+        assertNotNull(graph.removeEdge(0, 1));
+        assertFalse(graph.hasEdge(0, 1));
+        assertNull(graph.removeEdge(0, 1));
+    }
+
+    @Test
+    void testIndexMatchesAdjacencyUnderRandomMutations() {
+        int n = 40;
+        Random random = new Random(3);
+        Graph graph = new Graph(n, Graph.DuplicateEdgePolicy.KEEP_MIN);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            long key = (long) u * n + v;
+            if (random.nextInt(3) == 0) {
+                Graph.Edge removed = graph.removeEdge(u, v);
+                assertEquals(expected.remove(key), removed == null ? null : removed.weight);
+            } else {
+                int weight = random.nextInt(100);
+                graph.addEdge(u, v, weight);
+                expected.merge(key, weight, Math::min);
+            }
+        }
+
+        assertEquals(expected.size(), graph.getEdges().size());
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                assertEquals(expected.containsKey((long) u * n + v), graph.hasEdge(u, v));
+            }
+            for (Graph.Edge edge : graph.getOutgoingEdges(u)) {
+                assertEquals(expected.get((long) u * n + edge.to).intValue(), edge.weight);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.daa.graph.util;
+
+import com.daa.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @Test
+    void testCountersDoNotOverflowInt() {
+        Metrics metrics = new BasicMetrics();
+        metrics.addEdgeTraversals(Integer.MAX_VALUE);
+        metrics.incrementEdgeTraversals();
+
+        assertEquals(Integer.MAX_VALUE + 1L, metrics.getEdgeTraversals());
+    }
+
+    @Test
+    void testNoOpRecordsNothing() {
+        Metrics metrics = NoOpMetrics.INSTANCE;
+        metrics.incrementDfsVisits();
+        metrics.addRelaxations(10);
+
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.getDfsVisits());
+        assertEquals(0, metrics.getRelaxations());
+    }
+
+    @Test
+    void testConcurrentIncrements() throws InterruptedException {
+        Metrics metrics = new ConcurrentMetrics();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.incrementDfsVisits();
+                    metrics.incrementEdgeTraversals();
+                    metrics.incrementKahnPops();
+                    metrics.incrementKahnPushes();
+                    metrics.incrementRelaxations();
+                    metrics.addDfsVisits(2);
+                    metrics.addEdgeTraversals(2);
+                    metrics.addKahnPops(2);
+                    metrics.addKahnPushes(2);
+                    metrics.addRelaxations(2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2_400_000, metrics.getDfsVisits());
+        assertEquals(2_400_000, metrics.getEdgeTraversals());
+        assertEquals(2_400_000, metrics.getKahnPops());
+        assertEquals(2_400_000, metrics.getKahnPushes());
+        assertEquals(2_400_000, metrics.getRelaxations());
+        metrics.reset();
+        assertEquals(0, metrics.getEdgeTraversals());
+    }
+
+    @Test
+    void testBatchedKahnCountsMatchSort() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 3, 1);
+        Metrics metrics = new BasicMetrics();
+        new TopologicalSort(graph, metrics).kahnTopologicalSort();
+
+        assertEquals(4, metrics.getKahnPops());
+        assertEquals(4, metrics.getKahnPushes());
+    }
+}
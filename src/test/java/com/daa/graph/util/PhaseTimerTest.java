@@ -0,0 +1,88 @@
+package com.daa.graph.util;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseTimerTest {
+
+    @Test
+    @SuppressWarnings("try")
+    void testNestedSpansAreRecordedByPath() {
+        PhaseTimer timer = new PhaseTimer();
+        try (PhaseTimer.Span outer = timer.start("outer")) {
+            try (PhaseTimer.Span inner = timer.start("inner")) {
+                assertNotNull(inner);
+            }
+        }
+
+        assertEquals(1, timer.getStats("outer").getCount());
+        assertEquals(1, timer.getStats("outer/inner").getCount());
+        assertTrue(timer.getStats("outer").getMinNs() >= timer.getStats("outer/inner").getMinNs());
+        assertEquals(List.of("outer", "outer/inner"), new ArrayList<>(timer.getAllStats().keySet()));
+    }
+
+    @Test
+    void testRepeatedRunsAggregate() {
+        PhaseTimer timer = new PhaseTimer();
+        for (int i = 0; i < 100; i++) {
+            try (PhaseTimer.Span span = timer.start("phase")) {
+                assertNotNull(span);
+            }
+        }
+
+        PhaseTimer.PhaseStats stats = timer.getStats("phase");
+        assertEquals(100, stats.getCount());
+        assertTrue(stats.getMinNs() <= stats.getMedianNs());
+        assertTrue(stats.getMedianNs() <= stats.getP99Ns());
+        assertTrue(stats.getP99Ns() <= stats.getMaxNs());
+    }
+
+    @Test
+    void testStatsKeepPercentilesInFixedMemory() {
+        PhaseTimer.PhaseStats stats = new PhaseTimer.PhaseStats(0);
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            stats.record(nanos * 1000, 0);
+        }
+
+        assertEquals(1_000_000, stats.getCount());
+        assertEquals(1000, stats.getMinNs());
+        assertEquals(1_000_000_000L, stats.getMaxNs());
+        assertEquals(500_000_000L, stats.getMedianNs(), 500_000_000L * 0.016);
+        assertEquals(990_000_000L, stats.getP99Ns(), 990_000_000L * 0.016);
+    }
+
+    @Test
+    void testOutOfOrderCloseFails() {
+        PhaseTimer timer = new PhaseTimer();
+        PhaseTimer.Span outer = timer.start("outer");
+        timer.start("inner");
+
+        assertThrows(IllegalStateException.class, outer::close);
+    }
+
+    @Test
+    void testAlgorithmPhasesAndElapsedTime() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(1, 2, 1);
+        PhaseTimer timer = new PhaseTimer();
+        Metrics metrics = new BasicMetrics();
+        metrics.setPhaseTimer(timer);
+
+        long before = System.nanoTime();
+        new StronglyConnectedComponents(graph, metrics).findSCCs();
+        long wall = System.nanoTime() - before;
+
+        assertNotNull(timer.getStats("scc/dfs1"));
+        assertNotNull(timer.getStats("scc/reverse"));
+        assertNotNull(timer.getStats("scc/dfs2"));
+        assertTrue(metrics.getElapsedTimeNs() >= 0);
+        assertTrue(metrics.getElapsedTimeNs() <= wall);
+    }
+}
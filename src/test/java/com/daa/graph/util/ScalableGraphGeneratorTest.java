@@ -0,0 +1,63 @@
+package com.daa.graph.util;
+
+import com.daa.graph.scc.StronglyConnectedComponents;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScalableGraphGeneratorTest {
+
+    private static byte[] generate(ScalableGraphGenerator.Family family, int n, int threads,
+                                   ScalableGraphGenerator.Format format) throws IOException {
+        return new ScalableGraphGenerator(family, n, 4, 7L, threads).toBytes(format);
+    }
+
+    private static Graph load(byte[] bytes) throws IOException {
+        return TaskGraphLoader.loadGraph(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    void testOutputIndependentOfThreadCount() throws IOException {
+        for (ScalableGraphGenerator.Family family : ScalableGraphGenerator.Family.values()) {
+            byte[] single = generate(family, 40_000, 1, ScalableGraphGenerator.Format.BINARY);
+            byte[] parallel = generate(family, 40_000, 4, ScalableGraphGenerator.Format.BINARY);
+            assertArrayEquals(single, parallel, family.name());
+        }
+    }
+
+    @Test
+    void testJsonAndBinaryDescribeSameGraph() throws IOException {
+        Graph fromJson = load(generate(ScalableGraphGenerator.Family.SCALE_FREE, 2_000, 2,
+            ScalableGraphGenerator.Format.JSON));
+        Graph fromBinary = load(generate(ScalableGraphGenerator.Family.SCALE_FREE, 2_000, 2,
+            ScalableGraphGenerator.Format.BINARY));
+
+        assertEquals(fromJson.getNumVertices(), fromBinary.getNumVertices());
+        assertEquals(fromJson.getEdges().size(), fromBinary.getEdges().size());
+        for (int v = 0; v < fromJson.getNumVertices(); v++) {
+            assertEquals(fromJson.getNodeDuration(v), fromBinary.getNodeDuration(v));
+            assertEquals(fromJson.getOutgoingEdges(v).size(), fromBinary.getOutgoingEdges(v).size());
+        }
+    }
+
+    @Test
+    void testFamilyStructure() throws IOException {
+        Graph layered = load(generate(ScalableGraphGenerator.Family.LAYERED_DAG, 500, 2,
+            ScalableGraphGenerator.Format.BINARY));
+        assertEquals(500, new StronglyConnectedComponents(layered, new BasicMetrics()).findSCCs().size());
+
+        Graph small = load(generate(ScalableGraphGenerator.Family.SMALL_SCCS, 500, 2,
+            ScalableGraphGenerator.Format.BINARY));
+        List<List<Integer>> smallSccs = new StronglyConnectedComponents(small, new BasicMetrics()).findSCCs();
+        assertEquals(100, smallSccs.size());
+        assertTrue(smallSccs.stream().allMatch(scc -> scc.size() == 5));
+
+        Graph giant = load(generate(ScalableGraphGenerator.Family.GIANT_SCC, 500, 2,
+            ScalableGraphGenerator.Format.BINARY));
+        assertEquals(1, new StronglyConnectedComponents(giant, new BasicMetrics()).findSCCs().size());
+    }
+}
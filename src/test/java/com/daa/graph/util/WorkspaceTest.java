@@ -0,0 +1,128 @@
+package com.daa.graph.util;
+
+import com.daa.graph.dagsp.DAGShortestPath;
+import com.daa.graph.scc.StronglyConnectedComponents;
+import com.daa.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkspaceTest {
+
+    @Test
+    void testResultsMatchListBasedAlgorithms() throws IOException {
+        Workspace workspace = new Workspace();
+        for (ScalableGraphGenerator.Family family : ScalableGraphGenerator.Family.values()) {
+            Graph graph = new ScalableGraphGenerator(family, 3_000, 4, 11L).toGraph();
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+            List<List<Integer>> expected = scc.findSCCs();
+
+            int count = scc.findSCCs(workspace);
+            assertEquals(expected.size(), count, family.name());
+            Map<Integer, Integer> expectedIds = scc.getVertexToScc();
+            Map<Integer, Integer> idMapping = new HashMap<>();
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                Integer previous = idMapping.putIfAbsent(workspace.getComponent(v), expectedIds.get(v));
+                assertTrue(previous == null || previous.equals(expectedIds.get(v)), family.name());
+            }
+
+            Graph dag = scc.buildCondensationGraph();
+            for (Graph.Edge edge : graph.getEdges()) {
+                assertTrue(workspace.getComponent(edge.from) <= workspace.getComponent(edge.to),
+                    "component ids are topologically ordered");
+            }
+
+            TopologicalSort sort = new TopologicalSort(dag, NoOpMetrics.INSTANCE);
+            assertEquals(dag.getNumVertices(), sort.kahnTopologicalSort(workspace));
+            List<Integer> expectedOrder = sort.kahnTopologicalSort();
+            for (int i = 0; i < expectedOrder.size(); i++) {
+                assertEquals(expectedOrder.get(i), workspace.getOrder(i));
+            }
+
+            DAGShortestPath paths = new DAGShortestPath(dag, NoOpMetrics.INSTANCE);
+            int source = expectedOrder.get(0);
+            int[] shortest = paths.shortestPathsFromSource(source);
+            paths.shortestPathsFromSource(source, workspace);
+            for (int v = 0; v < shortest.length; v++) {
+                assertEquals(shortest[v], workspace.getDistance(v));
+            }
+
+            DAGShortestPath.CriticalPathResult critical = paths.findCriticalPath();
+            int end = paths.longestPaths(workspace);
+            assertEquals(critical.length, workspace.getDistance(end));
+            assertEquals(critical.path.get(critical.path.size() - 1).intValue(), end);
+        }
+    }
+
+    @Test
+    void testEpochsResetBetweenQueries() {
+        Graph dag = new Graph(3);
+        dag.addEdge(0, 1, 5);
+        dag.addEdge(1, 2, 5);
+        DAGShortestPath paths = new DAGShortestPath(dag, NoOpMetrics.INSTANCE);
+        Workspace workspace = new Workspace();
+
+        paths.shortestPathsFromSource(0, workspace);
+        assertEquals(10, workspace.getDistance(2));
+        paths.shortestPathsFromSource(1, workspace);
+        assertEquals(Integer.MAX_VALUE, workspace.getDistance(0));
+        assertEquals(-1, workspace.getPredecessor(0));
+        assertEquals(5, workspace.getDistance(2));
+        assertEquals(1, workspace.getPredecessor(2));
+    }
+
+    @Test
+    void testCycleRejected() {
+        Graph cyclic = new Graph(2);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 0, 1);
+        Workspace workspace = new Workspace();
+        TopologicalSort sort = new TopologicalSort(cyclic, NoOpMetrics.INSTANCE);
+
+        assertThrows(IllegalArgumentException.class, () -> sort.kahnTopologicalSort(workspace));
+        assertEquals(0, workspace.getOrderLength());
+    }
+
+    @Test
+    void testSteadyStateQueriesDoNotAllocate() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+
+        Graph graph = new ScalableGraphGenerator(ScalableGraphGenerator.Family.SMALL_SCCS, 5_000, 4, 11L).toGraph();
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph, NoOpMetrics.INSTANCE);
+        Graph dag = scc.buildCondensationGraph();
+        TopologicalSort sort = new TopologicalSort(dag, NoOpMetrics.INSTANCE);
+        DAGShortestPath paths = new DAGShortestPath(dag, NoOpMetrics.INSTANCE);
+        Workspace workspace = new Workspace();
+        for (int i = 0; i < 200; i++) {
+            runQueries(scc, sort, paths, workspace, i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 200; i++) {
+            runQueries(scc, sort, paths, workspace, i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        // Allow for the measurement itself; a single per-query allocation would exceed this.
+        assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+    }
+
+    private static void runQueries(StronglyConnectedComponents scc, TopologicalSort sort,
+                                   DAGShortestPath paths, Workspace workspace, int i) {
+        scc.findSCCs(workspace);
+        int n = sort.kahnTopologicalSort(workspace);
+        paths.shortestPathsFromSource(workspace.getOrder(i % n), workspace);
+        paths.longestPaths(workspace);
+    }
+}